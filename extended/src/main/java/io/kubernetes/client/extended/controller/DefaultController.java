@@ -12,19 +12,37 @@ limitations under the License.
 */
 package io.kubernetes.client.extended.controller;
 
+import io.kubernetes.client.extended.controller.reconciler.AsyncReconciler;
+import io.kubernetes.client.extended.controller.reconciler.BatchReconciler;
 import io.kubernetes.client.extended.controller.reconciler.Reconciler;
 import io.kubernetes.client.extended.controller.reconciler.Request;
 import io.kubernetes.client.extended.controller.reconciler.Result;
+import io.kubernetes.client.extended.leaderelection.ShardedLeaderElector;
 import io.kubernetes.client.extended.wait.Wait;
 import io.kubernetes.client.extended.workqueue.RateLimitingQueue;
 import io.prometheus.client.CollectorRegistry;
 import io.prometheus.client.Counter;
 import io.prometheus.client.Gauge;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -47,14 +65,70 @@ public class DefaultController implements Controller {
       Counter.build("controller_reconcile_count_total", "Total count of controller reconciliation")
           .labelNames("name", "requeue")
           .register();
+  private static Gauge gaugeWorkers =
+      Gauge.build("controller_workers", "Current number of the controller's reconciling workers")
+          .labelNames("name")
+          .register();
+  private static Gauge gaugeReconcileLatency =
+      Gauge.build(
+              "controller_reconcile_latency_average_seconds",
+              "Moving average of the controller's reconcile latency seen by the worker autoscaler")
+          .labelNames("name")
+          .register();
+  private static Counter counterWorkerScaling =
+      Counter.build(
+              "controller_worker_scaling_decisions_total",
+              "Total count of the worker autoscaler's decisions")
+          .labelNames("name", "decision")
+          .register();
+  private static Counter counterStolenRequests =
+      Counter.build(
+              "controller_stolen_requests_total",
+              "Total count of requests taken over by an idle worker from another shard")
+          .labelNames("name")
+          .register();
+
+  // the controller metrics are also registered in the collector registries handed to the
+  // controllers, once per registry.
+  private static final Set<CollectorRegistry> metricsRegistries =
+      Collections.newSetFromMap(new WeakHashMap<>());
+
+  // how often the work-queue length is reported
+  private static final long METRICS_UPDATE_PERIOD_MILLIS = 500;
+
+  private static final ScheduledExecutorService metricsUpdater =
+      Executors.newSingleThreadScheduledExecutor(
+          r -> {
+            Thread thread = new Thread(r, "controller-metrics");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  // how long an idle shard worker waits for its own requests before trying to steal
+  private static final long STEAL_INTERVAL_MILLIS = 50;
+  // the requests are hashed over more shards than workers, so that an idle worker can take over
+  // a shard of a busy worker without touching the shard the busy worker is reconciling.
+  private static final int SHARDS_PER_WORKER = 16;
 
   private final Reconciler reconciler;
+  private final BatchReconciler batchReconciler;
+  private final int maxBatchSize;
+  private final Duration maxBatchWait;
+  private final AsyncReconciler asyncReconciler;
+  private final Semaphore inFlight;
   private final String name;
   private final RateLimitingQueue<Request> workQueue;
   private final Supplier<Boolean>[] readyFuncs;
 
   private int workerCount;
   private ScheduledExecutorService workerThreadPool;
+  private WorkerAutoscaler workerAutoscaler;
+  private Function<Request, ?> shardFunction;
+  private boolean workStealing = false;
+  private List<Shard> shards;
+  // signals the owner of a shard that requests were queued, one per worker
+  private Semaphore[] shardSignals;
+  private ShardedLeaderElector shardedLeaderElector;
 
   private Duration readyTimeout;
   private Duration readyCheckInternal;
@@ -81,7 +155,8 @@ public class DefaultController implements Controller {
    * @param name the name
    * @param reconciler the reconciler
    * @param workQueue the work queue
-   * @param collectorRegistry the collector registry
+   * @param collectorRegistry a collector registry to also register the controller metrics in,
+   *     besides the default registry
    * @param readyFuncs the ready funcs
    */
   public DefaultController(
@@ -90,17 +165,139 @@ public class DefaultController implements Controller {
       RateLimitingQueue<Request> workQueue,
       CollectorRegistry collectorRegistry,
       Supplier<Boolean>... readyFuncs) {
+    this(name, reconciler, null, 1, Duration.ZERO, null, 0, workQueue, readyFuncs);
+    registerMetrics(collectorRegistry);
+  }
+
+  private static void registerMetrics(CollectorRegistry collectorRegistry) {
+    if (collectorRegistry == null || collectorRegistry == CollectorRegistry.defaultRegistry) {
+      return;
+    }
+    synchronized (metricsRegistries) {
+      if (metricsRegistries.add(collectorRegistry)) {
+        collectorRegistry.register(gaugeWorkQueueLength);
+        collectorRegistry.register(counterControllerReconcile);
+        collectorRegistry.register(gaugeWorkers);
+        collectorRegistry.register(gaugeReconcileLatency);
+        collectorRegistry.register(counterWorkerScaling);
+        collectorRegistry.register(counterStolenRequests);
+      }
+    }
+  }
+
+  /**
+   * Instantiates a new Default controller in batch mode. Every worker takes up to maxBatchSize
+   * requests from the work-queue, waiting up to maxBatchWait for more requests once it got the
+   * first one, and reconciles them together.
+   *
+   * @param name the name
+   * @param batchReconciler the batch reconciler
+   * @param maxBatchSize the maximum number of requests per batch
+   * @param maxBatchWait the maximum time to wait for a batch to fill up
+   * @param workQueue the work queue
+   * @param readyFuncs the ready funcs
+   */
+  public DefaultController(
+      String name,
+      BatchReconciler batchReconciler,
+      int maxBatchSize,
+      Duration maxBatchWait,
+      RateLimitingQueue<Request> workQueue,
+      Supplier<Boolean>... readyFuncs) {
+    this(name, null, batchReconciler, maxBatchSize, maxBatchWait, null, 0, workQueue, readyFuncs);
+  }
+
+  /**
+   * Instantiates a new Default controller in async mode. Workers only dispatch requests to the
+   * async reconciler, up to maxInFlight reconciliations are pending at any time regardless of the
+   * worker count.
+   *
+   * @param name the name
+   * @param asyncReconciler the async reconciler
+   * @param maxInFlight the maximum number of pending reconciliations
+   * @param workQueue the work queue
+   * @param readyFuncs the ready funcs
+   */
+  public DefaultController(
+      String name,
+      AsyncReconciler asyncReconciler,
+      int maxInFlight,
+      RateLimitingQueue<Request> workQueue,
+      Supplier<Boolean>... readyFuncs) {
+    this(name, null, null, 1, Duration.ZERO, asyncReconciler, maxInFlight, workQueue, readyFuncs);
+  }
+
+  private DefaultController(
+      String name,
+      Reconciler reconciler,
+      BatchReconciler batchReconciler,
+      int maxBatchSize,
+      Duration maxBatchWait,
+      AsyncReconciler asyncReconciler,
+      int maxInFlight,
+      RateLimitingQueue<Request> workQueue,
+      Supplier<Boolean>... readyFuncs) {
+    if (maxBatchSize <= 0) {
+      throw new IllegalArgumentException("maxBatchSize must be positive");
+    }
+    if (batchReconciler != null && (maxBatchWait == null || maxBatchWait.isNegative())) {
+      throw new IllegalArgumentException("maxBatchWait must not be null or negative");
+    }
+    if (batchReconciler != null && !supportsTimedPoll(workQueue)) {
+      // batches would silently shrink to a single request otherwise
+      throw new IllegalArgumentException(
+          "Batch reconciliation requires a work-queue implementing WorkQueue#poll(Duration), "
+              + workQueue.getClass().getName()
+              + " doesn't");
+    }
+    if (asyncReconciler != null && maxInFlight <= 0) {
+      throw new IllegalArgumentException("maxInFlight must be positive");
+    }
     this.name = name;
     this.reconciler = reconciler;
+    this.batchReconciler = batchReconciler;
+    this.maxBatchSize = maxBatchSize;
+    this.maxBatchWait = maxBatchWait;
+    this.asyncReconciler = asyncReconciler;
+    this.inFlight = asyncReconciler != null ? new Semaphore(maxInFlight) : null;
     this.workQueue = workQueue;
     this.readyFuncs = readyFuncs;
     this.readyTimeout = Duration.ofSeconds(30);
     this.readyCheckInternal = Duration.ofSeconds(1);
   }
 
+  // supportsTimedPoll checks whether the work-queue overrides the default WorkQueue#poll(Duration).
+  private static boolean supportsTimedPoll(RateLimitingQueue<Request> workQueue) {
+    try {
+      return !workQueue.getClass().getMethod("poll", Duration.class).isDefault();
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
+  }
+
   // preFlightCheck checks if the controller is ready for working.
   private boolean preFlightCheck() {
-    if (workerCount <= 0) {
+    if (workerAutoscaler != null && asyncReconciler != null) {
+      log.error(
+          "Fail to start controller {}: worker autoscaling doesn't apply to async reconcilers.",
+          this.name);
+      return false;
+    }
+    if (shardFunction != null
+        && (batchReconciler != null || asyncReconciler != null || workerAutoscaler != null)) {
+      log.error(
+          "Fail to start controller {}: sharded workers only apply to a reconciler with a fixed"
+              + " worker count.",
+          this.name);
+      return false;
+    }
+    if (shardedLeaderElector != null && (batchReconciler != null || asyncReconciler != null)) {
+      log.error(
+          "Fail to start controller {}: sharded leader election only applies to a reconciler.",
+          this.name);
+      return false;
+    }
+    if (workerAutoscaler == null && workerCount <= 0) {
       log.error("Fail to start controller {}: worker count must be positive.", this.name);
       return false;
     }
@@ -143,15 +340,45 @@ public class DefaultController implements Controller {
       return;
     }
 
-    // spawns worker threads for the controller.
-    CountDownLatch latch = new CountDownLatch(workerCount);
-    for (int i = 0; i < this.workerCount; i++) {
+    // spawns worker threads for the controller, the autoscaler decides how many of them are
+    // actually working.
+    int workers = workerAutoscaler != null ? workerAutoscaler.getMaxWorkers() : workerCount;
+    ScheduledExecutorService autoscalerThread = null;
+    if (workerAutoscaler != null) {
+      gaugeWorkers.labels(name).set(workerAutoscaler.getCurrentWorkers());
+      autoscalerThread =
+          Executors.newSingleThreadScheduledExecutor(
+              Controllers.namedControllerThreadFactory(this.name + "-autoscaler"));
+      long interval = workerAutoscaler.getEvaluationInterval().toMillis();
+      autoscalerThread.scheduleAtFixedRate(
+          this::autoscale, interval, interval, TimeUnit.MILLISECONDS);
+    }
+    if (shardFunction != null) {
+      shards = new ArrayList<>(workers * SHARDS_PER_WORKER);
+      for (int i = 0; i < workers * SHARDS_PER_WORKER; i++) {
+        shards.add(new Shard());
+      }
+      shardSignals = new Semaphore[workers];
+      for (int i = 0; i < workers; i++) {
+        shardSignals[i] = new Semaphore(0);
+      }
+    }
+    CountDownLatch latch = new CountDownLatch(workers);
+    for (int i = 0; i < workers; i++) {
       final int workerIndex = i;
       workerThreadPool.scheduleWithFixedDelay(
           () -> {
             log.debug("Starting controller {} worker {}..", this.name, workerIndex);
             try {
-              this.worker();
+              if (this.batchReconciler != null) {
+                this.batchWorker();
+              } else if (this.asyncReconciler != null) {
+                this.asyncWorker();
+              } else if (this.shardFunction != null) {
+                this.shardWorker(workerIndex);
+              } else {
+                this.worker();
+              }
             } catch (Throwable t) {
               log.error("Unexpected controller loop abortion", t);
             } finally {
@@ -163,12 +390,27 @@ public class DefaultController implements Controller {
           1,
           TimeUnit.SECONDS);
     }
+    ScheduledFuture<?> metricsUpdates =
+        metricsUpdater.scheduleAtFixedRate(
+            () -> gaugeWorkQueueLength.labels(name).set(workQueue.length()),
+            0,
+            METRICS_UPDATE_PERIOD_MILLIS,
+            TimeUnit.MILLISECONDS);
     try {
       log.debug("Controller {} bootstrapping..", this.name);
+      if (shardFunction != null) {
+        // the calling thread distributes the requests to the shards.
+        dispatch();
+        wakeShardWorkers();
+      }
       latch.await();
     } catch (InterruptedException e) {
       log.error("Aborting controller.", e);
     } finally {
+      metricsUpdates.cancel(false);
+      if (autoscalerThread != null) {
+        autoscalerThread.shutdownNow();
+      }
       log.info("Controller {} exited", this.name);
     }
   }
@@ -177,63 +419,382 @@ public class DefaultController implements Controller {
   public void shutdown() {
     // shutdown work-queue before the thread-pool
     workQueue.shutDown();
+    if (workerAutoscaler != null) {
+      workerAutoscaler.close();
+    }
     workerThreadPool.shutdown();
+    wakeShardWorkers();
   }
 
   private void worker() {
     // taking tasks from work-queue in a loop
     while (!workQueue.isShuttingDown()) {
-      gaugeWorkQueueLength.labels(name).set(workQueue.length());
+      if (!acquireWorker()) {
+        continue;
+      }
+      try {
+        if (!processNextWorkItem()) {
+          return;
+        }
+      } finally {
+        releaseWorker();
+      }
+    }
+  }
+
+  // processNextWorkItem returns false when the work-queue has shutdown.
+  private boolean processNextWorkItem() {
+    Request request = null;
+    try {
+      request = workQueue.get();
+    } catch (InterruptedException e) {
+      // we're reaching here mostly because of forcibly shutting down the controller.
+      log.error("Controller worker interrupted.. keeps working until work-queue shutdown", e);
+      if (request != null) {
+        workQueue.addRateLimited(request);
+      }
+    }
+    // request is expected to be null, when the work-queue is shutting-down.
+    if (request == null) {
+      log.info("Controller {} worker exiting because work-queue has shutdown..", this.name);
+      return false;
+    }
+    reconcile(request);
+    return true;
+  }
+
+  private void reconcile(Request request) {
+    if (shardedLeaderElector != null
+        && !shardedLeaderElector.isLeaderFor(request.getNamespace(), request.getName())) {
+      // the shard was handed over to another replica since the request was queued
+      log.debug("Controller {} dropping {} of a shard it doesn't lead..", this.name, request);
+      workQueue.forget(request);
+      workQueue.done(request);
+      return;
+    }
+    log.debug("Controller {} start reconciling {}..", this.name, request);
+
+    // do reconciliation, invoke user customized logic.
+    Result result = null;
+    long start = System.nanoTime();
+    try {
+      result = this.reconciler.reconcile(request);
+    } catch (Throwable t) {
+      log.error("Reconciler aborted unexpectedly", t);
+      recordFailure(t);
+      result = new Result(true);
+    } finally {
+      recordReconcile(start);
+      counterControllerReconcile.labels(this.name, Boolean.toString(result.isRequeue())).inc();
+    }
+
+    handleResult(request, result);
+  }
+
+  // dispatch hands the requests over to the workers owning their shard. A request stays in
+  // processing of the work-queue until its worker is done, so it's never dispatched twice.
+  private void dispatch() {
+    while (!workQueue.isShuttingDown()) {
       Request request = null;
       try {
         request = workQueue.get();
+      } catch (InterruptedException e) {
+        log.error("Controller dispatcher interrupted.. keeps working until work-queue shutdown", e);
+      }
+      if (request == null) {
+        continue;
+      }
+      int shard = shardOf(request);
+      shards.get(shard).requests.offer(request);
+      shardSignals[shard % shardSignals.length].release();
+    }
+    log.info("Controller {} dispatcher exiting because work-queue has shutdown..", this.name);
+  }
+
+  private void wakeShardWorkers() {
+    Semaphore[] signals = shardSignals;
+    if (signals != null) {
+      for (Semaphore signal : signals) {
+        signal.release();
+      }
+    }
+  }
+
+  private int shardOf(Request request) {
+    int h = Objects.hashCode(shardFunction.apply(request));
+    return Math.floorMod(h ^ (h >>> 16), shards.size());
+  }
+
+  // shardWorker reconciles the requests of the shards owned by the worker, the shards i with
+  // i % workers == index. With work stealing, it takes over the shards of other workers when it's
+  // idle.
+  private void shardWorker(int index) {
+    int workers = shardSignals.length;
+    Semaphore signal = shardSignals[index];
+    while (true) {
+      boolean worked = false;
+      for (int i = index; i < shards.size(); i += workers) {
+        worked |= reconcileNextShardRequest(shards.get(i), false);
+      }
+      if (!worked && workStealing) {
+        for (int i = 1; i < shards.size() && !worked; i++) {
+          int victim = (index + i) % shards.size();
+          if (victim % workers != index) {
+            worked = reconcileNextShardRequest(shards.get(victim), true);
+          }
+        }
+      }
+      if (worked) {
+        continue;
+      }
+      if (workQueue.isShuttingDown()) {
+        log.info("Controller {} worker exiting because work-queue has shutdown..", this.name);
+        return;
+      }
+      try {
+        if (workStealing) {
+          signal.tryAcquire(STEAL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        } else {
+          signal.acquire();
+        }
+        // the shards are all scanned after waking up, so one signal stands for every request
+        signal.drainPermits();
       } catch (InterruptedException e) {
         // we're reaching here mostly because of forcibly shutting down the controller.
         log.error("Controller worker interrupted.. keeps working until work-queue shutdown", e);
-        if (request != null) {
-          workQueue.addRateLimited(request);
+      }
+    }
+  }
+
+  // reconcileNextShardRequest reconciles the first request of the shard unless another worker is
+  // reconciling a request of the same shard, so that the requests of a shard stay in order.
+  private boolean reconcileNextShardRequest(Shard shard, boolean stolen) {
+    if (shard.requests.isEmpty() || !shard.claimed.compareAndSet(false, true)) {
+      return false;
+    }
+    try {
+      Request request = shard.requests.poll();
+      if (request == null) {
+        return false;
+      }
+      if (stolen) {
+        counterStolenRequests.labels(this.name).inc();
+      }
+      reconcile(request);
+      return true;
+    } finally {
+      shard.claimed.set(false);
+    }
+  }
+
+  private void batchWorker() {
+    List<Request> batch = new ArrayList<>(maxBatchSize);
+    // taking batches of tasks from work-queue in a loop
+    while (!workQueue.isShuttingDown()) {
+      if (!acquireWorker()) {
+        continue;
+      }
+      try {
+        if (!processNextBatch(batch)) {
+          return;
         }
+      } finally {
+        batch.clear();
+        releaseWorker();
       }
+    }
+  }
+
+  // processNextBatch returns false when the work-queue has shutdown.
+  private boolean processNextBatch(List<Request> batch) {
+    try {
+      Request request = workQueue.get();
       // request is expected to be null, when the work-queue is shutting-down.
       if (request == null) {
         log.info("Controller {} worker exiting because work-queue has shutdown..", this.name);
-        return;
+        return false;
+      }
+      batch.add(request);
+      long deadline = System.nanoTime() + maxBatchWait.toNanos();
+      while (batch.size() < maxBatchSize) {
+        request = workQueue.poll(Duration.ofNanos(Math.max(deadline - System.nanoTime(), 0)));
+        if (request == null) {
+          break;
+        }
+        batch.add(request);
+      }
+    } catch (InterruptedException e) {
+      // we're reaching here mostly because of forcibly shutting down the controller.
+      log.error("Controller worker interrupted.. keeps working until work-queue shutdown", e);
+      if (batch.isEmpty()) {
+        return true;
+      }
+    }
+    log.debug("Controller {} start reconciling {} requests..", this.name, batch.size());
+
+    // do reconciliation, invoke user customized logic.
+    Map<Request, Result> results = null;
+    long start = System.nanoTime();
+    try {
+      results = this.batchReconciler.reconcile(Collections.unmodifiableList(batch));
+    } catch (Throwable t) {
+      log.error("Reconciler aborted unexpectedly", t);
+      recordFailure(t);
+    } finally {
+      recordReconcile(start);
+    }
+    if (results == null) {
+      results = Collections.emptyMap();
+    }
+
+    for (Request request : batch) {
+      Result result = results.get(request);
+      if (result == null) {
+        result = new Result(true);
+      }
+      counterControllerReconcile.labels(this.name, Boolean.toString(result.isRequeue())).inc();
+      handleResult(request, result);
+    }
+    return true;
+  }
+
+  private void asyncWorker() {
+    // dispatching tasks from work-queue in a loop, as long as there's room for more in-flight
+    // reconciliations.
+    while (!workQueue.isShuttingDown()) {
+      try {
+        inFlight.acquire();
+      } catch (InterruptedException e) {
+        // we're reaching here mostly because of forcibly shutting down the controller.
+        log.error("Controller worker interrupted.. keeps working until work-queue shutdown", e);
+        continue;
+      }
+      Request request = null;
+      try {
+        request = workQueue.get();
+      } catch (InterruptedException e) {
+        log.error("Controller worker interrupted.. keeps working until work-queue shutdown", e);
+      }
+      // request is expected to be null, when the work-queue is shutting-down.
+      if (request == null) {
+        inFlight.release();
+        if (workQueue.isShuttingDown()) {
+          log.info("Controller {} worker exiting because work-queue has shutdown..", this.name);
+          return;
+        }
+        continue;
       }
       log.debug("Controller {} start reconciling {}..", this.name, request);
 
       // do reconciliation, invoke user customized logic.
-      Result result = null;
+      final Request dispatched = request;
+      CompletionStage<Result> stage;
       try {
-        result = this.reconciler.reconcile(request);
+        stage = this.asyncReconciler.reconcile(dispatched);
       } catch (Throwable t) {
         log.error("Reconciler aborted unexpectedly", t);
+        completeAsync(dispatched, null);
+        continue;
+      }
+      if (stage == null) {
+        completeAsync(dispatched, null);
+        continue;
+      }
+      stage.whenComplete(
+          (result, t) -> {
+            if (t != null) {
+              log.error("Reconciler aborted unexpectedly", t);
+            }
+            completeAsync(dispatched, result);
+          });
+    }
+  }
+
+  private void completeAsync(Request request, Result result) {
+    try {
+      if (result == null) {
         result = new Result(true);
-      } finally {
-        counterControllerReconcile.labels(this.name, Boolean.toString(result.isRequeue())).inc();
       }
+      counterControllerReconcile.labels(this.name, Boolean.toString(result.isRequeue())).inc();
+      handleResult(request, result);
+    } finally {
+      inFlight.release();
+    }
+  }
 
-      try {
-        // checks whether do a re-queue (on failure)
-        if (result.isRequeue()) {
-          if (result.getRequeueAfter() == null) {
-            log.debug("Controller {} reconciling {} failed, requeuing {}..", this.name, request);
-            workQueue.addRateLimited(request);
-          } else {
-            log.debug(
-                "Controller {} reconciling {} failed, requeuing after {}..",
-                this.name,
-                request,
-                result.getRequeueAfter());
-            workQueue.addAfter(request, result.getRequeueAfter());
-          }
+  private boolean acquireWorker() {
+    if (workerAutoscaler == null) {
+      return true;
+    }
+    try {
+      workerAutoscaler.acquire();
+      return true;
+    } catch (InterruptedException e) {
+      // we're reaching here mostly because of forcibly shutting down the controller.
+      log.error("Controller worker interrupted.. keeps working until work-queue shutdown", e);
+      return false;
+    }
+  }
+
+  private void releaseWorker() {
+    if (workerAutoscaler != null) {
+      workerAutoscaler.release();
+    }
+  }
+
+  private void recordReconcile(long start) {
+    if (workerAutoscaler != null) {
+      workerAutoscaler.recordReconcile(System.nanoTime() - start);
+    }
+  }
+
+  private void recordFailure(Throwable t) {
+    if (workerAutoscaler != null) {
+      workerAutoscaler.recordFailure(t);
+    }
+  }
+
+  private void autoscale() {
+    try {
+      WorkerAutoscaler.Decision decision = workerAutoscaler.evaluate(workQueue.length());
+      counterWorkerScaling.labels(this.name, decision.name().toLowerCase()).inc();
+      gaugeWorkers.labels(this.name).set(workerAutoscaler.getCurrentWorkers());
+      gaugeReconcileLatency
+          .labels(this.name)
+          .set(workerAutoscaler.getReconcileLatency().toNanos() / 1e9);
+      if (decision != WorkerAutoscaler.Decision.HOLD) {
+        log.debug(
+            "Controller {} autoscaler decided {}, now running {} workers..",
+            this.name,
+            decision,
+            workerAutoscaler.getCurrentWorkers());
+      }
+    } catch (Throwable t) {
+      log.error("Controller {} failed evaluating worker autoscaling", this.name, t);
+    }
+  }
+
+  private void handleResult(Request request, Result result) {
+    try {
+      // checks whether do a re-queue (on failure)
+      if (result.isRequeue()) {
+        if (result.getRequeueAfter() == null) {
+          log.debug("Controller {} reconciling {} failed, requeuing {}..", this.name, request);
+          workQueue.addRateLimited(request);
         } else {
-          workQueue.forget(request);
+          log.debug(
+              "Controller {} reconciling {} failed, requeuing after {}..",
+              this.name,
+              request,
+              result.getRequeueAfter());
+          workQueue.addAfter(request, result.getRequeueAfter());
         }
-      } finally {
-        workQueue.done(request);
-        gaugeWorkQueueLength.labels(name).set(workQueue.length());
-        log.debug("Controller {} finished reconciling {}..", this.name, request);
+      } else {
+        workQueue.forget(request);
       }
+    } finally {
+      workQueue.done(request);
+      log.debug("Controller {} finished reconciling {}..", this.name, request);
     }
   }
 
@@ -261,10 +822,83 @@ public class DefaultController implements Controller {
     this.workerThreadPool = workerThreadPool;
   }
 
+  public WorkerAutoscaler getWorkerAutoscaler() {
+    return workerAutoscaler;
+  }
+
+  /**
+   * Enables adaptive worker concurrency, the worker count is ignored and the worker thread-pool
+   * must provide a thread for each of the autoscaler's maximum workers.
+   *
+   * @param workerAutoscaler the worker autoscaler
+   */
+  public void setWorkerAutoscaler(WorkerAutoscaler workerAutoscaler) {
+    this.workerAutoscaler = workerAutoscaler;
+  }
+
+  public Function<Request, ?> getShardFunction() {
+    return shardFunction;
+  }
+
+  /**
+   * Enables sharded workers: requests with the same shard, e.g. the same namespace, are reconciled
+   * one at a time in order, by the same worker unless work stealing is enabled.
+   *
+   * @param shardFunction the function computing the shard of a request
+   */
+  public void setShardFunction(Function<Request, ?> shardFunction) {
+    this.shardFunction = shardFunction;
+  }
+
+  public boolean isWorkStealing() {
+    return workStealing;
+  }
+
+  /**
+   * Sets whether an idle sharded worker takes over queued requests of the shards of other workers,
+   * defaults to false. A shard is only taken over while its owner isn't reconciling one of its
+   * requests, so the requests of a shard are still reconciled one at a time in order.
+   *
+   * @param workStealing whether to steal work
+   */
+  public void setWorkStealing(boolean workStealing) {
+    this.workStealing = workStealing;
+  }
+
+  public ShardedLeaderElector getShardedLeaderElector() {
+    return shardedLeaderElector;
+  }
+
+  /**
+   * Only reconciles the requests whose shard is led by this replica in the given sharded leader
+   * election, requests of the other shards are dropped.
+   *
+   * @param shardedLeaderElector the sharded leader elector
+   */
+  public void setShardedLeaderElector(ShardedLeaderElector shardedLeaderElector) {
+    this.shardedLeaderElector = shardedLeaderElector;
+  }
+
   public Reconciler getReconciler() {
     return reconciler;
   }
 
+  public BatchReconciler getBatchReconciler() {
+    return batchReconciler;
+  }
+
+  public AsyncReconciler getAsyncReconciler() {
+    return asyncReconciler;
+  }
+
+  public int getMaxBatchSize() {
+    return maxBatchSize;
+  }
+
+  public Duration getMaxBatchWait() {
+    return maxBatchWait;
+  }
+
   public Duration getReadyTimeout() {
     return readyTimeout;
   }
@@ -280,4 +914,10 @@ public class DefaultController implements Controller {
   public void setReadyCheckInternal(Duration readyCheckInternal) {
     this.readyCheckInternal = readyCheckInternal;
   }
+
+  private static class Shard {
+    private final Queue<Request> requests = new ConcurrentLinkedQueue<>();
+    // set while a worker reconciles a request of the shard
+    private final AtomicBoolean claimed = new AtomicBoolean();
+  }
 }
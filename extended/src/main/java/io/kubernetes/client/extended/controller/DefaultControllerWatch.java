@@ -14,6 +14,7 @@ package io.kubernetes.client.extended.controller;
 
 import io.kubernetes.client.common.KubernetesObject;
 import io.kubernetes.client.extended.controller.reconciler.Request;
+import io.kubernetes.client.extended.workqueue.PriorityWorkQueue;
 import io.kubernetes.client.extended.workqueue.WorkQueue;
 import io.kubernetes.client.informer.ResourceEventHandler;
 import java.time.Duration;
@@ -37,6 +38,7 @@ public class DefaultControllerWatch<ApiType extends KubernetesObject>
   private BiPredicate<ApiType, ApiType> onUpdateFilterPredicate;
   private BiPredicate<ApiType, Boolean> onDeleteFilterPredicate;
   private Duration resyncPeriod;
+  private Integer priority;
 
   /**
    * Instantiates a new Work queue resource event handler.
@@ -79,6 +81,20 @@ public class DefaultControllerWatch<ApiType extends KubernetesObject>
     this.onDeleteFilterPredicate = onDeleteFilterPredicate;
   }
 
+  public Integer getPriority() {
+    return priority;
+  }
+
+  /**
+   * Sets the priority of the requests enqueued by this watch, only effective if the work queue is a
+   * {@link PriorityWorkQueue}.
+   *
+   * @param priority the priority, or null for the default priority of the queue
+   */
+  public void setPriority(Integer priority) {
+    this.priority = priority;
+  }
+
   public Class<ApiType> getApiTypeClass() {
     return apiTypeClass;
   }
@@ -96,7 +112,7 @@ public class DefaultControllerWatch<ApiType extends KubernetesObject>
         if (onAddFilterPredicate == null || onAddFilterPredicate.test(obj)) {
           Request req = workKeyGenerator.apply(obj);
           if (null != req) {
-            workQueue.add(req);
+            enqueue(req);
           }
         }
       }
@@ -106,7 +122,7 @@ public class DefaultControllerWatch<ApiType extends KubernetesObject>
         if (onUpdateFilterPredicate == null || onUpdateFilterPredicate.test(oldObj, newObj)) {
           Request req = workKeyGenerator.apply(newObj);
           if (null != req) {
-            workQueue.add(req);
+            enqueue(req);
           }
         }
       }
@@ -117,13 +133,21 @@ public class DefaultControllerWatch<ApiType extends KubernetesObject>
             || onDeleteFilterPredicate.test(obj, deletedFinalStateUnknown)) {
           Request req = workKeyGenerator.apply(obj);
           if (null != req) {
-            workQueue.add(req);
+            enqueue(req);
           }
         }
       }
     };
   }
 
+  private void enqueue(Request req) {
+    if (priority != null && workQueue instanceof PriorityWorkQueue) {
+      ((PriorityWorkQueue<Request>) workQueue).add(req, priority);
+    } else {
+      workQueue.add(req);
+    }
+  }
+
   @Override
   public Duration getResyncPeriod() {
     return this.resyncPeriod;
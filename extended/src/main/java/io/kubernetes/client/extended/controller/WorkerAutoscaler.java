@@ -0,0 +1,200 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.extended.controller;
+
+import io.kubernetes.client.openapi.ApiException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * WorkerAutoscaler adjusts the number of concurrently reconciling workers of a {@link
+ * DefaultController} between a minimum and a maximum.
+ *
+ * <p>The controller starts maxWorkers worker loops, of which only the current number of workers may
+ * take requests from the work-queue. Every evaluation interval the autoscaler estimates how many
+ * workers are needed to drain the work-queue within one interval from the queue length and the
+ * average reconcile latency. It grows towards the estimate at most doubling per interval, and
+ * shrinks by one worker per interval. When a reconciliation has been throttled by the API server
+ * (HTTP 429) since the last evaluation, the number of workers is halved instead.
+ */
+public class WorkerAutoscaler {
+
+  public static final Duration DEFAULT_EVALUATION_INTERVAL = Duration.ofSeconds(5);
+
+  // weight of the newest latency sample in the moving average
+  private static final double LATENCY_SMOOTHING = 0.2;
+
+  /** The outcome of an evaluation. */
+  public enum Decision {
+    SCALE_UP,
+    SCALE_DOWN,
+    THROTTLED,
+    HOLD,
+  }
+
+  private final int minWorkers;
+  private final int maxWorkers;
+  private final Duration evaluationInterval;
+
+  private final ResizableSemaphore permits;
+  private final AtomicLong latencyNanos = new AtomicLong();
+  private final AtomicBoolean throttled = new AtomicBoolean();
+  private volatile int currentWorkers;
+  private volatile boolean closed;
+
+  /**
+   * Instantiates a new worker autoscaler evaluating every {@link #DEFAULT_EVALUATION_INTERVAL}.
+   *
+   * @param minWorkers the minimum number of workers
+   * @param maxWorkers the maximum number of workers
+   */
+  public WorkerAutoscaler(int minWorkers, int maxWorkers) {
+    this(minWorkers, maxWorkers, DEFAULT_EVALUATION_INTERVAL);
+  }
+
+  /**
+   * Instantiates a new worker autoscaler.
+   *
+   * @param minWorkers the minimum number of workers
+   * @param maxWorkers the maximum number of workers
+   * @param evaluationInterval the interval between two evaluations
+   */
+  public WorkerAutoscaler(int minWorkers, int maxWorkers, Duration evaluationInterval) {
+    if (minWorkers <= 0 || maxWorkers < minWorkers) {
+      throw new IllegalArgumentException(
+          "minWorkers must be positive and not greater than maxWorkers");
+    }
+    if (evaluationInterval.isNegative() || evaluationInterval.isZero()) {
+      throw new IllegalArgumentException("evaluationInterval must be positive");
+    }
+    this.minWorkers = minWorkers;
+    this.maxWorkers = maxWorkers;
+    this.evaluationInterval = evaluationInterval;
+    this.currentWorkers = minWorkers;
+    this.permits = new ResizableSemaphore(minWorkers);
+  }
+
+  /**
+   * Marks the controller as throttled by the API server, the next evaluation halves the number of
+   * workers. Reconcilers handling 429 responses themselves should call this, reconcilers throwing
+   * an {@link ApiException} with code 429 are detected by the controller.
+   */
+  public void recordThrottled() {
+    throttled.set(true);
+  }
+
+  /**
+   * Evaluates the scaling signals collected since the last evaluation and resizes the workers.
+   *
+   * @param queueLength the current length of the work-queue
+   * @return the decision
+   */
+  public synchronized Decision evaluate(int queueLength) {
+    if (closed) {
+      return Decision.HOLD;
+    }
+    int current = currentWorkers;
+    if (throttled.getAndSet(false)) {
+      return resize(Math.max(minWorkers, current / 2), Decision.THROTTLED);
+    }
+    // workers needed for draining the backlog within one evaluation interval
+    double needed = (double) queueLength * latencyNanos.get() / evaluationInterval.toNanos();
+    int desired = (int) Math.min(maxWorkers, Math.max(minWorkers, Math.ceil(needed)));
+    if (desired > current) {
+      return resize(Math.min(desired, current * 2), Decision.SCALE_UP);
+    }
+    if (desired < current) {
+      return resize(current - 1, Decision.SCALE_DOWN);
+    }
+    return Decision.HOLD;
+  }
+
+  private Decision resize(int workers, Decision decision) {
+    int delta = workers - currentWorkers;
+    if (delta == 0) {
+      return Decision.HOLD;
+    }
+    currentWorkers = workers;
+    if (delta > 0) {
+      permits.release(delta);
+    } else {
+      // workers currently reconciling finish their request, but won't take another one
+      permits.reducePermits(-delta);
+    }
+    return decision;
+  }
+
+  void acquire() throws InterruptedException {
+    permits.acquire();
+  }
+
+  void release() {
+    permits.release();
+  }
+
+  void recordReconcile(long nanos) {
+    latencyNanos.getAndUpdate(
+        average ->
+            average == 0
+                ? nanos
+                : (long) (LATENCY_SMOOTHING * nanos + (1 - LATENCY_SMOOTHING) * average));
+  }
+
+  void recordFailure(Throwable t) {
+    for (Throwable cause = t; cause != null; cause = cause.getCause()) {
+      if (cause instanceof ApiException && ((ApiException) cause).getCode() == 429) {
+        recordThrottled();
+        return;
+      }
+    }
+  }
+
+  // unblocks all the workers so that they notice the work-queue shutting down.
+  synchronized void close() {
+    closed = true;
+    permits.release(maxWorkers);
+  }
+
+  public int getMinWorkers() {
+    return minWorkers;
+  }
+
+  public int getMaxWorkers() {
+    return maxWorkers;
+  }
+
+  public Duration getEvaluationInterval() {
+    return evaluationInterval;
+  }
+
+  public int getCurrentWorkers() {
+    return currentWorkers;
+  }
+
+  public Duration getReconcileLatency() {
+    return Duration.ofNanos(latencyNanos.get());
+  }
+
+  private static class ResizableSemaphore extends Semaphore {
+    ResizableSemaphore(int permits) {
+      super(permits);
+    }
+
+    @Override
+    protected void reducePermits(int reduction) {
+      super.reducePermits(reduction);
+    }
+  }
+}
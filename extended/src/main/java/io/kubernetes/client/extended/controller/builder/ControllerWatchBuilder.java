@@ -28,6 +28,7 @@ public class ControllerWatchBuilder<ApiType extends KubernetesObject> {
   private WorkQueue<Request> workQueue;
   private Class<ApiType> apiTypeClass;
   private Duration resyncPeriod = Duration.ZERO;
+  private Integer priority;
 
   private Predicate<ApiType> onAddFilterPredicate;
   private BiPredicate<ApiType, ApiType> onUpdateFilterPredicate;
@@ -89,6 +90,20 @@ public class ControllerWatchBuilder<ApiType extends KubernetesObject> {
     return this;
   }
 
+  /**
+   * Sets the priority of the requests enqueued by the watch, e.g. a higher priority for the
+   * user-facing resources than for the resources which are only resynced periodically. Only
+   * effective if the work queue of the controller is a {@link
+   * io.kubernetes.client.extended.workqueue.PriorityWorkQueue}.
+   *
+   * @param priority the priority, higher is reconciled first
+   * @return the controller builder . controller watch builder
+   */
+  public ControllerWatchBuilder<ApiType> withPriority(int priority) {
+    this.priority = priority;
+    return this;
+  }
+
   /**
    * End building controller-watch.
    *
@@ -101,6 +116,7 @@ public class ControllerWatchBuilder<ApiType extends KubernetesObject> {
     workQueueHandler.setOnAddFilterPredicate(onAddFilterPredicate);
     workQueueHandler.setOnUpdateFilterPredicate(onUpdateFilterPredicate);
     workQueueHandler.setOnDeleteFilterPredicate(onDeleteFilterPredicate);
+    workQueueHandler.setPriority(priority);
     return workQueueHandler;
   }
 }
@@ -12,24 +12,35 @@ limitations under the License.
 */
 package io.kubernetes.client.extended.controller.builder;
 
+import io.kubernetes.client.apimachinery.GroupVersionResource;
 import io.kubernetes.client.common.KubernetesObject;
 import io.kubernetes.client.extended.controller.Controller;
 import io.kubernetes.client.extended.controller.ControllerWatch;
 import io.kubernetes.client.extended.controller.Controllers;
 import io.kubernetes.client.extended.controller.DefaultController;
+import io.kubernetes.client.extended.controller.WorkerAutoscaler;
+import io.kubernetes.client.extended.controller.reconciler.AsyncReconciler;
+import io.kubernetes.client.extended.controller.reconciler.BatchReconciler;
 import io.kubernetes.client.extended.controller.reconciler.Reconciler;
 import io.kubernetes.client.extended.controller.reconciler.Request;
+import io.kubernetes.client.extended.leaderelection.ShardedLeaderElector;
 import io.kubernetes.client.extended.workqueue.DefaultRateLimitingQueue;
+import io.kubernetes.client.extended.workqueue.DefaultWorkQueue;
 import io.kubernetes.client.extended.workqueue.RateLimitingQueue;
 import io.kubernetes.client.extended.workqueue.WorkQueue;
+import io.kubernetes.client.extended.workqueue.metrics.MetricsProvider;
+import io.kubernetes.client.informer.ResourceEventHandler;
 import io.kubernetes.client.informer.SharedIndexInformer;
 import io.kubernetes.client.informer.SharedInformerFactory;
+import io.kubernetes.client.util.generic.metadata.V1PartialObjectMetadata;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.Executors;
 import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /** The type DefaultControllerBuilder is a fluent builder class for constructing a controller. */
 public class DefaultControllerBuilder {
@@ -42,6 +53,17 @@ public class DefaultControllerBuilder {
   private SharedInformerFactory informerFactory;
   private List<Supplier<Boolean>> readyFuncs;
   private Reconciler reconciler;
+  private BatchReconciler batchReconciler;
+  private int maxBatchSize;
+  private Duration maxBatchWait;
+  private AsyncReconciler asyncReconciler;
+  private int maxInFlight;
+  private WorkerAutoscaler workerAutoscaler;
+  private Function<Request, ?> shardFunction;
+  private boolean workStealing;
+  private MetricsProvider metricsProvider;
+  private ShardedLeaderElector shardedLeaderElector;
+  private final List<Runnable> watchResyncs = new ArrayList<>();
 
   DefaultControllerBuilder() {
     this.workerCount = Constants.DEFAULT_WORKER_COUNT;
@@ -70,7 +92,7 @@ public class DefaultControllerBuilder {
    */
   public <ApiType extends KubernetesObject> DefaultControllerBuilder watch(
       Function<WorkQueue<Request>, ControllerWatch<ApiType>> controllerWatchGetter) {
-    ControllerWatch<ApiType> watch = controllerWatchGetter.apply(this.workQueue);
+    ControllerWatch<ApiType> watch = controllerWatchGetter.apply(watchedWorkQueue());
     Class<ApiType> apiTypeClass = watch.getResourceClass();
     SharedIndexInformer<ApiType> informer =
         informerFactory.getExistingSharedIndexInformer(apiTypeClass);
@@ -81,11 +103,55 @@ public class DefaultControllerBuilder {
                   + "check if informer already constructed in the informerFactory",
               apiTypeClass));
     }
-    informer.addEventHandlerWithResyncPeriod(
-        watch.getResourceEventHandler(), watch.getResyncPeriod().toMillis());
+    addEventHandler(informer, watch);
     return this;
   }
 
+  /**
+   * Starts building watches over the metadata of a resource. The metadata informer of the resource
+   * is expected to be constructed by {@link SharedInformerFactory#sharedMetadataInformerFor}
+   * beforehand.
+   *
+   * @param groupVersionResource the group-version-resource of the watched resource
+   * @param controllerWatchGetter the controller watch getter
+   * @return the controller builder
+   */
+  public DefaultControllerBuilder watchMetadata(
+      GroupVersionResource groupVersionResource,
+      Function<WorkQueue<Request>, ControllerWatch<V1PartialObjectMetadata>>
+          controllerWatchGetter) {
+    ControllerWatch<V1PartialObjectMetadata> watch =
+        controllerWatchGetter.apply(watchedWorkQueue());
+    SharedIndexInformer<V1PartialObjectMetadata> informer =
+        informerFactory.getExistingSharedMetadataInformer(groupVersionResource);
+    if (informer == null) {
+      throw new IllegalStateException(
+          String.format(
+              "Missing metadata informer for resource %s/%s/%s, "
+                  + "check if informer already constructed in the informerFactory",
+              groupVersionResource.getGroup(),
+              groupVersionResource.getVersion(),
+              groupVersionResource.getResource()));
+    }
+    addEventHandler(informer, watch);
+    return this;
+  }
+
+  private WorkQueue<Request> watchedWorkQueue() {
+    if (this.shardedLeaderElector == null) {
+      return this.workQueue;
+    }
+    return new ShardFilteringWorkQueue(this.workQueue, this.shardedLeaderElector);
+  }
+
+  private <ApiType extends KubernetesObject> void addEventHandler(
+      SharedIndexInformer<ApiType> informer, ControllerWatch<ApiType> watch) {
+    ResourceEventHandler<ApiType> handler = watch.getResourceEventHandler();
+    informer.addEventHandlerWithResyncPeriod(handler, watch.getResyncPeriod().toMillis());
+    // re-delivers the cached objects when a shard is taken over, see withShardedLeaderElection
+    this.watchResyncs.add(() -> informer.getIndexer().list().forEach(handler::onAdd));
+  }
+
   /**
    * Overrides name for the controller.
    *
@@ -98,7 +164,10 @@ public class DefaultControllerBuilder {
   }
 
   /**
-   * Overrides workQueue for the controller.
+   * Overrides workQueue for the controller, e.g. with a {@link
+   * io.kubernetes.client.extended.workqueue.PriorityRateLimitingQueue} to reconcile by priority.
+   * Must be called before the watches are added, as they enqueue into the work queue of the
+   * builder.
    *
    * @param workQueue the work queue
    * @return the controller builder
@@ -146,6 +215,125 @@ public class DefaultControllerBuilder {
     return this;
   }
 
+  /**
+   * Sets a batch reconciler for the controller instead of a reconciler. Each worker takes up to
+   * maxBatchSize requests from the work-queue, waiting up to maxBatchWait for more requests once it
+   * got the first one, and hands them to the batch reconciler at once.
+   *
+   * @param batchReconciler the batch reconciler
+   * @param maxBatchSize the maximum number of requests per batch
+   * @param maxBatchWait the maximum time to wait for a batch to fill up
+   * @return the controller builder
+   */
+  public DefaultControllerBuilder withBatchReconciler(
+      BatchReconciler batchReconciler, int maxBatchSize, Duration maxBatchWait) {
+    this.batchReconciler = batchReconciler;
+    this.maxBatchSize = maxBatchSize;
+    this.maxBatchWait = maxBatchWait;
+    return this;
+  }
+
+  /**
+   * Sets an async reconciler for the controller instead of a reconciler. The workers only dispatch
+   * requests to the reconciler, so that a few workers can keep up to maxInFlight reconciliations
+   * pending, e.g. waiting on API calls.
+   *
+   * @param asyncReconciler the async reconciler
+   * @param maxInFlight the maximum number of pending reconciliations
+   * @return the controller builder
+   */
+  public DefaultControllerBuilder withAsyncReconciler(
+      AsyncReconciler asyncReconciler, int maxInFlight) {
+    this.asyncReconciler = asyncReconciler;
+    this.maxInFlight = maxInFlight;
+    return this;
+  }
+
+  /**
+   * Sets a worker autoscaler, growing and shrinking the number of workers with the work-queue
+   * length, reconcile latency and API server throttling. Overrides the worker count.
+   *
+   * @param minWorkers the minimum number of workers
+   * @param maxWorkers the maximum number of workers
+   * @return the controller builder
+   */
+  public DefaultControllerBuilder withWorkerAutoscaling(int minWorkers, int maxWorkers) {
+    return withWorkerAutoscaler(new WorkerAutoscaler(minWorkers, maxWorkers));
+  }
+
+  /**
+   * Sets a worker autoscaler, growing and shrinking the number of workers with the work-queue
+   * length, reconcile latency and API server throttling. Overrides the worker count.
+   *
+   * @param workerAutoscaler the worker autoscaler
+   * @return the controller builder
+   */
+  public DefaultControllerBuilder withWorkerAutoscaler(WorkerAutoscaler workerAutoscaler) {
+    this.workerAutoscaler = workerAutoscaler;
+    return this;
+  }
+
+  /**
+   * Shards the requests over the workers, requests with the same shard are reconciled in order by
+   * the same worker.
+   *
+   * @param shardFunction the function computing the shard of a request, e.g. {@code
+   *     Request::getNamespace}
+   * @return the controller builder
+   */
+  public DefaultControllerBuilder withShardedWorkers(Function<Request, ?> shardFunction) {
+    return withShardedWorkers(shardFunction, false);
+  }
+
+  /**
+   * Shards the requests over the workers, requests with the same shard are reconciled in order by
+   * the same worker.
+   *
+   * @param shardFunction the function computing the shard of a request, e.g. {@code
+   *     Request::getNamespace}
+   * @param workStealing whether an idle worker takes over requests queued for other workers. The
+   *     requests of a shard are still reconciled one at a time in order, but not always by the same
+   *     worker.
+   * @return the controller builder
+   */
+  public DefaultControllerBuilder withShardedWorkers(
+      Function<Request, ?> shardFunction, boolean workStealing) {
+    this.shardFunction = shardFunction;
+    this.workStealing = workStealing;
+    return this;
+  }
+
+  /**
+   * Exports the metrics of the controller's work-queue through the given provider, labeled by the
+   * controller name. Requires the work-queue to be a {@link DefaultWorkQueue}.
+   *
+   * @param metricsProvider the metrics provider
+   * @return the controller builder
+   */
+  public DefaultControllerBuilder withMetricsProvider(MetricsProvider metricsProvider) {
+    this.metricsProvider = metricsProvider;
+    return this;
+  }
+
+  /**
+   * Shares the work of the controller between its replicas: the controller only enqueues and
+   * reconciles the requests whose shard is led by this replica in the given sharded leader
+   * election, and enqueues the cached objects of a shard when it takes the shard over. The sharded
+   * leader elector is run by the caller. Must be set before adding the watches.
+   *
+   * @param shardedLeaderElector the sharded leader elector
+   * @return the controller builder
+   */
+  public DefaultControllerBuilder withShardedLeaderElection(
+      ShardedLeaderElector shardedLeaderElector) {
+    if (!this.watchResyncs.isEmpty()) {
+      throw new IllegalStateException(
+          "Sharded leader election must be set before adding the watches.");
+    }
+    this.shardedLeaderElector = shardedLeaderElector;
+    return this;
+  }
+
   /**
    * Build the controller.
    *
@@ -153,24 +341,86 @@ public class DefaultControllerBuilder {
    * @throws IllegalStateException the illegal state exception
    */
   public Controller build() throws IllegalStateException {
-    if (this.reconciler == null) {
+    long reconcilers =
+        Stream.of(this.reconciler, this.batchReconciler, this.asyncReconciler)
+            .filter(Objects::nonNull)
+            .count();
+    if (reconcilers == 0) {
       throw new IllegalStateException("Missing reconciler when building controller.");
     }
+    if (reconcilers > 1) {
+      throw new IllegalStateException(
+          "Only one of reconciler, batch reconciler or async reconciler can be set.");
+    }
+
+    if (this.workerAutoscaler != null && this.asyncReconciler != null) {
+      throw new IllegalStateException(
+          "Worker autoscaling doesn't apply to async reconcilers, set maxInFlight instead.");
+    }
+
+    if (this.shardFunction != null && (this.reconciler == null || this.workerAutoscaler != null)) {
+      throw new IllegalStateException(
+          "Sharded workers only apply to a reconciler with a fixed worker count.");
+    }
 
-    DefaultController controller =
-        new DefaultController(
-            this.controllerName,
-            this.reconciler,
-            this.workQueue,
-            this.readyFuncs.stream().toArray(Supplier[]::new));
+    if (this.shardedLeaderElector != null && this.reconciler == null) {
+      throw new IllegalStateException("Sharded leader election only applies to a reconciler.");
+    }
+
+    if (this.metricsProvider != null) {
+      if (!(this.workQueue instanceof DefaultWorkQueue)) {
+        throw new IllegalStateException("Work-queue metrics require a DefaultWorkQueue.");
+      }
+      ((DefaultWorkQueue<Request>) this.workQueue)
+          .setMetricsProvider(this.controllerName, this.metricsProvider);
+    }
+
+    DefaultController controller;
+    if (this.asyncReconciler != null) {
+      controller =
+          new DefaultController(
+              this.controllerName,
+              this.asyncReconciler,
+              this.maxInFlight,
+              this.workQueue,
+              this.readyFuncs.stream().toArray(Supplier[]::new));
+    } else if (this.batchReconciler != null) {
+      controller =
+          new DefaultController(
+              this.controllerName,
+              this.batchReconciler,
+              this.maxBatchSize,
+              this.maxBatchWait,
+              this.workQueue,
+              this.readyFuncs.stream().toArray(Supplier[]::new));
+    } else {
+      controller =
+          new DefaultController(
+              this.controllerName,
+              this.reconciler,
+              this.workQueue,
+              this.readyFuncs.stream().toArray(Supplier[]::new));
+    }
 
     if (this.readyTimeout != null) {
       controller.setReadyTimeout(this.readyTimeout);
     }
     controller.setWorkerCount(this.workerCount);
+    controller.setWorkerAutoscaler(this.workerAutoscaler);
+    if (this.shardFunction != null) {
+      controller.setShardFunction(this.shardFunction);
+      controller.setWorkStealing(this.workStealing);
+    }
+    if (this.shardedLeaderElector != null) {
+      controller.setShardedLeaderElector(this.shardedLeaderElector);
+      List<Runnable> resyncs = new ArrayList<>(this.watchResyncs);
+      this.shardedLeaderElector.addShardHooks(shard -> resyncs.forEach(Runnable::run), shard -> {});
+    }
+    int threads =
+        this.workerAutoscaler != null ? this.workerAutoscaler.getMaxWorkers() : this.workerCount;
     controller.setWorkerThreadPool(
         Executors.newScheduledThreadPool(
-            this.workerCount, Controllers.namedControllerThreadFactory(this.controllerName)));
+            threads, Controllers.namedControllerThreadFactory(this.controllerName)));
 
     return controller;
   }
@@ -0,0 +1,83 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.extended.controller.builder;
+
+import io.kubernetes.client.extended.controller.reconciler.Request;
+import io.kubernetes.client.extended.leaderelection.ShardedLeaderElector;
+import io.kubernetes.client.extended.workqueue.PriorityWorkQueue;
+import io.kubernetes.client.extended.workqueue.WorkQueue;
+import java.time.Duration;
+
+/**
+ * The work-queue handed to the watches of a controller with sharded leader election, it only lets
+ * in the requests whose shard is led by this replica.
+ */
+class ShardFilteringWorkQueue implements PriorityWorkQueue<Request> {
+
+  private final WorkQueue<Request> workQueue;
+  private final ShardedLeaderElector shardedLeaderElector;
+
+  ShardFilteringWorkQueue(WorkQueue<Request> workQueue, ShardedLeaderElector shardedLeaderElector) {
+    this.workQueue = workQueue;
+    this.shardedLeaderElector = shardedLeaderElector;
+  }
+
+  @Override
+  public void add(Request item) {
+    if (shardedLeaderElector.isLeaderFor(item.getNamespace(), item.getName())) {
+      workQueue.add(item);
+    }
+  }
+
+  @Override
+  public void add(Request item, int priority) {
+    if (!shardedLeaderElector.isLeaderFor(item.getNamespace(), item.getName())) {
+      return;
+    }
+    if (workQueue instanceof PriorityWorkQueue) {
+      ((PriorityWorkQueue<Request>) workQueue).add(item, priority);
+    } else {
+      workQueue.add(item);
+    }
+  }
+
+  @Override
+  public int length() {
+    return workQueue.length();
+  }
+
+  @Override
+  public Request get() throws InterruptedException {
+    return workQueue.get();
+  }
+
+  @Override
+  public Request poll(Duration timeout) throws InterruptedException {
+    return workQueue.poll(timeout);
+  }
+
+  @Override
+  public void done(Request item) {
+    workQueue.done(item);
+  }
+
+  @Override
+  public void shutDown() {
+    workQueue.shutDown();
+  }
+
+  @Override
+  public boolean isShuttingDown() {
+    return workQueue.isShuttingDown();
+  }
+}
@@ -0,0 +1,47 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.extended.controller.reconciler;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * AsyncReconciler is the non-blocking counterpart of {@link Reconciler}, for reconcilers that spend
+ * most of their time waiting on API calls. The controller doesn't hold a worker thread while a
+ * reconciliation is in flight, the request is requeued or forgotten once the returned stage
+ * completes.
+ *
+ * <p>Example, using the async methods of GenericKubernetesApi:
+ *
+ * <pre>{@code
+ * AsyncReconciler reconciler =
+ *     request -> {
+ *       CompletableFuture<Result> result = new CompletableFuture<>();
+ *       podApi.getAsync(
+ *           request.getNamespace(),
+ *           request.getName(),
+ *           response -> result.complete(new Result(!response.isSuccess())));
+ *       return result;
+ *     };
+ * }</pre>
+ */
+public interface AsyncReconciler {
+
+  /**
+   * Reconcile asynchronously.
+   *
+   * @param request the reconcile request, triggered by watch events
+   * @return the stage completing with the result, completing exceptionally is handled like a result
+   *     requesting a requeue
+   */
+  CompletionStage<Result> reconcile(Request request);
+}
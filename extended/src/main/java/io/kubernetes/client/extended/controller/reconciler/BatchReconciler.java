@@ -0,0 +1,34 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.extended.controller.reconciler;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * BatchReconciler reconciles several requests at once, for reconcilers which are considerably
+ * cheaper when handling many keys in one go, e.g. writing a single aggregated object or issuing one
+ * API call for a set of resources. Each request of a batch is distinct, and none of them is
+ * processed concurrently by another batch.
+ */
+public interface BatchReconciler {
+
+  /**
+   * Reconcile a batch of requests.
+   *
+   * @param requests the reconcile requests, triggered by watch events
+   * @return the result per request, requests missing from the returned map are requeued with
+   *     rate-limiting as if their reconciliation failed
+   */
+  Map<Request, Result> reconcile(List<Request> requests);
+}
@@ -19,7 +19,6 @@ import io.kubernetes.client.openapi.models.CoreV1EventBuilder;
 import io.kubernetes.client.openapi.models.V1ObjectMetaBuilder;
 import java.time.OffsetDateTime;
 import java.util.HashSet;
-import java.util.Objects;
 import java.util.Set;
 import java.util.function.Function;
 import org.apache.commons.lang3.tuple.MutablePair;
@@ -50,22 +49,37 @@ public class EventAggregator {
 
   private final int maxEvents;
 
-  public synchronized MutablePair<CoreV1Event, String> aggregate(CoreV1Event event) {
+  public MutablePair<CoreV1Event, String> aggregate(CoreV1Event event) {
     OffsetDateTime now = OffsetDateTime.now();
 
     MutablePair<String, String> aggregatedKeys = keyFunc.apply(event);
     String aggregatedKey = aggregatedKeys.getLeft();
     String localKey = aggregatedKeys.getRight();
 
-    AggregatedRecord record = this.spammingCache.get(aggregatedKey, k -> new AggregatedRecord());
-    record.lastTimestamp = now;
-    record.localKeys.add(localKey);
+    // the record is only updated under the lock of its own key, so that events of different keys
+    // are aggregated concurrently
+    boolean[] aggregated = new boolean[1];
+    this.spammingCache
+        .asMap()
+        .compute(
+            aggregatedKey,
+            (k, record) -> {
+              if (record == null) {
+                record = new AggregatedRecord();
+              }
+              record.lastTimestamp = now;
+              record.localKeys.add(localKey);
+              if (record.localKeys.size() >= this.maxEvents) {
+                // remove any keys
+                record.localKeys.remove(record.localKeys.stream().findAny().get());
+                aggregated[0] = true;
+              }
+              return record;
+            });
 
-    if (record.localKeys.size() < this.maxEvents) {
-      this.spammingCache.put(aggregatedKey, record);
+    if (!aggregated[0]) {
       return new MutablePair<>(event, EventUtils.getEventKey(event));
     }
-    record.localKeys.remove(record.localKeys.stream().findAny().get()); // remove any keys
     CoreV1Event aggregatedEvent =
         new CoreV1EventBuilder(event)
             .withMetadata(
@@ -78,23 +92,12 @@ public class EventAggregator {
             .withLastTimestamp(now)
             .withMessage(this.messageFunc.apply(event))
             .build();
-    this.spammingCache.put(aggregatedKey, record);
     return new MutablePair<>(aggregatedEvent, aggregatedKey);
   }
 
   private static class AggregatedRecord {
     private Set<String> localKeys = new HashSet<>();
     private OffsetDateTime lastTimestamp;
-
-    @Override
-    public boolean equals(Object o) {
-      return Objects.equals(this, o);
-    }
-
-    @Override
-    public int hashCode() {
-      return Objects.hashCode(this);
-    }
   }
 
   public int getMaxEvents() {
@@ -15,13 +15,16 @@ package io.kubernetes.client.extended.event.legacy;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import io.kubernetes.client.custom.V1Patch;
-import io.kubernetes.client.openapi.Configuration;
+import io.kubernetes.client.openapi.JSON;
 import io.kubernetes.client.openapi.models.CoreV1Event;
 import java.time.OffsetDateTime;
 import java.util.function.Function;
 import org.apache.commons.lang3.tuple.MutablePair;
 
 public class EventLogger {
+
+  private static final JSON json = new JSON();
+
   public EventLogger(int lruCacheEntries, Function<CoreV1Event, String> eventKeyFunc) {
     this.eventCache = Caffeine.newBuilder().maximumSize(lruCacheEntries).build();
     this.eventKeyFunc = eventKeyFunc;
@@ -58,7 +61,23 @@ public class EventLogger {
     log.firstTimestamp = event.getFirstTimestamp();
     log.name = event.getMetadata().getName();
     log.resourceVersion = event.getMetadata().getResourceVersion();
-    this.eventCache.put(key, log);
+    // the events are recorded concurrently, so a later event of the key may have been observed
+    // already, its count is kept instead of going backwards to the count of the server
+    this.eventCache
+        .asMap()
+        .merge(
+            key,
+            log,
+            (observed, recorded) -> {
+              if (observed.count == null
+                  || recorded.count == null
+                  || observed.count <= recorded.count) {
+                return recorded;
+              }
+              recorded.count = observed.count;
+              recorded.firstTimestamp = observed.firstTimestamp;
+              return recorded;
+            });
   }
 
   private static class EventLog {
@@ -72,6 +91,6 @@ public class EventLogger {
     return new V1Patch(
         String.format(
             "{\"message\":\"%s\",\"count\":%d,\"lastTimestamp\":%s}",
-            message, count, Configuration.getDefaultApiClient().getJSON().serialize(now)));
+            message, count, json.serialize(now)));
   }
 }
@@ -0,0 +1,100 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.extended.event.legacy;
+
+import io.kubernetes.client.custom.V1Patch;
+import io.kubernetes.client.openapi.ApiException;
+import io.kubernetes.client.openapi.JSON;
+import io.kubernetes.client.openapi.models.CoreV1Event;
+import io.kubernetes.client.openapi.models.CoreV1EventBuilder;
+import io.kubernetes.client.openapi.models.EventsV1Event;
+import io.kubernetes.client.openapi.models.EventsV1EventSeries;
+import java.time.OffsetDateTime;
+
+/**
+ * EventsV1EventSinkAdapter records the events of the legacy broadcaster through the
+ * events.k8s.io/v1 api. The events.k8s.io/v1 api rejects the deprecated count and timestamps of
+ * core events, so repeated events are recorded as an event series instead, and only the series is
+ * patched afterwards.
+ */
+public class EventsV1EventSinkAdapter implements EventSink {
+
+  private static final JSON json = new JSON();
+
+  private final io.kubernetes.client.extended.event.v1.EventSink sink;
+
+  public EventsV1EventSinkAdapter(io.kubernetes.client.extended.event.v1.EventSink sink) {
+    this.sink = sink;
+  }
+
+  @Override
+  public CoreV1Event create(CoreV1Event event) throws ApiException {
+    return fromEventsV1Event(event, sink.create(toEventsV1Event(event)));
+  }
+
+  @Override
+  public CoreV1Event update(CoreV1Event event) throws ApiException {
+    return fromEventsV1Event(event, sink.update(toEventsV1Event(event)));
+  }
+
+  @Override
+  public CoreV1Event patch(CoreV1Event event, V1Patch patch) throws ApiException {
+    // the legacy patch touches the deprecated fields, patch the series instead
+    EventsV1Event v1Event = toEventsV1Event(event);
+    V1Patch seriesPatch =
+        new V1Patch(String.format("{\"series\":%s}", json.serialize(v1Event.getSeries())));
+    return fromEventsV1Event(event, sink.patch(v1Event, seriesPatch));
+  }
+
+  static EventsV1Event toEventsV1Event(CoreV1Event event) {
+    OffsetDateTime eventTime =
+        event.getEventTime() != null ? event.getEventTime() : event.getFirstTimestamp();
+    EventsV1Event v1Event =
+        new EventsV1Event()
+            .metadata(event.getMetadata())
+            .regarding(event.getInvolvedObject())
+            .related(event.getRelated())
+            .reason(event.getReason())
+            .note(event.getMessage())
+            .type(event.getType())
+            .action(event.getAction() != null ? event.getAction() : event.getReason())
+            .eventTime(eventTime);
+    if (event.getSource() != null) {
+      String component = event.getSource().getComponent();
+      String host = event.getSource().getHost();
+      v1Event.reportingController(
+          event.getReportingComponent() != null ? event.getReportingComponent() : component);
+      v1Event.reportingInstance(
+          event.getReportingInstance() != null
+              ? event.getReportingInstance()
+              : (host != null ? host : component));
+    }
+    if (event.getCount() != null && event.getCount() > 1) {
+      v1Event.series(
+          new EventsV1EventSeries()
+              .count(event.getCount())
+              .lastObservedTime(
+                  event.getLastTimestamp() != null ? event.getLastTimestamp() : eventTime));
+    }
+    return v1Event;
+  }
+
+  private static CoreV1Event fromEventsV1Event(CoreV1Event event, EventsV1Event recorded) {
+    // keeps the deprecated fields of the original event for the correlator
+    CoreV1Event result = new CoreV1EventBuilder(event).build();
+    if (recorded != null && recorded.getMetadata() != null) {
+      result.setMetadata(recorded.getMetadata());
+    }
+    return result;
+  }
+}
@@ -13,20 +13,28 @@ limitations under the License.
 package io.kubernetes.client.extended.event.legacy;
 
 import io.kubernetes.client.custom.V1Patch;
+import io.kubernetes.client.extended.event.v1.EventsV1EventSink;
 import io.kubernetes.client.openapi.ApiException;
 import io.kubernetes.client.openapi.apis.CoreV1Api;
+import io.kubernetes.client.openapi.apis.EventsV1Api;
 import io.kubernetes.client.openapi.models.CoreV1Event;
 import io.kubernetes.client.openapi.models.CoreV1EventBuilder;
 import io.kubernetes.client.openapi.models.V1EventSource;
 import io.kubernetes.client.util.PatchUtils;
+import io.kubernetes.client.util.Threads;
 import java.net.HttpURLConnection;
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import org.apache.commons.lang3.tuple.MutablePair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -37,6 +45,9 @@ public class LegacyEventBroadcaster implements EventBroadcaster {
 
   private static final int maxTriesPerEvent = 10;
 
+  public static final int DEFAULT_QUEUE_CAPACITY = 1000;
+  public static final int DEFAULT_SINK_WORKERS = 4;
+
   public LegacyEventBroadcaster(CoreV1Api coreV1Api) {
     this(
         new EventCorrelator(),
@@ -73,24 +84,75 @@ public class LegacyEventBroadcaster implements EventBroadcaster {
         });
   }
 
+  /**
+   * Records the events through the events.k8s.io/v1 api, see {@link EventsV1EventSinkAdapter}.
+   *
+   * @param eventsV1Api the events.k8s.io/v1 api
+   */
+  public LegacyEventBroadcaster(EventsV1Api eventsV1Api) {
+    this(new EventCorrelator(), new EventsV1EventSinkAdapter(new EventsV1EventSink(eventsV1Api)));
+  }
+
   public LegacyEventBroadcaster(EventCorrelator correlator, EventSink sink) {
-    this.pendingEventQueue = new LinkedBlockingQueue<>();
-    this.eventProcessingWorker = Executors.newSingleThreadExecutor();
+    this(correlator, sink, DEFAULT_QUEUE_CAPACITY, DEFAULT_SINK_WORKERS, DropPolicy.DROP_NEWEST);
+  }
+
+  /**
+   * Instantiates a new event broadcaster.
+   *
+   * @param correlator the correlator aggregating and filtering the events
+   * @param sink the sink recording the events
+   * @param queueCapacity the maximum number of events waiting to be correlated
+   * @param sinkWorkers the number of events recorded to the sink concurrently
+   * @param dropPolicy which events are dropped when the queue is full
+   */
+  public LegacyEventBroadcaster(
+      EventCorrelator correlator,
+      EventSink sink,
+      int queueCapacity,
+      int sinkWorkers,
+      DropPolicy dropPolicy) {
+    this.pendingEventQueue = new LinkedBlockingQueue<>(queueCapacity);
+    this.eventProcessingWorker =
+        Executors.newSingleThreadExecutor(Threads.threadFactory("event-broadcaster-%d"));
+    this.sinkWorkers =
+        Executors.newFixedThreadPool(sinkWorkers, Threads.threadFactory("event-sink-worker-%d"));
+    this.retryScheduler =
+        Executors.newSingleThreadScheduledExecutor(Threads.threadFactory("event-sink-retry-%d"));
     this.eventCorrelator = correlator;
     this.sleepDuration = Duration.ofSeconds(10);
     this.eventSink = sink;
+    this.dropPolicy = dropPolicy;
+  }
+
+  /** DropPolicy decides which events are dropped when the queue of pending events is full. */
+  public enum DropPolicy {
+    /** Drops the incoming event. */
+    DROP_NEWEST,
+    /** Drops the oldest pending event to make room for the incoming one. */
+    DROP_OLDEST,
   }
 
   private BlockingQueue<CoreV1Event> pendingEventQueue;
   private ExecutorService eventProcessingWorker;
+  private ExecutorService sinkWorkers;
+  private ScheduledExecutorService retryScheduler;
   private EventSink eventSink;
   private EventCorrelator eventCorrelator;
   private Duration sleepDuration;
-  private boolean shuttingDown;
+  private DropPolicy dropPolicy;
+  private volatile boolean shuttingDown;
+
+  // the events being recorded by key, at most one event per key is in the sink at a time
+  private final Map<String, KeyState> recordingKeys = new HashMap<>();
+
+  private final AtomicLong droppedEvents = new AtomicLong();
+  private final AtomicLong coalescedEvents = new AtomicLong();
+  private final AtomicLong failedEvents = new AtomicLong();
 
   @Override
   public EventRecorder newRecorder(V1EventSource eventSource) {
-    return new ObjectReferenceResolvingEventRecorder(this.pendingEventQueue, eventSource);
+    return new ObjectReferenceResolvingEventRecorder(this::enqueue, eventSource);
   }
 
   @Override
@@ -101,7 +163,7 @@ public class LegacyEventBroadcaster implements EventBroadcaster {
             try {
               CoreV1Event event = pendingEventQueue.poll(100, TimeUnit.MILLISECONDS);
               if (event != null) {
-                recordToSink(event);
+                dispatch(event);
               }
             } catch (InterruptedException e) {
               logger.info("shutdown signaled");
@@ -114,11 +176,61 @@ public class LegacyEventBroadcaster implements EventBroadcaster {
 
   @Override
   public void shutdown() {
-    this.eventProcessingWorker.shutdown();
     this.shuttingDown = true;
+    this.eventProcessingWorker.shutdown();
+    this.retryScheduler.shutdownNow();
+    this.sinkWorkers.shutdown();
+  }
+
+  /**
+   * Gets the number of events dropped because the queue of pending events was full.
+   *
+   * @return the number of dropped events
+   */
+  public long getDroppedEvents() {
+    return droppedEvents.get();
+  }
+
+  /**
+   * Gets the number of events superseded by a later event of the same key before being recorded.
+   *
+   * @return the number of coalesced events
+   */
+  public long getCoalescedEvents() {
+    return coalescedEvents.get();
+  }
+
+  /**
+   * Gets the number of events given up after failing to be recorded too many times.
+   *
+   * @return the number of failed events
+   */
+  public long getFailedEvents() {
+    return failedEvents.get();
+  }
+
+  public void setSleepDuration(Duration sleepDuration) {
+    this.sleepDuration = sleepDuration;
+  }
+
+  private boolean enqueue(CoreV1Event event) {
+    if (this.shuttingDown) {
+      return false;
+    }
+    if (pendingEventQueue.offer(event)) {
+      return true;
+    }
+    if (dropPolicy == DropPolicy.DROP_OLDEST && pendingEventQueue.poll() != null) {
+      droppedEvents.incrementAndGet();
+      if (pendingEventQueue.offer(event)) {
+        return true;
+      }
+    }
+    droppedEvents.incrementAndGet();
+    return false;
   }
 
-  private void recordToSink(CoreV1Event event) throws InterruptedException {
+  private void dispatch(CoreV1Event event) {
     Optional<MutablePair<CoreV1Event, V1Patch>> eventAndPatch =
         this.eventCorrelator.correlate(event);
     if (eventAndPatch.isEmpty()) {
@@ -126,12 +238,71 @@ public class LegacyEventBroadcaster implements EventBroadcaster {
       return;
     }
     CoreV1Event recordingEvent = eventAndPatch.get().getLeft();
-    V1Patch patch = eventAndPatch.get().getRight();
-    for (int retries = 0; retries < maxTriesPerEvent; retries++) {
-      if (recordEvent(recordingEvent, patch, event.getCount() > 1)) {
-        break;
+    PendingEvent pending =
+        new PendingEvent(recordingEvent, eventAndPatch.get().getRight(), event.getCount() > 1);
+    String key = EventUtils.getEventKey(recordingEvent);
+    synchronized (recordingKeys) {
+      KeyState state = recordingKeys.get(key);
+      if (state != null) {
+        // the later event carries the count of the earlier ones, only the latest one is recorded
+        if (state.next != null) {
+          coalescedEvents.incrementAndGet();
+        }
+        state.next = pending;
+        return;
+      }
+      recordingKeys.put(key, new KeyState());
+    }
+    submit(key, pending);
+  }
+
+  private void submit(String key, PendingEvent pending) {
+    try {
+      sinkWorkers.execute(() -> record(key, pending));
+    } catch (RejectedExecutionException e) {
+      logger.debug("sink workers were closed, dropping event {}", key);
+    }
+  }
+
+  private void record(String key, PendingEvent pending) {
+    boolean recorded;
+    try {
+      recorded = recordEvent(pending.event, pending.patch, pending.updateExistingEvent);
+    } catch (Throwable t) {
+      logger.error("failed recording event", t);
+      recorded = false;
+    }
+    PendingEvent next;
+    synchronized (recordingKeys) {
+      KeyState state = recordingKeys.get(key);
+      next = state.next;
+      if (!recorded && next == null && ++pending.tries < maxTriesPerEvent) {
+        // retry later without holding up the events of the other keys
+        try {
+          retryScheduler.schedule(
+              () -> submit(key, pending), sleepDuration.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+          logger.debug("retry scheduler was closed, dropping event {}", key);
+          recordingKeys.remove(key);
+        }
+        return;
+      }
+      if (next == null) {
+        recordingKeys.remove(key);
+      } else {
+        state.next = null;
       }
-      Thread.sleep(sleepDuration.toMillis());
+    }
+    if (!recorded) {
+      if (next != null) {
+        coalescedEvents.incrementAndGet();
+      } else {
+        logger.warn("giving up recording event {} after {} tries", key, maxTriesPerEvent);
+        failedEvents.incrementAndGet();
+      }
+    }
+    if (next != null) {
+      submit(key, next);
     }
   }
 
@@ -146,6 +317,8 @@ public class LegacyEventBroadcaster implements EventBroadcaster {
             event = new CoreV1EventBuilder(event).build();
             event.getMetadata().setResourceVersion("");
             updateExistingEvent = false;
+          } else {
+            return false;
           }
         }
       }
@@ -169,4 +342,22 @@ public class LegacyEventBroadcaster implements EventBroadcaster {
     }
     return true;
   }
+
+  private static class PendingEvent {
+    private final CoreV1Event event;
+    private final V1Patch patch;
+    private final boolean updateExistingEvent;
+    private int tries;
+
+    private PendingEvent(CoreV1Event event, V1Patch patch, boolean updateExistingEvent) {
+      this.event = event;
+      this.patch = patch;
+      this.updateExistingEvent = updateExistingEvent;
+    }
+  }
+
+  private static class KeyState {
+    // the latest event of the key that arrived while another one was being recorded
+    private PendingEvent next;
+  }
 }
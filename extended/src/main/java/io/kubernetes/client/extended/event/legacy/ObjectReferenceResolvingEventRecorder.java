@@ -26,7 +26,7 @@ import java.time.OffsetDateTime;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -37,11 +37,22 @@ public class ObjectReferenceResolvingEventRecorder implements EventRecorder {
 
   public ObjectReferenceResolvingEventRecorder(
       BlockingQueue<CoreV1Event> queue, V1EventSource eventSource) {
-    this.pendingEventQueue = queue;
+    this(queue::offer, eventSource);
+  }
+
+  /**
+   * Instantiates a new recorder handing the events over to the given handler.
+   *
+   * @param eventHandler accepts an event without blocking, returns false if it dropped the event
+   * @param eventSource the source of the events
+   */
+  public ObjectReferenceResolvingEventRecorder(
+      Predicate<CoreV1Event> eventHandler, V1EventSource eventSource) {
+    this.eventHandler = eventHandler;
     this.eventSource = eventSource;
   }
 
-  private BlockingQueue<CoreV1Event> pendingEventQueue;
+  private Predicate<CoreV1Event> eventHandler;
   private V1EventSource eventSource;
 
   @Override
@@ -129,11 +140,9 @@ public class ObjectReferenceResolvingEventRecorder implements EventRecorder {
             .build();
 
     // fire event
-    try {
-      this.pendingEventQueue.offer(event, 100, TimeUnit.MILLISECONDS);
-    } catch (InterruptedException e) {
+    if (!this.eventHandler.test(event)) {
       // the queue is full, drop the event..
-      logger.warn(
+      logger.debug(
           "the event queue is full, dropping requesting event upon {}/{}",
           eventRef.getNamespace(),
           eventRef.getName());
@@ -0,0 +1,36 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.extended.event.v1;
+
+import io.kubernetes.client.common.KubernetesObject;
+import io.kubernetes.client.extended.event.EventType;
+
+public interface EventRecorder {
+
+  void event(
+      KubernetesObject regarding,
+      EventType t,
+      String reason,
+      String action,
+      String note,
+      String... args);
+
+  void event(
+      KubernetesObject regarding,
+      KubernetesObject related,
+      EventType t,
+      String reason,
+      String action,
+      String note,
+      String... args);
+}
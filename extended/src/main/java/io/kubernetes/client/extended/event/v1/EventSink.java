@@ -14,15 +14,14 @@ package io.kubernetes.client.extended.event.v1;
 
 import io.kubernetes.client.custom.V1Patch;
 import io.kubernetes.client.openapi.ApiException;
-import io.kubernetes.client.openapi.models.CoreV1Event;
 import io.kubernetes.client.openapi.models.EventsV1Event;
 
-// placeholder interface for event v1 api
+/** EventSink writes events through the events.k8s.io/v1 api. */
 public interface EventSink {
 
-  CoreV1Event create(EventsV1Event event) throws ApiException;
+  EventsV1Event create(EventsV1Event event) throws ApiException;
 
-  CoreV1Event update(EventsV1Event event) throws ApiException;
+  EventsV1Event update(EventsV1Event event) throws ApiException;
 
-  CoreV1Event patch(EventsV1Event event, V1Patch patch) throws ApiException;
+  EventsV1Event patch(EventsV1Event event, V1Patch patch) throws ApiException;
 }
@@ -0,0 +1,272 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.extended.event.v1;
+
+import io.kubernetes.client.custom.V1Patch;
+import io.kubernetes.client.openapi.ApiException;
+import io.kubernetes.client.openapi.JSON;
+import io.kubernetes.client.openapi.apis.EventsV1Api;
+import io.kubernetes.client.openapi.models.EventsV1Event;
+import io.kubernetes.client.openapi.models.EventsV1EventBuilder;
+import io.kubernetes.client.openapi.models.EventsV1EventSeries;
+import io.kubernetes.client.openapi.models.V1ObjectReference;
+import io.kubernetes.client.util.Threads;
+import java.net.HttpURLConnection;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * EventsV1EventBroadcaster records events through the events.k8s.io/v1 api, aggregating repeated
+ * events into an event series on the client side.
+ *
+ * <p>The first occurrence of an event is created right away, and the second one starts its series.
+ * Later occurrences only bump the series in memory, the series is written to the cluster on every
+ * heartbeat and once more when it finishes, i.e. when it has not been observed for the finish time.
+ * So a flapping resource costs a couple of writes per heartbeat instead of one write per repeat.
+ */
+public class EventsV1EventBroadcaster implements EventBroadcaster {
+
+  private static final Logger logger = LoggerFactory.getLogger(EventsV1EventBroadcaster.class);
+
+  private static final int maxTriesPerEvent = 12;
+
+  private static final JSON json = new JSON();
+
+  public static final Duration DEFAULT_HEARTBEAT_INTERVAL = Duration.ofMinutes(30);
+  public static final Duration DEFAULT_FINISH_TIME = Duration.ofMinutes(6);
+
+  public EventsV1EventBroadcaster(EventsV1Api eventsV1Api) {
+    this(new EventsV1EventSink(eventsV1Api));
+  }
+
+  public EventsV1EventBroadcaster(EventSink sink) {
+    this(sink, DEFAULT_HEARTBEAT_INTERVAL, DEFAULT_FINISH_TIME);
+  }
+
+  /**
+   * Instantiates a new event broadcaster.
+   *
+   * @param sink the sink recording the events
+   * @param heartbeatInterval how often the ongoing event series are written to the cluster
+   * @param finishTime how long an event series is kept after its last observation
+   */
+  public EventsV1EventBroadcaster(EventSink sink, Duration heartbeatInterval, Duration finishTime) {
+    this.eventSink = sink;
+    this.heartbeatInterval = heartbeatInterval;
+    this.finishTime = finishTime;
+    this.sleepDuration = Duration.ofSeconds(10);
+    this.sinkWorker = Executors.newSingleThreadExecutor(Threads.threadFactory("event-sink-%d"));
+    this.scheduler =
+        Executors.newSingleThreadScheduledExecutor(Threads.threadFactory("event-series-%d"));
+  }
+
+  private EventSink eventSink;
+  private Duration heartbeatInterval;
+  private Duration finishTime;
+  private Duration sleepDuration;
+  // writes the events one at a time, so that a series is never written before its event
+  private ExecutorService sinkWorker;
+  private ScheduledExecutorService scheduler;
+  private volatile boolean shuttingDown;
+
+  // the latest occurrence of the events by key, guarded by itself
+  private final Map<String, EventsV1Event> eventCache = new HashMap<>();
+
+  @Override
+  public EventRecorder newRecorder(String reportingController, String reportingInstance) {
+    return new EventsV1EventRecorder(this::record, reportingController, reportingInstance);
+  }
+
+  @Override
+  public void startRecording() {
+    this.scheduler.scheduleAtFixedRate(
+        this::refreshSeries,
+        heartbeatInterval.toMillis(),
+        heartbeatInterval.toMillis(),
+        TimeUnit.MILLISECONDS);
+    this.scheduler.scheduleAtFixedRate(
+        this::finishSeries, finishTime.toMillis(), finishTime.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public void shutdown() {
+    this.shuttingDown = true;
+    this.scheduler.shutdownNow();
+    this.sinkWorker.shutdown();
+  }
+
+  public void setSleepDuration(Duration sleepDuration) {
+    this.sleepDuration = sleepDuration;
+  }
+
+  private void record(EventsV1Event event) {
+    if (this.shuttingDown) {
+      return;
+    }
+    String key = getKey(event);
+    EventsV1Event recordingEvent;
+    synchronized (eventCache) {
+      EventsV1Event cached = eventCache.get(key);
+      if (cached == null) {
+        eventCache.put(key, event);
+        recordingEvent = copy(event);
+      } else if (cached.getSeries() != null) {
+        // the series is written on the next heartbeat
+        cached.getSeries().setCount(cached.getSeries().getCount() + 1);
+        cached.getSeries().setLastObservedTime(event.getEventTime());
+        return;
+      } else {
+        cached.setSeries(new EventsV1EventSeries().count(2).lastObservedTime(event.getEventTime()));
+        recordingEvent = copy(cached);
+      }
+    }
+    submit(recordingEvent, 0);
+  }
+
+  private void refreshSeries() {
+    List<EventsV1Event> ongoing = new ArrayList<>();
+    synchronized (eventCache) {
+      for (EventsV1Event event : eventCache.values()) {
+        if (event.getSeries() != null) {
+          ongoing.add(copy(event));
+        }
+      }
+    }
+    ongoing.forEach(event -> submit(event, 0));
+  }
+
+  private void finishSeries() {
+    OffsetDateTime deadline = OffsetDateTime.now().minus(finishTime);
+    List<EventsV1Event> finished = new ArrayList<>();
+    synchronized (eventCache) {
+      Iterator<EventsV1Event> it = eventCache.values().iterator();
+      while (it.hasNext()) {
+        EventsV1Event event = it.next();
+        if (event.getSeries() != null) {
+          if (event.getSeries().getLastObservedTime().isBefore(deadline)) {
+            // writes the final state of the series
+            finished.add(copy(event));
+            it.remove();
+          }
+        } else if (event.getEventTime().isBefore(deadline)) {
+          it.remove();
+        }
+      }
+    }
+    finished.forEach(event -> submit(event, 0));
+  }
+
+  private void submit(EventsV1Event event, int tries) {
+    try {
+      sinkWorker.execute(() -> attemptRecording(event, tries));
+    } catch (RejectedExecutionException e) {
+      logger.debug("event sink was closed, dropping event {}", event.getMetadata().getName());
+    }
+  }
+
+  private void attemptRecording(EventsV1Event event, int tries) {
+    boolean recorded;
+    try {
+      recorded = recordEvent(event);
+    } catch (Throwable t) {
+      logger.error("failed recording event", t);
+      recorded = false;
+    }
+    if (recorded) {
+      return;
+    }
+    if (tries + 1 >= maxTriesPerEvent) {
+      logger.warn(
+          "giving up recording event {} after {} tries",
+          event.getMetadata().getName(),
+          maxTriesPerEvent);
+      return;
+    }
+    try {
+      scheduler.schedule(
+          () -> submit(event, tries + 1), sleepDuration.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (RejectedExecutionException e) {
+      logger.debug(
+          "event series scheduler was closed, dropping event {}", event.getMetadata().getName());
+    }
+  }
+
+  private boolean recordEvent(EventsV1Event event) {
+    if (event.getSeries() != null) {
+      try {
+        this.eventSink.patch(event, seriesPatch(event.getSeries()));
+        return true;
+      } catch (ApiException e) {
+        if (e.getCode() != HttpURLConnection.HTTP_NOT_FOUND) {
+          return false;
+        }
+        // the event is gone, creates it again along with its series
+      }
+    }
+    try {
+      this.eventSink.create(event);
+    } catch (ApiException e) {
+      if (e.getCode() == HttpURLConnection.HTTP_CONFLICT) {
+        logger.debug("event {} already exists", event.getMetadata().getName());
+        return true;
+      }
+      return false;
+    }
+    return true;
+  }
+
+  private static V1Patch seriesPatch(EventsV1EventSeries series) {
+    return new V1Patch(String.format("{\"series\":%s}", json.serialize(series)));
+  }
+
+  private static EventsV1Event copy(EventsV1Event event) {
+    // the sink must not see the later updates of the cached event
+    return new EventsV1EventBuilder(event).build();
+  }
+
+  static String getKey(EventsV1Event event) {
+    return String.join(
+        "/",
+        event.getAction(),
+        event.getReason(),
+        event.getReportingController(),
+        getReferenceKey(event.getRegarding()),
+        getReferenceKey(event.getRelated()));
+  }
+
+  private static String getReferenceKey(V1ObjectReference ref) {
+    if (ref == null) {
+      return "";
+    }
+    return String.join(
+        ",",
+        ref.getApiVersion(),
+        ref.getKind(),
+        ref.getNamespace(),
+        ref.getName(),
+        ref.getUid(),
+        ref.getFieldPath());
+  }
+}
@@ -0,0 +1,96 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.extended.event.v1;
+
+import io.kubernetes.client.common.KubernetesObject;
+import io.kubernetes.client.extended.event.EventType;
+import io.kubernetes.client.extended.event.legacy.EventUtils;
+import io.kubernetes.client.openapi.models.EventsV1Event;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import io.kubernetes.client.openapi.models.V1ObjectReference;
+import io.kubernetes.client.util.Strings;
+import java.time.OffsetDateTime;
+import java.util.function.Consumer;
+
+/** EventsV1EventRecorder builds events.k8s.io/v1 events and hands them over to the broadcaster. */
+public class EventsV1EventRecorder implements EventRecorder {
+
+  public EventsV1EventRecorder(
+      Consumer<EventsV1Event> eventHandler, String reportingController, String reportingInstance) {
+    this.eventHandler = eventHandler;
+    this.reportingController = reportingController;
+    this.reportingInstance = reportingInstance;
+  }
+
+  private Consumer<EventsV1Event> eventHandler;
+  private String reportingController;
+  private String reportingInstance;
+
+  @Override
+  public void event(
+      KubernetesObject regarding,
+      EventType t,
+      String reason,
+      String action,
+      String note,
+      String... args) {
+    event(regarding, null, t, reason, action, note, args);
+  }
+
+  @Override
+  public void event(
+      KubernetesObject regarding,
+      KubernetesObject related,
+      EventType t,
+      String reason,
+      String action,
+      String note,
+      String... args) {
+    V1ObjectReference regardingRef = constructObjectReference(regarding);
+
+    // defaulting event namespace for cluster-scoped resources..
+    String namespace = regardingRef.getNamespace();
+    if (Strings.isNullOrEmpty(namespace)) {
+      namespace = "default";
+    }
+
+    OffsetDateTime now = OffsetDateTime.now();
+    EventsV1Event event =
+        new EventsV1Event()
+            .metadata(
+                new V1ObjectMeta()
+                    .name(EventUtils.generateName(regardingRef.getName(), now))
+                    .namespace(namespace))
+            .eventTime(now)
+            .regarding(regardingRef)
+            .related(related != null ? constructObjectReference(related) : null)
+            .type(t.toString())
+            .reason(reason)
+            .action(action)
+            .note(String.format(note, (Object[]) args))
+            .reportingController(this.reportingController)
+            .reportingInstance(this.reportingInstance);
+    this.eventHandler.accept(event);
+  }
+
+  private V1ObjectReference constructObjectReference(KubernetesObject object) {
+    V1ObjectMeta meta = object.getMetadata();
+    return new V1ObjectReference()
+        .apiVersion(object.getApiVersion())
+        .kind(object.getKind())
+        .uid(meta.getUid())
+        .namespace(meta.getNamespace())
+        .name(meta.getName())
+        .resourceVersion(meta.getResourceVersion());
+  }
+}
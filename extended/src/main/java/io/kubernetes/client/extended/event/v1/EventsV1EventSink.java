@@ -0,0 +1,55 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.extended.event.v1;
+
+import io.kubernetes.client.custom.V1Patch;
+import io.kubernetes.client.openapi.ApiException;
+import io.kubernetes.client.openapi.apis.EventsV1Api;
+import io.kubernetes.client.openapi.models.EventsV1Event;
+import io.kubernetes.client.util.PatchUtils;
+
+/** EventsV1EventSink writes events to the events.k8s.io/v1 api of the cluster. */
+public class EventsV1EventSink implements EventSink {
+
+  private final EventsV1Api eventsV1Api;
+
+  public EventsV1EventSink(EventsV1Api eventsV1Api) {
+    this.eventsV1Api = eventsV1Api;
+  }
+
+  @Override
+  public EventsV1Event create(EventsV1Event event) throws ApiException {
+    return eventsV1Api.createNamespacedEvent(event.getMetadata().getNamespace(), event).execute();
+  }
+
+  @Override
+  public EventsV1Event update(EventsV1Event event) throws ApiException {
+    return eventsV1Api
+        .replaceNamespacedEvent(
+            event.getMetadata().getName(), event.getMetadata().getNamespace(), event)
+        .execute();
+  }
+
+  @Override
+  public EventsV1Event patch(EventsV1Event event, V1Patch patch) throws ApiException {
+    return PatchUtils.patch(
+        EventsV1Event.class,
+        () ->
+            eventsV1Api
+                .patchNamespacedEvent(
+                    event.getMetadata().getName(), event.getMetadata().getNamespace(), patch)
+                .buildCall(null),
+        V1Patch.PATCH_FORMAT_STRATEGIC_MERGE_PATCH,
+        eventsV1Api.getApiClient());
+  }
+}
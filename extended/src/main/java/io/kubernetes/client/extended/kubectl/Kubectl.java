@@ -13,6 +13,7 @@ limitations under the License.
 package io.kubernetes.client.extended.kubectl;
 
 import io.kubernetes.client.Discovery;
+import io.kubernetes.client.DiscoveryCache;
 import io.kubernetes.client.apimachinery.GroupVersionKind;
 import io.kubernetes.client.apimachinery.GroupVersionResource;
 import io.kubernetes.client.common.KubernetesListObject;
@@ -227,13 +228,14 @@ public class Kubectl {
   abstract static class ApiClientBuilder<T extends ApiClientBuilder> {
     ApiClient apiClient = Configuration.getDefaultApiClient();
     boolean skipDiscovery = false;
+    DiscoveryCache discoveryCache;
 
     protected void refreshDiscovery() throws KubectlException {
       if (skipDiscovery) {
         return;
       }
       try {
-        ModelMapper.refresh(new Discovery(apiClient));
+        ModelMapper.refresh(new Discovery(apiClient, discoveryCache));
       } catch (ApiException e) {
         throw new KubectlException(e);
       }
@@ -290,6 +292,18 @@ public class Kubectl {
       this.skipDiscovery = true;
       return (T) this;
     }
+
+    /**
+     * Keeps the discovery responses in the given cache, e.g. {@link
+     * DiscoveryCache#forServer(String)} to share them across processes.
+     *
+     * @param discoveryCache the discovery cache
+     * @return the builder
+     */
+    public T discoveryCache(DiscoveryCache discoveryCache) {
+      this.discoveryCache = discoveryCache;
+      return (T) this;
+    }
   }
 
   abstract static class ResourceBuilder<
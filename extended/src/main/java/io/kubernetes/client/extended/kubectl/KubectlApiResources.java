@@ -27,7 +27,7 @@ public class KubectlApiResources extends Kubectl.ApiClientBuilder<KubectlApiReso
 
   @Override
   public Set<Discovery.APIResource> execute() throws KubectlException {
-    Discovery discovery = new Discovery(this.apiClient);
+    Discovery discovery = new Discovery(this.apiClient, this.discoveryCache);
     try {
       return discovery.findAll();
     } catch (IncompleteDiscoveryException e) {
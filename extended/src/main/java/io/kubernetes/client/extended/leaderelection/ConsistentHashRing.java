@@ -0,0 +1,99 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.extended.leaderelection;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * ConsistentHashRing assigns shards to members with consistent hashing and bounded loads. Every
+ * member is placed on the ring at several virtual nodes, a shard goes to the first member found
+ * clockwise from its own position that has not reached its share of ceil(shards / members) yet. All
+ * replicas compute the same assignment from the same members, and a member joining or leaving only
+ * moves the shards that it takes or gives up.
+ */
+class ConsistentHashRing {
+
+  static final int DEFAULT_VIRTUAL_NODES = 128;
+
+  private final NavigableMap<Long, String> ring = new TreeMap<>();
+  private final int memberCount;
+
+  ConsistentHashRing(Collection<String> members) {
+    this(members, DEFAULT_VIRTUAL_NODES);
+  }
+
+  ConsistentHashRing(Collection<String> members, int virtualNodes) {
+    for (String member : members) {
+      for (int i = 0; i < virtualNodes; i++) {
+        ring.put(hash(member + "#" + i), member);
+      }
+    }
+    this.memberCount = members.size();
+  }
+
+  /**
+   * Assigns the given number of shards to the members of the ring.
+   *
+   * @param shards the number of shards
+   * @return the member owning each shard, indexed by shard
+   */
+  String[] assign(int shards) {
+    String[] owners = new String[shards];
+    if (ring.isEmpty()) {
+      return owners;
+    }
+    int capacity = (shards + memberCount - 1) / memberCount;
+    Map<String, Integer> loads = new HashMap<>();
+    for (int shard = 0; shard < shards; shard++) {
+      Map.Entry<Long, String> entry = ring.ceilingEntry(hash("shard-" + shard));
+      while (true) {
+        if (entry == null) {
+          entry = ring.firstEntry();
+        }
+        String member = entry.getValue();
+        if (loads.getOrDefault(member, 0) < capacity) {
+          loads.merge(member, 1, Integer::sum);
+          owners[shard] = member;
+          break;
+        }
+        entry = ring.higherEntry(entry.getKey());
+      }
+    }
+    return owners;
+  }
+
+  /**
+   * Hashes the given key into a position on the ring. The hash must not depend on the JVM as all
+   * the replicas have to agree on the positions.
+   */
+  static long hash(String key) {
+    try {
+      byte[] digest = MessageDigest.getInstance("MD5").digest(key.getBytes(StandardCharsets.UTF_8));
+      long hash = 0;
+      for (int i = 0; i < Long.BYTES; i++) {
+        hash = (hash << 8) | (digest[i] & 0xff);
+      }
+      return hash;
+    } catch (NoSuchAlgorithmException e) {
+      // every JVM is required to support MD5
+      throw new IllegalStateException(e);
+    }
+  }
+}
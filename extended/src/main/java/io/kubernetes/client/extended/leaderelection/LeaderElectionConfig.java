@@ -27,6 +27,8 @@ public class LeaderElectionConfig {
 
   private V1OwnerReference ownerReference;
 
+  private boolean watchLock;
+
   public LeaderElectionConfig() {}
 
   public LeaderElectionConfig(
@@ -86,4 +88,19 @@ public class LeaderElectionConfig {
   public void setOwnerReference(V1OwnerReference ownerReference) {
     this.ownerReference = ownerReference;
   }
+
+  public boolean isWatchLock() {
+    return watchLock;
+  }
+
+  /**
+   * Makes followers watch the lock object instead of polling it every retry period. A follower then
+   * only tries to acquire the lock when the observed lease expires or the lock is released, while
+   * the leader keeps renewing on schedule. Requires the lock to be a {@link WatchableLock}.
+   *
+   * @param watchLock whether followers watch the lock object
+   */
+  public void setWatchLock(boolean watchLock) {
+    this.watchLock = watchLock;
+  }
 }
@@ -27,9 +27,11 @@ import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -44,7 +46,8 @@ public class LeaderElector implements AutoCloseable {
 
   // internal bookkeeping
   private LeaderElectionRecord observedRecord;
-  private long observedTimeMilliSeconds;
+  // System.nanoTime when observedRecord was last seen changing, immune to wall-clock jumps
+  private long observedTimeNanos;
   private final Consumer<Throwable> exceptionHandler;
   // used to implement OnNewLeader(), may lag slightly from the
   // value observedRecord.HolderIdentity if the transition has
@@ -52,6 +55,15 @@ public class LeaderElector implements AutoCloseable {
   private String reportedLeader;
   private Consumer<String> onNewLeaderHook;
 
+  // leadership state readable without I/O, see isLeader() and getFencingToken()
+  private volatile boolean leading;
+  private volatile long leaseDeadlineNanos;
+  private volatile long fencingToken = -1;
+
+  // signalled by the lock watch when followers watch the lock object instead of polling it
+  private final Semaphore lockChanged = new Semaphore(0);
+  private final AtomicReference<LeaderElectionRecord> watchedRecord = new AtomicReference<>();
+
   private final ScheduledExecutorService scheduledWorkers =
       Executors.newSingleThreadScheduledExecutor(
           Threads.threadFactory("leader-elector-scheduled-worker-%d"));
@@ -100,6 +112,11 @@ public class LeaderElector implements AutoCloseable {
     if (config.getRetryPeriod().isZero() || config.getRetryPeriod().isNegative()) {
       errors.add("RetryPeriod must be greater than zero.");
     }
+    if (config.isWatchLock()
+        && config.getLock() != null
+        && !(config.getLock() instanceof WatchableLock)) {
+      errors.add("Lock must be a WatchableLock to watch the lock.");
+    }
     if (errors.size() > 0) {
       throw new IllegalArgumentException(String.join(",", errors));
     }
@@ -159,12 +176,15 @@ public class LeaderElector implements AutoCloseable {
         return;
       }
       log.info("Successfully acquired lease, became leader");
+      fencingToken = observedRecord.getLeaderTransitions();
+      leading = true;
       // Hook on start leading
       hookWorkers.submit(startLeadingHook);
       renewLoop();
     } catch (Throwable t) {
       log.error("Leader elector stopped due to an exception", t);
     } finally {
+      leading = false;
       // Hook on stop leading
       log.info("Failed to renew lease, lose leadership");
       stopLeadingHook.run();
@@ -175,6 +195,9 @@ public class LeaderElector implements AutoCloseable {
     if (log.isDebugEnabled()) {
       log.debug("Attempting to acquire leader lease...");
     }
+    if (config.isWatchLock()) {
+      return acquireWatching((WatchableLock) config.getLock());
+    }
     Duration retryPeriod = config.getRetryPeriod();
     long retryPeriodMillis = retryPeriod.toMillis();
     AtomicBoolean acquired = new AtomicBoolean(false);
@@ -217,17 +240,83 @@ public class LeaderElector implements AutoCloseable {
     return true;
   }
 
+  /**
+   * Acquisition loop for followers watching the lock object. Rather than issuing a GET every retry
+   * period, the follower sleeps until the lease it last observed expires, and is woken up early
+   * whenever the watch reports the lock as changed, released or deleted.
+   */
+  private boolean acquireWatching(WatchableLock lock) {
+    long retryPeriodNanos = config.getRetryPeriod().toNanos();
+    long leaseDurationNanos = config.getLeaseDuration().toNanos();
+    lockChanged.drainPermits();
+    lock.startWatching(
+        record -> {
+          watchedRecord.set(record);
+          lockChanged.release();
+        });
+    try {
+      long nextAttemptNanos = System.nanoTime();
+      while (!leaseWorkers.isShutdown()) {
+        long now = System.nanoTime();
+        if (now - nextAttemptNanos >= 0) {
+          Future<Boolean> future = leaseWorkers.submit(this::tryAcquireOrRenew);
+          try {
+            if (future.get(retryPeriodNanos, TimeUnit.NANOSECONDS)) {
+              return true;
+            }
+          } catch (ExecutionException | TimeoutException e) {
+            this.exceptionHandler.accept(e);
+            future.cancel(true); // make sure the acquire work doesn't overlap
+          } finally {
+            maybeReportTransition();
+          }
+          // back off at least one retry period so that a failing API server isn't hammered
+          long expiry = observedTimeNanos + leaseDurationNanos;
+          long backoff = now + (long) (retryPeriodNanos * (JITTER_FACTOR * Math.random() + 1));
+          nextAttemptNanos = expiry - backoff > 0 ? expiry : backoff;
+          continue;
+        }
+        if (lockChanged.tryAcquire(nextAttemptNanos - now, TimeUnit.NANOSECONDS)) {
+          lockChanged.drainPermits();
+          LeaderElectionRecord record = watchedRecord.get();
+          if (record == null
+              || record.getHolderIdentity() == null
+              || record.getRenewTime() == null
+              || record.getHolderIdentity().equals(lock.identity())) {
+            // the lock was deleted, released or is still ours, try to take it over right away
+            nextAttemptNanos = System.nanoTime();
+          } else {
+            observe(record);
+            maybeReportTransition();
+            nextAttemptNanos = observedTimeNanos + leaseDurationNanos;
+          }
+        }
+      }
+    } catch (InterruptedException e) {
+      log.error("LeaderElection acquire loop gets interrupted", e);
+    } catch (RejectedExecutionException e) {
+      log.info("leaseWorkers were closed", e);
+    } finally {
+      lock.stopWatching();
+    }
+    return false;
+  }
+
   private void renewLoop() {
     if (log.isDebugEnabled()) {
       log.debug("Attempting to renew leader lease...");
     }
     Duration retryPeriod = config.getRetryPeriod();
     long retryPeriodMillis = retryPeriod.toMillis();
-    Duration renewDeadline = config.getRenewDeadline();
-    long renewDeadlineMillis = renewDeadline.toMillis();
 
     try {
       while (true) {
+        // the renewal has to succeed before the deadline of the last successful one, measured on
+        // the monotonic clock so that a long pause or a clock jump can't extend the leadership
+        long remainingNanos = leaseDeadlineNanos - System.nanoTime();
+        if (remainingNanos <= 0) {
+          break;
+        }
         final Future<Boolean> future =
             leaseWorkers.submit(
                 () -> {
@@ -245,7 +334,7 @@ public class LeaderElector implements AutoCloseable {
 
         boolean renewResult;
         try {
-          renewResult = future.get(renewDeadlineMillis, TimeUnit.MILLISECONDS);
+          renewResult = future.get(remainingNanos, TimeUnit.NANOSECONDS);
         } catch (ExecutionException | TimeoutException t) {
           if (log.isDebugEnabled()) {
             log.debug("failed to tryAcquireOrRenew", t);
@@ -274,6 +363,7 @@ public class LeaderElector implements AutoCloseable {
   }
 
   private boolean tryAcquireOrRenew() {
+    long startNanos = System.nanoTime();
     Date now = new Date();
     Lock lock = config.getLock();
     LeaderElectionRecord leaderElectionRecord =
@@ -300,7 +390,7 @@ public class LeaderElector implements AutoCloseable {
       }
 
       // No Lock resource exists, try to get leadership by creating it
-      return createLock(lock, leaderElectionRecord);
+      return createLock(lock, leaderElectionRecord, startNanos);
     }
 
     // alright, we have an existing lock resource
@@ -326,17 +416,14 @@ public class LeaderElector implements AutoCloseable {
             oldLeaderElectionRecord.getLeaderTransitions() + 1);
       }
 
-      return updateLock(lock, leaderElectionRecord);
+      return updateLock(lock, leaderElectionRecord, startNanos);
     }
 
     // 2. Record obtained with LeaderElectionRecord, check the Identity & Time
-    if (!oldLeaderElectionRecord.equals(this.observedRecord)) {
-      this.observedRecord = oldLeaderElectionRecord;
-      this.observedTimeMilliSeconds = System.currentTimeMillis();
-    }
+    observe(oldLeaderElectionRecord);
 
-    if (observedTimeMilliSeconds + config.getLeaseDuration().toMillis() > now.getTime()
-        && !isLeader()) {
+    if (startNanos - observedTimeNanos < config.getLeaseDuration().toNanos()
+        && !isObservedLeader()) {
       log.debug(
           "Lock is held by {} and has not yet expired",
           oldLeaderElectionRecord.getHolderIdentity());
@@ -345,7 +432,7 @@ public class LeaderElector implements AutoCloseable {
 
     // 3. We're going to try to update. The leaderElectionRecord is set to it's default
     // here. Let's correct it before updating.
-    if (isLeader()) {
+    if (isObservedLeader()) {
       leaderElectionRecord.setAcquireTime(oldLeaderElectionRecord.getAcquireTime());
       leaderElectionRecord.setLeaderTransitions(oldLeaderElectionRecord.getLeaderTransitions());
     } else {
@@ -356,7 +443,7 @@ public class LeaderElector implements AutoCloseable {
       log.debug("Update lock to renew lease");
     }
 
-    boolean renewalStatus = updateLock(lock, leaderElectionRecord);
+    boolean renewalStatus = updateLock(lock, leaderElectionRecord, startNanos);
 
     if (renewalStatus && log.isDebugEnabled()) {
       log.debug("TryAcquireOrRenew return success");
@@ -365,30 +452,66 @@ public class LeaderElector implements AutoCloseable {
     return renewalStatus;
   }
 
-  private boolean createLock(Lock lock, LeaderElectionRecord leaderElectionRecord) {
+  private void observe(LeaderElectionRecord record) {
+    if (!record.equals(this.observedRecord)) {
+      this.observedRecord = record;
+      this.observedTimeNanos = System.nanoTime();
+    }
+  }
+
+  private boolean createLock(
+      Lock lock, LeaderElectionRecord leaderElectionRecord, long startNanos) {
     boolean createSuccess = lock.create(leaderElectionRecord);
     if (!createSuccess) {
       return false;
     }
     this.observedRecord = leaderElectionRecord;
-    this.observedTimeMilliSeconds = System.currentTimeMillis();
+    this.observedTimeNanos = System.nanoTime();
+    // the lease is ours for renewDeadline from the moment the request was issued
+    this.leaseDeadlineNanos = startNanos + config.getRenewDeadline().toNanos();
     return true;
   }
 
-  private boolean updateLock(Lock lock, LeaderElectionRecord leaderElectionRecord) {
+  private boolean updateLock(
+      Lock lock, LeaderElectionRecord leaderElectionRecord, long startNanos) {
     boolean updateSuccess = lock.update(leaderElectionRecord);
     if (!updateSuccess) {
       return false;
     }
     this.observedRecord = leaderElectionRecord;
-    this.observedTimeMilliSeconds = System.currentTimeMillis();
+    this.observedTimeNanos = System.nanoTime();
+    // the lease is ours for renewDeadline from the moment the request was issued
+    this.leaseDeadlineNanos = startNanos + config.getRenewDeadline().toNanos();
     return true;
   }
 
-  private boolean isLeader() {
+  private boolean isObservedLeader() {
     return this.config.getLock().identity().equals(this.observedRecord.getHolderIdentity());
   }
 
+  /**
+   * Checks whether this candidate is currently leading, without any I/O so that it can be called on
+   * the hot path, e.g. before every write of a reconciler. The leadership ends as soon as the renew
+   * deadline of the last successful renewal passes on the monotonic clock, even if the renew loop
+   * is stuck and hasn't called the stop leading hook yet.
+   *
+   * @return true if this candidate is leading
+   */
+  public boolean isLeader() {
+    return leading && leaseDeadlineNanos - System.nanoTime() > 0;
+  }
+
+  /**
+   * Returns the fencing token of the current leadership: the leader transitions count of the lock
+   * when this candidate acquired it. The token grows with every change of leader, so a component
+   * receiving writes can reject those carrying a token lower than the highest it has seen.
+   *
+   * @return the fencing token, or -1 if this candidate isn't leading
+   */
+  public long getFencingToken() {
+    return isLeader() ? fencingToken : -1;
+  }
+
   private void maybeReportTransition() {
     if (this.observedRecord == null) {
       return;
@@ -412,9 +535,12 @@ public class LeaderElector implements AutoCloseable {
   @Override
   public void close() {
     log.info("Closing...");
+    leading = false;
     scheduledWorkers.shutdown();
     leaseWorkers.shutdown();
     hookWorkers.shutdown();
+    // wake up a follower waiting on the lock watch
+    lockChanged.release();
 
     // Ensure that all executors have stopped
     try {
@@ -449,7 +575,7 @@ public class LeaderElector implements AutoCloseable {
     }
 
     // If I am the leader, free the lock so that other candidates can take it immediately
-    if (observedRecord != null && isLeader()) {
+    if (observedRecord != null && isObservedLeader()) {
       log.info("Giving up the lock....");
       LeaderElectionRecord emptyRecord = new LeaderElectionRecord();
       // maintain leaderTransitions count
@@ -0,0 +1,47 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.extended.leaderelection;
+
+import io.kubernetes.client.openapi.ApiException;
+import java.util.Set;
+
+/**
+ * ShardMembership keeps track of the replicas taking part in a sharded leader election, see {@link
+ * ShardedLeaderElector}. A replica stays a member as long as it keeps sending heartbeats.
+ */
+public interface ShardMembership {
+
+  /**
+   * heartbeat registers the replica as a member, or renews its membership.
+   *
+   * @param identity the identity of the replica
+   * @throws ApiException
+   */
+  void heartbeat(String identity) throws ApiException;
+
+  /**
+   * members returns the identities of the replicas whose membership hasn't expired.
+   *
+   * @return the live members
+   * @throws ApiException
+   */
+  Set<String> members() throws ApiException;
+
+  /**
+   * leave gives up the membership of the replica so that its shards are reassigned right away.
+   *
+   * @param identity the identity of the replica
+   * @throws ApiException
+   */
+  void leave(String identity) throws ApiException;
+}
@@ -0,0 +1,280 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.extended.leaderelection;
+
+import io.kubernetes.client.openapi.ApiException;
+import io.kubernetes.client.util.Threads;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * ShardedLeaderElector spreads the leadership over a fixed number of shards, each guarded by its
+ * own lock, so that every replica leads a part of the work instead of a single replica leading all
+ * of it. Work keys are hashed onto the shards, and the shards are assigned to the live replicas
+ * from {@link ShardMembership} with consistent hashing: when a replica joins or leaves, only the
+ * shards it takes over or gives up move, and they move through the regular lease handover of {@link
+ * LeaderElector}.
+ *
+ * <pre>{@code
+ * ShardedLeaderElector elector =
+ *     new ShardedLeaderElector(
+ *         identity,
+ *         16,
+ *         shard -> new LeaseLock("default", "my-controller-" + shard, identity),
+ *         new LeaseShardMembership("default", "my-controller"),
+ *         Duration.ofSeconds(15),
+ *         Duration.ofSeconds(10),
+ *         Duration.ofSeconds(2));
+ * }</pre>
+ */
+public class ShardedLeaderElector implements AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(ShardedLeaderElector.class);
+
+  private final String identity;
+  private final int shards;
+  private final IntFunction<Lock> shardLocks;
+  private final ShardMembership membership;
+  private final Duration leaseDuration;
+  private final Duration renewDeadline;
+  private final Duration retryPeriod;
+
+  private final Map<Integer, LeaderElector> electors = new ConcurrentHashMap<>();
+  private final Set<Integer> heldShards = ConcurrentHashMap.newKeySet();
+  private final List<IntConsumer> startLeadingHooks = new CopyOnWriteArrayList<>();
+  private final List<IntConsumer> stopLeadingHooks = new CopyOnWriteArrayList<>();
+  private final CountDownLatch closed = new CountDownLatch(1);
+
+  private final ExecutorService electionWorkers =
+      Executors.newCachedThreadPool(Threads.threadFactory("sharded-leader-elector-%d"));
+
+  private volatile Set<Integer> assignedShards = Collections.emptySet();
+
+  /**
+   * Instantiates a new sharded leader elector.
+   *
+   * @param identity the identity of this replica, also used as the identity of the shard locks
+   * @param shards the number of shards, must not change while replicas are running
+   * @param shardLocks creates the lock of a shard
+   * @param membership keeps track of the live replicas
+   * @param leaseDuration the lease duration of the shard locks
+   * @param renewDeadline the renew deadline of the shard locks
+   * @param retryPeriod the retry period of the shard locks and the membership
+   */
+  public ShardedLeaderElector(
+      String identity,
+      int shards,
+      IntFunction<Lock> shardLocks,
+      ShardMembership membership,
+      Duration leaseDuration,
+      Duration renewDeadline,
+      Duration retryPeriod) {
+    if (shards <= 0) {
+      throw new IllegalArgumentException("Shards must be greater than zero.");
+    }
+    this.identity = identity;
+    this.shards = shards;
+    this.shardLocks = shardLocks;
+    this.membership = membership;
+    this.leaseDuration = leaseDuration;
+    this.renewDeadline = renewDeadline;
+    this.retryPeriod = retryPeriod;
+  }
+
+  /**
+   * Registers hooks called when this replica starts or stops leading a shard. The hooks are called
+   * with the shard index.
+   *
+   * @param startLeadingHook called when the replica starts leading a shard
+   * @param stopLeadingHook called when the replica stops leading a shard
+   */
+  public void addShardHooks(IntConsumer startLeadingHook, IntConsumer stopLeadingHook) {
+    startLeadingHooks.add(startLeadingHook);
+    stopLeadingHooks.add(stopLeadingHook);
+  }
+
+  /**
+   * Runs the sharded leader election in foreground until closed. Every retry period the replica
+   * renews its membership, computes the shards assigned to it from the live members, starts
+   * competing for the newly assigned shards and releases the shards assigned to other replicas.
+   */
+  public void run() {
+    log.info("Start sharded leader election over {} shards as {}", shards, identity);
+    try {
+      do {
+        try {
+          membership.heartbeat(identity);
+          Set<String> members = new HashSet<>(membership.members());
+          members.add(identity);
+          rebalance(members);
+        } catch (ApiException e) {
+          log.error("Failed to refresh the members of the sharded leader election", e);
+        }
+      } while (!closed.await(retryPeriod.toMillis(), TimeUnit.MILLISECONDS));
+    } catch (InterruptedException e) {
+      log.error("Sharded leader election gets interrupted", e);
+    } finally {
+      stopElectors();
+      try {
+        membership.leave(identity);
+      } catch (ApiException e) {
+        log.warn("Failed to leave the sharded leader election", e);
+      }
+    }
+  }
+
+  private void rebalance(Set<String> members) {
+    String[] owners = new ConsistentHashRing(members).assign(shards);
+    Set<Integer> assigned = new HashSet<>();
+    for (int shard = 0; shard < shards; shard++) {
+      if (identity.equals(owners[shard])) {
+        assigned.add(shard);
+      }
+    }
+    if (!assigned.equals(assignedShards)) {
+      log.info("Shards {} assigned to {} out of {} members", assigned, identity, members.size());
+    }
+    assignedShards = assigned;
+
+    for (Map.Entry<Integer, LeaderElector> entry : electors.entrySet()) {
+      if (!assigned.contains(entry.getKey())) {
+        // hand the shard over to its new owner
+        electors.remove(entry.getKey());
+        entry.getValue().close();
+      }
+    }
+    for (int shard : assigned) {
+      if (!electors.containsKey(shard)) {
+        startElector(shard);
+      }
+    }
+  }
+
+  private void startElector(int shard) {
+    LeaderElector elector =
+        new LeaderElector(
+            new LeaderElectionConfig(
+                shardLocks.apply(shard), leaseDuration, renewDeadline, retryPeriod));
+    electors.put(shard, elector);
+    electionWorkers.submit(
+        () -> {
+          try {
+            elector.run(
+                () -> {
+                  heldShards.add(shard);
+                  startLeadingHooks.forEach(hook -> hook.accept(shard));
+                },
+                () -> {
+                  if (heldShards.remove(shard)) {
+                    stopLeadingHooks.forEach(hook -> hook.accept(shard));
+                  }
+                });
+          } finally {
+            // lost the lease, start over on the next rebalance if the shard is still ours
+            if (electors.remove(shard, elector)) {
+              elector.close();
+            }
+          }
+        });
+  }
+
+  private void stopElectors() {
+    for (Integer shard : electors.keySet()) {
+      LeaderElector elector = electors.remove(shard);
+      if (elector != null) {
+        elector.close();
+      }
+    }
+    electionWorkers.shutdown();
+  }
+
+  /**
+   * Computes the shard of a work key. The hash doesn't depend on the JVM so that all the replicas
+   * agree on it.
+   *
+   * @param key the work key, e.g. "namespace/name"
+   * @return the shard index
+   */
+  public int shardOf(String key) {
+    return (int) Long.remainderUnsigned(ConsistentHashRing.hash(key), shards);
+  }
+
+  /**
+   * Computes the shard of an object.
+   *
+   * @param namespace the namespace of the object, null for cluster-scoped objects
+   * @param name the name of the object
+   * @return the shard index
+   */
+  public int shardOf(String namespace, String name) {
+    return shardOf(namespace == null ? name : namespace + "/" + name);
+  }
+
+  /**
+   * Checks whether this replica currently leads the shard of an object.
+   *
+   * @param namespace the namespace of the object, null for cluster-scoped objects
+   * @param name the name of the object
+   * @return true if this replica leads the shard of the object
+   */
+  public boolean isLeaderFor(String namespace, String name) {
+    return isLeaderFor(shardOf(namespace, name));
+  }
+
+  /**
+   * Checks whether this replica currently leads a shard, without any I/O, see {@link
+   * LeaderElector#isLeader()}.
+   *
+   * @param shard the shard index
+   * @return true if this replica leads the shard
+   */
+  public boolean isLeaderFor(int shard) {
+    LeaderElector elector = electors.get(shard);
+    return elector != null && elector.isLeader();
+  }
+
+  public Set<Integer> getHeldShards() {
+    return Collections.unmodifiableSet(heldShards);
+  }
+
+  public Set<Integer> getAssignedShards() {
+    return assignedShards;
+  }
+
+  public int getShards() {
+    return shards;
+  }
+
+  public String getIdentity() {
+    return identity;
+  }
+
+  @Override
+  public void close() {
+    closed.countDown();
+  }
+}
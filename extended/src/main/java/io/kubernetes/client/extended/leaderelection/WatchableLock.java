@@ -0,0 +1,35 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.extended.leaderelection;
+
+import java.util.function.Consumer;
+
+/**
+ * WatchableLock is a {@link Lock} whose election record can be observed through a watch instead of
+ * being polled with {@link #get()}. When {@link LeaderElectionConfig#isWatchLock()} is enabled,
+ * followers wait for changes pushed by the watch and only try to take over the lock once the
+ * observed lease has expired.
+ */
+public interface WatchableLock extends Lock {
+
+  /**
+   * startWatching starts observing the lock object. The handler receives the latest
+   * LeaderElectionRecord on every change, or null when the lock object has been deleted.
+   *
+   * @param onChange the handler invoked on every observed change
+   */
+  void startWatching(Consumer<LeaderElectionRecord> onChange);
+
+  /** stopWatching stops observing the lock object started by {@link #startWatching}. */
+  void stopWatching();
+}
@@ -12,26 +12,38 @@ limitations under the License.
 */
 package io.kubernetes.client.extended.leaderelection.resourcelock;
 
+import com.google.gson.reflect.TypeToken;
 import io.kubernetes.client.extended.leaderelection.LeaderElectionRecord;
-import io.kubernetes.client.extended.leaderelection.Lock;
+import io.kubernetes.client.extended.leaderelection.WatchableLock;
+import io.kubernetes.client.informer.ListerWatcher;
+import io.kubernetes.client.informer.ResourceEventHandler;
+import io.kubernetes.client.informer.SharedIndexInformer;
+import io.kubernetes.client.informer.impl.DefaultSharedIndexInformer;
 import io.kubernetes.client.openapi.ApiClient;
 import io.kubernetes.client.openapi.ApiException;
 import io.kubernetes.client.openapi.Configuration;
 import io.kubernetes.client.openapi.apis.CoordinationV1Api;
 import io.kubernetes.client.openapi.models.V1Lease;
+import io.kubernetes.client.openapi.models.V1LeaseList;
 import io.kubernetes.client.openapi.models.V1LeaseSpec;
 import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import io.kubernetes.client.util.CallGeneratorParams;
+import io.kubernetes.client.util.Watch;
+import io.kubernetes.client.util.Watchable;
 import java.net.HttpURLConnection;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.Collections;
 import java.util.Date;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import okhttp3.Call;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class LeaseLock implements Lock {
+public class LeaseLock implements WatchableLock {
 
   private static final Logger log = LoggerFactory.getLogger(LeaseLock.class);
 
@@ -45,6 +57,8 @@ public class LeaseLock implements Lock {
 
   private AtomicReference<V1Lease> leaseRefer = new AtomicReference<>(null);
 
+  private SharedIndexInformer<V1Lease> leaseInformer;
+
   public LeaseLock(String namespace, String name, String identity) {
     this(namespace, name, identity, Configuration.getDefaultApiClient());
   }
@@ -108,6 +122,38 @@ public class LeaseLock implements Lock {
     }
   }
 
+  @Override
+  public synchronized void startWatching(Consumer<LeaderElectionRecord> onChange) {
+    stopWatching();
+    leaseInformer = new DefaultSharedIndexInformer<>(V1Lease.class, leaseListerWatcher(), 0);
+    leaseInformer.addEventHandler(
+        new ResourceEventHandler<V1Lease>() {
+          @Override
+          public void onAdd(V1Lease obj) {
+            onChange.accept(getRecordFromLease(obj.getSpec()));
+          }
+
+          @Override
+          public void onUpdate(V1Lease oldObj, V1Lease newObj) {
+            onChange.accept(getRecordFromLease(newObj.getSpec()));
+          }
+
+          @Override
+          public void onDelete(V1Lease obj, boolean deletedFinalStateUnknown) {
+            onChange.accept(null);
+          }
+        });
+    leaseInformer.run();
+  }
+
+  @Override
+  public synchronized void stopWatching() {
+    if (leaseInformer != null) {
+      leaseInformer.stop();
+      leaseInformer = null;
+    }
+  }
+
   @Override
   public String identity() {
     return identity;
@@ -118,8 +164,50 @@ public class LeaseLock implements Lock {
     return namespace + "/" + name;
   }
 
+  private ListerWatcher<V1Lease, V1LeaseList> leaseListerWatcher() {
+    ApiClient apiClient = coordinationV1Api.getApiClient();
+    String fieldSelector = "metadata.name=" + name;
+    return new ListerWatcher<V1Lease, V1LeaseList>() {
+      @Override
+      public V1LeaseList list(CallGeneratorParams params) throws ApiException {
+        return coordinationV1Api
+            .listNamespacedLease(namespace)
+            .fieldSelector(fieldSelector)
+            .resourceVersion(params.resourceVersion)
+            .timeoutSeconds(params.timeoutSeconds)
+            .execute();
+      }
+
+      @Override
+      public Watchable<V1Lease> watch(CallGeneratorParams params) throws ApiException {
+        Call call =
+            coordinationV1Api
+                .listNamespacedLease(namespace)
+                .fieldSelector(fieldSelector)
+                .resourceVersion(params.resourceVersion)
+                .timeoutSeconds(params.timeoutSeconds)
+                .watch(true)
+                .allowWatchBookmarks(true)
+                .buildCall(null);
+        // bind call with a http client without read timeout so that the watch stays open
+        call =
+            apiClient
+                .getHttpClient()
+                .newBuilder()
+                .readTimeout(Duration.ZERO)
+                .build()
+                .newCall(call.request());
+        return Watch.createWatch(
+            apiClient, call, new TypeToken<Watch.Response<V1Lease>>() {}.getType());
+      }
+    };
+  }
+
   private LeaderElectionRecord getRecordFromLease(V1LeaseSpec lease) {
     LeaderElectionRecord record = new LeaderElectionRecord();
+    if (lease == null) {
+      return record;
+    }
     if (lease.getAcquireTime() != null) {
       record.setAcquireTime(new Date(lease.getAcquireTime().toInstant().toEpochMilli()));
     }
@@ -0,0 +1,128 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.extended.leaderelection.resourcelock;
+
+import io.kubernetes.client.extended.leaderelection.ShardMembership;
+import io.kubernetes.client.openapi.ApiClient;
+import io.kubernetes.client.openapi.ApiException;
+import io.kubernetes.client.openapi.Configuration;
+import io.kubernetes.client.openapi.apis.CoordinationV1Api;
+import io.kubernetes.client.openapi.models.V1Lease;
+import io.kubernetes.client.openapi.models.V1LeaseSpec;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import java.net.HttpURLConnection;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * LeaseShardMembership tracks the members of a sharded leader election with one Lease per replica,
+ * named after the group and the identity of the replica and labeled with the group. A replica is a
+ * member as long as its Lease is renewed within its lease duration.
+ */
+public class LeaseShardMembership implements ShardMembership {
+
+  public static final String SHARD_GROUP_LABEL = "leaderelection.kubernetes.io/shard-group";
+
+  private static final Duration DEFAULT_LEASE_DURATION = Duration.ofSeconds(15);
+
+  private final String namespace;
+  private final String group;
+  private final Duration leaseDuration;
+
+  private CoordinationV1Api coordinationV1Api;
+
+  public LeaseShardMembership(String namespace, String group) {
+    this(namespace, group, DEFAULT_LEASE_DURATION, Configuration.getDefaultApiClient());
+  }
+
+  public LeaseShardMembership(
+      String namespace, String group, Duration leaseDuration, ApiClient apiClient) {
+    this.namespace = namespace;
+    this.group = group;
+    this.leaseDuration = leaseDuration;
+    this.coordinationV1Api = new CoordinationV1Api(apiClient);
+  }
+
+  @Override
+  public void heartbeat(String identity) throws ApiException {
+    String name = leaseName(identity);
+    V1Lease lease;
+    try {
+      lease = coordinationV1Api.readNamespacedLease(name, namespace).execute();
+    } catch (ApiException e) {
+      if (e.getCode() != HttpURLConnection.HTTP_NOT_FOUND) {
+        throw e;
+      }
+      V1ObjectMeta objectMeta =
+          new V1ObjectMeta()
+              .name(name)
+              .namespace(namespace)
+              .putLabelsItem(SHARD_GROUP_LABEL, group);
+      coordinationV1Api
+          .createNamespacedLease(namespace, new V1Lease().metadata(objectMeta).spec(spec(identity)))
+          .execute();
+      return;
+    }
+    lease.setSpec(spec(identity));
+    coordinationV1Api.replaceNamespacedLease(name, namespace, lease).execute();
+  }
+
+  @Override
+  public Set<String> members() throws ApiException {
+    OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+    Set<String> members = new HashSet<>();
+    for (V1Lease lease :
+        coordinationV1Api
+            .listNamespacedLease(namespace)
+            .labelSelector(SHARD_GROUP_LABEL + "=" + group)
+            .execute()
+            .getItems()) {
+      V1LeaseSpec spec = lease.getSpec();
+      if (spec == null
+          || spec.getHolderIdentity() == null
+          || spec.getRenewTime() == null
+          || spec.getLeaseDurationSeconds() == null) {
+        continue;
+      }
+      if (spec.getRenewTime().plusSeconds(spec.getLeaseDurationSeconds()).isAfter(now)) {
+        members.add(spec.getHolderIdentity());
+      }
+    }
+    return members;
+  }
+
+  @Override
+  public void leave(String identity) throws ApiException {
+    try {
+      coordinationV1Api.deleteNamespacedLease(leaseName(identity), namespace).execute();
+    } catch (ApiException e) {
+      if (e.getCode() != HttpURLConnection.HTTP_NOT_FOUND) {
+        throw e;
+      }
+    }
+  }
+
+  private String leaseName(String identity) {
+    return group + "-" + identity;
+  }
+
+  private V1LeaseSpec spec(String identity) {
+    return new V1LeaseSpec()
+        .holderIdentity(identity)
+        .leaseDurationSeconds((int) leaseDuration.getSeconds())
+        .renewTime(OffsetDateTime.now(ZoneOffset.UTC));
+  }
+}
@@ -0,0 +1,93 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.extended.network;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Endpoint is a ready address of an EndpointSlice as seen by the {@link EndpointSliceLoadBalancer}.
+ * It counts the requests in flight to it, so that strategies can prefer the less loaded endpoints.
+ *
+ * <p>The requests are only counted when the callers report them:
+ *
+ * <pre>{@code
+ * Endpoint endpoint = loadBalancer.getTargetEndpoint(8080);
+ * endpoint.requestStarted();
+ * try {
+ *   // send the request to endpoint.getIp()
+ * } finally {
+ *   endpoint.requestFinished();
+ * }
+ * }</pre>
+ */
+public final class Endpoint {
+
+  private final String ip;
+  private final String zone;
+  // the zones the endpoint is hinted for, null if the endpoint has no hints
+  private final String[] zoneHints;
+  private final AtomicInteger outstandingRequests = new AtomicInteger();
+
+  Endpoint(String ip, String zone, String[] zoneHints) {
+    this.ip = ip;
+    this.zone = zone;
+    this.zoneHints = zoneHints;
+  }
+
+  public String getIp() {
+    return ip;
+  }
+
+  public String getZone() {
+    return zone;
+  }
+
+  public boolean hasZoneHints() {
+    return zoneHints != null;
+  }
+
+  public boolean isHintedFor(String zone) {
+    if (zoneHints == null) {
+      return false;
+    }
+    for (String hint : zoneHints) {
+      if (hint.equals(zone)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public int getOutstandingRequests() {
+    return outstandingRequests.get();
+  }
+
+  public void requestStarted() {
+    outstandingRequests.incrementAndGet();
+  }
+
+  public void requestFinished() {
+    outstandingRequests.decrementAndGet();
+  }
+
+  boolean isSameAs(String zone, String[] zoneHints) {
+    return Objects.equals(this.zone, zone) && Arrays.equals(this.zoneHints, zoneHints);
+  }
+
+  @Override
+  public String toString() {
+    return ip;
+  }
+}
@@ -0,0 +1,245 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.extended.network;
+
+import io.kubernetes.client.extended.network.exception.NoAvailableAddressException;
+import io.kubernetes.client.informer.ResourceEventHandler;
+import io.kubernetes.client.informer.SharedIndexInformer;
+import io.kubernetes.client.informer.cache.Lister;
+import io.kubernetes.client.openapi.models.DiscoveryV1EndpointPort;
+import io.kubernetes.client.openapi.models.V1Endpoint;
+import io.kubernetes.client.openapi.models.V1EndpointSlice;
+import io.kubernetes.client.openapi.models.V1ForZone;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * EndpointSliceLoadBalancer does client-side load-balancing over the ready endpoints of a service,
+ * read from an informer of discovery.k8s.io/v1 endpoint slices.
+ *
+ * <p>The endpoints are indexed by port whenever the slices of the service change, so choosing a
+ * target only reads the latest index. With the strategies overriding {@link
+ * LoadBalanceStrategy#chooseEndpoint(Endpoint[])}, choosing a target doesn't allocate.
+ *
+ * <p>For example:
+ *
+ * <pre>{@code
+ * LoadBalancer loadBalancer =
+ *     new EndpointSliceLoadBalancer(
+ *         endpointSliceInformer, "default", "my-service", new LeastRequestLoadBalanceStrategy());
+ * }</pre>
+ */
+public class EndpointSliceLoadBalancer implements LoadBalancer {
+
+  public static final String SERVICE_NAME_LABEL = "kubernetes.io/service-name";
+
+  private final String namespace;
+  private final String serviceName;
+  private final Lister<V1EndpointSlice> lister;
+  protected final LoadBalanceStrategy strategy;
+
+  private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+  public EndpointSliceLoadBalancer(
+      SharedIndexInformer<V1EndpointSlice> endpointSliceInformer,
+      String namespace,
+      String serviceName,
+      LoadBalanceStrategy strategy) {
+    this.namespace = namespace;
+    this.serviceName = serviceName;
+    this.lister = new Lister<>(endpointSliceInformer.getIndexer()).namespace(namespace);
+    this.strategy = strategy;
+    endpointSliceInformer.addEventHandler(
+        new ResourceEventHandler<V1EndpointSlice>() {
+          @Override
+          public void onAdd(V1EndpointSlice obj) {
+            if (isOwned(obj)) {
+              refresh();
+            }
+          }
+
+          @Override
+          public void onUpdate(V1EndpointSlice oldObj, V1EndpointSlice newObj) {
+            if (isOwned(oldObj) || isOwned(newObj)) {
+              refresh();
+            }
+          }
+
+          @Override
+          public void onDelete(V1EndpointSlice obj, boolean deletedFinalStateUnknown) {
+            if (isOwned(obj)) {
+              refresh();
+            }
+          }
+        });
+    refresh();
+  }
+
+  @Override
+  public List<String> getAllAvailableIPs() throws NoAvailableAddressException {
+    return toIPs(snapshot.all);
+  }
+
+  @Override
+  public List<String> getAllAvailableIPs(int port) throws NoAvailableAddressException {
+    return toIPs(snapshot.forPort(port));
+  }
+
+  @Override
+  public String getTargetIP() throws NoAvailableAddressException {
+    return ipOf(getTargetEndpoint());
+  }
+
+  @Override
+  public String getTargetIP(int port) throws NoAvailableAddressException {
+    return ipOf(getTargetEndpoint(port));
+  }
+
+  public Endpoint getTargetEndpoint() throws NoAvailableAddressException {
+    return choose(snapshot.all);
+  }
+
+  public Endpoint getTargetEndpoint(int port) throws NoAvailableAddressException {
+    return choose(snapshot.forPort(port));
+  }
+
+  private Endpoint choose(Endpoint[] candidates) throws NoAvailableAddressException {
+    if (candidates.length == 0) {
+      throw new NoAvailableAddressException();
+    }
+    return this.strategy.chooseEndpoint(candidates);
+  }
+
+  private boolean isOwned(V1EndpointSlice slice) {
+    return slice.getMetadata() != null
+        && Objects.equals(namespace, slice.getMetadata().getNamespace())
+        && slice.getMetadata().getLabels() != null
+        && serviceName.equals(slice.getMetadata().getLabels().get(SERVICE_NAME_LABEL));
+  }
+
+  private synchronized void refresh() {
+    List<V1EndpointSlice> slices = new ArrayList<>();
+    for (V1EndpointSlice slice : lister.list()) {
+      if (isOwned(slice)) {
+        slices.add(slice);
+      }
+    }
+    // keeps the order of the endpoints stable across the updates
+    slices.sort(Comparator.comparing(slice -> slice.getMetadata().getName()));
+
+    Map<String, Endpoint> previous = snapshot.endpoints;
+    Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+    Map<Integer, Set<Endpoint>> endpointsByPort = new TreeMap<>();
+    for (V1EndpointSlice slice : slices) {
+      if (slice.getEndpoints() == null) {
+        continue;
+      }
+      List<Endpoint> ready = new ArrayList<>();
+      for (V1Endpoint v1Endpoint : slice.getEndpoints()) {
+        if (!isReady(v1Endpoint)) {
+          continue;
+        }
+        String ip = v1Endpoint.getAddresses().get(0);
+        ready.add(endpoints.computeIfAbsent(ip, k -> toEndpoint(previous.get(k), ip, v1Endpoint)));
+      }
+      if (slice.getPorts() == null) {
+        continue;
+      }
+      for (DiscoveryV1EndpointPort port : slice.getPorts()) {
+        if (port.getPort() != null) {
+          endpointsByPort.computeIfAbsent(port.getPort(), k -> new LinkedHashSet<>()).addAll(ready);
+        }
+      }
+    }
+    this.snapshot = new Snapshot(endpoints, endpointsByPort);
+  }
+
+  private static boolean isReady(V1Endpoint endpoint) {
+    if (endpoint.getAddresses() == null || endpoint.getAddresses().isEmpty()) {
+      return false;
+    }
+    // an unknown readiness counts as ready
+    return endpoint.getConditions() == null
+        || endpoint.getConditions().getReady() == null
+        || endpoint.getConditions().getReady();
+  }
+
+  private static Endpoint toEndpoint(Endpoint previous, String ip, V1Endpoint v1Endpoint) {
+    String[] zoneHints = null;
+    if (v1Endpoint.getHints() != null && v1Endpoint.getHints().getForZones() != null) {
+      zoneHints =
+          v1Endpoint.getHints().getForZones().stream()
+              .map(V1ForZone::getName)
+              .toArray(String[]::new);
+    }
+    // keeps counting the requests in flight to the unchanged endpoints
+    if (previous != null && previous.isSameAs(v1Endpoint.getZone(), zoneHints)) {
+      return previous;
+    }
+    return new Endpoint(ip, v1Endpoint.getZone(), zoneHints);
+  }
+
+  private static List<String> toIPs(Endpoint[] endpoints) {
+    List<String> ips = new ArrayList<>(endpoints.length);
+    for (Endpoint endpoint : endpoints) {
+      ips.add(endpoint.getIp());
+    }
+    return ips;
+  }
+
+  private static String ipOf(Endpoint endpoint) {
+    return endpoint != null ? endpoint.getIp() : null;
+  }
+
+  private static class Snapshot {
+    private static final Endpoint[] NO_ENDPOINTS = new Endpoint[0];
+    private static final Snapshot EMPTY = new Snapshot(new HashMap<>(), new HashMap<>());
+
+    private final Map<String, Endpoint> endpoints;
+    private final Endpoint[] all;
+    private final int[] ports;
+    private final Endpoint[][] endpointsByPort;
+
+    private Snapshot(Map<String, Endpoint> endpoints, Map<Integer, Set<Endpoint>> byPort) {
+      this.endpoints = Collections.unmodifiableMap(endpoints);
+      this.all = endpoints.values().toArray(NO_ENDPOINTS);
+      this.ports = new int[byPort.size()];
+      this.endpointsByPort = new Endpoint[byPort.size()][];
+      int i = 0;
+      for (Map.Entry<Integer, Set<Endpoint>> entry : byPort.entrySet()) {
+        ports[i] = entry.getKey();
+        endpointsByPort[i] = entry.getValue().toArray(NO_ENDPOINTS);
+        i++;
+      }
+    }
+
+    private Endpoint[] forPort(int port) {
+      // a service exposes a handful of ports, scanning them beats boxing the port for a lookup
+      for (int i = 0; i < ports.length; i++) {
+        if (ports[i] == port) {
+          return endpointsByPort[i];
+        }
+      }
+      return NO_ENDPOINTS;
+    }
+  }
+}
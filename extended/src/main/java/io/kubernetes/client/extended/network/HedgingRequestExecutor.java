@@ -0,0 +1,224 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.extended.network;
+
+import io.kubernetes.client.extended.network.exception.NoAvailableAddressException;
+import io.kubernetes.client.extended.network.metrics.LoadBalancerMetrics;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * HedgingRequestExecutor sends requests to the endpoints chosen by a load balancer, and reports
+ * their outcome to the metrics and optionally to an {@link OutlierDetectingLoadBalanceStrategy}.
+ *
+ * <p>Idempotent requests are hedged: when no response arrives within the hedge percentile of the
+ * recent latencies, the request is sent to a second endpoint as well, and the first successful
+ * response wins. The slower request is left to complete, so that its latency is still reported.
+ * Hedging is limited to the max hedge ratio of the requests, so that a slow service isn't
+ * overloaded further.
+ *
+ * <p>For example:
+ *
+ * <pre>{@code
+ * OutlierDetectingLoadBalanceStrategy strategy =
+ *     new OutlierDetectingLoadBalanceStrategy(new RoundRobinLoadBalanceStrategy());
+ * HedgingRequestExecutor executor =
+ *     new HedgingRequestExecutor(
+ *         new EndpointsLoadBalancer(endpointsGetter, strategy), strategy, executorService);
+ * String body = executor.executeIdempotent(8080, ip -> get("http://" + ip + ":8080/"));
+ * }</pre>
+ */
+public class HedgingRequestExecutor {
+
+  public static final double DEFAULT_HEDGE_PERCENTILE = 0.95;
+  public static final double DEFAULT_MAX_HEDGE_RATIO = 0.1;
+
+  // the number of recent latencies the hedge delay is computed from
+  private static final int LATENCY_SAMPLES = 256;
+  // the hedge delay is recomputed every so many requests
+  private static final int HEDGE_DELAY_INTERVAL = 32;
+
+  /** Request is sent to the address of an endpoint. */
+  @FunctionalInterface
+  public interface Request<T> {
+    T send(String ip) throws Exception;
+  }
+
+  private final LoadBalancer loadBalancer;
+  private final OutlierDetectingLoadBalanceStrategy outlierDetection;
+  private final ExecutorService executorService;
+
+  private double hedgePercentile = DEFAULT_HEDGE_PERCENTILE;
+  private double maxHedgeRatio = DEFAULT_MAX_HEDGE_RATIO;
+
+  private String name = "";
+  private LoadBalancerMetrics metrics = new LoadBalancerMetrics() {};
+
+  private final long[] latencies = new long[LATENCY_SAMPLES];
+  private long latencyCount;
+  // the delay before hedging a request, negative until there are enough latencies
+  private volatile long hedgeDelayNanos = -1;
+
+  private final AtomicLong requests = new AtomicLong();
+  private final AtomicLong hedges = new AtomicLong();
+
+  /**
+   * Instantiates a new executor.
+   *
+   * @param loadBalancer the load balancer choosing the endpoints
+   * @param outlierDetection the strategy the outcome of the requests is reported to, or null
+   * @param executorService the executor sending the idempotent requests
+   */
+  public HedgingRequestExecutor(
+      LoadBalancer loadBalancer,
+      OutlierDetectingLoadBalanceStrategy outlierDetection,
+      ExecutorService executorService) {
+    this.loadBalancer = loadBalancer;
+    this.outlierDetection = outlierDetection;
+    this.executorService = executorService;
+  }
+
+  /**
+   * Sends a request to an endpoint on the calling thread, without hedging it.
+   *
+   * @param port the port of the endpoint
+   * @param request the request
+   * @return the response
+   * @throws Exception if no endpoint is available or the request failed
+   */
+  public <T> T execute(int port, Request<T> request) throws Exception {
+    requests.incrementAndGet();
+    return send(loadBalancer.getTargetIP(port), request);
+  }
+
+  /**
+   * Sends an idempotent request to an endpoint, and hedges it to another endpoint when it is slower
+   * than the hedge percentile of the recent requests.
+   *
+   * @param port the port of the endpoint
+   * @param request the request, it may be sent twice
+   * @return the first successful response
+   * @throws Exception if no endpoint is available or all the requests sent failed
+   */
+  public <T> T executeIdempotent(int port, Request<T> request) throws Exception {
+    long requestCount = requests.incrementAndGet();
+    String primaryIP = loadBalancer.getTargetIP(port);
+    long delay = hedgeDelayNanos;
+    if (delay < 0) {
+      return send(primaryIP, request);
+    }
+
+    ExecutorCompletionService<T> completion = new ExecutorCompletionService<>(executorService);
+    Future<T> primary = completion.submit(() -> send(primaryIP, request));
+    Future<T> done = completion.poll(delay, TimeUnit.NANOSECONDS);
+    if (done != null) {
+      return getResult(done);
+    }
+
+    String hedgeIP = chooseOther(port, primaryIP);
+    if (hedgeIP == null || hedges.get() >= requestCount * maxHedgeRatio) {
+      return getResult(primary);
+    }
+    hedges.incrementAndGet();
+    metrics.incHedges(name);
+    Future<T> hedge = completion.submit(() -> send(hedgeIP, request));
+    Exception failure = null;
+    for (int i = 0; i < 2; i++) {
+      Future<T> next = completion.take();
+      try {
+        T result = getResult(next);
+        if (next == hedge) {
+          metrics.incHedgeWins(name);
+        }
+        return result;
+      } catch (Exception e) {
+        failure = e;
+      }
+    }
+    throw failure;
+  }
+
+  public void setHedgePercentile(double hedgePercentile) {
+    this.hedgePercentile = hedgePercentile;
+  }
+
+  public void setMaxHedgeRatio(double maxHedgeRatio) {
+    this.maxHedgeRatio = maxHedgeRatio;
+  }
+
+  /**
+   * Sets the metrics observing the requests.
+   *
+   * @param name the load balancer name labeling the metrics
+   * @param metrics the metrics
+   */
+  public void setMetrics(String name, LoadBalancerMetrics metrics) {
+    this.name = name;
+    this.metrics = metrics;
+  }
+
+  private <T> T send(String ip, Request<T> request) throws Exception {
+    long start = System.nanoTime();
+    boolean success = false;
+    try {
+      T result = request.send(ip);
+      success = true;
+      return result;
+    } finally {
+      long latency = System.nanoTime() - start;
+      if (outlierDetection != null) {
+        outlierDetection.report(ip, latency, success);
+      }
+      metrics.observeRequest(name, latency / 1e9, success);
+      if (success) {
+        recordLatency(latency);
+      }
+    }
+  }
+
+  private String chooseOther(int port, String ip) throws NoAvailableAddressException {
+    // a few tries, the load balancer may well have a single endpoint
+    for (int i = 0; i < 3; i++) {
+      String other = loadBalancer.getTargetIP(port);
+      if (other != null && !other.equals(ip)) {
+        return other;
+      }
+    }
+    return null;
+  }
+
+  private synchronized void recordLatency(long latency) {
+    latencies[(int) (latencyCount++ % LATENCY_SAMPLES)] = latency;
+    if (latencyCount % HEDGE_DELAY_INTERVAL == 0) {
+      long[] sorted = Arrays.copyOf(latencies, (int) Math.min(latencyCount, LATENCY_SAMPLES));
+      Arrays.sort(sorted);
+      hedgeDelayNanos = sorted[(int) Math.min(sorted.length - 1, sorted.length * hedgePercentile)];
+    }
+  }
+
+  private static <T> T getResult(Future<T> future) throws Exception {
+    try {
+      return future.get();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof Exception) {
+        throw (Exception) e.getCause();
+      }
+      throw e;
+    }
+  }
+}
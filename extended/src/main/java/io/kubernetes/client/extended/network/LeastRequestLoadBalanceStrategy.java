@@ -0,0 +1,54 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.extended.network;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * LeastRequestLoadBalanceStrategy picks two endpoints at random and chooses the one with fewer
+ * requests in flight, i.e. the "power of two choices". It steers away from overloaded endpoints
+ * almost as well as comparing all of them, at a constant cost per request.
+ *
+ * <p>The requests in flight are the ones reported through {@link Endpoint#requestStarted()} and
+ * {@link Endpoint#requestFinished()}. Plain IP candidates carry no such count, so they are chosen
+ * at random.
+ */
+public class LeastRequestLoadBalanceStrategy implements LoadBalanceStrategy {
+
+  @Override
+  public String chooseIP(List<String> ipCandidates) {
+    if (ipCandidates == null || ipCandidates.size() == 0) {
+      throw new IllegalArgumentException("failed choosing IP target: empty candidates");
+    }
+    return ipCandidates.get(ThreadLocalRandom.current().nextInt(ipCandidates.size()));
+  }
+
+  @Override
+  public Endpoint chooseEndpoint(Endpoint[] candidates) {
+    int len = candidates.length;
+    if (len == 1) {
+      return candidates[0];
+    }
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    int first = random.nextInt(len);
+    // the second pick skips the first one
+    int second = random.nextInt(len - 1);
+    if (second >= first) {
+      second++;
+    }
+    Endpoint a = candidates[first];
+    Endpoint b = candidates[second];
+    return b.getOutstandingRequests() < a.getOutstandingRequests() ? b : a;
+  }
+}
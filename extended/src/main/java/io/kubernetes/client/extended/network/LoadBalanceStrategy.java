@@ -12,9 +12,33 @@ limitations under the License.
 */
 package io.kubernetes.client.extended.network;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public interface LoadBalanceStrategy {
 
   String chooseIP(List<String> ipCandidates);
+
+  /**
+   * Chooses one of the endpoints, the candidates are never empty and must not be modified.
+   *
+   * <p>The default implementation goes through {@link #chooseIP(List)}, strategies override it to
+   * choose without allocating.
+   *
+   * @param candidates the ready endpoints
+   * @return the chosen endpoint
+   */
+  default Endpoint chooseEndpoint(Endpoint[] candidates) {
+    List<String> ipCandidates = new ArrayList<>(candidates.length);
+    for (Endpoint candidate : candidates) {
+      ipCandidates.add(candidate.getIp());
+    }
+    String ip = chooseIP(ipCandidates);
+    for (Endpoint candidate : candidates) {
+      if (candidate.getIp().equals(ip)) {
+        return candidate;
+      }
+    }
+    return null;
+  }
 }
@@ -0,0 +1,317 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.extended.network;
+
+import io.kubernetes.client.extended.network.metrics.LoadBalancerMetrics;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * OutlierDetectingLoadBalanceStrategy keeps the endpoints misbehaving lately out of the choice of
+ * another strategy for a while. The callers report the outcome of their requests through {@link
+ * #report(String, long, boolean)}, e.g. by sending them with a {@link HedgingRequestExecutor}.
+ *
+ * <p>An endpoint is ejected when it fails a number of requests in a row, or after the minimum
+ * number of requests, when its error rate or its latency moving average stands out. The latency
+ * stands out when it exceeds a factor of the average latency of the other endpoints. An ejected
+ * endpoint is skipped for the base ejection time multiplied by the number of times it has been
+ * ejected, up to the max ejection time, then comes back with fresh statistics. At most the max
+ * ejection percent of the endpoints are ejected at a time, and when all the candidates are ejected
+ * they are all used anyway.
+ *
+ * <p>While no endpoint is ejected, choosing an endpoint costs nothing on top of the delegate.
+ */
+public class OutlierDetectingLoadBalanceStrategy implements LoadBalanceStrategy {
+
+  private static final Logger logger =
+      LoggerFactory.getLogger(OutlierDetectingLoadBalanceStrategy.class);
+
+  // the weight of the latest request in the moving averages
+  private static final double EWMA_WEIGHT = 0.1;
+  // how long the statistics of an endpoint without requests are kept
+  private static final long IDLE_STATS_NANOS = Duration.ofMinutes(10).toNanos();
+  // how often the expired ejections and the idle statistics are cleaned up
+  private static final long PRUNE_INTERVAL_NANOS = Duration.ofSeconds(1).toNanos();
+
+  public static final int DEFAULT_CONSECUTIVE_FAILURES = 5;
+  public static final double DEFAULT_MAX_ERROR_RATE = 0.5;
+  public static final double DEFAULT_LATENCY_FACTOR = 3;
+  public static final int DEFAULT_MIN_REQUESTS = 20;
+  public static final Duration DEFAULT_BASE_EJECTION_TIME = Duration.ofSeconds(30);
+  public static final Duration DEFAULT_MAX_EJECTION_TIME = Duration.ofMinutes(5);
+  public static final int DEFAULT_MAX_EJECTION_PERCENT = 50;
+
+  private final LoadBalanceStrategy delegate;
+
+  private int consecutiveFailures = DEFAULT_CONSECUTIVE_FAILURES;
+  private double maxErrorRate = DEFAULT_MAX_ERROR_RATE;
+  private double latencyFactor = DEFAULT_LATENCY_FACTOR;
+  private int minRequests = DEFAULT_MIN_REQUESTS;
+  private Duration baseEjectionTime = DEFAULT_BASE_EJECTION_TIME;
+  private Duration maxEjectionTime = DEFAULT_MAX_EJECTION_TIME;
+  private int maxEjectionPercent = DEFAULT_MAX_EJECTION_PERCENT;
+
+  private String name = "";
+  private LoadBalancerMetrics metrics = new LoadBalancerMetrics() {};
+
+  private final Map<String, EndpointStats> endpointStats = new ConcurrentHashMap<>();
+  private final AtomicInteger ejectedEndpoints = new AtomicInteger();
+  private final AtomicLong nextPruneNanos = new AtomicLong(System.nanoTime());
+  // the number of candidates of the latest choice, the ejection cap applies to them
+  private volatile int candidates;
+
+  public OutlierDetectingLoadBalanceStrategy(LoadBalanceStrategy delegate) {
+    this.delegate = delegate;
+  }
+
+  @Override
+  public String chooseIP(List<String> ipCandidates) {
+    candidates = ipCandidates.size();
+    if (ejectedEndpoints.get() == 0) {
+      return delegate.chooseIP(ipCandidates);
+    }
+    long now = System.nanoTime();
+    maybePrune(now);
+    List<String> healthy = new ArrayList<>(ipCandidates.size());
+    for (String ip : ipCandidates) {
+      if (!isEjected(ip, now)) {
+        healthy.add(ip);
+      }
+    }
+    return delegate.chooseIP(healthy.isEmpty() ? ipCandidates : healthy);
+  }
+
+  @Override
+  public Endpoint chooseEndpoint(Endpoint[] candidates) {
+    this.candidates = candidates.length;
+    if (ejectedEndpoints.get() == 0) {
+      return delegate.chooseEndpoint(candidates);
+    }
+    long now = System.nanoTime();
+    maybePrune(now);
+    int healthy = 0;
+    for (Endpoint candidate : candidates) {
+      if (!isEjected(candidate.getIp(), now)) {
+        healthy++;
+      }
+    }
+    if (healthy == 0 || healthy == candidates.length) {
+      return delegate.chooseEndpoint(candidates);
+    }
+    Endpoint[] healthyCandidates = new Endpoint[healthy];
+    int i = 0;
+    for (Endpoint candidate : candidates) {
+      if (i < healthy && !isEjected(candidate.getIp(), now)) {
+        healthyCandidates[i++] = candidate;
+      }
+    }
+    if (i < healthy) {
+      // an ejection has just ended or started, keeps it simple
+      return delegate.chooseEndpoint(candidates);
+    }
+    return delegate.chooseEndpoint(healthyCandidates);
+  }
+
+  /**
+   * Reports the outcome of a request to an endpoint.
+   *
+   * @param ip the endpoint the request was sent to
+   * @param latencyNanos how long the request took
+   * @param success whether the request succeeded
+   */
+  public void report(String ip, long latencyNanos, boolean success) {
+    long now = System.nanoTime();
+    EndpointStats stats = endpointStats.computeIfAbsent(ip, k -> new EndpointStats());
+    boolean outlier;
+    synchronized (stats) {
+      stats.lastReportNanos = now;
+      if (stats.ejectedUntilNanos != 0) {
+        // sent before the ejection
+        return;
+      }
+      stats.requests++;
+      if (stats.requests == 1) {
+        stats.latencyEwma = latencyNanos;
+      } else {
+        stats.latencyEwma += EWMA_WEIGHT * (latencyNanos - stats.latencyEwma);
+      }
+      stats.errorEwma += EWMA_WEIGHT * ((success ? 0 : 1) - stats.errorEwma);
+      stats.consecutiveFailures = success ? 0 : stats.consecutiveFailures + 1;
+      if (stats.requests == minRequests) {
+        // has been behaving since its last ejection
+        stats.ejections = 0;
+      }
+      outlier =
+          stats.consecutiveFailures >= consecutiveFailures
+              || (stats.requests >= minRequests
+                  && (stats.errorEwma > maxErrorRate || isSlow(stats)));
+    }
+    if (outlier) {
+      eject(ip, stats, now);
+    }
+    maybePrune(now);
+  }
+
+  public boolean isEjected(String ip) {
+    return isEjected(ip, System.nanoTime());
+  }
+
+  public int getEjectedEndpoints() {
+    return ejectedEndpoints.get();
+  }
+
+  public void setConsecutiveFailures(int consecutiveFailures) {
+    this.consecutiveFailures = consecutiveFailures;
+  }
+
+  public void setMaxErrorRate(double maxErrorRate) {
+    this.maxErrorRate = maxErrorRate;
+  }
+
+  public void setLatencyFactor(double latencyFactor) {
+    this.latencyFactor = latencyFactor;
+  }
+
+  public void setMinRequests(int minRequests) {
+    this.minRequests = minRequests;
+  }
+
+  public void setBaseEjectionTime(Duration baseEjectionTime) {
+    this.baseEjectionTime = baseEjectionTime;
+  }
+
+  public void setMaxEjectionTime(Duration maxEjectionTime) {
+    this.maxEjectionTime = maxEjectionTime;
+  }
+
+  public void setMaxEjectionPercent(int maxEjectionPercent) {
+    this.maxEjectionPercent = maxEjectionPercent;
+  }
+
+  /**
+   * Sets the metrics counting the ejections.
+   *
+   * @param name the load balancer name labeling the metrics
+   * @param metrics the metrics
+   */
+  public void setMetrics(String name, LoadBalancerMetrics metrics) {
+    this.name = name;
+    this.metrics = metrics;
+  }
+
+  private boolean isSlow(EndpointStats stats) {
+    double sum = 0;
+    int count = 0;
+    for (EndpointStats other : endpointStats.values()) {
+      if (other != stats && other.ejectedUntilNanos == 0 && other.requests >= minRequests) {
+        sum += other.latencyEwma;
+        count++;
+      }
+    }
+    return count > 0 && stats.latencyEwma > latencyFactor * (sum / count);
+  }
+
+  private void eject(String ip, EndpointStats stats, long now) {
+    long ejectionNanos;
+    synchronized (stats) {
+      if (stats.ejectedUntilNanos != 0) {
+        return;
+      }
+      // the cap is approximate as the endpoints are ejected concurrently
+      int endpoints = candidates > 0 ? candidates : endpointStats.size();
+      if ((ejectedEndpoints.get() + 1) * 100L > (long) maxEjectionPercent * endpoints) {
+        return;
+      }
+      stats.ejections++;
+      ejectionNanos =
+          Math.min(baseEjectionTime.toNanos() * stats.ejections, maxEjectionTime.toNanos());
+      // zero means not ejected
+      stats.ejectedUntilNanos = (now + ejectionNanos) | 1;
+      ejectedEndpoints.incrementAndGet();
+    }
+    logger.info("ejecting endpoint {} for {}", ip, Duration.ofNanos(ejectionNanos));
+    metrics.incEjections(name);
+  }
+
+  private boolean isEjected(String ip, long now) {
+    EndpointStats stats = endpointStats.get(ip);
+    if (stats == null) {
+      return false;
+    }
+    long ejectedUntil = stats.ejectedUntilNanos;
+    if (ejectedUntil == 0) {
+      return false;
+    }
+    if (now - ejectedUntil < 0) {
+      return true;
+    }
+    synchronized (stats) {
+      endEjection(stats);
+    }
+    return false;
+  }
+
+  // endEjection brings back an endpoint with fresh statistics, called while holding its lock.
+  private void endEjection(EndpointStats stats) {
+    if (stats.ejectedUntilNanos != 0) {
+      stats.ejectedUntilNanos = 0;
+      stats.requests = 0;
+      stats.consecutiveFailures = 0;
+      stats.errorEwma = 0;
+      ejectedEndpoints.decrementAndGet();
+    }
+  }
+
+  private void maybePrune(long now) {
+    long next = nextPruneNanos.get();
+    if (now - next >= 0 && nextPruneNanos.compareAndSet(next, now + PRUNE_INTERVAL_NANOS)) {
+      prune(now);
+    }
+  }
+
+  // prune ends the expired ejections, also of the endpoints which are no candidate anymore, e.g.
+  // deleted pods, and drops the statistics of the endpoints without requests for a while.
+  private void prune(long now) {
+    Iterator<EndpointStats> it = endpointStats.values().iterator();
+    while (it.hasNext()) {
+      EndpointStats stats = it.next();
+      synchronized (stats) {
+        if (stats.ejectedUntilNanos != 0 && now - stats.ejectedUntilNanos >= 0) {
+          endEjection(stats);
+        }
+        if (stats.ejectedUntilNanos == 0 && now - stats.lastReportNanos > IDLE_STATS_NANOS) {
+          it.remove();
+        }
+      }
+    }
+  }
+
+  private static class EndpointStats {
+    private volatile int requests;
+    private volatile double latencyEwma;
+    private double errorEwma;
+    private int consecutiveFailures;
+    private int ejections;
+    private long lastReportNanos;
+    // the nano time the ejection ends, zero if not ejected
+    private volatile long ejectedUntilNanos;
+  }
+}
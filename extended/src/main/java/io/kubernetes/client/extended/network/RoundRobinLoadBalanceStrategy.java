@@ -25,7 +25,12 @@ public class RoundRobinLoadBalanceStrategy implements LoadBalanceStrategy {
       throw new IllegalArgumentException("failed choosing IP target: empty candidates");
     }
     int len = availableIPs.size();
-    int idx = robinIndex.getAndIncrement() % len;
+    int idx = Math.floorMod(robinIndex.getAndIncrement(), len);
     return availableIPs.get(idx);
   }
+
+  @Override
+  public Endpoint chooseEndpoint(Endpoint[] candidates) {
+    return candidates[Math.floorMod(robinIndex.getAndIncrement(), candidates.length)];
+  }
 }
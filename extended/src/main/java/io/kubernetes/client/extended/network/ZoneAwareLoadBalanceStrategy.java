@@ -0,0 +1,78 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.extended.network;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ZoneAwareLoadBalanceStrategy keeps the traffic within the zone of the client whenever the zone
+ * has ready endpoints, and delegates the choice among them to another strategy.
+ *
+ * <p>The endpoints of the zone are the ones hinted for it by topology aware routing. If some
+ * endpoint has no hints, the hints are ignored like kube-proxy does, and the endpoints located in
+ * the zone are used instead. When the zone has no endpoints, all of them are candidates.
+ */
+public class ZoneAwareLoadBalanceStrategy implements LoadBalanceStrategy {
+
+  // the candidates change only when the endpoint slices change, so old entries are few
+  private static final int MAX_CACHED_CANDIDATES = 64;
+
+  private final String zone;
+  private final LoadBalanceStrategy delegate;
+
+  // the endpoints of the zone by candidates, arrays are compared by identity
+  private final Map<Endpoint[], Endpoint[]> zoneEndpoints = new ConcurrentHashMap<>();
+
+  public ZoneAwareLoadBalanceStrategy(String zone, LoadBalanceStrategy delegate) {
+    this.zone = zone;
+    this.delegate = delegate;
+  }
+
+  @Override
+  public String chooseIP(List<String> ipCandidates) {
+    // plain IPs carry no zone
+    return delegate.chooseIP(ipCandidates);
+  }
+
+  @Override
+  public Endpoint chooseEndpoint(Endpoint[] candidates) {
+    Endpoint[] local = zoneEndpoints.get(candidates);
+    if (local == null) {
+      if (zoneEndpoints.size() >= MAX_CACHED_CANDIDATES) {
+        zoneEndpoints.clear();
+      }
+      local = zoneEndpoints.computeIfAbsent(candidates, this::filterZone);
+    }
+    return delegate.chooseEndpoint(local);
+  }
+
+  private Endpoint[] filterZone(Endpoint[] candidates) {
+    boolean hinted = true;
+    for (Endpoint endpoint : candidates) {
+      hinted &= endpoint.hasZoneHints();
+    }
+    List<Endpoint> local = new ArrayList<>();
+    for (Endpoint endpoint : candidates) {
+      if (hinted ? endpoint.isHintedFor(zone) : zone.equals(endpoint.getZone())) {
+        local.add(endpoint);
+      }
+    }
+    if (local.isEmpty()) {
+      return candidates;
+    }
+    return local.toArray(new Endpoint[0]);
+  }
+}
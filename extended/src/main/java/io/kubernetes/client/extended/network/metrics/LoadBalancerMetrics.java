@@ -0,0 +1,51 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.extended.network.metrics;
+
+/**
+ * LoadBalancerMetrics observes the requests sent through a client-side load balancer, labeled by
+ * the load balancer's name. The metrics are updated concurrently, so they must be thread-safe. All
+ * the methods do nothing by default.
+ */
+public interface LoadBalancerMetrics {
+
+  /**
+   * Observes a request to an endpoint.
+   *
+   * @param name the load balancer name
+   * @param seconds how long in seconds the request took
+   * @param success whether the request succeeded
+   */
+  default void observeRequest(String name, double seconds, boolean success) {}
+
+  /**
+   * Counts an endpoint ejected as an outlier.
+   *
+   * @param name the load balancer name
+   */
+  default void incEjections(String name) {}
+
+  /**
+   * Counts a request hedged to a second endpoint.
+   *
+   * @param name the load balancer name
+   */
+  default void incHedges(String name) {}
+
+  /**
+   * Counts a hedged request answered by the second endpoint first.
+   *
+   * @param name the load balancer name
+   */
+  default void incHedgeWins(String name) {}
+}
@@ -0,0 +1,83 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.extended.network.metrics;
+
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.Counter;
+import io.prometheus.client.Histogram;
+
+/**
+ * The Prometheus load balancer metrics, labeled by the load balancer's name. The metrics are
+ * registered upon construction, so there should be one instance per registry.
+ */
+public class PrometheusLoadBalancerMetrics implements LoadBalancerMetrics {
+
+  static final String PREFIX = "loadbalancer";
+
+  private final Histogram requestDuration;
+  private final Counter ejections;
+  private final Counter hedges;
+  private final Counter hedgeWins;
+
+  public PrometheusLoadBalancerMetrics() {
+    this(CollectorRegistry.defaultRegistry);
+  }
+
+  public PrometheusLoadBalancerMetrics(CollectorRegistry registry) {
+    this.requestDuration =
+        Histogram.build()
+            .name(PREFIX + "_request_duration_seconds")
+            .help("How long in seconds a request to an endpoint takes")
+            .labelNames("name", "outcome")
+            .exponentialBuckets(0.001, 2, 15)
+            .register(registry);
+    this.ejections =
+        Counter.build()
+            .name(PREFIX + "_ejections_total")
+            .help("Total number of endpoints ejected as outliers")
+            .labelNames("name")
+            .register(registry);
+    this.hedges =
+        Counter.build()
+            .name(PREFIX + "_hedges_total")
+            .help("Total number of requests hedged to a second endpoint")
+            .labelNames("name")
+            .register(registry);
+    this.hedgeWins =
+        Counter.build()
+            .name(PREFIX + "_hedge_wins_total")
+            .help("Total number of hedged requests answered by the second endpoint first")
+            .labelNames("name")
+            .register(registry);
+  }
+
+  @Override
+  public void observeRequest(String name, double seconds, boolean success) {
+    requestDuration.labels(name, success ? "success" : "failure").observe(seconds);
+  }
+
+  @Override
+  public void incEjections(String name) {
+    ejections.labels(name).inc();
+  }
+
+  @Override
+  public void incHedges(String name) {
+    hedges.labels(name).inc();
+  }
+
+  @Override
+  public void incHedgeWins(String name) {
+    hedgeWins.labels(name).inc();
+  }
+}
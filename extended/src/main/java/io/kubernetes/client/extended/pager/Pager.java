@@ -12,15 +12,36 @@ limitations under the License.
 */
 package io.kubernetes.client.extended.pager;
 
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import io.kubernetes.client.common.KubernetesListObject;
 import io.kubernetes.client.common.KubernetesObject;
 import io.kubernetes.client.openapi.ApiClient;
 import io.kubernetes.client.openapi.ApiException;
+import io.kubernetes.client.openapi.models.V1ListMeta;
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Response;
 
 /*
  * Pager encapsulates kubernetes limit/continue-based list pagination into an iterator.
@@ -32,6 +53,9 @@ public class Pager<ApiType extends KubernetesObject, ApiListType extends Kuberne
   private final ApiClient client;
   private final Type listType;
   private final Function<PagerParams, Call> listFunc;
+  private final int prefetchPages;
+  // the type of the list items if they are decoded one at a time, otherwise null
+  private final Type streamedItemType;
 
   /**
    * Pagination in kubernetes list call depends on continue and limit variable
@@ -44,10 +68,63 @@ public class Pager<ApiType extends KubernetesObject, ApiListType extends Kuberne
    */
   public Pager(
       Function<PagerParams, Call> listFunc, ApiClient client, Integer limit, Type listType) {
+    this(listFunc, client, limit, listType, 0);
+  }
+
+  /**
+   * Pagination in kubernetes list call depends on continue and limit variable
+   *
+   * @param listFunc lambda of type: (PagerParams p)->{return
+   *     list<*>[namespace[s|d]]*<*>Call(...p.getContinue(),...p.getLimit()...);}
+   * @param client instance of {@link ApiClient}
+   * @param limit size of list to be fetched
+   * @param listType Type of list to be fetched
+   * @param prefetchPages number of pages fetched ahead in the background while the current page is
+   *     processed, 0 fetches a page only when the previous one is exhausted
+   */
+  public Pager(
+      Function<PagerParams, Call> listFunc,
+      ApiClient client,
+      Integer limit,
+      Type listType,
+      int prefetchPages) {
+    this(listFunc, client, limit, listType, prefetchPages, false);
+  }
+
+  /**
+   * Pagination in kubernetes list call depends on continue and limit variable
+   *
+   * <p>Streaming the items bounds the memory to one item at a time instead of a whole page, but
+   * keeps the response of the current page open while iterating. So the iterator must be exhausted,
+   * or the stream closed, to release the connection. {@link #forEachPage(Consumer)} still decodes
+   * whole pages.
+   *
+   * @param listFunc lambda of type: (PagerParams p)->{return
+   *     list<*>[namespace[s|d]]*<*>Call(...p.getContinue(),...p.getLimit()...);}
+   * @param client instance of {@link ApiClient}
+   * @param limit size of list to be fetched
+   * @param listType Type of list to be fetched, the class of a list with typed items if streaming
+   * @param prefetchPages number of pages fetched ahead in the background while the current page is
+   *     processed, 0 fetches a page only when the previous one is exhausted
+   * @param streamItems whether the iterator decodes the items one at a time from the response
+   *     instead of decoding whole pages, can't be combined with prefetching
+   */
+  public Pager(
+      Function<PagerParams, Call> listFunc,
+      ApiClient client,
+      Integer limit,
+      Type listType,
+      int prefetchPages,
+      boolean streamItems) {
     this.listFunc = listFunc;
     this.client = client;
     this.limit = limit;
     this.listType = listType;
+    this.prefetchPages = prefetchPages;
+    this.streamedItemType = streamItems ? getItemType(listType) : null;
+    if (streamItems && prefetchPages > 0) {
+      throw new IllegalArgumentException("Prefetched pages can't be streamed");
+    }
   }
 
   /**
@@ -57,11 +134,52 @@ public class Pager<ApiType extends KubernetesObject, ApiListType extends Kuberne
    */
   @Override
   public Iterator<ApiType> iterator() {
+    if (streamedItemType != null) {
+      StreamingPagerIterator it = new StreamingPagerIterator();
+      it.makeCall();
+      return it;
+    }
     PagerIterator it = new PagerIterator();
     it.makeCall();
     return it;
   }
 
+  @Override
+  public Spliterator<ApiType> spliterator() {
+    return toSpliterator(iterator());
+  }
+
+  /**
+   * Streams the objects of all the pages. When streaming the items, closing the stream releases the
+   * response of the current page.
+   *
+   * @return the stream
+   */
+  public Stream<ApiType> stream() {
+    if (streamedItemType != null) {
+      StreamingPagerIterator it = new StreamingPagerIterator();
+      it.makeCall();
+      return StreamSupport.stream(toSpliterator(it), false).onClose(it::close);
+    }
+    return StreamSupport.stream(spliterator(), false);
+  }
+
+  private static <T> Spliterator<T> toSpliterator(Iterator<T> it) {
+    return Spliterators.spliteratorUnknownSize(it, Spliterator.ORDERED | Spliterator.NONNULL);
+  }
+
+  /**
+   * Performs the action on every page of the list, in order.
+   *
+   * @param action the action processing a page
+   */
+  public void forEachPage(Consumer<? super ApiListType> action) {
+    PageFetcher pages = new PageFetcher();
+    for (ApiListType page = pages.nextPage(); page != null; page = pages.nextPage()) {
+      action.accept(page);
+    }
+  }
+
   /** returns next list call by setting continue variable and limit */
   private Call getNextCall(Integer nextLimit, String continueToken) {
     PagerParams params = new PagerParams((nextLimit != null) ? nextLimit : limit, continueToken);
@@ -73,6 +191,52 @@ public class Pager<ApiType extends KubernetesObject, ApiListType extends Kuberne
     return client.handleResponse(call.execute(), listType);
   }
 
+  /** enqueues the list call, the page is decoded on the http client's dispatcher */
+  private CompletableFuture<ApiListType> executeRequestAsync(Call call) {
+    CompletableFuture<ApiListType> future = new CompletableFuture<>();
+    call.enqueue(
+        new Callback() {
+          @Override
+          public void onFailure(Call call, IOException e) {
+            future.completeExceptionally(e);
+          }
+
+          @Override
+          public void onResponse(Call call, Response response) {
+            try {
+              future.complete(client.handleResponse(response, listType));
+            } catch (Throwable t) {
+              future.completeExceptionally(t);
+            }
+          }
+        });
+    return future;
+  }
+
+  private static Type getItemType(Type listType) {
+    if (listType instanceof Class) {
+      try {
+        Type itemsType = ((Class<?>) listType).getDeclaredField("items").getGenericType();
+        if (itemsType instanceof ParameterizedType) {
+          return ((ParameterizedType) itemsType).getActualTypeArguments()[0];
+        }
+      } catch (NoSuchFieldException e) {
+        // not a list of typed items
+      }
+    }
+    throw new IllegalArgumentException("Can't stream the items of " + listType);
+  }
+
+  private static RuntimeException toRuntimeException(Throwable t) {
+    if (t instanceof ApiException) {
+      return new RuntimeException(((ApiException) t).getResponseBody());
+    }
+    if (t instanceof RuntimeException) {
+      return (RuntimeException) t;
+    }
+    return new RuntimeException(t);
+  }
+
   public static class PagerParams {
 
     private String continueToken;
@@ -102,13 +266,71 @@ public class Pager<ApiType extends KubernetesObject, ApiListType extends Kuberne
     }
   }
 
-  private class PagerIterator implements Iterator<ApiType> {
+  /** PageFetcher fetches the pages of a list one after another, ahead if prefetching. */
+  private class PageFetcher {
 
-    private boolean started;
+    private boolean exhausted;
     private String continueToken;
+    // the pages following the current one, each fetched as soon as the previous one arrives
+    private final Deque<CompletableFuture<ApiListType>> prefetched = new ArrayDeque<>();
+
+    /**
+     * returns the next page, or null if kubernetes server has exhausted List.
+     *
+     * @return the next page
+     */
+    private ApiListType nextPage() {
+      if (exhausted) {
+        return null;
+      }
+      ApiListType page = prefetchPages > 0 ? nextPrefetchedPage() : fetchPage();
+      if (page == null || page.getMetadata().getContinue() == null) {
+        exhausted = true;
+      }
+      return page;
+    }
+
+    private ApiListType fetchPage() {
+      try {
+        ApiListType page = executeRequest(getNextCall(limit, continueToken));
+        continueToken = page.getMetadata().getContinue();
+        return page;
+      } catch (ApiException | IOException e) {
+        throw toRuntimeException(e);
+      }
+    }
+
+    private ApiListType nextPrefetchedPage() {
+      if (prefetched.isEmpty()) {
+        prefetched.add(executeRequestAsync(getNextCall(limit, continueToken)));
+      }
+      CompletableFuture<ApiListType> current = prefetched.poll();
+      CompletableFuture<ApiListType> last = prefetched.isEmpty() ? current : prefetched.peekLast();
+      while (prefetched.size() < prefetchPages) {
+        last = last.thenCompose(this::fetchFollowingPage);
+        prefetched.add(last);
+      }
+      try {
+        return current.join();
+      } catch (CompletionException e) {
+        prefetched.clear();
+        throw toRuntimeException(e.getCause());
+      }
+    }
+
+    private CompletableFuture<ApiListType> fetchFollowingPage(ApiListType page) {
+      if (page == null || page.getMetadata().getContinue() == null) {
+        return CompletableFuture.completedFuture(null);
+      }
+      return executeRequestAsync(getNextCall(limit, page.getMetadata().getContinue()));
+    }
+  }
+
+  private class PagerIterator implements Iterator<ApiType> {
+
+    private final PageFetcher pages = new PageFetcher();
     private int offsetCurrentPage;
-    private int currentPageSize;
-    private ApiListType listObjectCurrentPage;
+    private List<ApiType> itemsCurrentPage = Collections.emptyList();
 
     /**
      * returns false if kubernetes server has exhausted List.
@@ -117,44 +339,172 @@ public class Pager<ApiType extends KubernetesObject, ApiListType extends Kuberne
      */
     @Override
     public boolean hasNext() {
-      if (listObjectCurrentPage.getItems() == null
-          || listObjectCurrentPage.getItems().size() == 0) {
-        return false;
+      while (offsetCurrentPage >= itemsCurrentPage.size()) {
+        if (pages.exhausted) {
+          return false;
+        }
+        makeCall();
       }
-      if (!started) {
-        started = true;
-        return Boolean.TRUE;
+      return true;
+    }
+
+    protected void makeCall() {
+      ApiListType listObjectCurrentPage = pages.nextPage();
+      offsetCurrentPage = 0;
+      itemsCurrentPage =
+          listObjectCurrentPage == null || listObjectCurrentPage.getItems() == null
+              ? Collections.emptyList()
+              : (List<ApiType>) listObjectCurrentPage.getItems();
+    }
+
+    /**
+     * returns next chunk of List. size of list depends on limit set in constructor.
+     *
+     * @return the next Object
+     */
+    @Override
+    public ApiType next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
       }
-      return !(continueToken == null && offsetCurrentPage >= currentPageSize);
+      return itemsCurrentPage.get(offsetCurrentPage++);
     }
+  }
+
+  /**
+   * StreamingPage decodes the items of a page one at a time from the response, along with the
+   * continue token of the list metadata.
+   */
+  private class StreamingPage implements Closeable {
+
+    private final Response response;
+    private final JsonReader reader;
+    private final Gson gson = client.getJSON().getGson();
+    private String continueToken;
+    private boolean inItems;
+    private boolean ended;
+
+    private StreamingPage(Call call) throws IOException, ApiException {
+      this.response = call.execute();
+      if (!response.isSuccessful()) {
+        // throws the api exception carrying the response body
+        client.handleResponse(response, listType);
+      }
+      this.reader = new JsonReader(response.body().charStream());
+      reader.beginObject();
+      advanceToItems();
+    }
+
+    /** reads the fields of the list up to the next item, or the end of the list */
+    private void advanceToItems() throws IOException {
+      while (reader.hasNext()) {
+        String name = reader.nextName();
+        if (reader.peek() == JsonToken.NULL) {
+          reader.nextNull();
+        } else if (name.equals("metadata")) {
+          V1ListMeta metadata = gson.fromJson(reader, V1ListMeta.class);
+          continueToken = metadata.getContinue();
+        } else if (name.equals("items")) {
+          reader.beginArray();
+          inItems = true;
+          return;
+        } else {
+          reader.skipValue();
+        }
+      }
+      reader.endObject();
+      ended = true;
+    }
+
+    private boolean hasNextItem() throws IOException {
+      while (!ended) {
+        if (inItems) {
+          if (reader.hasNext()) {
+            return true;
+          }
+          reader.endArray();
+          inItems = false;
+        }
+        advanceToItems();
+      }
+      return false;
+    }
+
+    private ApiType nextItem() {
+      return gson.fromJson(reader, streamedItemType);
+    }
+
+    @Override
+    public void close() {
+      response.close();
+    }
+  }
+
+  private class StreamingPagerIterator implements Iterator<ApiType>, Closeable {
+
+    private StreamingPage currentPage;
+    private boolean exhausted;
 
     protected void makeCall() {
-      try {
-        Call call = getNextCall(limit, continueToken);
+      makeCall(null);
+    }
 
-        listObjectCurrentPage = executeRequest(call);
-        continueToken = listObjectCurrentPage.getMetadata().getContinue();
+    private void makeCall(String continueToken) {
+      try {
+        currentPage = new StreamingPage(getNextCall(limit, continueToken));
+      } catch (ApiException | IOException e) {
+        exhausted = true;
+        throw toRuntimeException(e);
+      }
+    }
 
-        offsetCurrentPage = 0;
-        currentPageSize = listObjectCurrentPage.getItems().size();
-      } catch (ApiException e) {
-        throw new RuntimeException(e.getResponseBody());
-      } catch (IOException e) {
-        throw new RuntimeException(e);
+    /**
+     * returns false if kubernetes server has exhausted List.
+     *
+     * @return the boolean
+     */
+    @Override
+    public boolean hasNext() {
+      while (!exhausted) {
+        try {
+          if (currentPage.hasNextItem()) {
+            return true;
+          }
+        } catch (IOException e) {
+          close();
+          throw new UncheckedIOException(e);
+        }
+        // the continue token is known once the page has been read through
+        String continueToken = currentPage.continueToken;
+        close();
+        if (continueToken == null) {
+          return false;
+        }
+        exhausted = false;
+        makeCall(continueToken);
       }
+      return false;
     }
 
     /**
-     * returns next chunk of List. size of list depends on limit set in constructor.
+     * returns the next object, decoded from the response of the current page.
      *
      * @return the next Object
      */
     @Override
     public ApiType next() {
-      if (offsetCurrentPage >= currentPageSize) {
-        makeCall();
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      return currentPage.nextItem();
+    }
+
+    @Override
+    public void close() {
+      exhausted = true;
+      if (currentPage != null) {
+        currentPage.close();
       }
-      return (ApiType) listObjectCurrentPage.getItems().get(offsetCurrentPage++);
     }
   }
 }
@@ -0,0 +1,156 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.extended.workqueue;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link WorkQueue} implementation for highly concurrent producers and workers. It has the same
+ * semantics as {@link DefaultWorkQueue}: an item is queued at most once, and an item added while
+ * being processed is queued again only after it's done. But it doesn't serialize every operation on
+ * a single monitor.
+ *
+ * <p>The dirty/processing state of every item is kept in a {@link ConcurrentHashMap} and updated
+ * atomically per item, the ready items are kept in a lock-free {@link ConcurrentLinkedQueue}, and
+ * idle workers park on a {@link Semaphore} counting the ready items.
+ */
+public class ConcurrentWorkQueue<T> implements WorkQueue<T> {
+
+  private static final int DIRTY = 1;
+  private static final int PROCESSING = 1 << 1;
+
+  // queue defines the order in which we will work on items. Every element of queue
+  // should be dirty and not processing.
+  private final ConcurrentLinkedQueue<T> queue = new ConcurrentLinkedQueue<>();
+
+  // states holds the DIRTY and PROCESSING flags of every item that is either waiting in the queue
+  // or currently being processed, items without any flag are removed.
+  private final ConcurrentHashMap<T, Integer> states = new ConcurrentHashMap<>();
+
+  // one permit per item in the queue, plus the permit released by shutDown which is handed over
+  // from worker to worker to wake them all up.
+  private final Semaphore ready = new Semaphore(0);
+
+  private final AtomicInteger length = new AtomicInteger();
+
+  private volatile boolean shuttingDown = false;
+
+  @Override
+  public void add(T item) {
+    if (shuttingDown) {
+      return;
+    }
+    // fast paths: the item is already queued, or it's unknown and we are the first to add it.
+    Integer known = states.get(item);
+    if (known != null && (known & DIRTY) != 0) {
+      return;
+    }
+    if (known == null && states.putIfAbsent(item, DIRTY) == null) {
+      enqueue(item);
+      return;
+    }
+    boolean[] enqueue = new boolean[1];
+    states.compute(
+        item,
+        (key, state) -> {
+          int current = state == null ? 0 : state;
+          if ((current & DIRTY) != 0) {
+            return state;
+          }
+          enqueue[0] = (current & PROCESSING) == 0;
+          return current | DIRTY;
+        });
+    if (enqueue[0]) {
+      enqueue(item);
+    }
+  }
+
+  @Override
+  public int length() {
+    return length.get();
+  }
+
+  @Override
+  public T get() throws InterruptedException {
+    ready.acquire();
+    return take();
+  }
+
+  @Override
+  public T poll(Duration timeout) throws InterruptedException {
+    if (!ready.tryAcquire(timeout.toNanos(), TimeUnit.NANOSECONDS)) {
+      return null;
+    }
+    return take();
+  }
+
+  private T take() {
+    T item = queue.poll();
+    if (item == null) {
+      // We must be shutting down, pass the permit on to the next waiting worker.
+      ready.release();
+      return null;
+    }
+    length.decrementAndGet();
+    if (!states.replace(item, DIRTY, PROCESSING)) {
+      states.compute(item, (key, state) -> (state & ~DIRTY) | PROCESSING);
+    }
+    return item;
+  }
+
+  @Override
+  public void done(T item) {
+    // fast path: the item wasn't added again while being processed.
+    if (states.remove(item, PROCESSING)) {
+      return;
+    }
+    boolean[] enqueue = new boolean[1];
+    states.computeIfPresent(
+        item,
+        (key, state) -> {
+          int current = state & ~PROCESSING;
+          if (current == 0) {
+            return null;
+          }
+          enqueue[0] = (state & PROCESSING) != 0;
+          return current;
+        });
+    if (enqueue[0]) {
+      enqueue(item);
+    }
+  }
+
+  @Override
+  public void shutDown() {
+    if (!shuttingDown) {
+      shuttingDown = true;
+      ready.release();
+    }
+  }
+
+  @Override
+  public boolean isShuttingDown() {
+    return shuttingDown;
+  }
+
+  private void enqueue(T item) {
+    queue.offer(item);
+    length.incrementAndGet();
+    ready.release();
+  }
+}
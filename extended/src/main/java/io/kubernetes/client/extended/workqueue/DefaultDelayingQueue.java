@@ -13,37 +13,59 @@ limitations under the License.
 package io.kubernetes.client.extended.workqueue;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.DelayQueue;
-import java.util.concurrent.Delayed;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
-/** The default delaying queue implementation. */
+/**
+ * The default delaying queue implementation.
+ *
+ * <p>Waiting items are kept in a hierarchical timer wheel: every entry is linked into the bucket of
+ * the tick it's due at, or of the rotation it's due in if that's further away, so that scheduling
+ * and rescheduling an item and finding the next one due are O(1) regardless of how many items are
+ * waiting. Items handed to {@link #addAfter} are never dropped.
+ */
 public class DefaultDelayingQueue<T> extends DefaultWorkQueue<T> implements DelayingQueue<T> {
 
   public static Duration heartBeatInterval = Duration.ofSeconds(10);
 
-  private DelayQueue<WaitForEntry<T>> delayQueue;
-  private ConcurrentMap<T, WaitForEntry<T>> waitingEntryByData;
+  // the resolution of the timer wheel, an item is released at the earliest on the first tick
+  // after its ready-at time.
+  static final long TICK_MILLIS = 10;
+  // the number of buckets of each level of the timer wheel, a multiple of 64. A rotation of the
+  // first level covers ~10 seconds, the second one ~3 hours. Items due even later stay in their
+  // second level bucket until that level comes around at their ready-at time.
+  static final int WHEEL_SIZE = 1024;
+
+  private final TimerWheel<T> timerWheel;
+  private final Map<T, WaitForEntry<T>> waitingEntryByData;
   protected BlockingQueue<WaitForEntry<T>> waitingForAddQueue;
-  private Supplier<Long> timeSource;
+  private volatile Supplier<Long> timeSource;
 
   private static Long now() {
     return System.nanoTime() / 1000000;
   }
 
   public DefaultDelayingQueue(ExecutorService waitingWorker) {
+    this(waitingWorker, new LinkedList<>());
+  }
+
+  protected DefaultDelayingQueue(ExecutorService waitingWorker, Queue<T> queue) {
+    super(queue);
     this.timeSource = DefaultDelayingQueue::now;
-    this.delayQueue = new DelayQueue<>();
-    this.waitingEntryByData = new ConcurrentHashMap<>();
-    this.waitingForAddQueue = new LinkedBlockingQueue<>(1000);
+    this.timerWheel = new TimerWheel<>(this.timeSource.get());
+    this.waitingEntryByData = new HashMap<>();
+    this.waitingForAddQueue = new LinkedBlockingQueue<>();
     waitingWorker.submit(this::waitingLoop);
   }
 
@@ -57,59 +79,70 @@ public class DefaultDelayingQueue<T> extends DefaultWorkQueue<T> implements Dela
       return;
     }
 
+    QueueMetrics<T> metrics = this.metrics;
+    if (metrics != null) {
+      metrics.retry();
+    }
+
     // immediately add things w/o delay
     if (duration.isZero()) {
       super.add(item);
       return;
     }
-    WaitForEntry<T> entry =
-        new WaitForEntry<>(item, this.timeSource.get() + duration.toMillis(), this.timeSource);
-    this.waitingForAddQueue.offer(entry);
+    WaitForEntry<T> entry = new WaitForEntry<>(item, this.timeSource.get() + duration.toMillis());
+    // the waiting queue is unbounded, so the entry can't be rejected here.
+    this.waitingForAddQueue.add(entry);
   }
 
   // Visible for testing
   protected void injectTimeSource(Supplier<Long> fn) {
     this.timeSource = fn;
+    // the waiting loop sleeps according to the previous time source, wake it up
+    this.waitingForAddQueue.add(new WaitForEntry<>(null, 0));
   }
 
   private void waitingLoop() {
+    List<WaitForEntry<T>> readyEntries = new ArrayList<>();
     try {
       while (true) {
         // underlying work-queue is shutting down, quit the loop.
         if (super.isShuttingDown()) {
           return;
         }
-        // peek the first item from the delay queue
-        WaitForEntry<T> entry = delayQueue.peek();
-        // default next ready-at time to "never"
-        Duration nextReadyAt = heartBeatInterval;
-        if (entry != null) {
-          // the delay-queue isn't empty, so we deal with the item in the following logic:
-          // 1. check if the item is ready to fire
-          //   a. if ready, remove it from the delay-queue and push it into underlying
-          // work-queue
-          //   b. if not, refresh the next ready-at time.
-          long now = this.timeSource.get();
-          if (!((now - entry.readyAtMillis) < 0)) {
-            delayQueue.remove(entry);
-            super.add(entry.data);
+        // move all the due entries from the timer wheel into the underlying work-queue, oldest
+        // first.
+        long now = this.timeSource.get();
+        timerWheel.advance(now, readyEntries);
+        if (!readyEntries.isEmpty()) {
+          readyEntries.sort(Comparator.comparingLong(e -> e.readyAtMillis));
+          for (WaitForEntry<T> entry : readyEntries) {
             this.waitingEntryByData.remove(entry.data);
-            continue;
-          } else {
-            nextReadyAt = Duration.ofMillis(entry.readyAtMillis - now);
+            super.add(entry.data);
           }
+          readyEntries.clear();
+        }
+
+        // default next ready-at time to "never", otherwise sleep until the earliest entry is due.
+        long nextReadyAtMillis = heartBeatInterval.toMillis();
+        if (!this.waitingEntryByData.isEmpty()) {
+          long earliestReadyAtMillis = timerWheel.nextReadyAtMillis(now);
+          nextReadyAtMillis = Math.min(nextReadyAtMillis, Math.max(earliestReadyAtMillis - now, 0));
         }
 
         WaitForEntry<T> waitForEntry =
-            waitingForAddQueue.poll(nextReadyAt.toMillis(), TimeUnit.MILLISECONDS);
-        if (waitForEntry != null) {
-          if (this.timeSource.get() - waitForEntry.readyAtMillis < 0) {
-            // the item is not yet ready, insert it to the delay-queue
-            insert(this.delayQueue, this.waitingEntryByData, waitForEntry);
+            waitingForAddQueue.poll(nextReadyAtMillis, TimeUnit.MILLISECONDS);
+        while (waitForEntry != null) {
+          if (waitForEntry.data == null) {
+            // a wake-up, nothing to add
+          } else if (this.timeSource.get() - waitForEntry.readyAtMillis < 0) {
+            // the item is not yet ready, insert it to the timer wheel
+            insert(waitForEntry);
           } else {
             // the item is ready as soon as received, fire it to the work-queue directly
             super.add(waitForEntry.data);
           }
+          // drain whatever else is waiting without blocking
+          waitForEntry = waitingForAddQueue.poll();
         }
       }
     } catch (InterruptedException e) {
@@ -117,45 +150,176 @@ public class DefaultDelayingQueue<T> extends DefaultWorkQueue<T> implements Dela
     }
   }
 
-  private void insert(
-      DelayQueue<WaitForEntry<T>> q, Map<T, WaitForEntry<T>> knownEntries, WaitForEntry entry) {
-    WaitForEntry existing = knownEntries.get((T) entry.data);
+  private void insert(WaitForEntry<T> entry) {
+    WaitForEntry<T> existing = this.waitingEntryByData.get(entry.data);
     if (existing != null) {
       if ((entry.readyAtMillis - existing.readyAtMillis) < 0) {
-        q.remove(existing);
+        timerWheel.remove(existing);
         existing.readyAtMillis = entry.readyAtMillis;
-        q.add(existing);
+        timerWheel.schedule(existing);
       }
-
       return;
     }
 
-    q.offer(entry);
-    knownEntries.put((T) entry.data, entry);
+    timerWheel.schedule(entry);
+    this.waitingEntryByData.put(entry.data, entry);
   }
 
-  // WaitForEntry holds the data to add and the time it should be added.
-  private static class WaitForEntry<T> implements Delayed {
+  /**
+   * A two-level hashed timer wheel of {@link WaitForEntry}, each bucket is an intrusive
+   * doubly-linked list. The first level has a bucket per tick of the coming rotation, the second
+   * one a bucket per following rotation, whose entries are moved down to the first level when their
+   * rotation begins. A bitmap of the non-empty buckets finds the next one due without visiting the
+   * entries. Not thread-safe, only accessed from the waiting loop.
+   */
+  static class TimerWheel<T> {
 
-    private WaitForEntry(T data, long readyAtMillis, Supplier<Long> timeSource) {
-      this.data = data;
-      this.readyAtMillis = readyAtMillis;
-      this.timeSource = timeSource;
+    // the buckets of the first level followed by the ones of the second level
+    private final WaitForEntry<T>[] buckets;
+    // a bit per bucket, set if the bucket isn't empty
+    private final long[] occupied;
+    // every tick before this one has been fully processed.
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    TimerWheel(long nowMillis) {
+      this.buckets = new WaitForEntry[2 * WHEEL_SIZE];
+      this.occupied = new long[2 * WHEEL_SIZE / Long.SIZE];
+      this.currentTick = Math.floorDiv(nowMillis, TICK_MILLIS);
     }
 
-    private T data;
-    private long readyAtMillis;
-    private Supplier<Long> timeSource;
+    void schedule(WaitForEntry<T> entry) {
+      long tick = Math.floorDiv(entry.readyAtMillis, TICK_MILLIS);
+      int bucket;
+      if (tick - currentTick < WHEEL_SIZE) {
+        bucket = (int) Math.floorMod(tick, WHEEL_SIZE);
+      } else {
+        bucket = WHEEL_SIZE + (int) Math.floorMod(Math.floorDiv(tick, WHEEL_SIZE), WHEEL_SIZE);
+      }
+      WaitForEntry<T> head = buckets[bucket];
+      entry.bucket = bucket;
+      entry.prev = null;
+      entry.next = head;
+      if (head != null) {
+        head.prev = entry;
+      }
+      buckets[bucket] = entry;
+      occupied[bucket >>> 6] |= 1L << bucket;
+    }
 
-    @Override
-    public long getDelay(TimeUnit unit) {
-      long duration = readyAtMillis - this.timeSource.get();
-      return unit.convert(duration, TimeUnit.MILLISECONDS);
+    void remove(WaitForEntry<T> entry) {
+      if (entry.prev != null) {
+        entry.prev.next = entry.next;
+      } else {
+        buckets[entry.bucket] = entry.next;
+        if (entry.next == null) {
+          occupied[entry.bucket >>> 6] &= ~(1L << entry.bucket);
+        }
+      }
+      if (entry.next != null) {
+        entry.next.prev = entry.prev;
+      }
+      entry.prev = null;
+      entry.next = null;
     }
 
-    @Override
-    public int compareTo(Delayed o) {
-      return Long.compare(getDelay(TimeUnit.MILLISECONDS), o.getDelay(TimeUnit.MILLISECONDS));
+    /**
+     * Returns the time to wake up at for the next waiting entries, or {@link Long#MAX_VALUE} if
+     * there is none. That's the end of the earliest non-empty tick of the first level, or the
+     * beginning of the next non-empty rotation of the second level if it comes first.
+     */
+    long nextReadyAtMillis(long nowMillis) {
+      long nowTick = Math.floorDiv(nowMillis, TICK_MILLIS);
+      long nextReadyAt = Long.MAX_VALUE;
+      int ticks = nextOccupied(0, (int) Math.floorMod(nowTick, WHEEL_SIZE));
+      if (ticks >= 0) {
+        nextReadyAt = (nowTick + ticks + 1) * TICK_MILLIS - 1;
+      }
+      long nextRotation = Math.floorDiv(nowTick, WHEEL_SIZE) + 1;
+      int rotations = nextOccupied(WHEEL_SIZE, (int) Math.floorMod(nextRotation, WHEEL_SIZE));
+      if (rotations >= 0) {
+        nextReadyAt = Math.min(nextReadyAt, (nextRotation + rotations) * WHEEL_SIZE * TICK_MILLIS);
+      }
+      return nextReadyAt;
     }
+
+    // nextOccupied returns how many buckets after the given one the first non-empty bucket of the
+    // level is, or -1 if all of them are empty.
+    private int nextOccupied(int level, int from) {
+      for (int i = 0; i < WHEEL_SIZE; ) {
+        int bucket = level + (from + i) % WHEEL_SIZE;
+        long bits = occupied[bucket >>> 6] >>> bucket;
+        if (bits != 0) {
+          int found = i + Long.numberOfTrailingZeros(bits);
+          // the bits below the first bucket of the word are visited again after wrapping around
+          return found < WHEEL_SIZE ? found : -1;
+        }
+        i += Long.SIZE - (bucket & (Long.SIZE - 1));
+      }
+      return -1;
+    }
+
+    /**
+     * Visits the buckets of the ticks elapsed since the last call, at most one full rotation, and
+     * removes the entries that are ready at the given time into the given list. The entries of the
+     * rotations begun since the last call are moved down to the first level.
+     */
+    void advance(long nowMillis, List<WaitForEntry<T>> ready) {
+      long nowTick = Math.floorDiv(nowMillis, TICK_MILLIS);
+      // a clock going backwards only revisits the current bucket.
+      long ticks = Math.min(Math.max(nowTick - currentTick, 0) + 1, WHEEL_SIZE);
+      long nowRotation = Math.floorDiv(nowTick, WHEEL_SIZE);
+      long rotations =
+          Math.min(Math.max(nowRotation - Math.floorDiv(currentTick, WHEEL_SIZE), 0), WHEEL_SIZE);
+      // the current tick isn't over yet, entries might still become ready during it.
+      currentTick = nowTick;
+
+      for (long rotation = nowRotation - rotations + 1; rotation <= nowRotation; rotation++) {
+        int bucket = WHEEL_SIZE + (int) Math.floorMod(rotation, WHEEL_SIZE);
+        WaitForEntry<T> entry = buckets[bucket];
+        buckets[bucket] = null;
+        occupied[bucket >>> 6] &= ~(1L << bucket);
+        while (entry != null) {
+          WaitForEntry<T> next = entry.next;
+          if (entry.readyAtMillis - nowMillis <= 0) {
+            entry.prev = null;
+            entry.next = null;
+            ready.add(entry);
+          } else {
+            schedule(entry);
+          }
+          entry = next;
+        }
+      }
+
+      for (long tick = nowTick - ticks + 1; tick <= nowTick; tick++) {
+        WaitForEntry<T> entry = buckets[(int) Math.floorMod(tick, WHEEL_SIZE)];
+        while (entry != null) {
+          WaitForEntry<T> next = entry.next;
+          if (entry.readyAtMillis - nowMillis <= 0) {
+            remove(entry);
+            ready.add(entry);
+          }
+          entry = next;
+        }
+      }
+    }
+  }
+
+  // WaitForEntry holds the data to add and the time it should be added.
+  static class WaitForEntry<T> {
+
+    WaitForEntry(T data, long readyAtMillis) {
+      this.data = data;
+      this.readyAtMillis = readyAtMillis;
+    }
+
+    private final T data;
+    long readyAtMillis;
+
+    // the position in the timer wheel
+    private int bucket;
+    private WaitForEntry<T> prev;
+    private WaitForEntry<T> next;
   }
 }
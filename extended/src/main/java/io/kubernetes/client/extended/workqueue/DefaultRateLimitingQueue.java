@@ -14,6 +14,7 @@ package io.kubernetes.client.extended.workqueue;
 
 import io.kubernetes.client.extended.workqueue.ratelimiter.DefaultControllerRateLimiter;
 import io.kubernetes.client.extended.workqueue.ratelimiter.RateLimiter;
+import java.util.Queue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
@@ -36,6 +37,12 @@ public class DefaultRateLimitingQueue<T> extends DefaultDelayingQueue<T>
     this.rateLimiter = rateLimiter;
   }
 
+  protected DefaultRateLimitingQueue(
+      ExecutorService waitingWorker, RateLimiter<T> rateLimiter, Queue<T> queue) {
+    super(waitingWorker, queue);
+    this.rateLimiter = rateLimiter;
+  }
+
   @Override
   public int numRequeues(T item) {
     return rateLimiter.numRequeues(item);
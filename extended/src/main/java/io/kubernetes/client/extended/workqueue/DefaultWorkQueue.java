@@ -12,9 +12,13 @@ limitations under the License.
 */
 package io.kubernetes.client.extended.workqueue;
 
+import io.kubernetes.client.extended.workqueue.metrics.MetricsProvider;
+import java.time.Duration;
 import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 /**
  * The default {@link WorkQueue} implementation that uses a doubly-linked list to store work items.
@@ -27,7 +31,7 @@ public class DefaultWorkQueue<T> implements WorkQueue<T> {
 
   // queue defines the order in which we will work on items. Every element of queue
   // should be in the dirty set and not in the processing set.
-  private LinkedList<T> queue;
+  private Queue<T> queue;
 
   // dirty defines all of the items that need to be processed.
   private Set<T> dirty;
@@ -40,12 +44,49 @@ public class DefaultWorkQueue<T> implements WorkQueue<T> {
 
   private boolean shuttingDown = false;
 
+  // metrics is null unless a metrics provider is set.
+  volatile QueueMetrics<T> metrics;
+
   public DefaultWorkQueue() {
-    this.queue = new LinkedList<>();
+    this(new LinkedList<>());
+  }
+
+  /**
+   * Instantiates a work queue which hands out items in the order of the given queue, e.g. by
+   * priority. The queue is only accessed while holding the lock of the work queue.
+   *
+   * @param queue the empty queue holding the items ready to be processed
+   */
+  protected DefaultWorkQueue(Queue<T> queue) {
+    this.queue = queue;
     this.dirty = new HashSet<>();
     this.processing = new HashSet<>();
   }
 
+  /**
+   * Starts exporting the work-queue metrics through the given provider, e.g. a {@link
+   * io.kubernetes.client.extended.workqueue.metrics.PrometheusMetricsProvider}.
+   *
+   * @param name the name of the work-queue, labeling its metrics
+   * @param metricsProvider the metrics provider
+   */
+  public synchronized void setMetricsProvider(String name, MetricsProvider metricsProvider) {
+    if (this.metrics != null) {
+      this.metrics.stop();
+    }
+    QueueMetrics<T> metrics = new QueueMetrics<>(name, metricsProvider);
+    // items queued before don't have timestamps, they're only accounted for by the depth.
+    metrics.queued(this.queue.size());
+    metrics.start(this::updateUnfinishedWork);
+    this.metrics = metrics;
+  }
+
+  synchronized void updateUnfinishedWork() {
+    if (this.metrics != null) {
+      this.metrics.updateUnfinishedWork();
+    }
+  }
+
   @Override
   public synchronized void add(T item) {
     if (shuttingDown) {
@@ -57,6 +98,9 @@ public class DefaultWorkQueue<T> implements WorkQueue<T> {
     }
 
     this.dirty.add(item);
+    if (this.metrics != null) {
+      this.metrics.add(item);
+    }
     if (this.processing.contains(item)) {
       return;
     }
@@ -79,7 +123,31 @@ public class DefaultWorkQueue<T> implements WorkQueue<T> {
       // We must be shutting down
       return null;
     }
+    return take();
+  }
+
+  @Override
+  public synchronized T poll(Duration timeout) throws InterruptedException {
+    long deadline = System.nanoTime() + timeout.toNanos();
+    while (queue.size() == 0 && !shuttingDown) {
+      long remaining = deadline - System.nanoTime();
+      if (remaining <= 0) {
+        return null;
+      }
+      TimeUnit.NANOSECONDS.timedWait(this, remaining);
+    }
+    if (queue.size() == 0) {
+      // We must be shutting down
+      return null;
+    }
+    return take();
+  }
+
+  private T take() {
     T obj = this.queue.poll();
+    if (this.metrics != null) {
+      this.metrics.get(obj);
+    }
     this.processing.add(obj);
     this.dirty.remove(obj);
     return obj;
@@ -87,6 +155,9 @@ public class DefaultWorkQueue<T> implements WorkQueue<T> {
 
   @Override
   public synchronized void done(T item) {
+    if (this.metrics != null) {
+      this.metrics.done(item);
+    }
     this.processing.remove(item);
     if (this.dirty.contains(item)) {
       this.queue.add(item);
@@ -97,6 +168,9 @@ public class DefaultWorkQueue<T> implements WorkQueue<T> {
   @Override
   public synchronized void shutDown() {
     this.shuttingDown = true;
+    if (this.metrics != null) {
+      this.metrics.stop();
+    }
     this.notifyAll();
   }
 
@@ -0,0 +1,204 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.extended.workqueue;
+
+import io.kubernetes.client.extended.workqueue.ratelimiter.DefaultControllerRateLimiter;
+import io.kubernetes.client.extended.workqueue.ratelimiter.RateLimiter;
+import java.time.Duration;
+import java.util.AbstractQueue;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * A rate limiting queue handing out items by priority. Waiting items age, an item gains one level
+ * of priority per aging interval spent in the queue, so that a steady stream of high priority items
+ * can't starve the low priority ones.
+ *
+ * <p>The dirty/processing de-duplication of {@link DefaultWorkQueue} is preserved, adding an item
+ * which is already waiting only raises its priority.
+ */
+public class PriorityRateLimitingQueue<T> extends DefaultRateLimitingQueue<T>
+    implements PriorityWorkQueue<T> {
+
+  public static final int DEFAULT_PRIORITY = 0;
+  public static final Duration DEFAULT_AGING_INTERVAL = Duration.ofSeconds(1);
+
+  private final AgingPriorityQueue<T> queue;
+
+  public PriorityRateLimitingQueue() {
+    this(Executors.newSingleThreadExecutor());
+  }
+
+  public PriorityRateLimitingQueue(ExecutorService waitingWorker) {
+    this(waitingWorker, new DefaultControllerRateLimiter<>());
+  }
+
+  public PriorityRateLimitingQueue(ExecutorService waitingWorker, RateLimiter<T> rateLimiter) {
+    this(waitingWorker, rateLimiter, DEFAULT_PRIORITY, DEFAULT_AGING_INTERVAL);
+  }
+
+  /**
+   * Instantiates a new priority rate limiting queue.
+   *
+   * @param waitingWorker the executor running the delaying loop
+   * @param rateLimiter the rate limiter
+   * @param defaultPriority the priority of items added without priority, including retries
+   * @param agingInterval the time after which a waiting item gains one level of priority
+   */
+  public PriorityRateLimitingQueue(
+      ExecutorService waitingWorker,
+      RateLimiter<T> rateLimiter,
+      int defaultPriority,
+      Duration agingInterval) {
+    this(
+        waitingWorker,
+        rateLimiter,
+        new AgingPriorityQueue<>(
+            defaultPriority, agingInterval.toMillis(), () -> System.nanoTime() / 1000000));
+  }
+
+  private PriorityRateLimitingQueue(
+      ExecutorService waitingWorker, RateLimiter<T> rateLimiter, AgingPriorityQueue<T> queue) {
+    super(waitingWorker, rateLimiter, queue);
+    this.queue = queue;
+  }
+
+  @Override
+  public synchronized void add(T item, int priority) {
+    if (isShuttingDown()) {
+      return;
+    }
+    queue.raise(item, priority);
+    super.add(item);
+  }
+
+  /**
+   * The queue of ready items ordered by their aged priority. The aged priority of an item at time t
+   * is {@code priority + (t - enqueuedAt) / agingInterval}, comparing two items the time t cancels
+   * out, so the items are ordered by the fixed key {@code enqueuedAt - priority * agingInterval}.
+   * Only accessed under the lock of the work queue.
+   */
+  static class AgingPriorityQueue<T> extends AbstractQueue<T> {
+
+    private final int defaultPriority;
+    private final long agingMillis;
+    private final Supplier<Long> timeSource;
+
+    private final TreeSet<Entry<T>> entries =
+        new TreeSet<>(Comparator.<Entry<T>>comparingLong(e -> e.key).thenComparingLong(e -> e.seq));
+    private final Map<T, Entry<T>> entryByItem = new HashMap<>();
+    // priorities requested for items which are not waiting in the queue yet, e.g. because they
+    // are being processed.
+    private final Map<T, Integer> pendingPriorities = new HashMap<>();
+    private long seq;
+
+    AgingPriorityQueue(int defaultPriority, long agingMillis, Supplier<Long> timeSource) {
+      this.defaultPriority = defaultPriority;
+      this.agingMillis = Math.max(agingMillis, 1);
+      this.timeSource = timeSource;
+    }
+
+    void raise(T item, int priority) {
+      Entry<T> entry = entryByItem.get(item);
+      if (entry == null) {
+        pendingPriorities.merge(item, priority, Math::max);
+        return;
+      }
+      if (priority > entry.priority) {
+        entries.remove(entry);
+        entry.priority = priority;
+        entry.key = entry.enqueuedAt - priority * agingMillis;
+        entries.add(entry);
+      }
+    }
+
+    @Override
+    public boolean offer(T item) {
+      Integer pending = pendingPriorities.remove(item);
+      int priority = pending != null ? pending : defaultPriority;
+      long now = timeSource.get();
+      Entry<T> entry = new Entry<>(item, priority, now, now - priority * agingMillis, seq++);
+      entries.add(entry);
+      entryByItem.put(item, entry);
+      return true;
+    }
+
+    @Override
+    public T poll() {
+      Entry<T> entry = entries.pollFirst();
+      if (entry == null) {
+        return null;
+      }
+      entryByItem.remove(entry.item);
+      return entry.item;
+    }
+
+    @Override
+    public T peek() {
+      return entries.isEmpty() ? null : entries.first().item;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+      Iterator<Entry<T>> it = entries.iterator();
+      return new Iterator<T>() {
+        private Entry<T> current;
+
+        @Override
+        public boolean hasNext() {
+          return it.hasNext();
+        }
+
+        @Override
+        public T next() {
+          current = it.next();
+          return current.item;
+        }
+
+        @Override
+        public void remove() {
+          // writes through so that remove(Object), removeIf and removeAll drop the items
+          it.remove();
+          entryByItem.remove(current.item);
+        }
+      };
+    }
+
+    @Override
+    public int size() {
+      return entries.size();
+    }
+  }
+
+  private static class Entry<T> {
+    private final T item;
+    private final long enqueuedAt;
+    private final long seq;
+    private int priority;
+    private long key;
+
+    private Entry(T item, int priority, long enqueuedAt, long key, long seq) {
+      this.item = item;
+      this.priority = priority;
+      this.enqueuedAt = enqueuedAt;
+      this.key = key;
+      this.seq = seq;
+    }
+  }
+}
@@ -0,0 +1,29 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.extended.workqueue;
+
+/**
+ * PriorityWorkQueue defines a queue that hands out items with higher priority first. Items added
+ * without a priority get the default priority of the queue.
+ */
+public interface PriorityWorkQueue<T> extends WorkQueue<T> {
+
+  /**
+   * add marks item as needing processing with the given priority. If the item is already waiting in
+   * the queue, its priority is raised to the given one if that's higher.
+   *
+   * @param item item to add
+   * @param priority the priority of the item, higher is handed out first
+   */
+  void add(T item, int priority);
+}
@@ -0,0 +1,127 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.extended.workqueue;
+
+import io.kubernetes.client.extended.workqueue.metrics.MetricsProvider;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The metrics of a {@link DefaultWorkQueue}, keeping the add and processing start timestamps of the
+ * items. Not thread-safe, accessed while holding the lock of the work-queue, except for the retries
+ * counter.
+ */
+class QueueMetrics<T> {
+
+  static final long UPDATE_PERIOD_MILLIS = 500;
+
+  private static final ScheduledExecutorService updater =
+      Executors.newSingleThreadScheduledExecutor(
+          r -> {
+            Thread thread = new Thread(r, "workqueue-metrics");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  private final MetricsProvider.GaugeMetric depth;
+  private final MetricsProvider.CounterMetric adds;
+  private final MetricsProvider.HistogramMetric latency;
+  private final MetricsProvider.HistogramMetric workDuration;
+  private final MetricsProvider.SettableGaugeMetric unfinishedWorkSeconds;
+  private final MetricsProvider.SettableGaugeMetric longestRunningProcessorSeconds;
+  private final MetricsProvider.CounterMetric retries;
+
+  // nano-timestamps of the items added and not yet requested
+  private final Map<T, Long> addTimes = new HashMap<>();
+  // nano-timestamps of the items being processed
+  private final Map<T, Long> processingStartTimes = new HashMap<>();
+
+  private ScheduledFuture<?> updates;
+
+  QueueMetrics(String name, MetricsProvider provider) {
+    this.depth = provider.newDepthMetric(name);
+    this.adds = provider.newAddsMetric(name);
+    this.latency = provider.newLatencyMetric(name);
+    this.workDuration = provider.newWorkDurationMetric(name);
+    this.unfinishedWorkSeconds = provider.newUnfinishedWorkSecondsMetric(name);
+    this.longestRunningProcessorSeconds = provider.newLongestRunningProcessorSecondsMetric(name);
+    this.retries = provider.newRetriesMetric(name);
+  }
+
+  void add(T item) {
+    adds.inc();
+    depth.inc();
+    addTimes.putIfAbsent(item, System.nanoTime());
+  }
+
+  void queued(int count) {
+    for (int i = 0; i < count; i++) {
+      depth.inc();
+    }
+  }
+
+  void get(T item) {
+    long now = System.nanoTime();
+    depth.dec();
+    Long addTime = addTimes.remove(item);
+    if (addTime != null) {
+      latency.observe(seconds(now - addTime));
+    }
+    processingStartTimes.put(item, now);
+  }
+
+  void done(T item) {
+    Long startTime = processingStartTimes.remove(item);
+    if (startTime != null) {
+      workDuration.observe(seconds(System.nanoTime() - startTime));
+    }
+  }
+
+  void retry() {
+    retries.inc();
+  }
+
+  void updateUnfinishedWork() {
+    long now = System.nanoTime();
+    long total = 0;
+    long oldest = 0;
+    for (long startTime : processingStartTimes.values()) {
+      long elapsed = now - startTime;
+      total += elapsed;
+      oldest = Math.max(oldest, elapsed);
+    }
+    unfinishedWorkSeconds.set(seconds(total));
+    longestRunningProcessorSeconds.set(seconds(oldest));
+  }
+
+  /** Periodically runs the given update of the unfinished work metrics, until stopped. */
+  void start(Runnable update) {
+    updates =
+        updater.scheduleAtFixedRate(
+            update, UPDATE_PERIOD_MILLIS, UPDATE_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+  }
+
+  void stop() {
+    if (updates != null) {
+      updates.cancel(false);
+    }
+  }
+
+  private static double seconds(long nanos) {
+    return nanos / 1e9;
+  }
+}
@@ -12,6 +12,8 @@ limitations under the License.
 */
 package io.kubernetes.client.extended.workqueue;
 
+import java.time.Duration;
+
 /** The workqueue interface defines the queue behavior. */
 public interface WorkQueue<T> {
 
@@ -37,6 +39,22 @@ public interface WorkQueue<T> {
    */
   T get() throws InterruptedException;
 
+  /**
+   * Poll waits up to the given timeout for an item to be processed. Returns null if no item became
+   * ready in time, or if the queue is shutting down.
+   *
+   * <p>Timed polls are optional, the default implementation throws. A queue without them can't be
+   * used with a batch reconciler.
+   *
+   * @param timeout the maximum time to wait
+   * @return the object, or null
+   * @throws UnsupportedOperationException if the queue doesn't support timed polls
+   */
+  default T poll(Duration timeout) throws InterruptedException {
+    throw new UnsupportedOperationException(
+        getClass().getName() + " doesn't support polling with a timeout");
+  }
+
   /**
    * Done marks item as done processing, and if it has been marked as dirty again,
    *
@@ -0,0 +1,100 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.extended.workqueue.metrics;
+
+/**
+ * MetricsProvider creates the metrics of a work-queue, the same set of metrics as client-go's
+ * workqueue package. A work-queue creates its metrics once, labeled by the work-queue's name, and
+ * updates them concurrently, so the metrics must be thread-safe.
+ */
+public interface MetricsProvider {
+
+  /** A metric counting up. */
+  interface CounterMetric {
+    void inc();
+  }
+
+  /** A metric going up and down. */
+  interface GaugeMetric {
+    void inc();
+
+    void dec();
+  }
+
+  /** A metric set to its current value. */
+  interface SettableGaugeMetric {
+    void set(double value);
+  }
+
+  /** A metric observing a distribution of values. */
+  interface HistogramMetric {
+    void observe(double value);
+  }
+
+  /**
+   * The current depth of the work-queue.
+   *
+   * @param name the work-queue name
+   * @return the metric
+   */
+  GaugeMetric newDepthMetric(String name);
+
+  /**
+   * The total number of adds handled by the work-queue.
+   *
+   * @param name the work-queue name
+   * @return the metric
+   */
+  CounterMetric newAddsMetric(String name);
+
+  /**
+   * How long in seconds an item stays in the work-queue before being requested.
+   *
+   * @param name the work-queue name
+   * @return the metric
+   */
+  HistogramMetric newLatencyMetric(String name);
+
+  /**
+   * How long in seconds processing an item from the work-queue takes.
+   *
+   * @param name the work-queue name
+   * @return the metric
+   */
+  HistogramMetric newWorkDurationMetric(String name);
+
+  /**
+   * How many seconds of work has been done that is in progress and hasn't been observed by work
+   * duration yet. Large values indicate stuck workers.
+   *
+   * @param name the work-queue name
+   * @return the metric
+   */
+  SettableGaugeMetric newUnfinishedWorkSecondsMetric(String name);
+
+  /**
+   * How many seconds the longest running processor of the work-queue has been running.
+   *
+   * @param name the work-queue name
+   * @return the metric
+   */
+  SettableGaugeMetric newLongestRunningProcessorSecondsMetric(String name);
+
+  /**
+   * The total number of retries handled by the work-queue.
+   *
+   * @param name the work-queue name
+   * @return the metric
+   */
+  CounterMetric newRetriesMetric(String name);
+}
@@ -0,0 +1,134 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.extended.workqueue.metrics;
+
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.Counter;
+import io.prometheus.client.Gauge;
+import io.prometheus.client.Histogram;
+
+/**
+ * The Prometheus work-queue metrics, named as in client-go and labeled by the work-queue's name.
+ * The metrics are registered upon construction, so there should be one provider per registry.
+ */
+public class PrometheusMetricsProvider implements MetricsProvider {
+
+  static final String PREFIX = "workqueue";
+
+  private final Gauge depth;
+  private final Counter adds;
+  private final Histogram latency;
+  private final Histogram workDuration;
+  private final Gauge unfinishedWork;
+  private final Gauge longestRunningProcessor;
+  private final Counter retries;
+
+  public PrometheusMetricsProvider() {
+    this(CollectorRegistry.defaultRegistry);
+  }
+
+  public PrometheusMetricsProvider(CollectorRegistry registry) {
+    this.depth =
+        Gauge.build()
+            .name(PREFIX + "_depth")
+            .help("Current depth of workqueue")
+            .labelNames("name")
+            .register(registry);
+    this.adds =
+        Counter.build()
+            .name(PREFIX + "_adds_total")
+            .help("Total number of adds handled by workqueue")
+            .labelNames("name")
+            .register(registry);
+    this.latency =
+        Histogram.build()
+            .name(PREFIX + "_queue_duration_seconds")
+            .help("How long in seconds an item stays in workqueue before being requested")
+            .labelNames("name")
+            .exponentialBuckets(10e-9, 10, 10)
+            .register(registry);
+    this.workDuration =
+        Histogram.build()
+            .name(PREFIX + "_work_duration_seconds")
+            .help("How long in seconds processing an item from workqueue takes")
+            .labelNames("name")
+            .exponentialBuckets(10e-9, 10, 10)
+            .register(registry);
+    this.unfinishedWork =
+        Gauge.build()
+            .name(PREFIX + "_unfinished_work_seconds")
+            .help(
+                "How many seconds of work has been done that is in progress and hasn't been"
+                    + " observed by work_duration. Large values indicate stuck threads.")
+            .labelNames("name")
+            .register(registry);
+    this.longestRunningProcessor =
+        Gauge.build()
+            .name(PREFIX + "_longest_running_processor_seconds")
+            .help("How many seconds has the longest running processor for workqueue been running")
+            .labelNames("name")
+            .register(registry);
+    this.retries =
+        Counter.build()
+            .name(PREFIX + "_retries_total")
+            .help("Total number of retries handled by workqueue")
+            .labelNames("name")
+            .register(registry);
+  }
+
+  @Override
+  public GaugeMetric newDepthMetric(String name) {
+    Gauge.Child child = depth.labels(name);
+    return new GaugeMetric() {
+      @Override
+      public void inc() {
+        child.inc();
+      }
+
+      @Override
+      public void dec() {
+        child.dec();
+      }
+    };
+  }
+
+  @Override
+  public CounterMetric newAddsMetric(String name) {
+    return adds.labels(name)::inc;
+  }
+
+  @Override
+  public HistogramMetric newLatencyMetric(String name) {
+    return latency.labels(name)::observe;
+  }
+
+  @Override
+  public HistogramMetric newWorkDurationMetric(String name) {
+    return workDuration.labels(name)::observe;
+  }
+
+  @Override
+  public SettableGaugeMetric newUnfinishedWorkSecondsMetric(String name) {
+    return unfinishedWork.labels(name)::set;
+  }
+
+  @Override
+  public SettableGaugeMetric newLongestRunningProcessorSecondsMetric(String name) {
+    return longestRunningProcessor.labels(name)::set;
+  }
+
+  @Override
+  public CounterMetric newRetriesMetric(String name) {
+    return retries.labels(name)::inc;
+  }
+}
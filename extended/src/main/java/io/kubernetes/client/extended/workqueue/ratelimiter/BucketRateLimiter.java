@@ -34,7 +34,7 @@ public class BucketRateLimiter<T> implements RateLimiter<T> {
     this.bucket =
         Bucket4j.builder()
             .addLimit(bandwidth)
-            .withSynchronizationStrategy(SynchronizationStrategy.SYNCHRONIZED)
+            .withSynchronizationStrategy(SynchronizationStrategy.LOCK_FREE)
             .build();
   }
 
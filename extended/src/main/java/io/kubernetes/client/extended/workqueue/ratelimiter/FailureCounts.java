@@ -0,0 +1,74 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.extended.workqueue.ratelimiter;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-item failure counts for the item rate limiters. Items which haven't failed for longer than
+ * the idle timeout are reclaimed, so that items never forgotten, e.g. deleted objects, don't pile
+ * up. Reclamation is amortized over the failures, at most once per idle timeout.
+ */
+class FailureCounts<T> {
+
+  private final ConcurrentMap<T, Entry> failures = new ConcurrentHashMap<>();
+  // non-positive when idle entries are never reclaimed
+  private final long idleNanos;
+  private final AtomicLong nextSweep;
+
+  FailureCounts(Duration idleTimeout) {
+    this.idleNanos = idleTimeout == null ? 0 : idleTimeout.toNanos();
+    this.nextSweep = new AtomicLong(System.nanoTime() + idleNanos);
+  }
+
+  /** Counts a failure of the item, returning the number of failures before. */
+  long getAndIncrement(T item) {
+    long now = System.nanoTime();
+    sweep(now);
+    Entry entry = failures.computeIfAbsent(item, k -> new Entry());
+    entry.lastFailure = now;
+    return entry.count.getAndIncrement();
+  }
+
+  long get(T item) {
+    Entry entry = failures.get(item);
+    return entry == null ? 0 : entry.count.get();
+  }
+
+  void forget(T item) {
+    failures.remove(item);
+  }
+
+  int size() {
+    return failures.size();
+  }
+
+  private void sweep(long now) {
+    if (idleNanos <= 0) {
+      return;
+    }
+    long next = nextSweep.get();
+    if (now - next < 0 || !nextSweep.compareAndSet(next, now + idleNanos)) {
+      return;
+    }
+    failures.values().removeIf(entry -> now - entry.lastFailure > idleNanos);
+  }
+
+  private static class Entry {
+    private final AtomicLong count = new AtomicLong();
+    private volatile long lastFailure;
+  }
+}
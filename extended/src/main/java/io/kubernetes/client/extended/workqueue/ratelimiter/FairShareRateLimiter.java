@@ -0,0 +1,105 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.extended.workqueue.ratelimiter;
+
+import io.kubernetes.client.util.flowcontrol.TokenBucket;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * A lock-free token bucket RateLimiter sharing its rate fairly between keys, e.g. namespaces, so
+ * that a noisy key can't starve the others. Like deficit round-robin, every key with pending tokens
+ * is served an equal share of the rate, while idle keys don't take a share: a key gets its own
+ * token bucket refilled at rate / active keys. A key showing up gets its share right away, at the
+ * cost of exceeding the rate for as long as the other keys work through tokens they reserved at a
+ * bigger share. Combine it with a {@link TokenBucketRateLimiter} through a {@link MaxOfRateLimiter}
+ * for a strict overall rate, which gives up some fairness.
+ *
+ * <p>A single instance can be shared by the work-queues of all the controllers of a process:
+ *
+ * <pre>{@code
+ * RateLimiter<Request> perNamespace =
+ *     new FairShareRateLimiter<>(100, 10, Duration.ofSeconds(1), Request::getNamespace);
+ * new DefaultRateLimitingQueue<>(
+ *     Executors.newSingleThreadExecutor(),
+ *     new MaxOfRateLimiter<>(
+ *         new ItemExponentialFailureRateLimiter<>(Duration.ofMillis(5), Duration.ofSeconds(1000)),
+ *         perNamespace));
+ * }</pre>
+ */
+public class FairShareRateLimiter<T> implements RateLimiter<T> {
+
+  private static final Object NULL_KEY = new Object();
+
+  private final Function<T, ?> keyFunc;
+  private final long emissionNanos;
+  private final long burstNanos;
+  // token buckets of the active keys, a key is reclaimed once its bucket is full again
+  private final ConcurrentMap<Object, TokenBucket> buckets = new ConcurrentHashMap<>();
+  private final AtomicLong nextSweep;
+
+  /**
+   * @param capacity Capacity is the maximum number of tokens can be consumed.
+   * @param tokensGeneratedInPeriod Tokens generated in period.
+   * @param period Period that generating specific number of tokens.
+   * @param keyFunc the function computing the key of an item, e.g. its namespace
+   */
+  public FairShareRateLimiter(
+      long capacity, long tokensGeneratedInPeriod, Duration period, Function<T, ?> keyFunc) {
+    if (capacity <= 0 || tokensGeneratedInPeriod <= 0 || period.isNegative() || period.isZero()) {
+      throw new IllegalArgumentException("capacity, tokens and period must be positive");
+    }
+    this.keyFunc = keyFunc;
+    this.emissionNanos = period.toNanos() / tokensGeneratedInPeriod;
+    this.burstNanos = capacity * emissionNanos;
+    long now = System.nanoTime();
+    this.nextSweep = new AtomicLong(now + burstNanos);
+  }
+
+  @Override
+  public Duration when(T item) {
+    long now = System.nanoTime();
+    sweep(now);
+    Object key = Objects.requireNonNullElse(keyFunc.apply(item), NULL_KEY);
+    TokenBucket bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(now));
+    int activeKeys = Math.max(1, buckets.size());
+    // the key's share of the rate, with the same burst duration, i.e. a share of the capacity
+    return Duration.ofNanos(bucket.reserve(now, emissionNanos * activeKeys, burstNanos));
+  }
+
+  @Override
+  public void forget(T item) {}
+
+  @Override
+  public int numRequeues(T item) {
+    return 0;
+  }
+
+  int activeKeys() {
+    return buckets.size();
+  }
+
+  // sweep reclaims the buckets of keys without pending tokens. A key reserving concurrently may
+  // lose its reservation, which is at most one token.
+  private void sweep(long now) {
+    long next = nextSweep.get();
+    if (now - next < 0 || !nextSweep.compareAndSet(next, now + burstNanos)) {
+      return;
+    }
+    buckets.values().removeIf(bucket -> bucket.isFull(now));
+  }
+}
@@ -13,9 +13,6 @@ limitations under the License.
 package io.kubernetes.client.extended.workqueue.ratelimiter;
 
 import java.time.Duration;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * ItemExponentialFailureRateLimiter does a simple baseDelay*10<sup>num-failures</sup> limit dealing
@@ -26,27 +23,48 @@ public class ItemExponentialFailureRateLimiter<T> implements RateLimiter<T> {
   private Duration baseDelay;
   private Duration maxDelay;
 
-  private ConcurrentMap<T, AtomicLong> failures = new ConcurrentHashMap<>();
+  private FailureCounts<T> failures;
 
+  /**
+   * Instantiates the rate limiter, reclaiming the failures of items which haven't failed for twice
+   * the max delay, i.e. which aren't retried anymore.
+   *
+   * @param baseDelay the delay after the first failure
+   * @param maxDelay the maximum delay
+   */
   public ItemExponentialFailureRateLimiter(Duration baseDelay, Duration maxDelay) {
+    this(baseDelay, maxDelay, maxDelay.multipliedBy(2));
+  }
+
+  /**
+   * Instantiates the rate limiter.
+   *
+   * @param baseDelay the delay after the first failure
+   * @param maxDelay the maximum delay
+   * @param idleTimeout the time after which the failures of an item not failing anymore are
+   *     reclaimed, never if not positive
+   */
+  public ItemExponentialFailureRateLimiter(
+      Duration baseDelay, Duration maxDelay, Duration idleTimeout) {
     this.baseDelay = baseDelay;
     this.maxDelay = maxDelay;
+    this.failures = new FailureCounts<>(idleTimeout);
   }
 
   @Override
   public Duration when(T item) {
-    long exp = failures.computeIfAbsent(item, k -> new AtomicLong()).getAndIncrement();
+    long exp = failures.getAndIncrement(item);
     long d = maxDelay.toMillis() >> exp;
     return d > baseDelay.toMillis() ? baseDelay.multipliedBy(1 << exp) : maxDelay;
   }
 
   @Override
   public void forget(T item) {
-    failures.remove(item);
+    failures.forget(item);
   }
 
   @Override
   public int numRequeues(T item) {
-    return (int) failures.computeIfAbsent(item, k -> new AtomicLong()).get();
+    return (int) failures.get(item);
   }
 }
@@ -13,9 +13,6 @@ limitations under the License.
 package io.kubernetes.client.extended.workqueue.ratelimiter;
 
 import java.time.Duration;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * ItemFastSlowRateLimiter does a quick retry for a certain number of attempts, then a slow retry
@@ -27,17 +24,40 @@ public class ItemFastSlowRateLimiter<T> implements RateLimiter<T> {
   private Duration slowDelay;
   private int maxFastAttempts;
 
-  private ConcurrentMap<T, AtomicInteger> failures = new ConcurrentHashMap<>();
+  private FailureCounts<T> failures;
 
+  /**
+   * Instantiates the rate limiter, reclaiming the failures of items which haven't failed for twice
+   * the slow delay, i.e. which aren't retried anymore.
+   *
+   * @param fastDelay the delay of the first attempts
+   * @param slowDelay the delay once the fast attempts are exhausted
+   * @param maxFastAttempts the number of fast attempts
+   */
   public ItemFastSlowRateLimiter(Duration fastDelay, Duration slowDelay, int maxFastAttempts) {
+    this(fastDelay, slowDelay, maxFastAttempts, slowDelay.multipliedBy(2));
+  }
+
+  /**
+   * Instantiates the rate limiter.
+   *
+   * @param fastDelay the delay of the first attempts
+   * @param slowDelay the delay once the fast attempts are exhausted
+   * @param maxFastAttempts the number of fast attempts
+   * @param idleTimeout the time after which the failures of an item not failing anymore are
+   *     reclaimed, never if not positive
+   */
+  public ItemFastSlowRateLimiter(
+      Duration fastDelay, Duration slowDelay, int maxFastAttempts, Duration idleTimeout) {
     this.fastDelay = fastDelay;
     this.slowDelay = slowDelay;
     this.maxFastAttempts = maxFastAttempts;
+    this.failures = new FailureCounts<>(idleTimeout);
   }
 
   @Override
   public Duration when(T item) {
-    int attempts = failures.computeIfAbsent(item, k -> new AtomicInteger()).incrementAndGet();
+    long attempts = failures.getAndIncrement(item) + 1;
     if (attempts <= maxFastAttempts) {
       return fastDelay;
     }
@@ -46,11 +66,11 @@ public class ItemFastSlowRateLimiter<T> implements RateLimiter<T> {
 
   @Override
   public void forget(T item) {
-    failures.remove(item);
+    failures.forget(item);
   }
 
   @Override
   public int numRequeues(T item) {
-    return (int) failures.computeIfAbsent(item, k -> new AtomicInteger()).get();
+    return (int) failures.get(item);
   }
 }
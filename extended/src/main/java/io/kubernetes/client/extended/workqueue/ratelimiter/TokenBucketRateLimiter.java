@@ -0,0 +1,56 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.extended.workqueue.ratelimiter;
+
+import io.kubernetes.client.util.flowcontrol.TokenBucket;
+import java.time.Duration;
+
+/**
+ * A lock-free token bucket RateLimiter, cheap under contention so that a single instance can be
+ * shared by the work-queues of all the controllers of a process, e.g. combined with each
+ * work-queue's item limiter through a {@link MaxOfRateLimiter}.
+ */
+public class TokenBucketRateLimiter<T> implements RateLimiter<T> {
+
+  private final TokenBucket bucket;
+  private final long emissionNanos;
+  private final long burstNanos;
+
+  /**
+   * @param capacity Capacity is the maximum number of tokens can be consumed.
+   * @param tokensGeneratedInPeriod Tokens generated in period.
+   * @param period Period that generating specific number of tokens.
+   */
+  public TokenBucketRateLimiter(long capacity, long tokensGeneratedInPeriod, Duration period) {
+    if (capacity <= 0 || tokensGeneratedInPeriod <= 0 || period.isNegative() || period.isZero()) {
+      throw new IllegalArgumentException("capacity, tokens and period must be positive");
+    }
+    this.emissionNanos = period.toNanos() / tokensGeneratedInPeriod;
+    this.burstNanos = capacity * emissionNanos;
+    this.bucket = new TokenBucket(System.nanoTime());
+  }
+
+  @Override
+  public Duration when(T item) {
+    long now = System.nanoTime();
+    return Duration.ofNanos(bucket.reserve(now, emissionNanos, burstNanos));
+  }
+
+  @Override
+  public void forget(T item) {}
+
+  @Override
+  public int numRequeues(T item) {
+    return 0;
+  }
+}
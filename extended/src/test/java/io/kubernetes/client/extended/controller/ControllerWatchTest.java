@@ -16,6 +16,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import io.kubernetes.client.extended.controller.reconciler.Request;
 import io.kubernetes.client.extended.workqueue.DefaultWorkQueue;
+import io.kubernetes.client.extended.workqueue.PriorityRateLimitingQueue;
 import io.kubernetes.client.extended.workqueue.WorkQueue;
 import io.kubernetes.client.openapi.models.V1ObjectMeta;
 import io.kubernetes.client.openapi.models.V1Pod;
@@ -68,4 +69,27 @@ public class ControllerWatchTest {
     controllerWatch.getResourceEventHandler().onDelete(testPod, false);
     assertThat(workQueue.length()).isEqualTo(1);
   }
+
+  @Test
+  public void testPriority() throws Exception {
+    PriorityRateLimitingQueue<Request> workQueue = new PriorityRateLimitingQueue<>();
+    DefaultControllerWatch<V1Pod> backgroundWatch =
+        new DefaultControllerWatch<>(
+            V1Pod.class, workQueue, Controllers.defaultReflectiveKeyFunc(), Duration.ZERO);
+    DefaultControllerWatch<V1Pod> urgentWatch =
+        new DefaultControllerWatch<>(
+            V1Pod.class, workQueue, Controllers.defaultReflectiveKeyFunc(), Duration.ZERO);
+    urgentWatch.setPriority(10);
+
+    V1Pod urgentPod =
+        new V1Pod()
+            .metadata(new V1ObjectMeta().namespace("ns1").name("pod2"))
+            .spec(new V1PodSpec());
+    backgroundWatch.getResourceEventHandler().onAdd(testPod);
+    urgentWatch.getResourceEventHandler().onAdd(urgentPod);
+
+    assertThat(workQueue.get()).isEqualTo(new Request("ns1", "pod2"));
+    assertThat(workQueue.get()).isEqualTo(new Request("ns1", "pod1"));
+    workQueue.shutDown();
+  }
 }
@@ -13,20 +13,32 @@ limitations under the License.
 package io.kubernetes.client.extended.controller;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
 
 import io.kubernetes.client.extended.controller.reconciler.Reconciler;
 import io.kubernetes.client.extended.controller.reconciler.Request;
 import io.kubernetes.client.extended.controller.reconciler.Result;
 import io.kubernetes.client.extended.workqueue.DefaultRateLimitingQueue;
+import io.kubernetes.client.extended.workqueue.PriorityRateLimitingQueue;
 import io.kubernetes.client.extended.workqueue.RateLimitingQueue;
+import io.prometheus.client.CollectorRegistry;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -184,4 +196,291 @@ public class DefaultControllerTest {
     assertThat(resumed).isTrue();
     assertThat(finishedRequests).isNotEmpty();
   }
+
+  @Test(timeout = 90000)
+  public void testBatchReconcile() throws InterruptedException {
+    List<List<Request>> batches = new ArrayList<>();
+    Semaphore latch = new Semaphore(0);
+    DefaultController testController =
+        new DefaultController(
+            "",
+            requests -> {
+              synchronized (batches) {
+                batches.add(new ArrayList<>(requests));
+              }
+              Map<Request, Result> results = new HashMap<>();
+              for (Request request : requests) {
+                // leave out test5, it should be requeued
+                if (!request.getName().equals("test5")) {
+                  results.put(request, new Result(false));
+                }
+              }
+              latch.release(requests.size());
+              return results;
+            },
+            3,
+            Duration.ofMillis(200),
+            workQueue);
+    testController.setWorkerCount(1);
+    testController.setWorkerThreadPool(Executors.newScheduledThreadPool(1));
+
+    for (int i = 1; i <= 5; i++) {
+      workQueue.add(new Request("test" + i));
+    }
+    controllerThead.submit(testController::run);
+    latch.acquire(5);
+
+    synchronized (batches) {
+      assertThat(batches.get(0)).hasSize(3);
+      assertThat(batches.get(1)).containsExactly(new Request("test4"), new Request("test5"));
+    }
+    assertThat(workQueue.numRequeues(new Request("test4"))).isZero();
+    assertThat(workQueue.numRequeues(new Request("test5"))).isPositive();
+    testController.shutdown();
+  }
+
+  @Test
+  public void testRegistersMetricsInCollectorRegistry() {
+    CollectorRegistry registry = new CollectorRegistry();
+    new DefaultController("", request -> new Result(false), workQueue, registry);
+    // registering twice in the same registry is a no-op
+    new DefaultController("", request -> new Result(false), workQueue, registry);
+
+    List<String> names = new ArrayList<>();
+    Collections.list(registry.metricFamilySamples()).forEach(samples -> names.add(samples.name));
+    assertThat(names).contains("controller_work_queue_length", "controller_workers");
+  }
+
+  @Test
+  public void testBatchReconcileRequiresMaxBatchWait() {
+    assertThatThrownBy(
+            () -> new DefaultController("", requests -> new HashMap<>(), 3, null, workQueue))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(
+            () ->
+                new DefaultController(
+                    "", requests -> new HashMap<>(), 3, Duration.ofMillis(-1), workQueue))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void testBatchReconcileRequiresTimedPoll() {
+    RateLimitingQueue<Request> untimedWorkQueue =
+        new RateLimitingQueue<Request>() {
+          @Override
+          public void addRateLimited(Request item) {}
+
+          @Override
+          public void forget(Request item) {}
+
+          @Override
+          public int numRequeues(Request item) {
+            return 0;
+          }
+
+          @Override
+          public void addAfter(Request item, Duration duration) {}
+
+          @Override
+          public void add(Request item) {}
+
+          @Override
+          public int length() {
+            return 0;
+          }
+
+          @Override
+          public Request get() {
+            return null;
+          }
+
+          @Override
+          public void done(Request item) {}
+
+          @Override
+          public void shutDown() {}
+
+          @Override
+          public boolean isShuttingDown() {
+            return false;
+          }
+        };
+    assertThatThrownBy(
+            () ->
+                new DefaultController(
+                    "", requests -> new HashMap<>(), 3, Duration.ZERO, untimedWorkQueue))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("WorkQueue#poll(Duration)");
+    // the default implementations support timed polls
+    new DefaultController(
+        "", requests -> new HashMap<>(), 3, Duration.ZERO, new PriorityRateLimitingQueue<>());
+  }
+
+  @Test(timeout = 90000)
+  public void testAsyncReconcile() throws InterruptedException {
+    Map<Request, CompletableFuture<Result>> pending = new HashMap<>();
+    Semaphore latch = new Semaphore(0);
+    DefaultController testController =
+        new DefaultController(
+            "",
+            request -> {
+              CompletableFuture<Result> result = new CompletableFuture<>();
+              synchronized (pending) {
+                pending.put(request, result);
+              }
+              latch.release();
+              return result;
+            },
+            3,
+            workQueue);
+    testController.setWorkerCount(1);
+    testController.setWorkerThreadPool(Executors.newScheduledThreadPool(1));
+
+    for (int i = 1; i <= 5; i++) {
+      workQueue.add(new Request("test" + i));
+    }
+    controllerThead.submit(testController::run);
+
+    // a single worker keeps up to 3 reconciliations in flight
+    latch.acquire(3);
+    cooldown();
+    synchronized (pending) {
+      assertThat(pending).hasSize(3);
+      pending.get(new Request("test1")).complete(new Result(false));
+      pending.get(new Request("test2")).completeExceptionally(new RuntimeException("Oops!!"));
+    }
+
+    latch.acquire(2);
+    synchronized (pending) {
+      assertThat(pending).containsKeys(new Request("test4"), new Request("test5"));
+    }
+    assertThat(workQueue.numRequeues(new Request("test1"))).isZero();
+    assertThat(workQueue.numRequeues(new Request("test2"))).isPositive();
+    testController.shutdown();
+  }
+
+  @Test(timeout = 90000)
+  public void testWorkerAutoscaling() throws InterruptedException {
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    Semaphore latch = new Semaphore(0);
+    DefaultController testController =
+        new DefaultController(
+            "",
+            request -> {
+              maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+              try {
+                Thread.sleep(50);
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+              running.decrementAndGet();
+              latch.release();
+              return new Result(false);
+            },
+            workQueue);
+    WorkerAutoscaler autoscaler = new WorkerAutoscaler(1, 4, Duration.ofMillis(100));
+    testController.setWorkerAutoscaler(autoscaler);
+    testController.setWorkerThreadPool(Executors.newScheduledThreadPool(4));
+
+    for (int i = 0; i < 60; i++) {
+      workQueue.add(new Request("test" + i));
+    }
+    controllerThead.submit(testController::run);
+
+    latch.acquire(60);
+    assertThat(maxRunning.get()).isGreaterThan(1).isLessThanOrEqualTo(4);
+    testController.shutdown();
+  }
+
+  @Test(timeout = 90000)
+  public void testShardedWorkers() throws InterruptedException {
+    Map<String, Set<String>> threadsByNamespace = new ConcurrentHashMap<>();
+    Semaphore latch = new Semaphore(0);
+    DefaultController testController =
+        new DefaultController(
+            "",
+            request -> {
+              threadsByNamespace
+                  .computeIfAbsent(request.getNamespace(), ns -> ConcurrentHashMap.newKeySet())
+                  .add(Thread.currentThread().getName());
+              latch.release();
+              return new Result(false);
+            },
+            workQueue);
+    testController.setWorkerCount(3);
+    testController.setWorkerThreadPool(Executors.newScheduledThreadPool(3));
+    testController.setShardFunction(Request::getNamespace);
+    testController.setWorkStealing(false);
+
+    for (int i = 0; i < 30; i++) {
+      workQueue.add(new Request("ns" + (i % 5), "test" + i));
+    }
+    controllerThead.submit(testController::run);
+
+    latch.acquire(30);
+    assertThat(threadsByNamespace).hasSize(5);
+    threadsByNamespace.values().forEach(threads -> assertThat(threads).hasSize(1));
+    testController.shutdown();
+  }
+
+  @Test(timeout = 90000)
+  public void testShardedWorkersStealWork() throws InterruptedException {
+    Map<String, List<String>> namesByShard = new ConcurrentHashMap<>();
+    Map<String, AtomicInteger> runningByShard = new ConcurrentHashMap<>();
+    AtomicBoolean overlapped = new AtomicBoolean();
+    CountDownLatch slowReleased = new CountDownLatch(1);
+    Semaphore latch = new Semaphore(0);
+    DefaultController testController =
+        new DefaultController(
+            "",
+            request -> {
+              String shard = request.getNamespace();
+              if (runningByShard.computeIfAbsent(shard, k -> new AtomicInteger()).incrementAndGet()
+                  > 1) {
+                overlapped.set(true);
+              }
+              try {
+                if (request.getName().equals("slow")) {
+                  slowReleased.await(30, TimeUnit.SECONDS);
+                } else {
+                  Thread.sleep(5);
+                }
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+              namesByShard
+                  .computeIfAbsent(shard, k -> Collections.synchronizedList(new ArrayList<>()))
+                  .add(request.getName());
+              runningByShard.get(shard).decrementAndGet();
+              latch.release();
+              return new Result(false);
+            },
+            workQueue);
+    testController.setWorkerCount(3);
+    testController.setWorkerThreadPool(Executors.newScheduledThreadPool(3));
+    // small integers hash to themselves, so the shards 0, 3, 6.. all belong to the same worker
+    testController.setShardFunction(request -> Integer.parseInt(request.getNamespace()));
+    testController.setWorkStealing(true);
+
+    workQueue.add(new Request("0", "slow"));
+    for (int i = 0; i < 3; i++) {
+      for (int shard = 3; shard < 48; shard += 3) {
+        workQueue.add(new Request(String.valueOf(shard), "test" + i));
+      }
+    }
+    controllerThead.submit(testController::run);
+
+    // the other workers take over the shards of the worker stuck on the slow request
+    assertThat(latch.tryAcquire(45, 30, TimeUnit.SECONDS)).isTrue();
+    slowReleased.countDown();
+    latch.acquire(1);
+
+    assertThat(overlapped).isFalse();
+    for (int shard = 3; shard < 48; shard += 3) {
+      assertThat(namesByShard.get(String.valueOf(shard)))
+          .containsExactly("test0", "test1", "test2");
+    }
+    testController.shutdown();
+  }
 }
@@ -0,0 +1,82 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.extended.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import io.kubernetes.client.extended.controller.WorkerAutoscaler.Decision;
+import io.kubernetes.client.openapi.ApiException;
+import java.time.Duration;
+import org.junit.Test;
+
+public class WorkerAutoscalerTest {
+
+  @Test
+  public void testScalesUpWithBacklog() {
+    WorkerAutoscaler autoscaler = new WorkerAutoscaler(1, 8, Duration.ofSeconds(1));
+    autoscaler.recordReconcile(Duration.ofMillis(500).toNanos());
+
+    // 20 requests of 500ms need 10 workers for being drained within a second
+    assertThat(autoscaler.evaluate(20)).isEqualTo(Decision.SCALE_UP);
+    assertThat(autoscaler.getCurrentWorkers()).isEqualTo(2);
+    assertThat(autoscaler.evaluate(20)).isEqualTo(Decision.SCALE_UP);
+    assertThat(autoscaler.getCurrentWorkers()).isEqualTo(4);
+    assertThat(autoscaler.evaluate(20)).isEqualTo(Decision.SCALE_UP);
+    assertThat(autoscaler.getCurrentWorkers()).isEqualTo(8);
+    assertThat(autoscaler.evaluate(20)).isEqualTo(Decision.HOLD);
+    assertThat(autoscaler.getCurrentWorkers()).isEqualTo(8);
+  }
+
+  @Test
+  public void testScalesDownGradually() {
+    WorkerAutoscaler autoscaler = new WorkerAutoscaler(2, 8, Duration.ofSeconds(1));
+    autoscaler.recordReconcile(Duration.ofSeconds(1).toNanos());
+    autoscaler.evaluate(100);
+    autoscaler.evaluate(100);
+    assertThat(autoscaler.getCurrentWorkers()).isEqualTo(8);
+
+    assertThat(autoscaler.evaluate(0)).isEqualTo(Decision.SCALE_DOWN);
+    assertThat(autoscaler.getCurrentWorkers()).isEqualTo(7);
+    for (int i = 0; i < 10; i++) {
+      autoscaler.evaluate(0);
+    }
+    assertThat(autoscaler.getCurrentWorkers()).isEqualTo(2);
+    assertThat(autoscaler.evaluate(0)).isEqualTo(Decision.HOLD);
+  }
+
+  @Test
+  public void testHalvesWhenThrottled() {
+    WorkerAutoscaler autoscaler = new WorkerAutoscaler(1, 8, Duration.ofSeconds(1));
+    autoscaler.recordReconcile(Duration.ofSeconds(1).toNanos());
+    autoscaler.evaluate(100);
+    autoscaler.evaluate(100);
+    autoscaler.evaluate(100);
+    assertThat(autoscaler.getCurrentWorkers()).isEqualTo(8);
+
+    autoscaler.recordFailure(new RuntimeException(new ApiException(429, "Too Many Requests")));
+    assertThat(autoscaler.evaluate(100)).isEqualTo(Decision.THROTTLED);
+    assertThat(autoscaler.getCurrentWorkers()).isEqualTo(4);
+
+    // other failures aren't throttling
+    autoscaler.recordFailure(new ApiException(500, "Internal Server Error"));
+    assertThat(autoscaler.evaluate(100)).isEqualTo(Decision.SCALE_UP);
+  }
+
+  @Test
+  public void testRejectsInvalidBounds() {
+    assertThrows(IllegalArgumentException.class, () -> new WorkerAutoscaler(0, 1));
+    assertThrows(IllegalArgumentException.class, () -> new WorkerAutoscaler(2, 1));
+    assertThrows(IllegalArgumentException.class, () -> new WorkerAutoscaler(1, 2, Duration.ZERO));
+  }
+}
@@ -0,0 +1,72 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.extended.event.legacy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.kubernetes.client.openapi.models.CoreV1Event;
+import io.kubernetes.client.openapi.models.EventsV1Event;
+import io.kubernetes.client.openapi.models.V1EventSource;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import io.kubernetes.client.openapi.models.V1ObjectReference;
+import java.time.OffsetDateTime;
+import org.junit.Test;
+
+public class EventsV1EventSinkAdapterTest {
+
+  @Test
+  public void testConvertsRepeatedEventToSeries() {
+    OffsetDateTime first = OffsetDateTime.parse("2024-03-02T15:02:48.179Z");
+    OffsetDateTime last = first.plusMinutes(1);
+    CoreV1Event event =
+        new CoreV1Event()
+            .metadata(new V1ObjectMeta().namespace("default").name("foo.123"))
+            .involvedObject(new V1ObjectReference().kind("Pod").name("foo"))
+            .source(new V1EventSource().component("controller").host("node1"))
+            .type("Normal")
+            .reason("Synced")
+            .message("synced")
+            .count(3)
+            .firstTimestamp(first)
+            .lastTimestamp(last);
+
+    EventsV1Event v1Event = EventsV1EventSinkAdapter.toEventsV1Event(event);
+
+    assertThat(v1Event.getRegarding().getName()).isEqualTo("foo");
+    assertThat(v1Event.getNote()).isEqualTo("synced");
+    assertThat(v1Event.getAction()).isEqualTo("Synced");
+    assertThat(v1Event.getReportingController()).isEqualTo("controller");
+    assertThat(v1Event.getReportingInstance()).isEqualTo("node1");
+    assertThat(v1Event.getEventTime()).isEqualTo(first);
+    assertThat(v1Event.getSeries().getCount()).isEqualTo(3);
+    assertThat(v1Event.getSeries().getLastObservedTime()).isEqualTo(last);
+    assertThat(v1Event.getDeprecatedCount()).isNull();
+    assertThat(v1Event.getDeprecatedSource()).isNull();
+  }
+
+  @Test
+  public void testSingleEventHasNoSeries() {
+    CoreV1Event event =
+        new CoreV1Event()
+            .metadata(new V1ObjectMeta().namespace("default").name("foo.123"))
+            .source(new V1EventSource().component("controller"))
+            .reason("Synced")
+            .count(1)
+            .firstTimestamp(OffsetDateTime.now());
+
+    EventsV1Event v1Event = EventsV1EventSinkAdapter.toEventsV1Event(event);
+
+    assertThat(v1Event.getSeries()).isNull();
+    assertThat(v1Event.getReportingInstance()).isEqualTo("controller");
+  }
+}
@@ -0,0 +1,260 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.extended.event.legacy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.kubernetes.client.custom.V1Patch;
+import io.kubernetes.client.extended.event.EventType;
+import io.kubernetes.client.extended.wait.Wait;
+import io.kubernetes.client.openapi.ApiException;
+import io.kubernetes.client.openapi.models.CoreV1Event;
+import io.kubernetes.client.openapi.models.CoreV1EventBuilder;
+import io.kubernetes.client.openapi.models.V1EventSource;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import io.kubernetes.client.openapi.models.V1Pod;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import org.apache.commons.lang3.tuple.MutablePair;
+import org.junit.Test;
+
+public class LegacyEventBroadcasterTest {
+
+  private static final V1EventSource SOURCE = new V1EventSource().component("test");
+
+  @Test(timeout = 10000L)
+  public void testCoalescesEventsOfTheSameKey() throws InterruptedException {
+    CountDownLatch created = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    FakeEventSink sink =
+        new FakeEventSink(
+            event -> {
+              created.countDown();
+              release.await();
+              return true;
+            });
+    LegacyEventBroadcaster broadcaster = new LegacyEventBroadcaster(new EventCorrelator(), sink);
+    broadcaster.startRecording();
+    EventRecorder recorder = broadcaster.newRecorder(SOURCE);
+
+    recorder.event(pod("foo"), EventType.Normal, "Synced", "synced");
+    created.await();
+    for (int i = 0; i < 4; i++) {
+      recorder.event(pod("foo"), EventType.Normal, "Synced", "synced");
+    }
+    assertThat(
+            Wait.poll(
+                Duration.ofMillis(10),
+                Duration.ofSeconds(5),
+                () -> broadcaster.getCoalescedEvents() == 3))
+        .isTrue();
+    release.countDown();
+
+    assertThat(
+            Wait.poll(Duration.ofMillis(10), Duration.ofSeconds(5), () -> sink.patched.size() == 1))
+        .isTrue();
+    assertThat(sink.created).hasSize(1);
+    assertThat(sink.patched.get(0).getCount()).isEqualTo(5);
+    broadcaster.shutdown();
+  }
+
+  @Test(timeout = 10000L)
+  public void testRecordedEventDoesNotRewindObservedCount() throws InterruptedException {
+    CountDownLatch created = new CountDownLatch(1);
+    CountDownLatch releaseCreate = new CountDownLatch(1);
+    CountDownLatch patching = new CountDownLatch(1);
+    CountDownLatch releasePatch = new CountDownLatch(1);
+    FakeEventSink sink =
+        new FakeEventSink(
+            event -> {
+              if (event.getCount() == 1) {
+                created.countDown();
+                releaseCreate.await();
+              } else {
+                patching.countDown();
+                releasePatch.await();
+              }
+              return true;
+            });
+    List<Integer> observedCounts = new CopyOnWriteArrayList<>();
+    EventCorrelator correlator =
+        new EventCorrelator() {
+          @Override
+          public Optional<MutablePair<CoreV1Event, V1Patch>> correlate(CoreV1Event event) {
+            Optional<MutablePair<CoreV1Event, V1Patch>> result = super.correlate(event);
+            observedCounts.add(event.getCount());
+            return result;
+          }
+        };
+    LegacyEventBroadcaster broadcaster = new LegacyEventBroadcaster(correlator, sink);
+    broadcaster.startRecording();
+    EventRecorder recorder = broadcaster.newRecorder(SOURCE);
+
+    recorder.event(pod("foo"), EventType.Normal, "Synced", "synced");
+    created.await();
+    // observed while the first event is still being created
+    recorder.event(pod("foo"), EventType.Normal, "Synced", "synced");
+    assertThat(
+            Wait.poll(
+                Duration.ofMillis(10), Duration.ofSeconds(5), () -> observedCounts.size() == 2))
+        .isTrue();
+    releaseCreate.countDown();
+
+    // the creation of the first event was recorded while the second one is being patched
+    patching.await();
+    recorder.event(pod("foo"), EventType.Normal, "Synced", "synced");
+    assertThat(
+            Wait.poll(
+                Duration.ofMillis(10), Duration.ofSeconds(5), () -> observedCounts.size() == 3))
+        .isTrue();
+    assertThat(observedCounts).containsExactly(1, 2, 3);
+    releasePatch.countDown();
+
+    assertThat(
+            Wait.poll(Duration.ofMillis(10), Duration.ofSeconds(5), () -> sink.patched.size() == 2))
+        .isTrue();
+    assertThat(sink.patched).extracting(CoreV1Event::getCount).containsExactly(2, 3);
+    broadcaster.shutdown();
+  }
+
+  @Test(timeout = 10000L)
+  public void testFailingEventDoesNotHoldUpOthers() {
+    FakeEventSink sink =
+        new FakeEventSink(event -> !event.getInvolvedObject().getName().equals("bad"));
+    LegacyEventBroadcaster broadcaster = new LegacyEventBroadcaster(new EventCorrelator(), sink);
+    broadcaster.setSleepDuration(Duration.ofMillis(50));
+    broadcaster.startRecording();
+    EventRecorder recorder = broadcaster.newRecorder(SOURCE);
+
+    recorder.event(pod("bad"), EventType.Warning, "Failed", "failed");
+    recorder.event(pod("good"), EventType.Normal, "Synced", "synced");
+
+    assertThat(
+            Wait.poll(Duration.ofMillis(10), Duration.ofSeconds(1), () -> sink.created.size() == 1))
+        .isTrue();
+    assertThat(sink.created.get(0).getInvolvedObject().getName()).isEqualTo("good");
+    assertThat(
+            Wait.poll(
+                Duration.ofMillis(10),
+                Duration.ofSeconds(5),
+                () -> broadcaster.getFailedEvents() == 1))
+        .isTrue();
+    assertThat(sink.attempts.stream().filter(name -> name.equals("bad"))).hasSize(10);
+    broadcaster.shutdown();
+  }
+
+  @Test(timeout = 10000L)
+  public void testDropsNewestEventsWhenFull() {
+    FakeEventSink sink = new FakeEventSink(event -> true);
+    LegacyEventBroadcaster broadcaster =
+        new LegacyEventBroadcaster(
+            new EventCorrelator(), sink, 2, 1, LegacyEventBroadcaster.DropPolicy.DROP_NEWEST);
+    EventRecorder recorder = broadcaster.newRecorder(SOURCE);
+    for (int i = 0; i < 5; i++) {
+      recorder.event(pod("pod" + i), EventType.Normal, "Synced", "synced");
+    }
+    assertThat(broadcaster.getDroppedEvents()).isEqualTo(3);
+
+    broadcaster.startRecording();
+    assertThat(
+            Wait.poll(Duration.ofMillis(10), Duration.ofSeconds(5), () -> sink.created.size() == 2))
+        .isTrue();
+    assertThat(sink.created)
+        .extracting(event -> event.getInvolvedObject().getName())
+        .containsExactlyInAnyOrder("pod0", "pod1");
+    broadcaster.shutdown();
+  }
+
+  @Test(timeout = 10000L)
+  public void testDropsOldestEventsWhenFull() {
+    FakeEventSink sink = new FakeEventSink(event -> true);
+    LegacyEventBroadcaster broadcaster =
+        new LegacyEventBroadcaster(
+            new EventCorrelator(), sink, 2, 1, LegacyEventBroadcaster.DropPolicy.DROP_OLDEST);
+    EventRecorder recorder = broadcaster.newRecorder(SOURCE);
+    for (int i = 0; i < 5; i++) {
+      recorder.event(pod("pod" + i), EventType.Normal, "Synced", "synced");
+    }
+    assertThat(broadcaster.getDroppedEvents()).isEqualTo(3);
+
+    broadcaster.startRecording();
+    assertThat(
+            Wait.poll(Duration.ofMillis(10), Duration.ofSeconds(5), () -> sink.created.size() == 2))
+        .isTrue();
+    assertThat(sink.created)
+        .extracting(event -> event.getInvolvedObject().getName())
+        .containsExactlyInAnyOrder("pod3", "pod4");
+    broadcaster.shutdown();
+  }
+
+  private static V1Pod pod(String name) {
+    return new V1Pod()
+        .apiVersion("v1")
+        .kind("Pod")
+        .metadata(new V1ObjectMeta().namespace("default").name(name).uid(name));
+  }
+
+  private interface EventResult {
+    boolean succeed(CoreV1Event event) throws InterruptedException;
+  }
+
+  private static class FakeEventSink implements EventSink {
+    private final EventResult result;
+    private final List<String> attempts = new CopyOnWriteArrayList<>();
+    private final List<CoreV1Event> created = new CopyOnWriteArrayList<>();
+    private final List<CoreV1Event> patched = new CopyOnWriteArrayList<>();
+
+    private FakeEventSink(EventResult result) {
+      this.result = result;
+    }
+
+    @Override
+    public CoreV1Event create(CoreV1Event event) throws ApiException {
+      attempt(event);
+      created.add(event);
+      return recorded(event);
+    }
+
+    @Override
+    public CoreV1Event update(CoreV1Event event) throws ApiException {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public CoreV1Event patch(CoreV1Event event, V1Patch patch) throws ApiException {
+      attempt(event);
+      patched.add(event);
+      return recorded(event);
+    }
+
+    private void attempt(CoreV1Event event) throws ApiException {
+      attempts.add(event.getInvolvedObject().getName());
+      try {
+        if (!result.succeed(event)) {
+          throw new ApiException(500, "Internal Server Error");
+        }
+      } catch (InterruptedException e) {
+        throw new ApiException(e);
+      }
+    }
+
+    private static CoreV1Event recorded(CoreV1Event event) {
+      CoreV1Event recorded = new CoreV1EventBuilder(event).build();
+      recorded.getMetadata().setResourceVersion("1");
+      return recorded;
+    }
+  }
+}
@@ -0,0 +1,163 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.extended.event.v1;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.kubernetes.client.custom.V1Patch;
+import io.kubernetes.client.extended.event.EventType;
+import io.kubernetes.client.extended.wait.Wait;
+import io.kubernetes.client.openapi.ApiException;
+import io.kubernetes.client.openapi.models.EventsV1Event;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import io.kubernetes.client.openapi.models.V1Pod;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.Test;
+
+public class EventsV1EventBroadcasterTest {
+
+  @Test(timeout = 10000L)
+  public void testAggregatesRepeatedEventsIntoSeries() {
+    FakeEventSink sink = new FakeEventSink();
+    EventsV1EventBroadcaster broadcaster = new EventsV1EventBroadcaster(sink);
+    broadcaster.startRecording();
+    EventRecorder recorder = broadcaster.newRecorder("test-controller", "test-controller-1");
+
+    for (int i = 0; i < 50; i++) {
+      recorder.event(pod("foo"), EventType.Warning, "BackOff", "Restart", "restarting %s", "foo");
+    }
+    recorder.event(pod("bar"), EventType.Normal, "Synced", "Sync", "synced");
+
+    assertThat(
+            Wait.poll(
+                Duration.ofMillis(10),
+                Duration.ofSeconds(5),
+                () -> sink.created.size() == 2 && sink.patched.size() == 1))
+        .isTrue();
+    // the series is started once, the later repeats wait for the heartbeat
+    assertThat(
+            Wait.poll(Duration.ofMillis(10), Duration.ofMillis(200), () -> sink.patched.size() > 1))
+        .isFalse();
+    assertThat(sink.patched.get(0)).contains("\"count\":2");
+    assertThat(sink.created)
+        .extracting(event -> event.getRegarding().getName())
+        .containsExactlyInAnyOrder("foo", "bar");
+
+    EventsV1Event created = sink.created.get(0);
+    assertThat(created.getReportingController()).isEqualTo("test-controller");
+    assertThat(created.getReportingInstance()).isEqualTo("test-controller-1");
+    assertThat(created.getMetadata().getNamespace()).isEqualTo("default");
+    broadcaster.shutdown();
+  }
+
+  @Test(timeout = 10000L)
+  public void testWritesSeriesOnHeartbeat() {
+    FakeEventSink sink = new FakeEventSink();
+    EventsV1EventBroadcaster broadcaster =
+        new EventsV1EventBroadcaster(sink, Duration.ofMillis(200), Duration.ofMinutes(6));
+    broadcaster.startRecording();
+    EventRecorder recorder = broadcaster.newRecorder("test-controller", "test-controller-1");
+
+    for (int i = 0; i < 50; i++) {
+      recorder.event(pod("foo"), EventType.Warning, "BackOff", "Restart", "restarting");
+    }
+
+    assertThat(
+            Wait.poll(
+                Duration.ofMillis(10),
+                Duration.ofSeconds(5),
+                () -> sink.patched.stream().anyMatch(p -> p.contains("\"count\":50"))))
+        .isTrue();
+    assertThat(sink.created).hasSize(1);
+    broadcaster.shutdown();
+  }
+
+  @Test(timeout = 10000L)
+  public void testFinishesSeries() {
+    FakeEventSink sink = new FakeEventSink();
+    EventsV1EventBroadcaster broadcaster =
+        new EventsV1EventBroadcaster(sink, Duration.ofMinutes(30), Duration.ofMillis(200));
+    broadcaster.startRecording();
+    EventRecorder recorder = broadcaster.newRecorder("test-controller", "test-controller-1");
+
+    for (int i = 0; i < 3; i++) {
+      recorder.event(pod("foo"), EventType.Warning, "BackOff", "Restart", "restarting");
+    }
+    assertThat(
+            Wait.poll(
+                Duration.ofMillis(10),
+                Duration.ofSeconds(5),
+                () -> sink.patched.stream().anyMatch(p -> p.contains("\"count\":3"))))
+        .isTrue();
+
+    // a finished series starts over with a new event
+    recorder.event(pod("foo"), EventType.Warning, "BackOff", "Restart", "restarting");
+    assertThat(
+            Wait.poll(Duration.ofMillis(10), Duration.ofSeconds(5), () -> sink.created.size() == 2))
+        .isTrue();
+    broadcaster.shutdown();
+  }
+
+  @Test(timeout = 10000L)
+  public void testRecreatesMissingEventWithSeries() {
+    FakeEventSink sink = new FakeEventSink();
+    sink.patchNotFound = true;
+    EventsV1EventBroadcaster broadcaster = new EventsV1EventBroadcaster(sink);
+    EventRecorder recorder = broadcaster.newRecorder("test-controller", "test-controller-1");
+
+    recorder.event(pod("foo"), EventType.Normal, "Synced", "Sync", "synced");
+    recorder.event(pod("foo"), EventType.Normal, "Synced", "Sync", "synced");
+
+    assertThat(
+            Wait.poll(Duration.ofMillis(10), Duration.ofSeconds(5), () -> sink.created.size() == 2))
+        .isTrue();
+    assertThat(sink.created.get(0).getSeries()).isNull();
+    assertThat(sink.created.get(1).getSeries().getCount()).isEqualTo(2);
+    broadcaster.shutdown();
+  }
+
+  private static V1Pod pod(String name) {
+    return new V1Pod()
+        .apiVersion("v1")
+        .kind("Pod")
+        .metadata(new V1ObjectMeta().namespace("default").name(name).uid(name));
+  }
+
+  private static class FakeEventSink implements EventSink {
+    private final List<EventsV1Event> created = new CopyOnWriteArrayList<>();
+    private final List<String> patched = new CopyOnWriteArrayList<>();
+    private volatile boolean patchNotFound;
+
+    @Override
+    public EventsV1Event create(EventsV1Event event) {
+      created.add(event);
+      return event;
+    }
+
+    @Override
+    public EventsV1Event update(EventsV1Event event) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public EventsV1Event patch(EventsV1Event event, V1Patch patch) throws ApiException {
+      if (patchNotFound) {
+        throw new ApiException(404, "Not Found");
+      }
+      patched.add(patch.getValue());
+      return event;
+    }
+  }
+}
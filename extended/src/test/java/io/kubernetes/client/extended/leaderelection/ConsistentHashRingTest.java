@@ -0,0 +1,62 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.extended.leaderelection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.Test;
+
+public class ConsistentHashRingTest {
+
+  @Test
+  public void testAssignsBalancedShards() {
+    String[] owners = new ConsistentHashRing(Arrays.asList("a", "b", "c")).assign(16);
+
+    Map<String, Long> loads =
+        Arrays.stream(owners).collect(Collectors.groupingBy(o -> o, Collectors.counting()));
+    assertThat(loads).containsOnlyKeys("a", "b", "c");
+    assertThat(loads.values()).allMatch(load -> load >= 5 && load <= 6);
+  }
+
+  @Test
+  public void testMemberJoiningOnlyTakesShards() {
+    int shards = 64;
+    List<String> members =
+        IntStream.range(0, 4).mapToObj(i -> "m" + i).collect(Collectors.toList());
+    String[] before = new ConsistentHashRing(members).assign(shards);
+    members.add("m4");
+    String[] after = new ConsistentHashRing(members).assign(shards);
+
+    Map<String, Integer> moved = new HashMap<>();
+    for (int shard = 0; shard < shards; shard++) {
+      if (!before[shard].equals(after[shard])) {
+        moved.merge(after[shard], 1, Integer::sum);
+      }
+    }
+    // most of the moved shards go to the new member, a handful move because of the lower bound
+    assertThat(moved.getOrDefault("m4", 0)).isBetween(10, 13);
+    assertThat(moved.values().stream().mapToInt(Integer::intValue).sum()).isLessThan(shards / 2);
+  }
+
+  @Test
+  public void testSameMembersSameAssignment() {
+    assertThat(new ConsistentHashRing(Arrays.asList("a", "b")).assign(8))
+        .containsExactly(new ConsistentHashRing(Arrays.asList("b", "a")).assign(8));
+  }
+}
@@ -12,9 +12,15 @@ limitations under the License.
 */
 package io.kubernetes.client.extended.leaderelection;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import io.kubernetes.client.openapi.ApiException;
 import java.time.Duration;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 import org.junit.Test;
 
@@ -97,6 +103,141 @@ public class LeaderElectorTest {
     startBeingLeader2.await();
   }
 
+  /**
+   * Tests that a follower watching the lock doesn't poll it while the leader renews, and takes over
+   * as soon as the leader releases the lock.
+   */
+  @Test(timeout = 20000L)
+  public void testFollowerWatchesLock() throws InterruptedException {
+    LockSmith lockSmith = new LockSmith();
+
+    CountDownLatch startBeingLeader1 = new CountDownLatch(1);
+    CountDownLatch stopBeingLeader1 = new CountDownLatch(1);
+    LeaderElector leaderElector1 =
+        makeAndRunLeaderElectorAsync(lockSmith, "candidate1", startBeingLeader1, stopBeingLeader1);
+    startBeingLeader1.await();
+
+    CountDownLatch startBeingLeader2 = new CountDownLatch(1);
+    CountDownLatch stopBeingLeader2 = new CountDownLatch(1);
+    CountDownLatch notifiedLeader = new CountDownLatch(1);
+    LeaderElectionConfig leaderElectionConfig =
+        new LeaderElectionConfig(
+            lockSmith.makeWatchableLock("candidate2"),
+            Duration.ofSeconds(10),
+            Duration.ofSeconds(9),
+            Duration.ofSeconds(2));
+    leaderElectionConfig.setWatchLock(true);
+    LeaderElector leaderElector2 =
+        runLeaderElectorAsync(
+            new LeaderElector(leaderElectionConfig),
+            "candidate2",
+            startBeingLeader2,
+            stopBeingLeader2,
+            (id) -> {
+              if ("candidate1".equals(id)) {
+                notifiedLeader.countDown();
+              }
+            });
+    notifiedLeader.await();
+
+    // the leader renews every two seconds, the follower only listens to the changes
+    Thread.sleep(5000);
+    assertEquals(1, lockSmith.getCount("candidate2"));
+
+    leaderElector1.close();
+    stopBeingLeader1.await();
+    assertTrue(startBeingLeader2.await(1, TimeUnit.SECONDS));
+
+    leaderElector2.close();
+  }
+
+  @Test(timeout = 20000L)
+  public void testIsLeaderAndFencingToken() throws InterruptedException {
+    LockSmith lockSmith = new LockSmith();
+
+    CountDownLatch startBeingLeader1 = new CountDownLatch(1);
+    CountDownLatch stopBeingLeader1 = new CountDownLatch(1);
+    LeaderElector leaderElector1 =
+        makeAndRunLeaderElectorAsync(lockSmith, "candidate1", startBeingLeader1, stopBeingLeader1);
+    startBeingLeader1.await();
+    assertTrue(leaderElector1.isLeader());
+    assertEquals(0, leaderElector1.getFencingToken());
+
+    CountDownLatch startBeingLeader2 = new CountDownLatch(1);
+    CountDownLatch stopBeingLeader2 = new CountDownLatch(1);
+    LeaderElector leaderElector2 =
+        makeAndRunLeaderElectorAsync(lockSmith, "candidate2", startBeingLeader2, stopBeingLeader2);
+    assertFalse(leaderElector2.isLeader());
+    assertEquals(-1, leaderElector2.getFencingToken());
+
+    leaderElector1.close();
+    assertFalse(leaderElector1.isLeader());
+    assertEquals(-1, leaderElector1.getFencingToken());
+
+    startBeingLeader2.await();
+    assertTrue(leaderElector2.isLeader());
+    assertEquals(1, leaderElector2.getFencingToken());
+    leaderElector2.close();
+  }
+
+  /** Tests that the leadership ends at the renew deadline even if the renewal hangs. */
+  @Test(timeout = 20000L)
+  public void testLeadershipEndsAtRenewDeadline() throws InterruptedException {
+    Lock lock = new LockSmith().makeLock("candidate1");
+    AtomicBoolean hang = new AtomicBoolean(false);
+    Lock hangingLock =
+        new Lock() {
+          @Override
+          public LeaderElectionRecord get() throws ApiException {
+            return lock.get();
+          }
+
+          @Override
+          public boolean create(LeaderElectionRecord record) {
+            return lock.create(record);
+          }
+
+          @Override
+          public boolean update(LeaderElectionRecord record) {
+            if (hang.get()) {
+              try {
+                Thread.sleep(TimeUnit.SECONDS.toMillis(30));
+              } catch (InterruptedException e) {
+                return false;
+              }
+            }
+            return lock.update(record);
+          }
+
+          @Override
+          public String identity() {
+            return lock.identity();
+          }
+
+          @Override
+          public String describe() {
+            return lock.describe();
+          }
+        };
+    LeaderElector leaderElector =
+        new LeaderElector(
+            new LeaderElectionConfig(
+                hangingLock, Duration.ofSeconds(2), Duration.ofSeconds(1), Duration.ofMillis(200)));
+    CountDownLatch startBeingLeader = new CountDownLatch(1);
+    CountDownLatch stopBeingLeader = new CountDownLatch(1);
+    runLeaderElectorAsync(leaderElector, "candidate1", startBeingLeader, stopBeingLeader, id -> {});
+    startBeingLeader.await();
+
+    hang.set(true);
+    long start = System.nanoTime();
+    assertTrue(stopBeingLeader.await(5, TimeUnit.SECONDS));
+    assertFalse(leaderElector.isLeader());
+    // at most one renew deadline plus one retry period after the last successful renewal
+    assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(1500));
+    hang.set(false);
+    leaderElector.close();
+  }
+
   private LeaderElector makeAndRunLeaderElectorAsync(
       LockSmith lockSmith,
       String lockIdentity,
@@ -118,8 +259,20 @@ public class LeaderElectorTest {
             Duration.ofMillis(TimeUnit.SECONDS.toMillis(10)),
             Duration.ofMillis(TimeUnit.SECONDS.toMillis(9)),
             Duration.ofMillis(TimeUnit.SECONDS.toMillis(2)));
-    LeaderElector leaderElector = new LeaderElector(leaderElectionConfig);
+    return runLeaderElectorAsync(
+        new LeaderElector(leaderElectionConfig),
+        lockIdentity,
+        startBeingLeader,
+        stopBeingLeader,
+        onNewLeaderHook);
+  }
 
+  private LeaderElector runLeaderElectorAsync(
+      LeaderElector leaderElector,
+      String lockIdentity,
+      CountDownLatch startBeingLeader,
+      CountDownLatch stopBeingLeader,
+      Consumer<String> onNewLeaderHook) {
     Thread thread =
         new Thread(
             () ->
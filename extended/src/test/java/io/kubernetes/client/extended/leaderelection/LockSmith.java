@@ -14,16 +14,40 @@ package io.kubernetes.client.extended.leaderelection;
 
 import io.kubernetes.client.openapi.ApiException;
 import java.net.HttpURLConnection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 /** Makes simulated {@link Lock} objects that behave as if they were backed by real API server. */
 public class LockSmith {
   private AtomicReference<Resource> lockResourceRef = new AtomicReference<>();
+  private final CopyOnWriteArrayList<Consumer<LeaderElectionRecord>> watchers =
+      new CopyOnWriteArrayList<>();
+  private final Map<String, AtomicInteger> getCounts = new ConcurrentHashMap<>();
 
   public Lock makeLock(String identity) {
     return new SimulatedLock(identity);
   }
 
+  public WatchableLock makeWatchableLock(String identity) {
+    return new SimulatedWatchableLock(identity);
+  }
+
+  /** Returns how many times the lock with the given identity has read the record. */
+  public int getCount(String identity) {
+    AtomicInteger count = getCounts.get(identity);
+    return count == null ? 0 : count.get();
+  }
+
+  private void notifyWatchers(LeaderElectionRecord record) {
+    for (Consumer<LeaderElectionRecord> watcher : watchers) {
+      watcher.accept(record);
+    }
+  }
+
   private class SimulatedLock implements Lock {
     private final String identity;
 
@@ -33,6 +57,7 @@ public class LockSmith {
 
     @Override
     public LeaderElectionRecord get() throws ApiException {
+      getCounts.computeIfAbsent(identity, k -> new AtomicInteger()).incrementAndGet();
       if (lockResourceRef.get() == null) {
         throw new ApiException("Record Not Found", HttpURLConnection.HTTP_NOT_FOUND, null, null);
       }
@@ -42,7 +67,11 @@ public class LockSmith {
 
     @Override
     public boolean create(LeaderElectionRecord record) {
-      return lockResourceRef.compareAndSet(null, new Resource(record));
+      if (!lockResourceRef.compareAndSet(null, new Resource(record))) {
+        return false;
+      }
+      notifyWatchers(record);
+      return true;
     }
 
     @Override
@@ -52,7 +81,11 @@ public class LockSmith {
         return false;
       } else {
         Resource newResource = new Resource(res.version + 1, record);
-        return lockResourceRef.compareAndSet(res, newResource);
+        if (!lockResourceRef.compareAndSet(res, newResource)) {
+          return false;
+        }
+        notifyWatchers(record);
+        return true;
       }
     }
 
@@ -67,6 +100,33 @@ public class LockSmith {
     }
   }
 
+  private class SimulatedWatchableLock extends SimulatedLock implements WatchableLock {
+    private Consumer<LeaderElectionRecord> watcher;
+
+    public SimulatedWatchableLock(String identity) {
+      super(identity);
+    }
+
+    @Override
+    public synchronized void startWatching(Consumer<LeaderElectionRecord> onChange) {
+      stopWatching();
+      watcher = onChange;
+      watchers.add(onChange);
+      Resource res = lockResourceRef.get();
+      if (res != null) {
+        onChange.accept(res.record);
+      }
+    }
+
+    @Override
+    public synchronized void stopWatching() {
+      if (watcher != null) {
+        watchers.remove(watcher);
+        watcher = null;
+      }
+    }
+  }
+
   private static class Resource {
     final int version;
     final LeaderElectionRecord record;
@@ -0,0 +1,119 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.extended.leaderelection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.kubernetes.client.extended.wait.Wait;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.Test;
+
+/** Sharded leader election tests using "simulated" locks created by {@link LockSmith} */
+public class ShardedLeaderElectorTest {
+
+  private static final int SHARDS = 4;
+
+  @Test(timeout = 30000L)
+  public void testRebalancesWhenReplicasJoinAndLeave() {
+    LockSmith[] lockSmiths = new LockSmith[SHARDS];
+    for (int i = 0; i < SHARDS; i++) {
+      lockSmiths[i] = new LockSmith();
+    }
+    InMemoryMembership membership = new InMemoryMembership();
+
+    ShardedLeaderElector elector1 = makeAndRunElectorAsync(lockSmiths, membership, "replica1");
+    assertThat(
+            Wait.poll(
+                Duration.ofMillis(50),
+                Duration.ofSeconds(10),
+                () -> elector1.getHeldShards().size() == SHARDS))
+        .isTrue();
+
+    ShardedLeaderElector elector2 = makeAndRunElectorAsync(lockSmiths, membership, "replica2");
+    assertThat(
+            Wait.poll(
+                Duration.ofMillis(50),
+                Duration.ofSeconds(10),
+                () ->
+                    elector1.getHeldShards().size() == SHARDS / 2
+                        && elector2.getHeldShards().size() == SHARDS / 2))
+        .isTrue();
+    Set<Integer> held = new HashSet<>(elector1.getHeldShards());
+    held.addAll(elector2.getHeldShards());
+    assertThat(held).containsExactlyInAnyOrder(0, 1, 2, 3);
+    assertThat(elector1.isLeaderFor("ns", "foo")).isNotEqualTo(elector2.isLeaderFor("ns", "foo"));
+
+    elector1.close();
+    assertThat(
+            Wait.poll(
+                Duration.ofMillis(50),
+                Duration.ofSeconds(10),
+                () -> elector2.getHeldShards().size() == SHARDS))
+        .isTrue();
+    elector2.close();
+  }
+
+  @Test
+  public void testShardOfIsStable() {
+    ShardedLeaderElector elector =
+        new ShardedLeaderElector(
+            "replica",
+            SHARDS,
+            shard -> null,
+            new InMemoryMembership(),
+            Duration.ofSeconds(2),
+            Duration.ofSeconds(1),
+            Duration.ofMillis(200));
+    int shard = elector.shardOf("ns", "foo");
+    assertThat(shard).isBetween(0, SHARDS - 1).isEqualTo(elector.shardOf("ns/foo"));
+  }
+
+  private ShardedLeaderElector makeAndRunElectorAsync(
+      LockSmith[] lockSmiths, ShardMembership membership, String identity) {
+    ShardedLeaderElector elector =
+        new ShardedLeaderElector(
+            identity,
+            SHARDS,
+            shard -> lockSmiths[shard].makeLock(identity),
+            membership,
+            Duration.ofSeconds(2),
+            Duration.ofSeconds(1),
+            Duration.ofMillis(200));
+    Thread thread = new Thread(elector::run, identity + "-sharded-leader-elector-main");
+    thread.setDaemon(true);
+    thread.start();
+    return elector;
+  }
+
+  private static class InMemoryMembership implements ShardMembership {
+    private final Set<String> members = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public void heartbeat(String identity) {
+      members.add(identity);
+    }
+
+    @Override
+    public Set<String> members() {
+      return new HashSet<>(members);
+    }
+
+    @Override
+    public void leave(String identity) {
+      members.remove(identity);
+    }
+  }
+}
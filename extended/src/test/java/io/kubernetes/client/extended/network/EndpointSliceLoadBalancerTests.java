@@ -0,0 +1,220 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.extended.network;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.kubernetes.client.extended.network.exception.NoAvailableAddressException;
+import io.kubernetes.client.informer.ResourceEventHandler;
+import io.kubernetes.client.informer.SharedIndexInformer;
+import io.kubernetes.client.informer.cache.Cache;
+import io.kubernetes.client.openapi.models.DiscoveryV1EndpointPort;
+import io.kubernetes.client.openapi.models.V1Endpoint;
+import io.kubernetes.client.openapi.models.V1EndpointConditions;
+import io.kubernetes.client.openapi.models.V1EndpointHints;
+import io.kubernetes.client.openapi.models.V1EndpointSlice;
+import io.kubernetes.client.openapi.models.V1ForZone;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Before;
+import org.junit.Test;
+
+public class EndpointSliceLoadBalancerTests {
+
+  private final Cache<V1EndpointSlice> cache = new Cache<>();
+  private final AtomicReference<ResourceEventHandler<V1EndpointSlice>> handler =
+      new AtomicReference<>();
+  private SharedIndexInformer<V1EndpointSlice> informer;
+
+  @Before
+  @SuppressWarnings("unchecked")
+  public void setUp() {
+    informer = mock(SharedIndexInformer.class);
+    when(informer.getIndexer()).thenReturn(cache);
+    doAnswer(
+            invocation -> {
+              handler.set(invocation.getArgument(0));
+              return null;
+            })
+        .when(informer)
+        .addEventHandler(any());
+  }
+
+  @Test
+  public void testIndexesReadyEndpointsByPort() throws NoAvailableAddressException {
+    add(
+        slice("foo-a", "foo", 8080)
+            .addEndpointsItem(endpoint("10.0.0.1", "zone-a"))
+            .addEndpointsItem(endpoint("10.0.0.2", "zone-b").conditions(notReady())));
+    add(
+        slice("foo-b", "foo", 8081)
+            .addEndpointsItem(endpoint("10.0.0.3", "zone-b"))
+            .addEndpointsItem(endpoint("10.0.0.1", "zone-a")));
+    add(slice("bar-a", "bar", 8080).addEndpointsItem(endpoint("10.0.1.1", "zone-a")));
+
+    EndpointSliceLoadBalancer loadBalancer =
+        new EndpointSliceLoadBalancer(
+            informer, "default", "foo", new RoundRobinLoadBalanceStrategy());
+
+    assertThat(loadBalancer.getAllAvailableIPs()).containsExactly("10.0.0.1", "10.0.0.3");
+    assertThat(loadBalancer.getAllAvailableIPs(8080)).containsExactly("10.0.0.1");
+    assertThat(loadBalancer.getAllAvailableIPs(8081)).containsExactly("10.0.0.3", "10.0.0.1");
+    assertThat(loadBalancer.getTargetIP(8080)).isEqualTo("10.0.0.1");
+    assertThrows(NoAvailableAddressException.class, () -> loadBalancer.getTargetIP(9090));
+  }
+
+  @Test
+  public void testFollowsSliceUpdates() throws NoAvailableAddressException {
+    EndpointSliceLoadBalancer loadBalancer =
+        new EndpointSliceLoadBalancer(
+            informer, "default", "foo", new RoundRobinLoadBalanceStrategy());
+    assertThrows(NoAvailableAddressException.class, loadBalancer::getTargetIP);
+
+    V1EndpointSlice slice =
+        slice("foo-a", "foo", 8080).addEndpointsItem(endpoint("10.0.0.1", "zone-a"));
+    add(slice);
+    Endpoint endpoint = loadBalancer.getTargetEndpoint(8080);
+    assertThat(endpoint.getIp()).isEqualTo("10.0.0.1");
+
+    V1EndpointSlice updated =
+        slice("foo-a", "foo", 8080)
+            .addEndpointsItem(endpoint("10.0.0.1", "zone-a"))
+            .addEndpointsItem(endpoint("10.0.0.2", "zone-a"));
+    cache.update(updated);
+    handler.get().onUpdate(slice, updated);
+    assertThat(loadBalancer.getAllAvailableIPs(8080)).containsExactly("10.0.0.1", "10.0.0.2");
+    // the unchanged endpoint is kept along with its requests in flight
+    Set<Endpoint> chosen = new HashSet<>();
+    for (int i = 0; i < 2; i++) {
+      chosen.add(loadBalancer.getTargetEndpoint(8080));
+    }
+    assertThat(chosen).contains(endpoint);
+
+    cache.delete(updated);
+    handler.get().onDelete(updated, false);
+    assertThrows(NoAvailableAddressException.class, () -> loadBalancer.getTargetIP(8080));
+  }
+
+  @Test
+  public void testLeastRequestAvoidsBusyEndpoint() throws NoAvailableAddressException {
+    add(
+        slice("foo-a", "foo", 8080)
+            .addEndpointsItem(endpoint("10.0.0.1", "zone-a"))
+            .addEndpointsItem(endpoint("10.0.0.2", "zone-a")));
+    EndpointSliceLoadBalancer loadBalancer =
+        new EndpointSliceLoadBalancer(
+            informer, "default", "foo", new LeastRequestLoadBalanceStrategy());
+
+    Endpoint busy = loadBalancer.getTargetEndpoint(8080);
+    busy.requestStarted();
+    for (int i = 0; i < 10; i++) {
+      assertThat(loadBalancer.getTargetEndpoint(8080)).isNotSameAs(busy);
+    }
+    busy.requestFinished();
+    assertThat(busy.getOutstandingRequests()).isZero();
+  }
+
+  @Test
+  public void testZoneAwarePrefersLocalEndpoints() throws NoAvailableAddressException {
+    add(
+        slice("foo-a", "foo", 8080)
+            .addEndpointsItem(endpoint("10.0.0.1", "zone-a"))
+            .addEndpointsItem(endpoint("10.0.0.2", "zone-b"))
+            .addEndpointsItem(endpoint("10.0.0.3", "zone-b")));
+    EndpointSliceLoadBalancer loadBalancer =
+        new EndpointSliceLoadBalancer(
+            informer,
+            "default",
+            "foo",
+            new ZoneAwareLoadBalanceStrategy("zone-b", new RoundRobinLoadBalanceStrategy()));
+
+    Set<String> chosen = new HashSet<>();
+    for (int i = 0; i < 10; i++) {
+      chosen.add(loadBalancer.getTargetIP(8080));
+    }
+    assertThat(chosen).containsExactlyInAnyOrder("10.0.0.2", "10.0.0.3");
+
+    // falls back to all endpoints when the zone has none
+    EndpointSliceLoadBalancer remote =
+        new EndpointSliceLoadBalancer(
+            informer,
+            "default",
+            "foo",
+            new ZoneAwareLoadBalanceStrategy("zone-c", new RoundRobinLoadBalanceStrategy()));
+    chosen.clear();
+    for (int i = 0; i < 10; i++) {
+      chosen.add(remote.getTargetIP(8080));
+    }
+    assertThat(chosen).hasSize(3);
+  }
+
+  @Test
+  public void testZoneAwareFollowsHints() throws NoAvailableAddressException {
+    add(
+        slice("foo-a", "foo", 8080)
+            .addEndpointsItem(endpoint("10.0.0.1", "zone-a").hints(hints("zone-a", "zone-b")))
+            .addEndpointsItem(endpoint("10.0.0.2", "zone-b").hints(hints("zone-c"))));
+    EndpointSliceLoadBalancer loadBalancer =
+        new EndpointSliceLoadBalancer(
+            informer,
+            "default",
+            "foo",
+            new ZoneAwareLoadBalanceStrategy("zone-b", new RoundRobinLoadBalanceStrategy()));
+
+    for (int i = 0; i < 4; i++) {
+      assertThat(loadBalancer.getTargetIP(8080)).isEqualTo("10.0.0.1");
+    }
+  }
+
+  private void add(V1EndpointSlice slice) {
+    cache.add(slice);
+    if (handler.get() != null) {
+      handler.get().onAdd(slice);
+    }
+  }
+
+  private static V1EndpointSlice slice(String name, String service, int port) {
+    return new V1EndpointSlice()
+        .metadata(
+            new V1ObjectMeta()
+                .namespace("default")
+                .name(name)
+                .putLabelsItem(EndpointSliceLoadBalancer.SERVICE_NAME_LABEL, service))
+        .addressType("IPv4")
+        .addPortsItem(new DiscoveryV1EndpointPort().port(port));
+  }
+
+  private static V1Endpoint endpoint(String ip, String zone) {
+    return new V1Endpoint().addresses(Arrays.asList(ip)).zone(zone);
+  }
+
+  private static V1EndpointConditions notReady() {
+    return new V1EndpointConditions().ready(false);
+  }
+
+  private static V1EndpointHints hints(String... zones) {
+    V1EndpointHints hints = new V1EndpointHints();
+    for (String zone : zones) {
+      hints.addForZonesItem(new V1ForZone().name(zone));
+    }
+    return hints;
+  }
+}
@@ -0,0 +1,138 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.extended.network;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import io.kubernetes.client.extended.network.metrics.PrometheusLoadBalancerMetrics;
+import io.prometheus.client.CollectorRegistry;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class HedgingRequestExecutorTests {
+
+  private static final String[] NAME = new String[] {"name"};
+  private static final String[] TEST = new String[] {"test"};
+
+  private final AtomicReference<List<String>> targets = new AtomicReference<>();
+  private final AtomicInteger targetIndex = new AtomicInteger();
+  private final CollectorRegistry registry = new CollectorRegistry();
+  private ExecutorService executorService;
+  private HedgingRequestExecutor executor;
+
+  @Before
+  public void setUp() {
+    executorService = Executors.newCachedThreadPool();
+    // the endpoints are chosen in the given order
+    LoadBalancer loadBalancer =
+        new LoadBalancer() {
+          @Override
+          public List<String> getAllAvailableIPs() {
+            return targets.get();
+          }
+
+          @Override
+          public List<String> getAllAvailableIPs(int port) {
+            return targets.get();
+          }
+
+          @Override
+          public String getTargetIP() {
+            List<String> ips = targets.get();
+            return ips.get(targetIndex.getAndIncrement() % ips.size());
+          }
+
+          @Override
+          public String getTargetIP(int port) {
+            return getTargetIP();
+          }
+        };
+    executor = new HedgingRequestExecutor(loadBalancer, null, executorService);
+    executor.setMetrics("test", new PrometheusLoadBalancerMetrics(registry));
+  }
+
+  @After
+  public void tearDown() {
+    executorService.shutdownNow();
+  }
+
+  @Test(timeout = 10000L)
+  public void testHedgesSlowRequest() throws Exception {
+    targets.set(Arrays.asList("fast"));
+    for (int i = 0; i < 32; i++) {
+      executor.execute(8080, ip -> ip);
+    }
+
+    targets.set(Arrays.asList("slow", "fast"));
+    targetIndex.set(0);
+    String response =
+        executor.executeIdempotent(
+            8080,
+            ip -> {
+              if (ip.equals("slow")) {
+                Thread.sleep(2000);
+              }
+              return ip;
+            });
+
+    assertThat(response).isEqualTo("fast");
+    assertThat(registry.getSampleValue("loadbalancer_hedges_total", NAME, TEST)).isEqualTo(1);
+    assertThat(registry.getSampleValue("loadbalancer_hedge_wins_total", NAME, TEST)).isEqualTo(1);
+  }
+
+  @Test(timeout = 10000L)
+  public void testDoesNotHedgeWithoutLatencies() throws Exception {
+    targets.set(Arrays.asList("slow", "fast"));
+    AtomicInteger sent = new AtomicInteger();
+    String response =
+        executor.executeIdempotent(
+            8080,
+            ip -> {
+              sent.incrementAndGet();
+              Thread.sleep(100);
+              return ip;
+            });
+
+    assertThat(response).isEqualTo("slow");
+    assertThat(sent.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void testReportsOutcome() {
+    targets.set(Arrays.asList("broken"));
+    assertThrows(
+        IOException.class,
+        () ->
+            executor.execute(
+                8080,
+                ip -> {
+                  throw new IOException("connection refused");
+                }));
+
+    assertThat(
+            registry.getSampleValue(
+                "loadbalancer_request_duration_seconds_count",
+                new String[] {"name", "outcome"},
+                new String[] {"test", "failure"}))
+        .isEqualTo(1);
+  }
+}
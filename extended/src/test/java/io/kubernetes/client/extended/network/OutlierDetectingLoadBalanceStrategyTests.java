@@ -0,0 +1,142 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.extended.network;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.kubernetes.client.extended.network.metrics.PrometheusLoadBalancerMetrics;
+import io.prometheus.client.CollectorRegistry;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+
+public class OutlierDetectingLoadBalanceStrategyTests {
+
+  private static final List<String> IPS = Arrays.asList("10.0.0.1", "10.0.0.2", "10.0.0.3");
+
+  private OutlierDetectingLoadBalanceStrategy strategy;
+
+  @Before
+  public void setUp() {
+    strategy = new OutlierDetectingLoadBalanceStrategy(new RoundRobinLoadBalanceStrategy());
+    strategy.setMinRequests(5);
+  }
+
+  @Test
+  public void testEjectsConsecutiveFailures() throws InterruptedException {
+    CollectorRegistry registry = new CollectorRegistry();
+    strategy.setMetrics("test", new PrometheusLoadBalancerMetrics(registry));
+    strategy.setBaseEjectionTime(Duration.ofMillis(200));
+    for (int i = 0; i < OutlierDetectingLoadBalanceStrategy.DEFAULT_CONSECUTIVE_FAILURES; i++) {
+      strategy.report("10.0.0.2", millis(1), true);
+      strategy.report("10.0.0.1", millis(1), false);
+    }
+
+    assertThat(strategy.isEjected("10.0.0.1")).isTrue();
+    assertThat(chooseMany()).containsExactlyInAnyOrder("10.0.0.2", "10.0.0.3");
+    assertThat(
+            registry.getSampleValue(
+                "loadbalancer_ejections_total", new String[] {"name"}, new String[] {"test"}))
+        .isEqualTo(1);
+
+    Thread.sleep(250);
+    assertThat(chooseMany()).containsExactlyInAnyOrderElementsOf(IPS);
+    assertThat(strategy.getEjectedEndpoints()).isZero();
+  }
+
+  @Test
+  public void testEjectsSlowEndpoint() {
+    for (int i = 0; i < 5; i++) {
+      strategy.report("10.0.0.1", millis(1), true);
+      strategy.report("10.0.0.2", millis(2), true);
+    }
+    for (int i = 0; i < 4; i++) {
+      strategy.report("10.0.0.3", millis(10), true);
+    }
+    assertThat(strategy.isEjected("10.0.0.3")).isFalse();
+
+    strategy.report("10.0.0.3", millis(10), true);
+    assertThat(strategy.isEjected("10.0.0.3")).isTrue();
+    assertThat(chooseMany()).containsExactlyInAnyOrder("10.0.0.1", "10.0.0.2");
+  }
+
+  @Test
+  public void testEjectsAtMostMaxEjectionPercent() {
+    for (int i = 0; i < 5; i++) {
+      strategy.report("10.0.0.1", millis(1), false);
+      strategy.report("10.0.0.2", millis(1), false);
+    }
+    assertThat(strategy.getEjectedEndpoints()).isEqualTo(1);
+    assertThat(strategy.isEjected("10.0.0.1")).isTrue();
+    assertThat(strategy.isEjected("10.0.0.2")).isFalse();
+  }
+
+  @Test
+  public void testCapsEjectionsByCurrentCandidates() {
+    for (int i = 0; i < 5; i++) {
+      strategy.report("10.0.0.3", millis(1), true);
+      strategy.report("10.0.0.4", millis(1), true);
+    }
+    strategy.chooseIP(Arrays.asList("10.0.0.1", "10.0.0.2"));
+    for (int i = 0; i < 5; i++) {
+      strategy.report("10.0.0.1", millis(1), false);
+      strategy.report("10.0.0.2", millis(1), false);
+    }
+    assertThat(strategy.isEjected("10.0.0.1")).isTrue();
+    assertThat(strategy.isEjected("10.0.0.2")).isFalse();
+  }
+
+  @Test
+  public void testEndsExpiredEjectionOfRemovedCandidate() throws InterruptedException {
+    strategy.setBaseEjectionTime(Duration.ofMillis(50));
+    for (int i = 0; i < 5; i++) {
+      strategy.report("10.0.0.1", millis(1), false);
+      strategy.report("10.0.0.2", millis(1), true);
+    }
+    assertThat(strategy.getEjectedEndpoints()).isEqualTo(1);
+
+    // 10.0.0.1 is gone and never chosen from again
+    Thread.sleep(1100);
+    strategy.chooseIP(Arrays.asList("10.0.0.2", "10.0.0.3"));
+    assertThat(strategy.getEjectedEndpoints()).isZero();
+  }
+
+  @Test
+  public void testUsesAllCandidatesWhenAllEjected() {
+    for (int i = 0; i < 5; i++) {
+      strategy.report("10.0.0.1", millis(1), false);
+      strategy.report("10.0.0.4", millis(1), true);
+    }
+    assertThat(strategy.isEjected("10.0.0.1")).isTrue();
+    assertThat(strategy.chooseIP(Arrays.asList("10.0.0.1"))).isEqualTo("10.0.0.1");
+    Endpoint endpoint = new Endpoint("10.0.0.1", null, null);
+    assertThat(strategy.chooseEndpoint(new Endpoint[] {endpoint})).isSameAs(endpoint);
+  }
+
+  private Set<String> chooseMany() {
+    Set<String> chosen = new HashSet<>();
+    for (int i = 0; i < 12; i++) {
+      chosen.add(strategy.chooseIP(IPS));
+    }
+    return chosen;
+  }
+
+  private static long millis(long millis) {
+    return TimeUnit.MILLISECONDS.toNanos(millis);
+  }
+}
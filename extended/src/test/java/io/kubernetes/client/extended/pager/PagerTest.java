@@ -21,9 +21,11 @@ import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
 import static com.github.tomakehurst.wiremock.client.WireMock.verify;
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.Assert.fail;
 
 import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import io.kubernetes.client.extended.wait.Wait;
 import io.kubernetes.client.openapi.ApiClient;
 import io.kubernetes.client.openapi.apis.CoreV1Api;
 import io.kubernetes.client.openapi.models.V1Namespace;
@@ -33,11 +35,16 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -165,6 +172,89 @@ public class PagerTest {
             .withQueryParam("limit", equalTo("1")));
   }
 
+  @Test
+  public void testPrefetchesNextPage() throws IOException {
+    stubTwoPages();
+    Pager<V1Namespace, V1NamespaceList> pager = twoPagePager(1);
+
+    Iterator<V1Namespace> it = pager.iterator();
+    // the second page is requested while the first one is processed
+    assertThat(
+            Wait.poll(
+                Duration.ofMillis(10),
+                Duration.ofSeconds(5),
+                () ->
+                    wireMockRule
+                            .findAll(getRequestedFor(urlPathEqualTo("/api/v1/namespaces")))
+                            .size()
+                        == 2))
+        .isTrue();
+    int size = 0;
+    while (it.hasNext()) {
+      assertThat(it.next().getMetadata().getName()).isEqualTo("default");
+      size++;
+    }
+    assertThat(size).isEqualTo(2);
+    verify(
+        2,
+        getRequestedFor(urlPathEqualTo("/api/v1/namespaces"))
+            .withQueryParam("limit", equalTo("1")));
+  }
+
+  @Test
+  public void testStreamAndForEachPage() throws IOException {
+    stubTwoPages();
+
+    assertThat(twoPagePager(0).stream().map(ns -> ns.getMetadata().getName()))
+        .containsExactly("default", "default");
+    assertThat(
+            twoPagePager(2).stream()
+                .map(ns -> ns.getMetadata().getName())
+                .collect(Collectors.toList()))
+        .containsExactly("default", "default");
+
+    List<String> continueTokens = new ArrayList<>();
+    twoPagePager(2).forEachPage(page -> continueTokens.add(page.getMetadata().getContinue()));
+    assertThat(continueTokens).containsExactly("c1", null);
+  }
+
+  @Test
+  public void testStreamsItems() throws IOException {
+    stubTwoPages();
+
+    List<String> names = new ArrayList<>();
+    for (V1Namespace namespace : twoPagePager(0, true)) {
+      names.add(namespace.getMetadata().getName());
+    }
+    assertThat(names).containsExactly("default", "default");
+    try (Stream<V1Namespace> stream = twoPagePager(0, true).stream()) {
+      assertThat(stream.map(ns -> ns.getMetadata().getName()))
+          .containsExactly("default", "default");
+    }
+    verify(
+        4,
+        getRequestedFor(urlPathEqualTo("/api/v1/namespaces"))
+            .withQueryParam("limit", equalTo("1")));
+  }
+
+  @Test
+  public void testStreamedItemsFailure() throws IOException {
+    String status400Str = new String(Files.readAllBytes(Paths.get(STATUS_BAD_TOKEN_FILE_PATH)));
+    stubFor(
+        get(urlPathEqualTo("/api/v1/namespaces"))
+            .withQueryParam("limit", equalTo("1"))
+            .willReturn(
+                aResponse()
+                    .withStatus(400)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody(status400Str)));
+
+    assertThatThrownBy(() -> twoPagePager(0, true).iterator())
+        .isInstanceOf(RuntimeException.class)
+        .hasMessage(status400Str);
+    assertThatThrownBy(() -> twoPagePager(1, true)).isInstanceOf(IllegalArgumentException.class);
+  }
+
   @Test
   public void testPaginationForNamespaceListWithBadTokenFailure() throws IOException {
     String status400Str = new String(Files.readAllBytes(Paths.get(STATUS_BAD_TOKEN_FILE_PATH)));
@@ -253,4 +343,50 @@ public class PagerTest {
             .withQueryParam("fieldSelector", equalTo("metadata.name=default"))
             .withQueryParam("limit", equalTo("1")));
   }
+
+  private void stubTwoPages() throws IOException {
+    String namespaceListPage1Str = new String(Files.readAllBytes(Paths.get(LIST_PAGE1_FILE_PATH)));
+    String namespaceListPage2Str = new String(Files.readAllBytes(Paths.get(LIST_PAGE2_FILE_PATH)));
+    stubFor(
+        get(urlPathEqualTo("/api/v1/namespaces"))
+            .withQueryParam("limit", equalTo("1"))
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody(namespaceListPage1Str)));
+    stubFor(
+        get(urlPathEqualTo("/api/v1/namespaces"))
+            .withQueryParam("limit", equalTo("1"))
+            .withQueryParam("continue", equalTo("c1"))
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody(namespaceListPage2Str)));
+  }
+
+  private Pager<V1Namespace, V1NamespaceList> twoPagePager(int prefetchPages) {
+    return twoPagePager(prefetchPages, false);
+  }
+
+  private Pager<V1Namespace, V1NamespaceList> twoPagePager(int prefetchPages, boolean streamItems) {
+    CoreV1Api api = new CoreV1Api(client);
+    return new Pager<V1Namespace, V1NamespaceList>(
+        (Pager.PagerParams param) -> {
+          try {
+            return api.listNamespace()
+                ._continue(param.getContinueToken())
+                .limit(param.getLimit())
+                .buildCall(null);
+          } catch (Exception e) {
+            throw new RuntimeException(e);
+          }
+        },
+        client,
+        1,
+        V1NamespaceList.class,
+        prefetchPages,
+        streamItems);
+  }
 }
@@ -0,0 +1,185 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.extended.workqueue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class ConcurrentWorkQueueTest {
+
+  @Test
+  public void testLen() {
+    ConcurrentWorkQueue<String> queue = new ConcurrentWorkQueue<>();
+    queue.add("foo");
+    assertThat(queue.length()).isEqualTo(1);
+    queue.add("bar");
+    assertThat(queue.length()).isEqualTo(2);
+    queue.add("foo"); // should not increase the queue length.
+    assertThat(queue.length()).isEqualTo(2);
+  }
+
+  @Test
+  public void testReinsert() throws Exception {
+    ConcurrentWorkQueue<String> queue = new ConcurrentWorkQueue<>();
+    queue.add("foo");
+
+    // Start processing
+    String item = queue.get();
+    assertThat(item).isEqualTo("foo");
+
+    // Add it back while processing, it must not be handed out twice at the same time
+    queue.add(item);
+    assertThat(queue.length()).isZero();
+
+    // Finish it up
+    queue.done(item);
+
+    // It should be back on the queue
+    assertThat(queue.length()).isEqualTo(1);
+    item = queue.get();
+    assertThat(item).isEqualTo("foo");
+
+    // Finish that one up
+    queue.done(item);
+
+    assertThat(queue.length()).isZero();
+  }
+
+  @Test
+  public void testShutDownWakesAllWorkers() throws Exception {
+    ConcurrentWorkQueue<String> queue = new ConcurrentWorkQueue<>();
+    final int workerCount = 8;
+    CountDownLatch stopped = new CountDownLatch(workerCount);
+    ExecutorService workers = Executors.newFixedThreadPool(workerCount);
+    for (int i = 0; i < workerCount; i++) {
+      workers.submit(
+          () -> {
+            try {
+              assertThat(queue.get()).isNull();
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+            stopped.countDown();
+          });
+    }
+
+    queue.shutDown();
+    queue.add("added after shutdown!");
+    assertThat(stopped.await(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(queue.get()).isNull();
+    workers.shutdown();
+  }
+
+  @Test
+  public void testDrainsQueuedItemsAfterShutDown() throws Exception {
+    ConcurrentWorkQueue<String> queue = new ConcurrentWorkQueue<>();
+    queue.add("foo");
+    queue.add("bar");
+    queue.shutDown();
+
+    assertThat(queue.get()).isEqualTo("foo");
+    assertThat(queue.get()).isEqualTo("bar");
+    assertThat(queue.get()).isNull();
+  }
+
+  @Test
+  public void testItemsAreNeverProcessedConcurrently() throws Exception {
+    ConcurrentWorkQueue<Integer> queue = new ConcurrentWorkQueue<>();
+    final int producerCount = 8;
+    final int consumerCount = 16;
+    final int keys = 64;
+    final int addsPerProducer = 20000;
+
+    Set<Integer> inFlight = ConcurrentHashMap.newKeySet();
+    Map<Integer, AtomicInteger> lastProcessedAfterAdd = new ConcurrentHashMap<>();
+    AtomicInteger violations = new AtomicInteger();
+
+    CountDownLatch consumersDone = new CountDownLatch(consumerCount);
+    for (int i = 0; i < consumerCount; i++) {
+      new Thread(
+              () -> {
+                try {
+                  for (; ; ) {
+                    Integer item = queue.get();
+                    if (item == null) {
+                      return;
+                    }
+                    if (!inFlight.add(item)) {
+                      violations.incrementAndGet();
+                    }
+                    lastProcessedAfterAdd.computeIfAbsent(item, k -> new AtomicInteger());
+                    lastProcessedAfterAdd.get(item).incrementAndGet();
+                    inFlight.remove(item);
+                    queue.done(item);
+                  }
+                } catch (InterruptedException e) {
+                  // empty body
+                } finally {
+                  consumersDone.countDown();
+                }
+              })
+          .start();
+    }
+
+    CountDownLatch producersDone = new CountDownLatch(producerCount);
+    for (int i = 0; i < producerCount; i++) {
+      final int offset = i;
+      new Thread(
+              () -> {
+                for (int j = 0; j < addsPerProducer; j++) {
+                  queue.add((j + offset) % keys);
+                }
+                producersDone.countDown();
+              })
+          .start();
+    }
+
+    assertThat(producersDone.await(30, TimeUnit.SECONDS)).isTrue();
+    queue.shutDown();
+    assertThat(consumersDone.await(30, TimeUnit.SECONDS)).isTrue();
+
+    assertThat(violations.get()).isZero();
+    // every key was added, so every key must have been processed at least once after its last add
+    assertThat(lastProcessedAfterAdd).hasSize(keys);
+    assertThat(queue.length()).isZero();
+  }
+
+  @Test
+  public void testPoll() throws Exception {
+    ConcurrentWorkQueue<String> queue = new ConcurrentWorkQueue<>();
+    assertThat(queue.poll(Duration.ofMillis(10))).isNull();
+
+    queue.add("foo");
+    String item = queue.poll(Duration.ZERO);
+    assertThat(item).isEqualTo("foo");
+
+    // an item being processed isn't handed out again
+    queue.add(item);
+    assertThat(queue.poll(Duration.ofMillis(10))).isNull();
+    queue.done(item);
+    assertThat(queue.poll(Duration.ofMillis(10))).isEqualTo("foo");
+
+    queue.shutDown();
+    assertThat(queue.poll(Duration.ofSeconds(10))).isNull();
+  }
+}
@@ -17,6 +17,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 import io.kubernetes.client.extended.wait.Wait;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.Test;
 
 public class DefaultDelayingQueueTest {
@@ -140,6 +142,121 @@ public class DefaultDelayingQueueTest {
     assertThat(first).isEqualTo(actualThird);
   }
 
+  @Test
+  public void testDoesNotDropItems() throws Exception {
+    final Instant staticTime = Instant.now();
+    DefaultDelayingQueue<Integer> queue = new DefaultDelayingQueue<>();
+    queue.injectTimeSource(staticTime::toEpochMilli);
+
+    final int count = 20000;
+    for (int i = 0; i < count; i++) {
+      queue.addAfter(i, Duration.ofMillis(1 + i % 500));
+    }
+    assertThat(waitForWaitingQueueToFill(queue)).isTrue();
+    assertThat(queue.length()).withFailMessage("should not have added").isZero();
+
+    queue.injectTimeSource(() -> staticTime.plusMillis(1000).toEpochMilli());
+    assertThat(waitForAdded(queue, count)).isTrue();
+  }
+
+  @Test
+  public void testDelayLongerThanWheelRotation() throws Exception {
+    final Instant staticTime = Instant.now();
+    DefaultDelayingQueue<String> queue = new DefaultDelayingQueue<>();
+    queue.injectTimeSource(staticTime::toEpochMilli);
+
+    long rotationMillis = DefaultDelayingQueue.TICK_MILLIS * DefaultDelayingQueue.WHEEL_SIZE;
+    queue.addAfter("foo", Duration.ofMillis(rotationMillis + 50));
+    assertThat(waitForWaitingQueueToFill(queue)).isTrue();
+
+    // the wheel has come around to the bucket of the item, but it's not ready yet
+    queue.injectTimeSource(() -> staticTime.plusMillis(60).toEpochMilli());
+    Thread.sleep(100);
+    assertThat(queue.length()).withFailMessage("should not have added").isZero();
+
+    queue.injectTimeSource(() -> staticTime.plusMillis(rotationMillis + 60).toEpochMilli());
+    assertThat(waitForAdded(queue, 1)).isTrue();
+  }
+
+  @Test
+  public void testTimerWheelReschedule() {
+    DefaultDelayingQueue.TimerWheel<String> wheel = new DefaultDelayingQueue.TimerWheel<>(0);
+    List<DefaultDelayingQueue.WaitForEntry<String>> entries = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      DefaultDelayingQueue.WaitForEntry<String> entry =
+          new DefaultDelayingQueue.WaitForEntry<>("item" + i, 100);
+      wheel.schedule(entry);
+      entries.add(entry);
+    }
+    // move the middle entry of the bucket to a later tick
+    wheel.remove(entries.get(1));
+    entries.get(1).readyAtMillis = 200;
+    wheel.schedule(entries.get(1));
+
+    List<DefaultDelayingQueue.WaitForEntry<String>> ready = new ArrayList<>();
+    wheel.advance(150, ready);
+    assertThat(ready).containsExactlyInAnyOrder(entries.get(0), entries.get(2));
+
+    ready.clear();
+    wheel.advance(250, ready);
+    assertThat(ready).containsExactly(entries.get(1));
+  }
+
+  @Test
+  public void testTimerWheelNextReadyAt() {
+    DefaultDelayingQueue.TimerWheel<String> wheel = new DefaultDelayingQueue.TimerWheel<>(0);
+    assertThat(wheel.nextReadyAtMillis(0)).isEqualTo(Long.MAX_VALUE);
+
+    // a far item sits in the second level until its rotation begins
+    long rotationMillis = DefaultDelayingQueue.TICK_MILLIS * DefaultDelayingQueue.WHEEL_SIZE;
+    DefaultDelayingQueue.WaitForEntry<String> far =
+        new DefaultDelayingQueue.WaitForEntry<>("far", 1000 * 1000);
+    wheel.schedule(far);
+    assertThat(wheel.nextReadyAtMillis(0)).isEqualTo(97 * rotationMillis);
+    DefaultDelayingQueue.WaitForEntry<String> near =
+        new DefaultDelayingQueue.WaitForEntry<>("near", rotationMillis - 5);
+    wheel.schedule(near);
+    assertThat(wheel.nextReadyAtMillis(0)).isEqualTo(rotationMillis - 1);
+    DefaultDelayingQueue.WaitForEntry<String> nearest =
+        new DefaultDelayingQueue.WaitForEntry<>("nearest", 42);
+    wheel.schedule(nearest);
+    assertThat(wheel.nextReadyAtMillis(0)).isEqualTo(49);
+
+    List<DefaultDelayingQueue.WaitForEntry<String>> ready = new ArrayList<>();
+    wheel.advance(97 * rotationMillis, ready);
+    assertThat(ready).containsExactlyInAnyOrder(nearest, near);
+    assertThat(wheel.nextReadyAtMillis(97 * rotationMillis)).isEqualTo(1000 * 1000 + 9);
+
+    ready.clear();
+    wheel.advance(1000 * 1000, ready);
+    assertThat(ready).containsExactly(far);
+    assertThat(wheel.nextReadyAtMillis(1000 * 1000)).isEqualTo(Long.MAX_VALUE);
+  }
+
+  @Test
+  public void testTimerWheelDelayLongerThanSecondLevelRotation() {
+    DefaultDelayingQueue.TimerWheel<String> wheel = new DefaultDelayingQueue.TimerWheel<>(0);
+    long rotationMillis = DefaultDelayingQueue.TICK_MILLIS * DefaultDelayingQueue.WHEEL_SIZE;
+    long secondLevelRotationMillis = rotationMillis * DefaultDelayingQueue.WHEEL_SIZE;
+    DefaultDelayingQueue.WaitForEntry<String> entry =
+        new DefaultDelayingQueue.WaitForEntry<>("foo", secondLevelRotationMillis + 42);
+    wheel.schedule(entry);
+    assertThat(wheel.nextReadyAtMillis(0)).isEqualTo(secondLevelRotationMillis);
+
+    // the second level comes around to the bucket of the item before it's due
+    List<DefaultDelayingQueue.WaitForEntry<String>> ready = new ArrayList<>();
+    wheel.advance(rotationMillis, ready);
+    assertThat(ready).isEmpty();
+    assertThat(wheel.nextReadyAtMillis(rotationMillis)).isEqualTo(secondLevelRotationMillis);
+
+    wheel.advance(secondLevelRotationMillis, ready);
+    assertThat(ready).isEmpty();
+    assertThat(wheel.nextReadyAtMillis(secondLevelRotationMillis))
+        .isEqualTo(secondLevelRotationMillis + 49);
+    wheel.advance(secondLevelRotationMillis + 42, ready);
+    assertThat(ready).containsExactly(entry);
+  }
+
   private boolean waitForAdded(DefaultDelayingQueue queue, int size) {
     return Wait.poll(Duration.ofMillis(10), Duration.ofSeconds(10), () -> queue.length() == size);
   }
@@ -14,6 +14,7 @@ package io.kubernetes.client.extended.workqueue;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
@@ -179,4 +180,23 @@ public class DefaultWorkQueueTest {
 
     assertThat(queue.length()).isZero();
   }
+
+  @Test
+  public void testPoll() throws Exception {
+    DefaultWorkQueue<String> queue = new DefaultWorkQueue<>();
+    assertThat(queue.poll(Duration.ofMillis(10))).isNull();
+
+    queue.add("foo");
+    String item = queue.poll(Duration.ZERO);
+    assertThat(item).isEqualTo("foo");
+
+    // an item being processed isn't handed out again
+    queue.add(item);
+    assertThat(queue.poll(Duration.ofMillis(10))).isNull();
+    queue.done(item);
+    assertThat(queue.poll(Duration.ofMillis(10))).isEqualTo("foo");
+
+    queue.shutDown();
+    assertThat(queue.poll(Duration.ofSeconds(10))).isNull();
+  }
 }
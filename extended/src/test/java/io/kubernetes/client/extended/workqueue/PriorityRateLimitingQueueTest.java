@@ -0,0 +1,123 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.extended.workqueue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+
+public class PriorityRateLimitingQueueTest {
+
+  @Test
+  public void testHighPriorityFirst() throws Exception {
+    PriorityRateLimitingQueue<String> queue = new PriorityRateLimitingQueue<>();
+    queue.add("low1");
+    queue.add("high", 10);
+    queue.add("low2");
+    queue.add("medium", 5);
+
+    assertThat(queue.get()).isEqualTo("high");
+    assertThat(queue.get()).isEqualTo("medium");
+    assertThat(queue.get()).isEqualTo("low1");
+    assertThat(queue.get()).isEqualTo("low2");
+    queue.shutDown();
+  }
+
+  @Test
+  public void testTimedPollByPriority() throws Exception {
+    PriorityRateLimitingQueue<String> queue = new PriorityRateLimitingQueue<>();
+    queue.add("low");
+    queue.add("high", 10);
+
+    assertThat(queue.poll(Duration.ofMillis(10))).isEqualTo("high");
+    assertThat(queue.poll(Duration.ofMillis(10))).isEqualTo("low");
+    assertThat(queue.poll(Duration.ofMillis(10))).isNull();
+    queue.shutDown();
+  }
+
+  @Test
+  public void testDeduplicationRaisesPriority() throws Exception {
+    PriorityRateLimitingQueue<String> queue = new PriorityRateLimitingQueue<>();
+    queue.add("foo");
+    queue.add("bar");
+    queue.add("bar", 3);
+    // lower priority than the waiting item doesn't lower it
+    queue.add("bar", 1);
+    assertThat(queue.length()).isEqualTo(2);
+
+    assertThat(queue.get()).isEqualTo("bar");
+    assertThat(queue.get()).isEqualTo("foo");
+    queue.shutDown();
+  }
+
+  @Test
+  public void testReAddWhileProcessingKeepsPriority() throws Exception {
+    PriorityRateLimitingQueue<String> queue = new PriorityRateLimitingQueue<>();
+    queue.add("foo");
+    String item = queue.get();
+
+    // added back with high priority while processing, must not be handed out yet
+    queue.add(item, 10);
+    queue.add("bar");
+    assertThat(queue.length()).isEqualTo(1);
+
+    queue.done(item);
+    assertThat(queue.length()).isEqualTo(2);
+    assertThat(queue.get()).isEqualTo("foo");
+    assertThat(queue.get()).isEqualTo("bar");
+    queue.shutDown();
+  }
+
+  @Test
+  public void testAgingPreventsStarvation() {
+    AtomicLong now = new AtomicLong(0);
+    PriorityRateLimitingQueue.AgingPriorityQueue<String> queue =
+        new PriorityRateLimitingQueue.AgingPriorityQueue<>(0, 1000, now::get);
+
+    queue.offer("background");
+    now.set(5000);
+    // a burst of urgent items, each one level higher but five seconds younger
+    queue.offer("urgent1");
+    queue.raise("urgent2", 4);
+    queue.offer("urgent2");
+    queue.raise("urgent3", 6);
+    queue.offer("urgent3");
+
+    assertThat(queue.poll()).isEqualTo("urgent3");
+    assertThat(queue.poll()).isEqualTo("background");
+    assertThat(queue.poll()).isEqualTo("urgent2");
+    assertThat(queue.poll()).isEqualTo("urgent1");
+    assertThat(queue.poll()).isNull();
+  }
+
+  @Test
+  public void testRemoveWritesThrough() {
+    PriorityRateLimitingQueue.AgingPriorityQueue<String> queue =
+        new PriorityRateLimitingQueue.AgingPriorityQueue<>(0, 1000, () -> 0L);
+    queue.offer("foo");
+    queue.offer("bar");
+    queue.offer("baz");
+
+    assertThat(queue.remove("foo")).isTrue();
+    assertThat(queue.removeIf("bar"::equals)).isTrue();
+    assertThat(queue).containsExactly("baz");
+    // a removed item can be queued again with a new priority
+    queue.raise("foo", 1);
+    queue.offer("foo");
+    assertThat(queue.poll()).isEqualTo("foo");
+    assertThat(queue.poll()).isEqualTo("baz");
+    assertThat(queue.poll()).isNull();
+  }
+}
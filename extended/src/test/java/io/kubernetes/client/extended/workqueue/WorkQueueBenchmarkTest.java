@@ -0,0 +1,94 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.extended.workqueue;
+
+import static org.junit.Assume.assumeTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Supplier;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compares the throughput of the work queue implementations with many producers and workers.
+ * Skipped by default, run with {@code mvn test -Dtest=WorkQueueBenchmarkTest -Dbenchmark=true}.
+ */
+public class WorkQueueBenchmarkTest {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(WorkQueueBenchmarkTest.class);
+
+  private static final int PRODUCERS = 8;
+  private static final int WORKERS = 50;
+  private static final int ADDS_PER_PRODUCER = 200_000;
+  private static final int KEYS = 10_000;
+
+  @Test
+  public void benchmark() throws Exception {
+    assumeTrue(Boolean.getBoolean("benchmark"));
+
+    // warm up both implementations before measuring
+    run(DefaultWorkQueue::new);
+    run(ConcurrentWorkQueue::new);
+
+    long defaultNanos = run(DefaultWorkQueue::new);
+    long concurrentNanos = run(ConcurrentWorkQueue::new);
+    LOGGER.info(
+        "DefaultWorkQueue: {} adds/s, ConcurrentWorkQueue: {} adds/s",
+        throughput(defaultNanos),
+        throughput(concurrentNanos));
+  }
+
+  private static long throughput(long nanos) {
+    return (long) PRODUCERS * ADDS_PER_PRODUCER * 1_000_000_000L / nanos;
+  }
+
+  private static long run(Supplier<WorkQueue<Integer>> queueSupplier) throws Exception {
+    WorkQueue<Integer> queue = queueSupplier.get();
+    CountDownLatch workersDone = new CountDownLatch(WORKERS);
+    for (int i = 0; i < WORKERS; i++) {
+      new Thread(
+              () -> {
+                try {
+                  Integer item;
+                  while ((item = queue.get()) != null) {
+                    queue.done(item);
+                  }
+                } catch (InterruptedException e) {
+                  // empty body
+                } finally {
+                  workersDone.countDown();
+                }
+              })
+          .start();
+    }
+
+    long start = System.nanoTime();
+    CountDownLatch producersDone = new CountDownLatch(PRODUCERS);
+    for (int i = 0; i < PRODUCERS; i++) {
+      final int offset = i * 7;
+      new Thread(
+              () -> {
+                for (int j = 0; j < ADDS_PER_PRODUCER; j++) {
+                  queue.add((j + offset) % KEYS);
+                }
+                producersDone.countDown();
+              })
+          .start();
+    }
+    producersDone.await();
+    queue.shutDown();
+    workersDone.await();
+    return System.nanoTime() - start;
+  }
+}
@@ -0,0 +1,101 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.extended.workqueue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.kubernetes.client.extended.workqueue.metrics.PrometheusMetricsProvider;
+import io.prometheus.client.CollectorRegistry;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import org.junit.Before;
+import org.junit.Test;
+
+public class WorkQueueMetricsTest {
+
+  private static final String[] NAME = new String[] {"name"};
+  private static final String[] QUEUE = new String[] {"test"};
+
+  private CollectorRegistry registry;
+
+  @Before
+  public void setUp() {
+    registry = new CollectorRegistry();
+  }
+
+  @Test
+  public void testQueueAndWorkDuration() throws InterruptedException {
+    DefaultWorkQueue<String> queue = new DefaultWorkQueue<>();
+    queue.setMetricsProvider("test", new PrometheusMetricsProvider(registry));
+
+    queue.add("foo");
+    queue.add("foo");
+    queue.add("bar");
+    assertThat(sample("workqueue_adds_total")).isEqualTo(2);
+    assertThat(sample("workqueue_depth")).isEqualTo(2);
+
+    Thread.sleep(10);
+    String item = queue.get();
+    assertThat(sample("workqueue_depth")).isEqualTo(1);
+    assertThat(sample("workqueue_queue_duration_seconds_count")).isEqualTo(1);
+    assertThat(sample("workqueue_queue_duration_seconds_sum")).isGreaterThanOrEqualTo(0.01);
+
+    Thread.sleep(10);
+    queue.updateUnfinishedWork();
+    assertThat(sample("workqueue_unfinished_work_seconds")).isGreaterThanOrEqualTo(0.01);
+    assertThat(sample("workqueue_longest_running_processor_seconds")).isGreaterThanOrEqualTo(0.01);
+
+    queue.done(item);
+    assertThat(sample("workqueue_work_duration_seconds_count")).isEqualTo(1);
+    assertThat(sample("workqueue_work_duration_seconds_sum")).isGreaterThanOrEqualTo(0.01);
+    queue.updateUnfinishedWork();
+    assertThat(sample("workqueue_unfinished_work_seconds")).isZero();
+    assertThat(sample("workqueue_longest_running_processor_seconds")).isZero();
+    queue.shutDown();
+  }
+
+  @Test
+  public void testReAddWhileProcessing() throws InterruptedException {
+    DefaultWorkQueue<String> queue = new DefaultWorkQueue<>();
+    queue.setMetricsProvider("test", new PrometheusMetricsProvider(registry));
+
+    queue.add("foo");
+    String item = queue.get();
+    queue.add("foo");
+    assertThat(sample("workqueue_depth")).isEqualTo(1);
+    queue.done(item);
+
+    assertThat(queue.get()).isEqualTo("foo");
+    assertThat(sample("workqueue_adds_total")).isEqualTo(2);
+    assertThat(sample("workqueue_depth")).isZero();
+    assertThat(sample("workqueue_queue_duration_seconds_count")).isEqualTo(2);
+    queue.shutDown();
+  }
+
+  @Test
+  public void testRetries() {
+    DefaultRateLimitingQueue<String> queue =
+        new DefaultRateLimitingQueue<>(Executors.newSingleThreadExecutor());
+    queue.setMetricsProvider("test", new PrometheusMetricsProvider(registry));
+
+    queue.addRateLimited("foo");
+    queue.addAfter("bar", Duration.ZERO);
+    assertThat(sample("workqueue_retries_total")).isEqualTo(2);
+    queue.shutDown();
+  }
+
+  private double sample(String metric) {
+    Double value = registry.getSampleValue(metric, NAME, QUEUE);
+    return value == null ? 0 : value;
+  }
+}
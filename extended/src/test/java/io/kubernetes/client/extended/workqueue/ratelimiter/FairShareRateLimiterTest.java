@@ -0,0 +1,59 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.extended.workqueue.ratelimiter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import org.junit.Test;
+
+public class FairShareRateLimiterTest {
+
+  @Test
+  public void testNoisyKeyDoesNotStarveOthers() {
+    FairShareRateLimiter<String> rateLimiter =
+        new FairShareRateLimiter<>(10, 10, Duration.ofSeconds(1), item -> item.split("/")[0]);
+
+    // the only active key gets the whole burst
+    for (int i = 0; i < 10; i++) {
+      assertThat(rateLimiter.when("noisy/" + i)).isZero();
+    }
+    for (int i = 10; i < 100; i++) {
+      rateLimiter.when("noisy/" + i);
+    }
+    assertThat(rateLimiter.when("noisy/100")).isGreaterThan(Duration.ofSeconds(7));
+
+    // a key showing up gets its share of the burst right away, the rate is split in two
+    for (int i = 0; i < 5; i++) {
+      assertThat(rateLimiter.when("quiet/" + i)).isZero();
+    }
+    assertThat(rateLimiter.when("quiet/5")).isLessThanOrEqualTo(Duration.ofMillis(200));
+    assertThat(rateLimiter.when("quiet/6")).isLessThanOrEqualTo(Duration.ofMillis(400));
+    assertThat(rateLimiter.activeKeys()).isEqualTo(2);
+  }
+
+  @Test
+  public void testReclaimsIdleKeys() throws InterruptedException {
+    FairShareRateLimiter<String> rateLimiter =
+        new FairShareRateLimiter<>(1, 100, Duration.ofSeconds(1), item -> item);
+
+    rateLimiter.when("one");
+    rateLimiter.when("two");
+    rateLimiter.when(null);
+    assertThat(rateLimiter.activeKeys()).isEqualTo(3);
+
+    Thread.sleep(100);
+    assertThat(rateLimiter.when("three")).isZero();
+    assertThat(rateLimiter.activeKeys()).isEqualTo(1);
+  }
+}
@@ -94,4 +94,21 @@ public class ItemExponentialFailureRateLimiterTest {
     assertThat(rateLimiter.when("one")).isEqualTo(Duration.ofSeconds(-1000));
     assertThat(rateLimiter.when("one")).isEqualTo(Duration.ofSeconds(-1000));
   }
+
+  @Test
+  public void testReclaimsIdleFailures() throws InterruptedException {
+    RateLimiter<String> rateLimiter =
+        new ItemExponentialFailureRateLimiter<>(
+            Duration.ofMillis(1), Duration.ofMillis(10), Duration.ofMillis(50));
+
+    rateLimiter.when("one");
+    rateLimiter.when("one");
+    assertThat(rateLimiter.numRequeues("one")).isEqualTo(2);
+    assertThat(rateLimiter.numRequeues("unknown")).isZero();
+
+    Thread.sleep(100);
+    rateLimiter.when("two");
+    assertThat(rateLimiter.numRequeues("one")).isZero();
+    assertThat(rateLimiter.numRequeues("two")).isEqualTo(1);
+  }
 }
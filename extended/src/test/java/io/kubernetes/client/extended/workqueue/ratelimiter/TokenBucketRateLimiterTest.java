@@ -0,0 +1,75 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.extended.workqueue.ratelimiter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.Test;
+
+public class TokenBucketRateLimiterTest {
+
+  @Test
+  public void testTokenBucketRateLimiterBasic() {
+    RateLimiter<String> rateLimiter = new TokenBucketRateLimiter<>(2, 1, Duration.ofMinutes(10));
+    assertThat(rateLimiter.when("one")).isZero();
+    assertThat(rateLimiter.when("one")).isZero();
+
+    // waiting might be shorter than expected because of time elapsed.
+    assertThat(rateLimiter.when("one"))
+        .isLessThanOrEqualTo(Duration.ofMinutes(10))
+        .isGreaterThan(Duration.ofMinutes(10).minusSeconds(1));
+    assertThat(rateLimiter.when("one"))
+        .isLessThanOrEqualTo(Duration.ofMinutes(20))
+        .isGreaterThan(Duration.ofMinutes(20).minusSeconds(1));
+  }
+
+  @Test
+  public void testTokenBucketRateLimiterTokenAdded() throws InterruptedException {
+    RateLimiter<String> rateLimiter = new TokenBucketRateLimiter<>(2, 1, Duration.ofSeconds(2));
+
+    assertThat(rateLimiter.when("one")).isZero();
+    assertThat(rateLimiter.when("one")).isZero();
+    assertThat(rateLimiter.when("one").getSeconds()).isPositive();
+
+    Thread.sleep(4000);
+
+    assertThat(rateLimiter.when("two")).isZero();
+    assertThat(rateLimiter.when("two").getSeconds()).isPositive();
+  }
+
+  @Test
+  public void testConcurrentReservations() throws Exception {
+    RateLimiter<String> rateLimiter = new TokenBucketRateLimiter<>(1, 1, Duration.ofHours(1));
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    List<CompletableFuture<Duration>> waits = new ArrayList<>();
+    for (int i = 0; i < 800; i++) {
+      waits.add(CompletableFuture.supplyAsync(() -> rateLimiter.when("one"), executor));
+    }
+    List<Long> hours = new ArrayList<>();
+    for (CompletableFuture<Duration> wait : waits) {
+      // rounding up, as waiting might be shorter because of time elapsed.
+      hours.add(wait.get().plusMinutes(1).toHours());
+    }
+    executor.shutdown();
+
+    // every reservation got its own token
+    assertThat(hours).doesNotHaveDuplicates();
+    assertThat(hours).contains(0L, 799L);
+  }
+}
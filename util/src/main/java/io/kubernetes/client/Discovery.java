@@ -12,63 +12,145 @@ limitations under the License.
 */
 package io.kubernetes.client;
 
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
 import io.kubernetes.client.openapi.ApiClient;
 import io.kubernetes.client.openapi.ApiException;
-import io.kubernetes.client.openapi.ApiResponse;
 import io.kubernetes.client.openapi.Configuration;
 import io.kubernetes.client.openapi.models.V1APIGroup;
 import io.kubernetes.client.openapi.models.V1APIGroupList;
 import io.kubernetes.client.openapi.models.V1APIResourceList;
 import io.kubernetes.client.openapi.models.V1APIVersions;
 import io.kubernetes.client.util.exception.IncompleteDiscoveryException;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Response;
 
 public class Discovery {
 
+  // the aggregated discovery document of all the groups, served by kubernetes 1.26+
+  private static final String AGGREGATED_DISCOVERY_V2 =
+      "application/json;g=apidiscovery.k8s.io;v=v2;as=APIGroupDiscoveryList";
+  // older servers ignore the aggregated media type and fall back to the plain discovery document
+  private static final String AGGREGATED_DISCOVERY_ACCEPT =
+      AGGREGATED_DISCOVERY_V2 + ",application/json";
+
   private final ApiClient apiClient;
+  private final DiscoveryCache cache;
 
   public Discovery() {
     this(Configuration.getDefaultApiClient());
   }
 
   public Discovery(ApiClient apiClient) {
+    this(apiClient, null);
+  }
+
+  /**
+   * Instantiates a discovery keeping the responses of the server in the given cache, e.g. {@link
+   * DiscoveryCache#forServer(String)} to share them across processes.
+   *
+   * @param apiClient the api client
+   * @param cache the discovery cache, null to always ask the server
+   */
+  public Discovery(ApiClient apiClient, DiscoveryCache cache) {
     this.apiClient = apiClient;
+    this.cache = cache;
   }
 
+  /**
+   * Discovers the resources of all the groups. The aggregated discovery document is used if the
+   * server serves it, otherwise the resources of the groups are requested concurrently.
+   *
+   * @return the resources
+   * @throws IncompleteDiscoveryException if the resources of some groups couldn't be discovered
+   * @throws ApiException if the groups or the core resources couldn't be discovered
+   */
   public Set<APIResource> findAll() throws ApiException {
+    CompletableFuture<DiscoveryCache.Entry> coreResponse = getAsync("/api", true);
+    CompletableFuture<DiscoveryCache.Entry> groupsResponse = getAsync("/apis", true);
+
     Set<APIResource> allResources = new HashSet<>();
-    for (String version : legacyCoreApi().getVersions()) {
-      allResources.addAll(findAll("", Arrays.asList(version), version, "/api/" + version));
+    Map<String, String> staleGroupVersions = new LinkedHashMap<>();
+    List<CompletableFuture<Set<APIResource>>> coreResources = new ArrayList<>();
+    DiscoveryCache.Entry core = await(coreResponse);
+    if (isAggregated(core)) {
+      allResources.addAll(aggregatedResources(core, staleGroupVersions));
+    } else {
+      for (String version : deserialize(core, V1APIVersions.class).getVersions()) {
+        coreResources.add(findAllAsync("", Arrays.asList(version), version, "/api/" + version));
+      }
     }
-    IncompleteDiscoveryException incompleteDiscoveryException = null;
-    for (V1APIGroup group : groupDiscovery("/apis").getGroups()) {
-      try {
-        allResources.addAll(
-            findAll(
+    Map<V1APIGroup, CompletableFuture<Set<APIResource>>> groupResources = new LinkedHashMap<>();
+    DiscoveryCache.Entry groups = await(groupsResponse);
+    if (isAggregated(groups)) {
+      allResources.addAll(aggregatedResources(groups, staleGroupVersions));
+    } else {
+      for (V1APIGroup group : deserialize(groups, V1APIGroupList.class).getGroups()) {
+        String preferredVersion = group.getPreferredVersion().getVersion();
+        groupResources.put(
+            group,
+            findAllAsync(
                 group.getName(),
                 group.getVersions().stream().map(v -> v.getVersion()).collect(Collectors.toList()),
-                group.getPreferredVersion().getVersion()));
-      } catch (ApiException e){
-        IncompleteDiscoveryException resourceDiscoveryException = new IncompleteDiscoveryException(
-            String.format("Unable to retrieve the complete list of server APIs: %s/%s : %s",
-                group.getName(), group.getPreferredVersion().getVersion(), e.getResponseBody()),
-            e, allResources);
-        if (incompleteDiscoveryException == null) {
-          incompleteDiscoveryException = resourceDiscoveryException;
-        }else {
-          incompleteDiscoveryException.addSuppressed(resourceDiscoveryException);
-        }
+                preferredVersion,
+                "/apis/" + group.getName() + "/" + preferredVersion));
+      }
+    }
+
+    for (CompletableFuture<Set<APIResource>> resources : coreResources) {
+      allResources.addAll(await(resources));
+    }
+    IncompleteDiscoveryException incompleteDiscoveryException = null;
+    List<IncompleteDiscoveryException> failures = new ArrayList<>();
+    for (Map.Entry<V1APIGroup, CompletableFuture<Set<APIResource>>> entry :
+        groupResources.entrySet()) {
+      V1APIGroup group = entry.getKey();
+      try {
+        allResources.addAll(await(entry.getValue()));
+      } catch (ApiException e) {
+        failures.add(
+            new IncompleteDiscoveryException(
+                String.format(
+                    "Unable to retrieve the complete list of server APIs: %s/%s : %s",
+                    group.getName(), group.getPreferredVersion().getVersion(), e.getResponseBody()),
+                e,
+                allResources));
+      }
+    }
+    for (Map.Entry<String, String> stale : staleGroupVersions.entrySet()) {
+      failures.add(
+          new IncompleteDiscoveryException(
+              String.format(
+                  "Unable to retrieve the complete list of server APIs: %s/%s : stale",
+                  stale.getKey(), stale.getValue()),
+              new ApiException(
+                  "Stale aggregated discovery of " + stale.getKey() + "/" + stale.getValue()),
+              allResources));
+    }
+    for (IncompleteDiscoveryException resourceDiscoveryException : failures) {
+      if (incompleteDiscoveryException == null) {
+        incompleteDiscoveryException = resourceDiscoveryException;
+      } else {
+        incompleteDiscoveryException.addSuppressed(resourceDiscoveryException);
       }
     }
     if (incompleteDiscoveryException != null) {
@@ -77,6 +159,99 @@ public class Discovery {
     return allResources;
   }
 
+  private CompletableFuture<Set<APIResource>> findAllAsync(
+      String group, List<String> versions, String preferredVersion, String path) {
+    return getAsync(path, false)
+        .thenApply(
+            response ->
+                groupResourcesByName(
+                    group,
+                    versions,
+                    preferredVersion,
+                    apiClient.getJSON().deserialize(response.getBody(), V1APIResourceList.class)));
+  }
+
+  private static boolean isAggregated(DiscoveryCache.Entry response) {
+    String contentType = response.getContentType();
+    return contentType != null
+        && contentType.contains("g=apidiscovery.k8s.io")
+        && contentType.contains("v=v2");
+  }
+
+  /**
+   * Reads the resources of an aggregated discovery document, a list of groups with the resources of
+   * each version inlined. The resources of the preferred version, the first one, are used for the
+   * groups, and of every version for the core group, like the non-aggregated discovery.
+   */
+  private Set<APIResource> aggregatedResources(
+      DiscoveryCache.Entry response, Map<String, String> staleGroupVersions) throws ApiException {
+    Set<APIResource> resources = new HashSet<>();
+    try {
+      JsonObject groupList = JsonParser.parseString(response.getBody()).getAsJsonObject();
+      for (JsonElement groupElement : getArray(groupList, "items")) {
+        JsonObject group = groupElement.getAsJsonObject();
+        JsonObject metadata = group.getAsJsonObject("metadata");
+        String groupName =
+            metadata != null && metadata.has("name") ? metadata.get("name").getAsString() : "";
+        List<JsonObject> versions = new ArrayList<>();
+        for (JsonElement version : getArray(group, "versions")) {
+          versions.add(version.getAsJsonObject());
+        }
+        if (versions.isEmpty()) {
+          continue;
+        }
+        List<String> versionNames =
+            versions.stream().map(v -> v.get("version").getAsString()).collect(Collectors.toList());
+        List<JsonObject> discoveredVersions =
+            groupName.isEmpty() ? versions : Collections.singletonList(versions.get(0));
+        for (JsonObject version : discoveredVersions) {
+          String versionName = version.get("version").getAsString();
+          if (version.has("freshness") && "Stale".equals(version.get("freshness").getAsString())) {
+            staleGroupVersions.put(groupName, versionName);
+            continue;
+          }
+          List<String> groupVersions =
+              groupName.isEmpty() ? Arrays.asList(versionName) : versionNames;
+          for (JsonElement resourceElement : getArray(version, "resources")) {
+            resources.add(
+                aggregatedResource(
+                    groupName, groupVersions, versionName, resourceElement.getAsJsonObject()));
+          }
+        }
+      }
+    } catch (JsonParseException | IllegalStateException | NullPointerException e) {
+      throw new ApiException("Invalid aggregated discovery document: " + e.getMessage());
+    }
+    return resources;
+  }
+
+  private APIResource aggregatedResource(
+      String group, List<String> versions, String preferredVersion, JsonObject resource) {
+    JsonObject responseKind = resource.getAsJsonObject("responseKind");
+    APIResource apiResource =
+        new APIResource(
+            group,
+            versions,
+            preferredVersion,
+            responseKind != null && responseKind.has("kind")
+                ? responseKind.get("kind").getAsString()
+                : null,
+            "Namespaced".equals(resource.get("scope").getAsString()),
+            resource.get("resource").getAsString(),
+            resource.has("singularResource")
+                ? resource.get("singularResource").getAsString()
+                : null);
+    for (JsonElement subResource : getArray(resource, "subresources")) {
+      apiResource.subResources.add(subResource.getAsJsonObject().get("subresource").getAsString());
+    }
+    return apiResource;
+  }
+
+  private static JsonArray getArray(JsonObject object, String name) {
+    JsonElement element = object.get(name);
+    return element == null || element.isJsonNull() ? new JsonArray() : element.getAsJsonArray();
+  }
+
   public Set<APIResource> findAll(String group, List<String> versions, String preferredVersion)
       throws ApiException {
     return findAll(group, versions, preferredVersion, "/apis/" + group + "/" + preferredVersion);
@@ -174,23 +349,104 @@ public class Discovery {
   }
 
   private <T> T get(Class<T> returnTypeClass, String urlPath) throws ApiException {
+    return deserialize(await(getAsync(urlPath, false)), returnTypeClass);
+  }
+
+  private <T> T deserialize(DiscoveryCache.Entry response, Class<T> returnType) {
+    return apiClient.getJSON().deserialize(response.getBody(), returnType);
+  }
+
+  /**
+   * Gets the discovery document of the path, from the cache while it's fresh, otherwise from the
+   * server and revalidated with the ETag of the cached one if any.
+   */
+  private CompletableFuture<DiscoveryCache.Entry> getAsync(String urlPath, boolean aggregated) {
+    // the aggregated and the plain documents of the same path are cached apart
+    String cacheKey = aggregated ? urlPath + ".v2" : urlPath;
+    DiscoveryCache.Entry cached = cache != null ? cache.get(cacheKey) : null;
+    if (cached != null && cached.isFresh()) {
+      return CompletableFuture.completedFuture(cached);
+    }
     Map<String, String> headers = new HashMap<>();
     headers.put("Content-Type", "application/json");
-    Call call =
-        apiClient.buildCall(
-                apiClient.getBasePath(),
-            urlPath,
-            "GET",
-            Collections.emptyList(),
-                Collections.emptyList(),
-            null,
-            headers,
-            Collections.emptyMap(),
-            Collections.emptyMap(),
-            new String[] {"BearerToken"},
-            null);
-    ApiResponse<T> resourceList = apiClient.execute(call, returnTypeClass);
-    return resourceList.getData();
+    headers.put("Accept", aggregated ? AGGREGATED_DISCOVERY_ACCEPT : "application/json");
+    if (cached != null && cached.getEtag() != null) {
+      headers.put("If-None-Match", cached.getEtag());
+    }
+    Call call;
+    try {
+      call =
+          apiClient.buildCall(
+              apiClient.getBasePath(),
+              urlPath,
+              "GET",
+              Collections.emptyList(),
+              Collections.emptyList(),
+              null,
+              headers,
+              Collections.emptyMap(),
+              Collections.emptyMap(),
+              new String[] {"BearerToken"},
+              null);
+    } catch (ApiException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+    CompletableFuture<DiscoveryCache.Entry> future = new CompletableFuture<>();
+    call.enqueue(
+        new Callback() {
+          @Override
+          public void onFailure(Call call, IOException e) {
+            future.completeExceptionally(new ApiException(e));
+          }
+
+          @Override
+          public void onResponse(Call call, Response response) {
+            try (Response r = response) {
+              future.complete(handleResponse(cacheKey, cached, r));
+            } catch (ApiException e) {
+              future.completeExceptionally(e);
+            } catch (IOException e) {
+              future.completeExceptionally(new ApiException(e));
+            } catch (Throwable t) {
+              future.completeExceptionally(t);
+            }
+          }
+        });
+    return future;
+  }
+
+  private DiscoveryCache.Entry handleResponse(
+      String cacheKey, DiscoveryCache.Entry cached, Response response)
+      throws ApiException, IOException {
+    if (response.code() == 304 && cached != null) {
+      cache.touch(cacheKey);
+      return cached;
+    }
+    String body = response.body() != null ? response.body().string() : null;
+    if (!response.isSuccessful()) {
+      throw new ApiException(
+          response.message(), response.code(), response.headers().toMultimap(), body);
+    }
+    DiscoveryCache.Entry entry =
+        new DiscoveryCache.Entry(body, response.header("Content-Type"), response.header("ETag"));
+    if (cache != null) {
+      cache.put(cacheKey, entry);
+    }
+    return entry;
+  }
+
+  private static <T> T await(CompletableFuture<T> future) throws ApiException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ApiException(e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof ApiException) {
+        throw (ApiException) e.getCause();
+      }
+      throw new ApiException(e.getCause());
+    }
   }
 
   public static class APIResource {
@@ -0,0 +1,235 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client;
+
+import static io.kubernetes.client.util.KubeConfig.ENV_HOME;
+import static io.kubernetes.client.util.KubeConfig.KUBEDIR;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * DiscoveryCache keeps the discovery responses of a server on disk so that they are shared across
+ * processes. A cached response is used without contacting the server until it is older than the
+ * ttl, and is revalidated with its ETag afterwards, the same way kubectl does. The files are not
+ * compatible with the ~/.kube/cache/discovery directory of kubectl and must not be mixed with it.
+ */
+public class DiscoveryCache {
+
+  private static final Logger log = LoggerFactory.getLogger(DiscoveryCache.class);
+
+  public static final Duration DEFAULT_TTL = Duration.ofHours(6);
+
+  private static final Gson gson = new Gson();
+
+  private final Path directory;
+  private final Duration ttl;
+
+  public DiscoveryCache(File directory) {
+    this(directory, DEFAULT_TTL);
+  }
+
+  public DiscoveryCache(File directory, Duration ttl) {
+    this.directory = directory.toPath().toAbsolutePath().normalize();
+    this.ttl = ttl;
+  }
+
+  /**
+   * Creates a cache for the server under ~/.kube/cache/java-discovery, in a directory named after
+   * the host and port of the server.
+   *
+   * @param basePath the base path of the server
+   * @return the discovery cache
+   */
+  public static DiscoveryCache forServer(String basePath) {
+    String home = System.getenv(ENV_HOME);
+    if (home == null || home.isEmpty()) {
+      home = System.getProperty("user.home");
+    }
+    File discoveryDir = new File(new File(new File(home, KUBEDIR), "cache"), "java-discovery");
+    return new DiscoveryCache(new File(discoveryDir, serverDirectoryName(basePath)));
+  }
+
+  static String serverDirectoryName(String basePath) {
+    URI uri = URI.create(basePath);
+    String server = uri.getPort() == -1 ? uri.getHost() : uri.getHost() + "_" + uri.getPort();
+    // only characters safe in a file name are kept
+    return server.replaceAll("[^a-zA-Z0-9_.\\-]", "_");
+  }
+
+  public File getDirectory() {
+    return directory.toFile();
+  }
+
+  public Duration getTtl() {
+    return ttl;
+  }
+
+  /**
+   * Gets the cached response of the path.
+   *
+   * @param key the url path of the request, qualified by the kind of response asked for
+   * @return the cached response, or null if it isn't cached or can't be read
+   */
+  public Entry get(String key) {
+    Path file = fileOf(key);
+    if (!Files.isRegularFile(file)) {
+      return null;
+    }
+    try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      Entry entry = gson.fromJson(reader, Entry.class);
+      if (entry == null || entry.body == null) {
+        return null;
+      }
+      FileTime lastModified = Files.getLastModifiedTime(file);
+      entry.fresh = System.currentTimeMillis() - lastModified.toMillis() < ttl.toMillis();
+      return entry;
+    } catch (IOException | JsonParseException e) {
+      log.debug("Ignoring unreadable discovery cache file {}", file, e);
+      return null;
+    }
+  }
+
+  /**
+   * Caches the response of the path, replacing the previous one.
+   *
+   * @param key the url path of the request, qualified by the kind of response asked for
+   * @param entry the response
+   */
+  public void put(String key, Entry entry) {
+    Path file = fileOf(key);
+    try {
+      Files.createDirectories(file.getParent());
+      // written aside and moved over the previous file so concurrent readers never see a partial
+      // response
+      Path tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+      try {
+        try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+          gson.toJson(entry, writer);
+        }
+        try {
+          Files.move(
+              tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+          Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+      } finally {
+        Files.deleteIfExists(tmp);
+      }
+    } catch (IOException e) {
+      log.warn("Failed to write discovery cache file {}", file, e);
+    }
+  }
+
+  /**
+   * Marks the cached response of the path as fresh again, after the server confirmed it didn't
+   * change.
+   *
+   * @param key the url path of the request, qualified by the kind of response asked for
+   */
+  public void touch(String key) {
+    Path file = fileOf(key);
+    try {
+      Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+    } catch (IOException e) {
+      log.debug("Failed to refresh discovery cache file {}", file, e);
+    }
+  }
+
+  /** Deletes all the cached responses. */
+  public void invalidate() {
+    if (!Files.exists(directory)) {
+      return;
+    }
+    try (Stream<Path> files = Files.walk(directory)) {
+      files
+          .sorted(Comparator.reverseOrder())
+          .forEach(
+              path -> {
+                try {
+                  Files.delete(path);
+                } catch (IOException e) {
+                  log.debug("Failed to delete discovery cache file {}", path, e);
+                }
+              });
+    } catch (IOException e) {
+      log.warn("Failed to invalidate discovery cache {}", directory, e);
+    }
+  }
+
+  private Path fileOf(String key) {
+    // the url path is mirrored as nested directories, e.g. /apis/apps/v1 -> apis/apps/v1.json
+    String relative = key.replaceAll("^/+", "").replaceAll("[^a-zA-Z0-9_.\\-/]", "_");
+    if (relative.isEmpty()) {
+      relative = "root";
+    }
+    Path file = directory.resolve(relative + ".json").normalize();
+    if (!file.startsWith(directory)) {
+      throw new IllegalArgumentException("Invalid discovery cache key " + key);
+    }
+    return file;
+  }
+
+  /** Entry is a cached discovery response. */
+  public static class Entry {
+
+    private final String body;
+    private final String contentType;
+    private final String etag;
+    private transient boolean fresh;
+
+    public Entry(String body, String contentType, String etag) {
+      this.body = body;
+      this.contentType = contentType;
+      this.etag = etag;
+    }
+
+    public String getBody() {
+      return body;
+    }
+
+    public String getContentType() {
+      return contentType;
+    }
+
+    public String getEtag() {
+      return etag;
+    }
+
+    /**
+     * Whether the entry is younger than the ttl of the cache, so it can be used without
+     * revalidating it.
+     *
+     * @return true if the entry is fresh
+     */
+    public boolean isFresh() {
+      return fresh;
+    }
+  }
+}
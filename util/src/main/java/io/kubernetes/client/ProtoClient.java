@@ -12,9 +12,11 @@ limitations under the License.
 */
 package io.kubernetes.client;
 
+import com.google.protobuf.CodedInputStream;
 import com.google.protobuf.CodedOutputStream;
 import com.google.protobuf.Message;
 import com.google.protobuf.Message.Builder;
+import com.google.protobuf.WireFormat;
 import io.kubernetes.client.openapi.ApiClient;
 import io.kubernetes.client.openapi.ApiException;
 import io.kubernetes.client.openapi.Configuration;
@@ -26,10 +28,14 @@ import io.kubernetes.client.proto.Runtime.Unknown;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import okhttp3.Call;
 import okhttp3.MediaType;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.BufferedSink;
 import okio.BufferedSource;
 import okio.ByteString;
 
@@ -57,12 +63,36 @@ public class ProtoClient {
     }
   }
 
+  /**
+   * WatchEvent is an event received from a protocol buffer encoded watch. It holds either the API
+   * Object or, for "ERROR" events, an API Status object.
+   */
+  public static class WatchEvent<T extends Message> extends ObjectOrStatus<T> {
+    public WatchEvent(String type, T obj, Status status) {
+      super(obj, status);
+      this.type = type;
+    }
+
+    public String type;
+
+    public String toString() {
+      return type + ": " + super.toString();
+    }
+  }
+
   private ApiClient apiClient;
   // Magic number for the beginning of proto encoded.
   // https://github.com/kubernetes/apimachinery/blob/release-1.13/pkg/runtime/serializer/protobuf/protobuf.go#L44
-  private static final byte[] MAGIC = new byte[] {0x6b, 0x38, 0x73, 0x00};
+  static final byte[] MAGIC = new byte[] {0x6b, 0x38, 0x73, 0x00};
   private static final ByteString MAGIC_BYTESTRING = ByteString.of(MAGIC);
   private static final String MEDIA_TYPE = "application/vnd.kubernetes.protobuf";
+  private static final String WATCH_MEDIA_TYPE = MEDIA_TYPE + ";stream=watch";
+  private static final int UNKNOWN_TYPE_META_TAG =
+      lengthDelimitedTag(Unknown.TYPEMETA_FIELD_NUMBER);
+  private static final int UNKNOWN_RAW_TAG = lengthDelimitedTag(Unknown.RAW_FIELD_NUMBER);
+  private static final int TYPE_META_API_VERSION_TAG =
+      lengthDelimitedTag(TypeMeta.APIVERSION_FIELD_NUMBER);
+  private static final int TYPE_META_KIND_TAG = lengthDelimitedTag(TypeMeta.KIND_FIELD_NUMBER);
 
   /** Simple Protocol Buffers API client constructor, uses default configuration */
   public ProtoClient() {
@@ -121,6 +151,60 @@ public class ProtoClient {
     return get(builder, path);
   }
 
+  /**
+   * List Kubernetes API objects using protocol buffer encoding w/ query parameters, e.g.
+   * resourceVersion, limit or labelSelector.
+   *
+   * @param builder The appropriate Builder for the object received from the request.
+   * @param path The URL path to call (e.g. /api/v1/namespaces/default/pods)
+   * @param queryParams The query parameters of the request
+   * @return An ObjectOrStatus which contains the Object requested, or a Status about the request.
+   */
+  public <T extends Message> ObjectOrStatus<T> list(
+      T.Builder builder, String path, List<Pair> queryParams) throws ApiException, IOException {
+    Request request = buildRequest(path, "GET", queryParams, MEDIA_TYPE);
+    return getObjectOrStatusFromServer(builder, request);
+  }
+
+  /**
+   * Watch Kubernetes API objects using protocol buffer encoding. The returned {@link ProtoWatch}
+   * holds the response stream open until it's closed.
+   *
+   * @param builder The appropriate Builder for the objects carried by the watch events.
+   * @param path The URL path to call (e.g. /api/v1/namespaces/default/pods)
+   * @param queryParams The query parameters of the request, the "watch" parameter is added if
+   *     missing
+   * @return A ProtoWatch iterating over the received watch events
+   */
+  public <T extends Message> ProtoWatch<T> watch(
+      T.Builder builder, String path, List<Pair> queryParams) throws ApiException {
+    List<Pair> params = new ArrayList<>(queryParams);
+    if (params.stream().noneMatch(p -> "watch".equals(p.getName()))) {
+      params.add(new Pair("watch", "true"));
+    }
+    Request request = buildRequest(path, "GET", params, WATCH_MEDIA_TYPE);
+    Call call = apiClient.getHttpClient().newCall(request);
+    try {
+      Response response = call.execute();
+      if (!response.isSuccessful()) {
+        String respBody = null;
+        try (ResponseBody body = response.body()) {
+          if (body != null) {
+            respBody = body.string();
+          }
+        } catch (IOException e) {
+          throw new ApiException(
+              response.message(), e, response.code(), response.headers().toMultimap());
+        }
+        throw new ApiException(
+            response.message(), response.code(), response.headers().toMultimap(), respBody);
+      }
+      return new ProtoWatch<>((T) builder.getDefaultInstanceForType(), response.body(), call);
+    } catch (IOException e) {
+      throw new ApiException(e);
+    }
+  }
+
   /**
    * Create a Kubernetes API object using protocol buffer encoding. Performs a POST
    *
@@ -207,9 +291,7 @@ public class ProtoClient {
             new HashMap<String, Object>(),
             localVarAuthNames,
             null);
-    byte[] bytes = encode(deleteOptions, "v1", "DeleteOptions");
-    request =
-        request.newBuilder().delete(RequestBody.create(MediaType.parse(MEDIA_TYPE), bytes)).build();
+    request = request.newBuilder().delete(encode(deleteOptions, "v1", "DeleteOptions")).build();
     return getObjectOrStatusFromServer(builder, request);
   }
 
@@ -236,7 +318,7 @@ public class ProtoClient {
     String[] localVarAuthNames = new String[] {"BearerToken"};
     Request request =
         apiClient.buildRequest(
-                apiClient.getBasePath(),
+            apiClient.getBasePath(),
             path,
             method,
             new ArrayList<Pair>(),
@@ -248,28 +330,16 @@ public class ProtoClient {
             localVarAuthNames,
             null);
     if (body != null) {
-      byte[] bytes = encode(body, apiVersion, kind);
+      RequestBody requestBody = encode(body, apiVersion, kind);
       switch (method) {
         case "POST":
-          request =
-              request
-                  .newBuilder()
-                  .post(RequestBody.create(MediaType.parse(MEDIA_TYPE), bytes))
-                  .build();
+          request = request.newBuilder().post(requestBody).build();
           break;
         case "PUT":
-          request =
-              request
-                  .newBuilder()
-                  .put(RequestBody.create(MediaType.parse(MEDIA_TYPE), bytes))
-                  .build();
+          request = request.newBuilder().put(requestBody).build();
           break;
         case "PATCH":
-          request =
-              request
-                  .newBuilder()
-                  .patch(RequestBody.create(MediaType.parse(MEDIA_TYPE), bytes))
-                  .build();
+          request = request.newBuilder().patch(requestBody).build();
           break;
         default:
           throw new ApiException("Unknown proto client API method: " + method);
@@ -280,19 +350,30 @@ public class ProtoClient {
 
   private <T extends Message> ObjectOrStatus<T> getObjectOrStatusFromServer(
       Builder builder, Request request) throws IOException, ApiException {
-    Unknown u;
     try (Response resp = apiClient.getHttpClient().newCall(request).execute()) {
       // Note: closing the response, closes the body and the underlying source.
-      u = parse(resp.body().source());
-    }
-
-    if (u.getTypeMeta().getApiVersion().equals("v1")
-        && u.getTypeMeta().getKind().equals("Status")) {
-      Status status = Status.newBuilder().mergeFrom(u.getRaw()).build();
-      return new ObjectOrStatus<>(null, status);
+      return parse(builder, resp.body().source());
     }
+  }
 
-    return new ObjectOrStatus<>((T) builder.mergeFrom(u.getRaw()).build(), null);
+  private Request buildRequest(String path, String method, List<Pair> queryParams, String accept)
+      throws ApiException {
+    HashMap<String, String> headers = new HashMap<>();
+    headers.put("Content-Type", MEDIA_TYPE);
+    headers.put("Accept", accept);
+    String[] localVarAuthNames = new String[] {"BearerToken"};
+    return apiClient.buildRequest(
+        apiClient.getBasePath(),
+        path,
+        method,
+        queryParams,
+        new ArrayList<Pair>(),
+        null,
+        headers,
+        new HashMap<String, String>(),
+        new HashMap<String, Object>(),
+        localVarAuthNames,
+        null);
   }
 
   // This isn't really documented anywhere except the code, but
@@ -303,25 +384,62 @@ public class ProtoClient {
   //     encoding of the actual object.
   // TODO: Document this somewhere proper.
 
-  private static byte[] encode(Message msg, String apiVersion, String kind) throws IOException {
+  private static RequestBody encode(Message msg, String apiVersion, String kind) {
     // It is unfortunate that we have to include apiVersion and kind,
     // since we should be able to extract it from the Message, but
     // for now at least, those fields are missing from the proto-buffer.
-    Unknown u =
-        Unknown.newBuilder()
-            .setTypeMeta(TypeMeta.newBuilder().setApiVersion(apiVersion).setKind(kind))
-            .setRaw(msg.toByteString())
-            .build();
-
-    // Encode directly to a sized array, to eliminate buffering
-    int serializedSize = u.getSerializedSize();
-    byte[] result = new byte[MAGIC.length + u.getSerializedSize()];
-    System.arraycopy(MAGIC, 0, result, 0, MAGIC.length);
-    u.writeTo(CodedOutputStream.newInstance(result, MAGIC.length, serializedSize));
-    return result;
+    return new UnknownRequestBody(
+        msg, TypeMeta.newBuilder().setApiVersion(apiVersion).setKind(kind).build());
+  }
+
+  /**
+   * Writes the magic number and the runtime.Unknown envelope of a message straight into the request
+   * sink, rather than building the Unknown message and copying the encoded object into it.
+   */
+  private static class UnknownRequestBody extends RequestBody {
+    private static final MediaType PROTOBUF = MediaType.parse(MEDIA_TYPE);
+
+    private final Message msg;
+    private final TypeMeta typeMeta;
+    private final int rawSize;
+    private final long contentLength;
+
+    private UnknownRequestBody(Message msg, TypeMeta typeMeta) {
+      this.msg = msg;
+      this.typeMeta = typeMeta;
+      this.rawSize = msg.getSerializedSize();
+      this.contentLength =
+          MAGIC.length
+              + CodedOutputStream.computeMessageSize(Unknown.TYPEMETA_FIELD_NUMBER, typeMeta)
+              + CodedOutputStream.computeTagSize(Unknown.RAW_FIELD_NUMBER)
+              + CodedOutputStream.computeUInt32SizeNoTag(rawSize)
+              + rawSize;
+    }
+
+    @Override
+    public MediaType contentType() {
+      return PROTOBUF;
+    }
+
+    @Override
+    public long contentLength() {
+      return contentLength;
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+      sink.write(MAGIC);
+      CodedOutputStream output = CodedOutputStream.newInstance(sink.outputStream());
+      output.writeMessage(Unknown.TYPEMETA_FIELD_NUMBER, typeMeta);
+      output.writeTag(Unknown.RAW_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+      output.writeUInt32NoTag(rawSize);
+      msg.writeTo(output);
+      output.flush();
+    }
   }
 
-  private static Unknown parse(BufferedSource responseBody) throws ApiException, IOException {
+  private static <T extends Message> ObjectOrStatus<T> parse(
+      Builder builder, BufferedSource responseBody) throws ApiException, IOException {
     if (!responseBody.request(MAGIC.length)) {
       throw new ApiException("Truncated reading magic number");
     }
@@ -333,6 +451,59 @@ public class ProtoClient {
       ByteString badMagic = responseBody.readByteString(MAGIC.length);
       throw new ApiException("Unexpected magic number: " + badMagic.hex());
     }
-    return Unknown.parseFrom(responseBody.inputStream());
+    return parseUnknown(builder, CodedInputStream.newInstance(responseBody.inputStream()));
+  }
+
+  /**
+   * Reads the runtime.Unknown envelope from the input, up to its end or current limit, and merges
+   * its raw bytes in place into either a Status or the given builder. The apiserver writes the
+   * TypeMeta before the raw bytes, so the target type is known by the time the raw bytes are read.
+   */
+  static <T extends Message> ObjectOrStatus<T> parseUnknown(Builder builder, CodedInputStream input)
+      throws IOException, ApiException {
+    boolean isStatus = false;
+    ObjectOrStatus<T> result = null;
+    int tag;
+    while ((tag = input.readTag()) != 0) {
+      if (tag == UNKNOWN_TYPE_META_TAG) {
+        int typeMetaLimit = input.pushLimit(input.readRawVarint32());
+        isStatus = isStatus(input);
+        input.popLimit(typeMetaLimit);
+      } else if (tag == UNKNOWN_RAW_TAG) {
+        int rawLimit = input.pushLimit(input.readRawVarint32());
+        if (isStatus) {
+          result = new ObjectOrStatus<>(null, Status.newBuilder().mergeFrom(input).build());
+        } else {
+          result = new ObjectOrStatus<>((T) builder.mergeFrom(input).build(), null);
+        }
+        input.popLimit(rawLimit);
+      } else {
+        input.skipField(tag);
+      }
+    }
+    if (result == null) {
+      throw new ApiException("Missing raw object in protocol buffer response");
+    }
+    return result;
+  }
+
+  private static boolean isStatus(CodedInputStream input) throws IOException {
+    String apiVersion = null;
+    String kind = null;
+    int tag;
+    while ((tag = input.readTag()) != 0) {
+      if (tag == TYPE_META_API_VERSION_TAG) {
+        apiVersion = input.readString();
+      } else if (tag == TYPE_META_KIND_TAG) {
+        kind = input.readString();
+      } else {
+        input.skipField(tag);
+      }
+    }
+    return "v1".equals(apiVersion) && "Status".equals(kind);
+  }
+
+  static int lengthDelimitedTag(int fieldNumber) {
+    return fieldNumber << 3 | WireFormat.WIRETYPE_LENGTH_DELIMITED;
   }
 }
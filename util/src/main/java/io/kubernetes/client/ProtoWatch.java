@@ -0,0 +1,155 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.Message;
+import io.kubernetes.client.ProtoClient.ObjectOrStatus;
+import io.kubernetes.client.ProtoClient.WatchEvent;
+import io.kubernetes.client.openapi.ApiException;
+import io.kubernetes.client.proto.Meta;
+import io.kubernetes.client.proto.Runtime.RawExtension;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import okhttp3.Call;
+import okhttp3.ResponseBody;
+import okio.ByteString;
+
+/**
+ * ProtoWatch iterates over the events of a protocol buffer encoded watch, as returned by {@link
+ * ProtoClient#watch}. The watch stream is a sequence of frames, each prefixed by its length as a
+ * 4-byte big-endian integer and holding a WatchEvent whose embedded object is encoded the same way
+ * as a regular protocol buffer response.
+ *
+ * <p>Frames are decoded straight off the response stream by a single {@link CodedInputStream},
+ * neither the frame nor the embedded object is copied into an intermediate array before the typed
+ * object is built.
+ */
+public class ProtoWatch<T extends Message>
+    implements Iterable<WatchEvent<T>>, Iterator<WatchEvent<T>>, Closeable, AutoCloseable {
+
+  private static final int EVENT_TYPE_TAG =
+      ProtoClient.lengthDelimitedTag(Meta.WatchEvent.TYPE_FIELD_NUMBER);
+  private static final int EVENT_OBJECT_TAG =
+      ProtoClient.lengthDelimitedTag(Meta.WatchEvent.OBJECT_FIELD_NUMBER);
+  private static final int RAW_EXTENSION_RAW_TAG =
+      ProtoClient.lengthDelimitedTag(RawExtension.RAW_FIELD_NUMBER);
+
+  private final T prototype;
+  private final ResponseBody response;
+  private final Call call;
+  private final CodedInputStream input;
+
+  ProtoWatch(T prototype, ResponseBody response, Call call) {
+    this.prototype = prototype;
+    this.response = response;
+    this.call = call;
+    this.input = CodedInputStream.newInstance(response.byteStream());
+  }
+
+  @Override
+  public boolean hasNext() {
+    try {
+      return !input.isAtEnd();
+    } catch (IOException e) {
+      throw new RuntimeException("IO Exception during hasNext method.", e);
+    }
+  }
+
+  @Override
+  public WatchEvent<T> next() {
+    try {
+      return readEvent();
+    } catch (IOException | ApiException e) {
+      throw new RuntimeException("IO Exception during next method.", e);
+    }
+  }
+
+  private WatchEvent<T> readEvent() throws IOException, ApiException {
+    // the size limit applies to the bytes read since the last reset, which would otherwise
+    // accumulate over the lifetime of the watch.
+    input.resetSizeCounter();
+    int length = readFrameLength();
+    int frameLimit = input.pushLimit(length);
+    String type = null;
+    ObjectOrStatus<T> obj = null;
+    int tag;
+    while ((tag = input.readTag()) != 0) {
+      if (tag == EVENT_TYPE_TAG) {
+        type = input.readString();
+      } else if (tag == EVENT_OBJECT_TAG) {
+        int objectLimit = input.pushLimit(input.readRawVarint32());
+        obj = readRawExtension();
+        input.popLimit(objectLimit);
+      } else {
+        input.skipField(tag);
+      }
+    }
+    input.popLimit(frameLimit);
+    if (obj == null) {
+      throw new ApiException("Watch event without object, type: " + type);
+    }
+    return new WatchEvent<>(type, obj.object, obj.status);
+  }
+
+  private int readFrameLength() throws IOException {
+    return (input.readRawByte() & 0xff) << 24
+        | (input.readRawByte() & 0xff) << 16
+        | (input.readRawByte() & 0xff) << 8
+        | (input.readRawByte() & 0xff);
+  }
+
+  private ObjectOrStatus<T> readRawExtension() throws IOException, ApiException {
+    ObjectOrStatus<T> obj = null;
+    int tag;
+    while ((tag = input.readTag()) != 0) {
+      if (tag == RAW_EXTENSION_RAW_TAG) {
+        int rawLimit = input.pushLimit(input.readRawVarint32());
+        obj = readEmbeddedObject();
+        input.skipRawBytes(input.getBytesUntilLimit());
+        input.popLimit(rawLimit);
+      } else {
+        input.skipField(tag);
+      }
+    }
+    return obj;
+  }
+
+  // The embedded object is prefixed with the magic number and wrapped in a runtime.Unknown, like
+  // a regular response.
+  private ObjectOrStatus<T> readEmbeddedObject() throws IOException, ApiException {
+    byte[] magic = input.readRawBytes(ProtoClient.MAGIC.length);
+    if (!Arrays.equals(magic, ProtoClient.MAGIC)) {
+      throw new ApiException("Unexpected magic number: " + ByteString.of(magic).hex());
+    }
+    return ProtoClient.parseUnknown(prototype.newBuilderForType(), input);
+  }
+
+  @Override
+  public Iterator<WatchEvent<T>> iterator() {
+    return this;
+  }
+
+  @Override
+  public void remove() {
+    throw new UnsupportedOperationException("remove");
+  }
+
+  @Override
+  public void close() throws IOException {
+    call.cancel();
+    response.close();
+  }
+}
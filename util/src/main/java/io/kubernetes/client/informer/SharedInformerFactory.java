@@ -13,10 +13,12 @@ limitations under the License.
 package io.kubernetes.client.informer;
 
 import com.google.gson.reflect.TypeToken;
+import io.kubernetes.client.apimachinery.GroupVersionResource;
 import io.kubernetes.client.common.KubernetesListObject;
 import io.kubernetes.client.common.KubernetesObject;
 import io.kubernetes.client.informer.cache.Cache;
 import io.kubernetes.client.informer.impl.DefaultSharedIndexInformer;
+import io.kubernetes.client.informer.impl.MultiNamespaceSharedIndexInformer;
 import io.kubernetes.client.openapi.ApiClient;
 import io.kubernetes.client.openapi.ApiException;
 import io.kubernetes.client.openapi.Configuration;
@@ -26,9 +28,13 @@ import io.kubernetes.client.util.Namespaces;
 import io.kubernetes.client.util.Watch;
 import io.kubernetes.client.util.Watchable;
 import io.kubernetes.client.util.generic.GenericKubernetesApi;
+import io.kubernetes.client.util.generic.metadata.V1PartialObjectMetadata;
+import io.kubernetes.client.util.generic.metadata.V1PartialObjectMetadataList;
 import io.kubernetes.client.util.generic.options.ListOptions;
 import java.lang.reflect.Type;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -42,7 +48,11 @@ public class SharedInformerFactory {
 
   protected Map<Type, SharedIndexInformer> informers;
 
-  private Map<Type, Future> startedInformers;
+  protected Map<GroupVersionResource, SharedIndexInformer<V1PartialObjectMetadata>>
+      metadataInformers;
+
+  // keyed by either the api type or the group-version-resource of metadata informers
+  private Map<Object, Future> startedInformers;
 
   private ExecutorService informerExecutor;
 
@@ -83,6 +93,7 @@ public class SharedInformerFactory {
     apiClient = client;
     informerExecutor = threadPool;
     informers = new HashMap<>();
+    metadataInformers = new HashMap<>();
     startedInformers = new HashMap<>();
   }
 
@@ -255,6 +266,63 @@ public class SharedInformerFactory {
         listerWatcher, apiTypeClass, resyncPeriodInMillis, exceptionHandler);
   }
 
+  /**
+   * Constructs and returns a shared index informer watching a set of namespaces. One reflector is
+   * started per namespace while all of them share a single cache and the registered handlers. It's
+   * useful when the client is only granted namespace-scoped permissions. But the informer cache
+   * will not be overwritten on multiple call w/ the the same apiTypeClass i.e. only the first
+   * registered informer will be kept.
+   *
+   * @param <ApiType> the type parameter
+   * @param <ApiListType> the type parameter
+   * @param genericKubernetesApi the generic kubernetes api
+   * @param apiTypeClass the api type class
+   * @param resyncPeriodInMillis the resync period in millis
+   * @param namespaces the target namespaces
+   * @return the shared index informer
+   */
+  public synchronized <ApiType extends KubernetesObject, ApiListType extends KubernetesListObject>
+      SharedIndexInformer<ApiType> sharedIndexInformerFor(
+          GenericKubernetesApi<ApiType, ApiListType> genericKubernetesApi,
+          Class<ApiType> apiTypeClass,
+          long resyncPeriodInMillis,
+          Collection<String> namespaces) {
+    return sharedIndexInformerFor(
+        genericKubernetesApi, apiTypeClass, resyncPeriodInMillis, namespaces, null);
+  }
+
+  /**
+   * Working the same as {@link SharedInformerFactory#sharedIndexInformerFor} above.
+   *
+   * <p>Constructs and returns a shared index informer watching a set of namespaces.
+   *
+   * @param <ApiType> the type parameter
+   * @param <ApiListType> the type parameter
+   * @param genericKubernetesApi the generic kubernetes api
+   * @param apiTypeClass the api type class
+   * @param resyncPeriodInMillis the resync period in millis
+   * @param namespaces the target namespaces
+   * @param exceptionHandler the exception Handler
+   * @return the shared index informer
+   */
+  public synchronized <ApiType extends KubernetesObject, ApiListType extends KubernetesListObject>
+      SharedIndexInformer<ApiType> sharedIndexInformerFor(
+          GenericKubernetesApi<ApiType, ApiListType> genericKubernetesApi,
+          Class<ApiType> apiTypeClass,
+          long resyncPeriodInMillis,
+          Collection<String> namespaces,
+          BiConsumer<Class<ApiType>, Throwable> exceptionHandler) {
+    Map<String, ListerWatcher<ApiType, ApiListType>> listerWatchers = new LinkedHashMap<>();
+    for (String namespace : namespaces) {
+      listerWatchers.put(namespace, listerWatcherFor(genericKubernetesApi, namespace));
+    }
+    SharedIndexInformer<ApiType> informer =
+        new MultiNamespaceSharedIndexInformer<>(
+            apiTypeClass, listerWatchers, resyncPeriodInMillis, new Cache<>(), exceptionHandler);
+    this.informers.putIfAbsent(TypeToken.get(apiTypeClass).getType(), informer);
+    return informer;
+  }
+
   private <ApiType extends KubernetesObject, ApiListType extends KubernetesListObject>
       ListerWatcher<ApiType, ApiListType> listerWatcherFor(
           CallGenerator callGenerator,
@@ -287,6 +355,14 @@ public class SharedInformerFactory {
   private <ApiType extends KubernetesObject, ApiListType extends KubernetesListObject>
       ListerWatcher<ApiType, ApiListType> listerWatcherFor(
           GenericKubernetesApi<ApiType, ApiListType> genericKubernetesApi, String namespace) {
+    return listerWatcherFor(genericKubernetesApi, namespace, false);
+  }
+
+  private <ApiType extends KubernetesObject, ApiListType extends KubernetesListObject>
+      ListerWatcher<ApiType, ApiListType> listerWatcherFor(
+          GenericKubernetesApi<ApiType, ApiListType> genericKubernetesApi,
+          String namespace,
+          boolean partialObjectMetadata) {
     if (apiClient.getReadTimeout() > 0) {
       // set read timeout zero to ensure client doesn't time out
       apiClient.setReadTimeout(0);
@@ -301,6 +377,7 @@ public class SharedInformerFactory {
                     {
                       setResourceVersion(params.resourceVersion);
                       setTimeoutSeconds(params.timeoutSeconds);
+                      setPartialObjectMetadataListRequest(partialObjectMetadata);
                     }
                   })
               .throwsApiException()
@@ -313,6 +390,7 @@ public class SharedInformerFactory {
                     {
                       setResourceVersion(params.resourceVersion);
                       setTimeoutSeconds(params.timeoutSeconds);
+                      setPartialObjectMetadataListRequest(partialObjectMetadata);
                     }
                   })
               .throwsApiException()
@@ -327,6 +405,7 @@ public class SharedInformerFactory {
                 {
                   setResourceVersion(params.resourceVersion);
                   setTimeoutSeconds(params.timeoutSeconds);
+                  setPartialObjectMetadataListRequest(partialObjectMetadata);
                 }
               });
         } else {
@@ -336,6 +415,7 @@ public class SharedInformerFactory {
                 {
                   setResourceVersion(params.resourceVersion);
                   setTimeoutSeconds(params.timeoutSeconds);
+                  setPartialObjectMetadataListRequest(partialObjectMetadata);
                 }
               });
         }
@@ -343,6 +423,67 @@ public class SharedInformerFactory {
     };
   }
 
+  /**
+   * Constructs and returns a shared index informer which only caches the metadata of the resource,
+   * e.g. secrets or configmaps whose payload is of no interest. The objects are requested in the
+   * "PartialObjectMetadata" form so that neither the wire nor the cache carries the spec/data of
+   * the resource. But the informer cache will not be overwritten on multiple call w/ the the same
+   * group-version-resource i.e. only the first registered informer will be kept.
+   *
+   * @param groupVersionResource the group-version-resource of the watched resource
+   * @param resyncPeriodInMillis the resync period in millis
+   * @return the shared index informer
+   */
+  public synchronized SharedIndexInformer<V1PartialObjectMetadata> sharedMetadataInformerFor(
+      GroupVersionResource groupVersionResource, long resyncPeriodInMillis) {
+    return sharedMetadataInformerFor(
+        groupVersionResource, resyncPeriodInMillis, Namespaces.NAMESPACE_ALL);
+  }
+
+  /**
+   * Working the same as {@link SharedInformerFactory#sharedMetadataInformerFor} above.
+   *
+   * <p>Constructs and returns a shared metadata informer for a specific namespace.
+   *
+   * @param groupVersionResource the group-version-resource of the watched resource
+   * @param resyncPeriodInMillis the resync period in millis
+   * @param namespace the target namespace
+   * @return the shared index informer
+   */
+  public synchronized SharedIndexInformer<V1PartialObjectMetadata> sharedMetadataInformerFor(
+      GroupVersionResource groupVersionResource, long resyncPeriodInMillis, String namespace) {
+    GenericKubernetesApi<V1PartialObjectMetadata, V1PartialObjectMetadataList>
+        genericKubernetesApi =
+            new GenericKubernetesApi<>(
+                V1PartialObjectMetadata.class,
+                V1PartialObjectMetadataList.class,
+                groupVersionResource.getGroup(),
+                groupVersionResource.getVersion(),
+                groupVersionResource.getResource(),
+                apiClient);
+    SharedIndexInformer<V1PartialObjectMetadata> informer =
+        new DefaultSharedIndexInformer<>(
+            V1PartialObjectMetadata.class,
+            listerWatcherFor(genericKubernetesApi, namespace, true),
+            resyncPeriodInMillis,
+            new Cache<>(),
+            null);
+    this.metadataInformers.putIfAbsent(groupVersionResource, informer);
+    return informer;
+  }
+
+  /**
+   * Gets existing shared metadata informer, return null if the requesting informer is never
+   * constructed.
+   *
+   * @param groupVersionResource the group-version-resource of the watched resource
+   * @return the existing shared metadata informer
+   */
+  public synchronized SharedIndexInformer<V1PartialObjectMetadata>
+      getExistingSharedMetadataInformer(GroupVersionResource groupVersionResource) {
+    return this.metadataInformers.get(groupVersionResource);
+  }
+
   /**
    * Gets existing shared index informer, return null if the requesting informer is never
    * constructed.
@@ -358,13 +499,17 @@ public class SharedInformerFactory {
 
   /** Start all registered informers. */
   public synchronized void startAllRegisteredInformers() {
-    if (MapUtils.isEmpty(informers)) {
+    if (MapUtils.isEmpty(informers) && MapUtils.isEmpty(metadataInformers)) {
       return;
     }
     informers.forEach(
         (informerType, informer) ->
             startedInformers.computeIfAbsent(
                 informerType, key -> informerExecutor.submit((Runnable) informer::run)));
+    metadataInformers.forEach(
+        (groupVersionResource, informer) ->
+            startedInformers.computeIfAbsent(
+                groupVersionResource, key -> informerExecutor.submit((Runnable) informer::run)));
   }
 
   /** Stop all registered informers and shut down the thread pool. */
@@ -378,7 +523,7 @@ public class SharedInformerFactory {
    * @param shutdownThreadPool whether or not to shut down the thread pool.
    */
   public synchronized void stopAllRegisteredInformers(boolean shutdownThreadPool) {
-    if (MapUtils.isEmpty(informers)) {
+    if (MapUtils.isEmpty(informers) && MapUtils.isEmpty(metadataInformers)) {
       return;
     }
     informers.forEach(
@@ -387,6 +532,12 @@ public class SharedInformerFactory {
             informer.stop();
           }
         });
+    metadataInformers.forEach(
+        (groupVersionResource, informer) -> {
+          if (startedInformers.remove(groupVersionResource) != null) {
+            informer.stop();
+          }
+        });
     if (shutdownThreadPool) {
       informerExecutor.shutdown();
     }
@@ -0,0 +1,438 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.informer.impl;
+
+import io.kubernetes.client.common.KubernetesListObject;
+import io.kubernetes.client.common.KubernetesObject;
+import io.kubernetes.client.informer.ListerWatcher;
+import io.kubernetes.client.informer.ResourceEventHandler;
+import io.kubernetes.client.informer.SharedIndexInformer;
+import io.kubernetes.client.informer.TransformFunc;
+import io.kubernetes.client.informer.cache.Cache;
+import io.kubernetes.client.informer.cache.Caches;
+import io.kubernetes.client.informer.cache.Controller;
+import io.kubernetes.client.informer.cache.DeltaFIFO;
+import io.kubernetes.client.informer.cache.Indexer;
+import io.kubernetes.client.informer.cache.ProcessorListener;
+import io.kubernetes.client.informer.cache.SharedProcessor;
+import io.kubernetes.client.informer.cache.Store;
+import io.kubernetes.client.util.Threads;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.collections4.MapUtils;
+import org.apache.commons.lang3.tuple.MutablePair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * MultiNamespaceSharedIndexInformer is a shared index informer watching a fixed set of namespaces.
+ * It runs one reflector per namespace so that list-watching works under namespace-scoped RBAC,
+ * while all the reflectors feed one shared {@link Indexer} and one {@link SharedProcessor}.
+ * Handlers registered to the informer therefore see the merged view of all the namespaces.
+ *
+ * <p>Each namespace keeps its own {@link DeltaFIFO} whose known objects are restricted to the
+ * namespace, so a re-list of one namespace never produces deletions for the others.
+ */
+public class MultiNamespaceSharedIndexInformer<
+        ApiType extends KubernetesObject, ApiListType extends KubernetesListObject>
+    implements SharedIndexInformer<ApiType> {
+
+  private static final Logger log =
+      LoggerFactory.getLogger(MultiNamespaceSharedIndexInformer.class);
+
+  private static final long MINIMUM_RESYNC_PERIOD_MILLIS = 1000L;
+
+  private long resyncCheckPeriodMillis;
+
+  private long defaultEventHandlerResyncPeriod;
+
+  private Indexer<ApiType> indexer;
+
+  private SharedProcessor<ApiType> processor;
+
+  // namespace -> fifo/controller pairs, iterated in the order of the given namespaces
+  private Map<String, DeltaFIFO> queues = new LinkedHashMap<>();
+  private Map<String, Controller<ApiType, ApiListType>> controllers = new LinkedHashMap<>();
+
+  private List<Thread> controllerThreads = new ArrayList<>();
+
+  private ScheduledExecutorService resyncExecutor;
+
+  private TransformFunc transform;
+
+  private volatile boolean started = false;
+  private volatile boolean stopped = false;
+
+  public MultiNamespaceSharedIndexInformer(
+      Class<ApiType> apiTypeClass,
+      Map<String, ListerWatcher<ApiType, ApiListType>> listerWatchers,
+      long resyncPeriod) {
+    this(apiTypeClass, listerWatchers, resyncPeriod, new Cache<>(), null);
+  }
+
+  /**
+   * Constructs a multi-namespace informer.
+   *
+   * @param apiTypeClass the api type class
+   * @param listerWatchers the lister-watchers keyed by the namespace they are scoped to
+   * @param resyncPeriod the resync period in millis
+   * @param cache the cache shared by all the namespaces
+   * @param exceptionHandler the exception handler, can be null
+   */
+  public MultiNamespaceSharedIndexInformer(
+      Class<ApiType> apiTypeClass,
+      Map<String, ListerWatcher<ApiType, ApiListType>> listerWatchers,
+      long resyncPeriod,
+      Cache<ApiType> cache,
+      BiConsumer<Class<ApiType>, Throwable> exceptionHandler) {
+    if (MapUtils.isEmpty(listerWatchers)) {
+      throw new IllegalArgumentException("at least one namespace must be specified");
+    }
+
+    this.resyncCheckPeriodMillis = resyncPeriod;
+    this.defaultEventHandlerResyncPeriod = resyncPeriod;
+
+    this.processor = new SharedProcessor<>();
+    this.indexer = cache;
+
+    ThreadFactory threadFactory =
+        Threads.threadFactory("informer-controller-" + apiTypeClass.getSimpleName() + "-%d");
+    for (Map.Entry<String, ListerWatcher<ApiType, ApiListType>> entry : listerWatchers.entrySet()) {
+      String namespace = entry.getKey();
+      // down-casting should be safe here because one delta FIFO instance only serves one
+      // resource type
+      DeltaFIFO queue =
+          new DeltaFIFO(
+              (Function<KubernetesObject, String>) cache.getKeyFunc(),
+              new NamespacedStore<>(namespace, (Indexer<KubernetesObject>) (Indexer) cache));
+      // resync is driven by the informer itself so that all the namespaces are resynced
+      // together, see #resync.
+      Controller<ApiType, ApiListType> controller =
+          new Controller<>(
+              apiTypeClass, queue, entry.getValue(), this::handleDeltas, null, 0, exceptionHandler);
+      queues.put(namespace, queue);
+      controllers.put(namespace, controller);
+      controllerThreads.add(threadFactory.newThread(controller::run));
+    }
+
+    this.resyncExecutor =
+        Executors.newSingleThreadScheduledExecutor(
+            Threads.threadFactory("informer-resync-" + apiTypeClass.getSimpleName() + "-%d"));
+  }
+
+  /** add event callback */
+  @Override
+  public void addEventHandler(ResourceEventHandler<ApiType> handler) {
+    addEventHandlerWithResyncPeriod(handler, defaultEventHandlerResyncPeriod);
+  }
+
+  /** add event callback with a resync period */
+  @Override
+  public void addEventHandlerWithResyncPeriod(
+      ResourceEventHandler<ApiType> handler, long resyncPeriodMillis) {
+    if (stopped) {
+      log.info(
+          "MultiNamespaceSharedIndexInformer#Handler was not added to shared informer because it"
+              + " has stopped already");
+      return;
+    }
+
+    if (resyncPeriodMillis > 0) {
+      if (resyncPeriodMillis < MINIMUM_RESYNC_PERIOD_MILLIS) {
+        log.warn(
+            "MultiNamespaceSharedIndexInformer#resyncPeriod {} is too small. Changing it to the"
+                + " minimum allowed rule of {}",
+            resyncPeriodMillis,
+            MINIMUM_RESYNC_PERIOD_MILLIS);
+        resyncPeriodMillis = MINIMUM_RESYNC_PERIOD_MILLIS;
+      }
+
+      if (resyncPeriodMillis < this.resyncCheckPeriodMillis) {
+        if (started) {
+          log.warn(
+              "MultiNamespaceSharedIndexInformer#resyncPeriod {} is smaller than resyncCheckPeriod"
+                  + " {} and the informer has already started. Changing it to {}",
+              resyncPeriodMillis,
+              resyncCheckPeriodMillis,
+              resyncCheckPeriodMillis);
+          resyncPeriodMillis = resyncCheckPeriodMillis;
+        } else {
+          this.resyncCheckPeriodMillis = resyncPeriodMillis;
+        }
+      }
+    }
+
+    ProcessorListener<ApiType> listener =
+        new ProcessorListener(
+            handler, determineResyncPeriod(resyncPeriodMillis, this.resyncCheckPeriodMillis));
+    if (!started) {
+      this.processor.addListener(listener);
+      return;
+    }
+
+    this.processor.addAndStartListener(listener);
+    List<ApiType> objectList = this.indexer.list();
+    for (Object item : objectList) {
+      listener.add(new ProcessorListener.AddNotification(item));
+    }
+  }
+
+  /**
+   * Resource versions are tracked per namespace, so there's no single last-synced resource version
+   * for the informer. Use {@link #lastSyncResourceVersion(String)} instead.
+   *
+   * @return always empty
+   */
+  @Override
+  public String lastSyncResourceVersion() {
+    return "";
+  }
+
+  /**
+   * Returns the resource version last synced by the reflector of the namespace.
+   *
+   * @param namespace the namespace
+   * @return the resource version, or empty if the informer is not started
+   */
+  public String lastSyncResourceVersion(String namespace) {
+    Controller<ApiType, ApiListType> controller = controllers.get(namespace);
+    if (!started || controller == null) {
+      return "";
+    }
+    return controller.lastSyncResourceVersion();
+  }
+
+  @Override
+  public void setTransform(TransformFunc transformFunc) {
+    if (started) {
+      throw new IllegalStateException("cannot set transform func to a running informer");
+    }
+    this.transform = transformFunc;
+  }
+
+  @Override
+  public void run() {
+    if (started) {
+      return;
+    }
+
+    started = true;
+
+    this.processor.run();
+
+    if (resyncCheckPeriodMillis > 0) {
+      resyncExecutor.scheduleAtFixedRate(
+          this::resync, resyncCheckPeriodMillis, resyncCheckPeriodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    controllerThreads.forEach(Thread::start);
+  }
+
+  @Override
+  public void stop() {
+    if (!started) {
+      return;
+    }
+
+    stopped = true;
+
+    resyncExecutor.shutdownNow();
+    controllers.values().forEach(Controller::stop);
+    controllerThreads.forEach(Thread::interrupt);
+
+    processor.stop();
+  }
+
+  /** hasSynced returns true only if every namespace has synced. */
+  @Override
+  public boolean hasSynced() {
+    for (Controller<ApiType, ApiListType> controller : controllers.values()) {
+      if (!controller.hasSynced()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the namespaces watched by the informer.
+   *
+   * @return the namespaces
+   */
+  public List<String> getNamespaces() {
+    return new ArrayList<>(controllers.keySet());
+  }
+
+  /**
+   * handleDeltas handles deltas popped from any of the namespaced queues and call processor
+   * distribute. It's serialized because the queues are drained by different threads.
+   *
+   * @param deltas deltas
+   */
+  public synchronized void handleDeltas(
+      Deque<MutablePair<DeltaFIFO.DeltaType, KubernetesObject>> deltas) {
+    if (CollectionUtils.isEmpty(deltas)) {
+      return;
+    }
+
+    // from oldest to newest
+    for (MutablePair<DeltaFIFO.DeltaType, KubernetesObject> delta : deltas) {
+      DeltaFIFO.DeltaType deltaType = delta.getLeft();
+      KubernetesObject obj = delta.getRight();
+      if (transform != null) {
+        obj = transform.transform(obj);
+      }
+      switch (deltaType) {
+        case Sync:
+        case Added:
+        case Updated:
+          boolean isSync = deltaType == DeltaFIFO.DeltaType.Sync;
+          Object oldObj = this.indexer.get((ApiType) obj);
+          if (oldObj != null) {
+            this.indexer.update((ApiType) obj);
+            this.processor.distribute(
+                new ProcessorListener.UpdateNotification(oldObj, obj), isSync);
+          } else {
+            this.indexer.add((ApiType) obj);
+            this.processor.distribute(new ProcessorListener.AddNotification(obj), isSync);
+          }
+          break;
+        case Deleted:
+          this.indexer.delete((ApiType) obj);
+          this.processor.distribute(new ProcessorListener.DeleteNotification(obj), false);
+          break;
+      }
+    }
+  }
+
+  @Override
+  public void addIndexers(Map<String, Function<ApiType, List<String>>> indexers) {
+    if (started) {
+      throw new IllegalStateException("cannot add indexers to a running informer");
+    }
+    indexer.addIndexers(indexers);
+  }
+
+  @Override
+  public Indexer getIndexer() {
+    return this.indexer;
+  }
+
+  // resync asks the processor only once per tick, then resyncs every namespace.
+  private void resync() {
+    try {
+      if (!processor.shouldResync()) {
+        return;
+      }
+      queues.values().forEach(DeltaFIFO::resync);
+    } catch (Throwable t) {
+      log.error("MultiNamespaceSharedIndexInformer#resync failed", t);
+    }
+  }
+
+  private long determineResyncPeriod(long desired, long check) {
+    if (desired == 0) {
+      return desired;
+    }
+    if (check == 0) {
+      return 0;
+    }
+    return Math.max(desired, check);
+  }
+
+  /**
+   * NamespacedStore is a read-only view of the shared indexer restricted to one namespace. It's
+   * used as the known objects of a namespaced {@link DeltaFIFO}, which only needs listing keys and
+   * looking up objects by key.
+   */
+  static class NamespacedStore<ApiType extends KubernetesObject> implements Store<ApiType> {
+
+    private final String namespace;
+    private final Indexer<ApiType> indexer;
+
+    NamespacedStore(String namespace, Indexer<ApiType> indexer) {
+      this.namespace = namespace;
+      this.indexer = indexer;
+    }
+
+    @Override
+    public List<String> listKeys() {
+      if (indexer.getIndexers().containsKey(Caches.NAMESPACE_INDEX)) {
+        return indexer.indexKeys(Caches.NAMESPACE_INDEX, namespace);
+      }
+      return indexer.list().stream()
+          .filter(this::inNamespace)
+          .map(obj -> Caches.metaNamespaceKeyFunc(obj))
+          .collect(Collectors.toList());
+    }
+
+    @Override
+    public ApiType getByKey(String key) {
+      ApiType obj = indexer.getByKey(key);
+      return obj != null && inNamespace(obj) ? obj : null;
+    }
+
+    @Override
+    public Object get(ApiType obj) {
+      return inNamespace(obj) ? indexer.get(obj) : null;
+    }
+
+    @Override
+    public List<ApiType> list() {
+      if (indexer.getIndexers().containsKey(Caches.NAMESPACE_INDEX)) {
+        return indexer.byIndex(Caches.NAMESPACE_INDEX, namespace);
+      }
+      return indexer.list().stream().filter(this::inNamespace).collect(Collectors.toList());
+    }
+
+    @Override
+    public void add(ApiType obj) {
+      throw new UnsupportedOperationException("namespaced store is read-only");
+    }
+
+    @Override
+    public void update(ApiType obj) {
+      throw new UnsupportedOperationException("namespaced store is read-only");
+    }
+
+    @Override
+    public void delete(ApiType obj) {
+      throw new UnsupportedOperationException("namespaced store is read-only");
+    }
+
+    @Override
+    public void replace(List<ApiType> list, String resourceVersion) {
+      throw new UnsupportedOperationException("namespaced store is read-only");
+    }
+
+    @Override
+    public void resync() {}
+
+    private boolean inNamespace(KubernetesObject obj) {
+      return obj.getMetadata() != null
+          && Objects.equals(namespace, obj.getMetadata().getNamespace());
+    }
+  }
+}
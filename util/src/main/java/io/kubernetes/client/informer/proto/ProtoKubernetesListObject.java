@@ -0,0 +1,69 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.informer.proto;
+
+import com.google.protobuf.Message;
+import io.kubernetes.client.common.KubernetesListObject;
+import io.kubernetes.client.openapi.models.V1ListMeta;
+import io.kubernetes.client.proto.Meta;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ProtoKubernetesListObject adapts a protocol buffer encoded kubernetes list, e.g. V1.PodList, to
+ * {@link KubernetesListObject}. Every item is wrapped as a {@link ProtoKubernetesObject}.
+ *
+ * @param <T> the protocol buffer message type of the list items
+ */
+public class ProtoKubernetesListObject<T extends Message> implements KubernetesListObject {
+
+  private final String apiVersion;
+  private final String kind;
+  private final V1ListMeta metadata;
+  private final List<ProtoKubernetesObject<T>> items;
+
+  public ProtoKubernetesListObject(
+      Message list, String apiVersion, String kind, String itemApiVersion, String itemKind) {
+    this.apiVersion = apiVersion;
+    this.kind = kind;
+    this.metadata =
+        ProtoMetadata.toV1ListMeta(
+            (Meta.ListMeta) list.getField(ProtoMetadata.field(list, "metadata")));
+    @SuppressWarnings("unchecked")
+    List<T> messages = (List<T>) list.getField(ProtoMetadata.field(list, "items"));
+    this.items = new ArrayList<>(messages.size());
+    for (T message : messages) {
+      items.add(new ProtoKubernetesObject<>(message, itemApiVersion, itemKind));
+    }
+  }
+
+  @Override
+  public V1ListMeta getMetadata() {
+    return metadata;
+  }
+
+  @Override
+  public List<ProtoKubernetesObject<T>> getItems() {
+    return items;
+  }
+
+  @Override
+  public String getApiVersion() {
+    return apiVersion;
+  }
+
+  @Override
+  public String getKind() {
+    return kind;
+  }
+}
@@ -0,0 +1,92 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.informer.proto;
+
+import com.google.protobuf.Message;
+import io.kubernetes.client.common.KubernetesObject;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import io.kubernetes.client.proto.Meta;
+import java.util.Objects;
+
+/**
+ * ProtoKubernetesObject adapts a protocol buffer encoded kubernetes object to {@link
+ * KubernetesObject} so that it can be cached by informers. The object metadata is converted once
+ * upon construction, the underlying message is accessible via {@link #getMessage()}.
+ *
+ * @param <T> the protocol buffer message type, e.g. V1.Pod
+ */
+public class ProtoKubernetesObject<T extends Message> implements KubernetesObject {
+
+  private final T message;
+  private final String apiVersion;
+  private final String kind;
+  private final V1ObjectMeta metadata;
+
+  public ProtoKubernetesObject(T message, String apiVersion, String kind) {
+    this.message = message;
+    this.apiVersion = apiVersion;
+    this.kind = kind;
+    this.metadata =
+        ProtoMetadata.toV1ObjectMeta(
+            (Meta.ObjectMeta) message.getField(ProtoMetadata.field(message, "metadata")));
+  }
+
+  public T getMessage() {
+    return message;
+  }
+
+  @Override
+  public V1ObjectMeta getMetadata() {
+    return metadata;
+  }
+
+  @Override
+  public String getApiVersion() {
+    return apiVersion;
+  }
+
+  @Override
+  public String getKind() {
+    return kind;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    ProtoKubernetesObject<?> that = (ProtoKubernetesObject<?>) o;
+    return Objects.equals(message, that.message)
+        && Objects.equals(apiVersion, that.apiVersion)
+        && Objects.equals(kind, that.kind);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(message, apiVersion, kind);
+  }
+
+  @Override
+  public String toString() {
+    return "ProtoKubernetesObject{apiVersion="
+        + apiVersion
+        + ", kind="
+        + kind
+        + ", metadata="
+        + metadata
+        + "}";
+  }
+}
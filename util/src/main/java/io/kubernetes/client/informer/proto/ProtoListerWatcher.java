@@ -0,0 +1,168 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.informer.proto;
+
+import com.google.protobuf.Message;
+import io.kubernetes.client.ProtoClient;
+import io.kubernetes.client.ProtoClient.ObjectOrStatus;
+import io.kubernetes.client.ProtoClient.WatchEvent;
+import io.kubernetes.client.ProtoWatch;
+import io.kubernetes.client.informer.ListerWatcher;
+import io.kubernetes.client.openapi.ApiException;
+import io.kubernetes.client.openapi.Pair;
+import io.kubernetes.client.util.CallGeneratorParams;
+import io.kubernetes.client.util.Watch;
+import io.kubernetes.client.util.Watchable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * ProtoListerWatcher lists and watches kubernetes resources using protocol buffer encoding, which
+ * is considerably cheaper to decode than json for large collections. The received objects are
+ * wrapped as {@link ProtoKubernetesObject}, use a {@link
+ * io.kubernetes.client.informer.TransformFunc} on the informer if the cache should hold something
+ * else.
+ *
+ * <p>Example:
+ *
+ * <pre>{@code
+ * ProtoListerWatcher<V1.Pod, V1.PodList> lw =
+ *     new ProtoListerWatcher<>(
+ *         protoClient,
+ *         V1.Pod.getDefaultInstance(),
+ *         V1.PodList.getDefaultInstance(),
+ *         "/api/v1/pods",
+ *         "v1",
+ *         "Pod");
+ * }</pre>
+ *
+ * @param <T> the protocol buffer message type of the resource, e.g. V1.Pod
+ * @param <L> the protocol buffer message type of the resource list, e.g. V1.PodList
+ */
+public class ProtoListerWatcher<T extends Message, L extends Message>
+    implements ListerWatcher<ProtoKubernetesObject<T>, ProtoKubernetesListObject<T>> {
+
+  private final ProtoClient protoClient;
+  private final T itemPrototype;
+  private final L listPrototype;
+  private final String path;
+  private final String apiVersion;
+  private final String kind;
+
+  /**
+   * Instantiates a new Proto lister watcher.
+   *
+   * @param protoClient the proto client
+   * @param itemPrototype the default instance of the resource message
+   * @param listPrototype the default instance of the resource list message
+   * @param path the collection path, e.g. /api/v1/namespaces/default/pods
+   * @param apiVersion the api version of the resource, e.g. v1 or apps/v1
+   * @param kind the kind of the resource, e.g. Pod
+   */
+  public ProtoListerWatcher(
+      ProtoClient protoClient,
+      T itemPrototype,
+      L listPrototype,
+      String path,
+      String apiVersion,
+      String kind) {
+    this.protoClient = protoClient;
+    this.itemPrototype = itemPrototype;
+    this.listPrototype = listPrototype;
+    this.path = path;
+    this.apiVersion = apiVersion;
+    this.kind = kind;
+    if (protoClient.getApiClient().getReadTimeout() > 0) {
+      // set read timeout zero to ensure client doesn't time out
+      protoClient.getApiClient().setReadTimeout(0);
+    }
+  }
+
+  @Override
+  public ProtoKubernetesListObject<T> list(CallGeneratorParams params) throws ApiException {
+    ObjectOrStatus<L> result;
+    try {
+      result = protoClient.list(listPrototype.newBuilderForType(), path, queryParams(params));
+    } catch (IOException e) {
+      throw new ApiException(e);
+    }
+    if (result.status != null) {
+      throw new ApiException(result.status.getCode(), result.status.getMessage());
+    }
+    return new ProtoKubernetesListObject<>(
+        result.object, apiVersion, kind + "List", apiVersion, kind);
+  }
+
+  @Override
+  public Watchable<ProtoKubernetesObject<T>> watch(CallGeneratorParams params) throws ApiException {
+    return new ProtoWatchable<>(
+        protoClient.watch(itemPrototype.newBuilderForType(), path, queryParams(params)),
+        apiVersion,
+        kind);
+  }
+
+  private static List<Pair> queryParams(CallGeneratorParams params) {
+    List<Pair> queryParams = new ArrayList<>();
+    if (params.watch != null) {
+      queryParams.add(new Pair("watch", params.watch.toString()));
+    }
+    if (params.resourceVersion != null) {
+      queryParams.add(new Pair("resourceVersion", params.resourceVersion));
+    }
+    if (params.timeoutSeconds != null) {
+      queryParams.add(new Pair("timeoutSeconds", params.timeoutSeconds.toString()));
+    }
+    return queryParams;
+  }
+
+  /** Adapts a {@link ProtoWatch} to the {@link Watchable} consumed by reflectors. */
+  static class ProtoWatchable<T extends Message> implements Watchable<ProtoKubernetesObject<T>> {
+
+    private final ProtoWatch<T> watch;
+    private final String apiVersion;
+    private final String kind;
+
+    ProtoWatchable(ProtoWatch<T> watch, String apiVersion, String kind) {
+      this.watch = watch;
+      this.apiVersion = apiVersion;
+      this.kind = kind;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return watch.hasNext();
+    }
+
+    @Override
+    public Watch.Response<ProtoKubernetesObject<T>> next() {
+      WatchEvent<T> event = watch.next();
+      if (event.status != null) {
+        return new Watch.Response<>(event.type, ProtoMetadata.toV1Status(event.status));
+      }
+      return new Watch.Response<>(
+          event.type, new ProtoKubernetesObject<>(event.object, apiVersion, kind));
+    }
+
+    @Override
+    public Iterator<Watch.Response<ProtoKubernetesObject<T>>> iterator() {
+      return this;
+    }
+
+    @Override
+    public void close() throws IOException {
+      watch.close();
+    }
+  }
+}
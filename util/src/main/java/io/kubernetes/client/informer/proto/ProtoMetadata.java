@@ -0,0 +1,138 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.informer.proto;
+
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.Message;
+import io.kubernetes.client.openapi.models.V1ListMeta;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import io.kubernetes.client.openapi.models.V1OwnerReference;
+import io.kubernetes.client.openapi.models.V1Status;
+import io.kubernetes.client.proto.Meta;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/** Converts protocol buffer encoded meta types into their json model equivalents. */
+final class ProtoMetadata {
+
+  private ProtoMetadata() {}
+
+  static FieldDescriptor field(Message message, String name) {
+    FieldDescriptor field = message.getDescriptorForType().findFieldByName(name);
+    if (field == null) {
+      throw new IllegalArgumentException(
+          message.getDescriptorForType().getFullName() + " has no field " + name);
+    }
+    return field;
+  }
+
+  static V1ObjectMeta toV1ObjectMeta(Meta.ObjectMeta meta) {
+    V1ObjectMeta result = new V1ObjectMeta();
+    if (meta.hasName()) {
+      result.setName(meta.getName());
+    }
+    if (meta.hasGenerateName()) {
+      result.setGenerateName(meta.getGenerateName());
+    }
+    if (meta.hasNamespace()) {
+      result.setNamespace(meta.getNamespace());
+    }
+    if (meta.hasUid()) {
+      result.setUid(meta.getUid());
+    }
+    if (meta.hasResourceVersion()) {
+      result.setResourceVersion(meta.getResourceVersion());
+    }
+    if (meta.hasGeneration()) {
+      result.setGeneration(meta.getGeneration());
+    }
+    if (meta.hasCreationTimestamp()) {
+      result.setCreationTimestamp(toOffsetDateTime(meta.getCreationTimestamp()));
+    }
+    if (meta.hasDeletionTimestamp()) {
+      result.setDeletionTimestamp(toOffsetDateTime(meta.getDeletionTimestamp()));
+    }
+    if (meta.hasDeletionGracePeriodSeconds()) {
+      result.setDeletionGracePeriodSeconds(meta.getDeletionGracePeriodSeconds());
+    }
+    if (meta.getLabelsCount() > 0) {
+      result.setLabels(new HashMap<>(meta.getLabelsMap()));
+    }
+    if (meta.getAnnotationsCount() > 0) {
+      result.setAnnotations(new HashMap<>(meta.getAnnotationsMap()));
+    }
+    if (meta.getFinalizersCount() > 0) {
+      result.setFinalizers(new ArrayList<>(meta.getFinalizersList()));
+    }
+    if (meta.getOwnerReferencesCount() > 0) {
+      List<V1OwnerReference> ownerReferences = new ArrayList<>(meta.getOwnerReferencesCount());
+      for (Meta.OwnerReference ref : meta.getOwnerReferencesList()) {
+        V1OwnerReference ownerReference =
+            new V1OwnerReference()
+                .apiVersion(ref.getApiVersion())
+                .kind(ref.getKind())
+                .name(ref.getName())
+                .uid(ref.getUid());
+        if (ref.hasController()) {
+          ownerReference.setController(ref.getController());
+        }
+        if (ref.hasBlockOwnerDeletion()) {
+          ownerReference.setBlockOwnerDeletion(ref.getBlockOwnerDeletion());
+        }
+        ownerReferences.add(ownerReference);
+      }
+      result.setOwnerReferences(ownerReferences);
+    }
+    return result;
+  }
+
+  static V1ListMeta toV1ListMeta(Meta.ListMeta meta) {
+    V1ListMeta result = new V1ListMeta();
+    if (meta.hasResourceVersion()) {
+      result.setResourceVersion(meta.getResourceVersion());
+    }
+    if (meta.hasContinue()) {
+      result.setContinue(meta.getContinue());
+    }
+    if (meta.hasRemainingItemCount()) {
+      result.setRemainingItemCount(meta.getRemainingItemCount());
+    }
+    return result;
+  }
+
+  static V1Status toV1Status(Meta.Status status) {
+    V1Status result = new V1Status();
+    if (status.hasStatus()) {
+      result.setStatus(status.getStatus());
+    }
+    if (status.hasMessage()) {
+      result.setMessage(status.getMessage());
+    }
+    if (status.hasReason()) {
+      result.setReason(status.getReason());
+    }
+    if (status.hasCode()) {
+      result.setCode(status.getCode());
+    }
+    return result;
+  }
+
+  private static OffsetDateTime toOffsetDateTime(Meta.Time time) {
+    return OffsetDateTime.ofInstant(
+        Instant.ofEpochSecond(time.getSeconds(), time.getNanos()), ZoneOffset.UTC);
+  }
+}
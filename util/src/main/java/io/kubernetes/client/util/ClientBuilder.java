@@ -31,6 +31,7 @@ import io.kubernetes.client.util.credentials.ClientCertificateAuthentication;
 import io.kubernetes.client.util.credentials.KubeconfigAuthentication;
 import io.kubernetes.client.util.credentials.TokenFileAuthentication;
 import io.kubernetes.client.util.exception.CSRNotApprovedException;
+import io.kubernetes.client.util.flowcontrol.FlowControlInterceptor;
 import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
 import java.io.File;
@@ -49,6 +50,7 @@ import java.security.PrivateKey;
 import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
+import okhttp3.OkHttpClient;
 import okhttp3.Protocol;
 import org.apache.commons.compress.utils.IOUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -71,6 +73,8 @@ public class ClientBuilder {
   // default health check is once a minute
   private Duration pingInterval = Duration.ofMinutes(1);
 
+  private FlowControlInterceptor flowControl;
+
   /**
    * Creates an {@link ApiClient} by calling {@link #standard()} and {@link #build()}.
    *
@@ -411,6 +415,22 @@ public class ClientBuilder {
     return this.pingInterval;
   }
 
+  /**
+   * Sets client-side flow control, limiting the request rates and retrying the requests throttled
+   * by the API server.
+   *
+   * @param flowControl the flow control interceptor
+   * @return the client builder
+   */
+  public ClientBuilder setFlowControl(FlowControlInterceptor flowControl) {
+    this.flowControl = flowControl;
+    return this;
+  }
+
+  public FlowControlInterceptor getFlowControl() {
+    return flowControl;
+  }
+
   public String getKeyStorePassphrase() {
     return keyStorePassphrase;
   }
@@ -423,14 +443,17 @@ public class ClientBuilder {
   public ApiClient build() {
     final ApiClient client = new ApiClient();
 
-    client.setHttpClient(
+    OkHttpClient.Builder httpClientBuilder =
         client
             .getHttpClient()
             .newBuilder()
             .protocols(protocols)
             .readTimeout(this.readTimeout)
-            .pingInterval(pingInterval)
-            .build());
+            .pingInterval(pingInterval);
+    if (flowControl != null) {
+      httpClientBuilder.addInterceptor(flowControl);
+    }
+    client.setHttpClient(httpClientBuilder.build());
 
     if (basePath != null) {
       if (basePath.endsWith("/")) {
@@ -21,7 +21,10 @@ public class RetryUtils {
    * Invokes kubernetes api and will retry upon CONFLICT(409) response.
    *
    * <p>Note that this helper method is mostly intended for update calls where CONFLICT can be
-   * returned when updating resources with a stale resource version.
+   * returned when updating resources with a stale resource version. Requests throttled by the API
+   * server (TOO_MANY_REQUESTS) are better retried by a {@link
+   * io.kubernetes.client.util.flowcontrol.FlowControlInterceptor}, which also backs off the other
+   * requests.
    *
    * @param <ApiType> the type parameter
    * @param apiTypeApiInvocation the api type api invocation lambda
@@ -0,0 +1,286 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.util.flowcontrol;
+
+import io.kubernetes.client.apimachinery.KubernetesRequestDigest;
+import io.kubernetes.client.apimachinery.KubernetesResource;
+import io.kubernetes.client.apimachinery.KubernetesVerb;
+import io.kubernetes.client.util.Strings;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Client-side flow control, cooperating with the API server's priority and fairness (APF):
+ *
+ * <ul>
+ *   <li>client-side QPS/burst limits, overall and per verb and resource;
+ *   <li>requests throttled by the API server (HTTP 429) are retried after their Retry-After;
+ *   <li>the Retry-After backs off all the requests of the same APF priority level, as told by the
+ *       X-Kubernetes-PF-PriorityLevel-UID response header, across threads.
+ * </ul>
+ *
+ * <p>Watches and other long-running requests (exec, attach, port-forward, proxy and followed logs)
+ * are exempt, as they don't count against the API server's concurrency limits once established.
+ *
+ * <p>Example usage:
+ *
+ * <pre>{@code
+ * ApiClient client =
+ *     ClientBuilder.standard()
+ *         .setFlowControl(
+ *             new FlowControlInterceptor(50, 100).withLimit(KubernetesVerb.LIST, "pods", 5, 10))
+ *         .build();
+ * }</pre>
+ */
+public class FlowControlInterceptor implements Interceptor {
+
+  private static final Logger log = LoggerFactory.getLogger(FlowControlInterceptor.class);
+
+  public static final String FLOW_SCHEMA_UID_HEADER = "X-Kubernetes-PF-FlowSchema-UID";
+  public static final String PRIORITY_LEVEL_UID_HEADER = "X-Kubernetes-PF-PriorityLevel-UID";
+
+  public static final int DEFAULT_MAX_RETRIES = 3;
+  public static final Duration DEFAULT_MAX_RETRY_AFTER = Duration.ofSeconds(30);
+
+  private static final int TOO_MANY_REQUESTS = 429;
+  private static final Duration DEFAULT_RETRY_AFTER = Duration.ofSeconds(1);
+  // backoff of the requests whose priority level isn't known yet
+  private static final String UNKNOWN_PRIORITY_LEVEL = "";
+  private static final Set<String> LONG_RUNNING_SUBRESOURCES =
+      new HashSet<>(Arrays.asList("exec", "attach", "portforward", "proxy"));
+
+  private final TokenBucketRateLimiter limiter;
+  // limits by "verb resource", "verb *" for all the resources
+  private final Map<String, TokenBucketRateLimiter> limiters = new ConcurrentHashMap<>();
+  // priority level uid learned from the responses, by "verb resource"
+  private final Map<String, String> priorityLevels = new ConcurrentHashMap<>();
+  // nano-time until which the requests of a priority level back off, by priority level uid
+  private final Map<String, AtomicLong> backoffs = new ConcurrentHashMap<>();
+
+  private int maxRetries = DEFAULT_MAX_RETRIES;
+  private Duration maxRetryAfter = DEFAULT_MAX_RETRY_AFTER;
+
+  /** Instantiates a flow-control interceptor without overall client-side limit. */
+  public FlowControlInterceptor() {
+    this.limiter = null;
+  }
+
+  /**
+   * Instantiates a flow-control interceptor limiting all the non-exempt requests.
+   *
+   * @param qps the average number of requests per second
+   * @param burst the maximum number of requests at once
+   */
+  public FlowControlInterceptor(double qps, int burst) {
+    this.limiter = new TokenBucketRateLimiter(qps, burst);
+  }
+
+  /**
+   * Adds a client-side limit for a verb on a resource, on top of the overall limit.
+   *
+   * @param verb the verb
+   * @param resource the resource, e.g. "pods" or "deployments.apps", null for all resources
+   * @param qps the average number of requests per second
+   * @param burst the maximum number of requests at once
+   * @return the interceptor
+   */
+  public FlowControlInterceptor withLimit(
+      KubernetesVerb verb, String resource, double qps, int burst) {
+    limiters.put(
+        key(verb, resource == null ? "*" : resource), new TokenBucketRateLimiter(qps, burst));
+    return this;
+  }
+
+  /**
+   * Sets how many times a throttled request is retried, 0 to return the 429 response right away
+   * while still backing off the following requests.
+   *
+   * @param maxRetries the max retries
+   * @return the interceptor
+   */
+  public FlowControlInterceptor setMaxRetries(int maxRetries) {
+    this.maxRetries = maxRetries;
+    return this;
+  }
+
+  /**
+   * Caps the Retry-After of throttled requests.
+   *
+   * @param maxRetryAfter the max retry after
+   * @return the interceptor
+   */
+  public FlowControlInterceptor setMaxRetryAfter(Duration maxRetryAfter) {
+    this.maxRetryAfter = maxRetryAfter;
+    return this;
+  }
+
+  public int getMaxRetries() {
+    return maxRetries;
+  }
+
+  public Duration getMaxRetryAfter() {
+    return maxRetryAfter;
+  }
+
+  @Override
+  public Response intercept(Chain chain) throws IOException {
+    Request request = chain.request();
+    KubernetesRequestDigest digest;
+    try {
+      digest = KubernetesRequestDigest.parse(request);
+    } catch (IllegalArgumentException e) {
+      // not a kubernetes verb, e.g. HEAD
+      return chain.proceed(request);
+    }
+    if (isLongRunning(request, digest)) {
+      return chain.proceed(request);
+    }
+
+    String key =
+        digest.isNonResourceRequest()
+            ? digest.getUrlPath()
+            : key(digest.getVerb(), resource(digest.getResourceMeta()));
+    boolean replayable = request.body() == null || !request.body().isOneShot();
+    for (int retries = 0; ; retries++) {
+      try {
+        awaitBackoff(priorityLevels.getOrDefault(key, UNKNOWN_PRIORITY_LEVEL));
+        acquire(digest);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted waiting for flow control");
+      }
+
+      Response response = chain.proceed(request);
+      String priorityLevel = response.header(PRIORITY_LEVEL_UID_HEADER);
+      if (priorityLevel != null) {
+        priorityLevels.put(key, priorityLevel);
+      }
+      if (response.code() != TOO_MANY_REQUESTS) {
+        return response;
+      }
+
+      Duration retryAfter = retryAfter(response);
+      backOff(priorityLevel == null ? UNKNOWN_PRIORITY_LEVEL : priorityLevel, retryAfter);
+      if (retries >= maxRetries || !replayable) {
+        return response;
+      }
+      log.debug(
+          "Request {} throttled by flow schema {}, retrying after {}..",
+          digest,
+          response.header(FLOW_SCHEMA_UID_HEADER),
+          retryAfter);
+      response.close();
+    }
+  }
+
+  private void acquire(KubernetesRequestDigest digest) throws InterruptedException {
+    if (limiter != null) {
+      limiter.accept();
+    }
+    if (digest.isNonResourceRequest()) {
+      return;
+    }
+    TokenBucketRateLimiter resourceLimiter =
+        limiters.get(key(digest.getVerb(), resource(digest.getResourceMeta())));
+    if (resourceLimiter == null) {
+      resourceLimiter = limiters.get(key(digest.getVerb(), "*"));
+    }
+    if (resourceLimiter != null) {
+      resourceLimiter.accept();
+    }
+  }
+
+  private void awaitBackoff(String priorityLevel) throws InterruptedException {
+    AtomicLong until = backoffs.get(priorityLevel);
+    if (until == null) {
+      return;
+    }
+    long wait = until.get() - System.nanoTime();
+    if (wait > 0) {
+      TimeUnit.NANOSECONDS.sleep(wait);
+    }
+  }
+
+  private void backOff(String priorityLevel, Duration retryAfter) {
+    long until = System.nanoTime() + retryAfter.toNanos();
+    backoffs
+        .computeIfAbsent(priorityLevel, k -> new AtomicLong(until))
+        .getAndUpdate(current -> until - current > 0 ? until : current);
+  }
+
+  private Duration retryAfter(Response response) {
+    Duration retryAfter = parseRetryAfter(response.header("Retry-After"));
+    if (retryAfter == null || retryAfter.isNegative()) {
+      retryAfter = DEFAULT_RETRY_AFTER;
+    }
+    return retryAfter.compareTo(maxRetryAfter) > 0 ? maxRetryAfter : retryAfter;
+  }
+
+  static Duration parseRetryAfter(String retryAfter) {
+    if (Strings.isNullOrEmpty(retryAfter)) {
+      return null;
+    }
+    try {
+      return Duration.ofSeconds(Long.parseLong(retryAfter.trim()));
+    } catch (NumberFormatException e) {
+      // an http-date then
+    }
+    try {
+      ZonedDateTime date = ZonedDateTime.parse(retryAfter, DateTimeFormatter.RFC_1123_DATE_TIME);
+      return Duration.between(ZonedDateTime.now(date.getZone()), date);
+    } catch (DateTimeParseException e) {
+      return null;
+    }
+  }
+
+  private static boolean isLongRunning(Request request, KubernetesRequestDigest digest) {
+    if (digest.isNonResourceRequest()) {
+      return false;
+    }
+    if (digest.getVerb() == KubernetesVerb.WATCH) {
+      return true;
+    }
+    String subResource = digest.getResourceMeta().getSubResource();
+    if (subResource == null) {
+      return false;
+    }
+    return LONG_RUNNING_SUBRESOURCES.contains(subResource)
+        || ("log".equals(subResource) && "true".equals(request.url().queryParameter("follow")));
+  }
+
+  private static String resource(KubernetesResource resource) {
+    String group = resource.getGroupVersionResource().getGroup();
+    String name = resource.getGroupVersionResource().getResource();
+    return Strings.isNullOrEmpty(group) ? name : name + "." + group;
+  }
+
+  private static String key(KubernetesVerb verb, String resource) {
+    return verb.value() + " " + resource;
+  }
+}
@@ -0,0 +1,82 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.util.flowcontrol;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A lock-free token bucket, implemented as a generic cell rate algorithm: the only state is the
+ * theoretical arrival time of the next token, updated by compare-and-set. Reserving a token always
+ * succeeds, returning how long the caller has to wait for it.
+ *
+ * <p>The rate and capacity are passed on every call, so that the callers can share a rate between
+ * several buckets.
+ */
+public class TokenBucket {
+
+  // nano-time at which the bucket is full again
+  private final AtomicLong theoreticalArrival;
+
+  public TokenBucket(long nowNanos) {
+    this.theoreticalArrival = new AtomicLong(nowNanos);
+  }
+
+  /**
+   * Reserves a token.
+   *
+   * @param nowNanos the current nano-time
+   * @param emissionNanos the interval between two generated tokens
+   * @param burstNanos the capacity of the bucket, in generated tokens times emission interval
+   * @return the nanos to wait for the token
+   */
+  public long reserve(long nowNanos, long emissionNanos, long burstNanos) {
+    while (true) {
+      long current = theoreticalArrival.get();
+      long next = (current - nowNanos > 0 ? current : nowNanos) + emissionNanos;
+      if (theoreticalArrival.compareAndSet(current, next)) {
+        return Math.max(0, next - burstNanos - nowNanos);
+      }
+    }
+  }
+
+  /**
+   * Takes a token if one is available right away.
+   *
+   * @param nowNanos the current nano-time
+   * @param emissionNanos the interval between two generated tokens
+   * @param burstNanos the capacity of the bucket, in generated tokens times emission interval
+   * @return whether a token was taken
+   */
+  public boolean tryReserve(long nowNanos, long emissionNanos, long burstNanos) {
+    while (true) {
+      long current = theoreticalArrival.get();
+      long next = (current - nowNanos > 0 ? current : nowNanos) + emissionNanos;
+      if (next - burstNanos - nowNanos > 0) {
+        return false;
+      }
+      if (theoreticalArrival.compareAndSet(current, next)) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Returns whether no token is reserved ahead anymore.
+   *
+   * @param nowNanos the current nano-time
+   * @return whether the bucket is full
+   */
+  public boolean isFull(long nowNanos) {
+    return theoreticalArrival.get() - nowNanos <= 0;
+  }
+}
@@ -0,0 +1,60 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.util.flowcontrol;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A lock-free token bucket rate limiter, allowing qps requests per second on average and bursts of
+ * up to burst requests.
+ */
+public class TokenBucketRateLimiter {
+
+  private final long emissionNanos;
+  private final long burstNanos;
+  private final TokenBucket bucket;
+
+  /**
+   * @param qps the average number of requests per second
+   * @param burst the maximum number of requests at once
+   */
+  public TokenBucketRateLimiter(double qps, int burst) {
+    if (qps <= 0 || burst <= 0) {
+      throw new IllegalArgumentException("qps and burst must be positive");
+    }
+    this.emissionNanos = (long) (TimeUnit.SECONDS.toNanos(1) / qps);
+    this.burstNanos = burst * emissionNanos;
+    this.bucket = new TokenBucket(System.nanoTime());
+  }
+
+  /**
+   * Blocks until a token is available.
+   *
+   * @throws InterruptedException when interrupted while waiting, the token is consumed anyway
+   */
+  public void accept() throws InterruptedException {
+    long wait = bucket.reserve(System.nanoTime(), emissionNanos, burstNanos);
+    if (wait > 0) {
+      TimeUnit.NANOSECONDS.sleep(wait);
+    }
+  }
+
+  /**
+   * Takes a token if one is available right away.
+   *
+   * @return whether a token was taken
+   */
+  public boolean tryAccept() {
+    return bucket.tryReserve(System.nanoTime(), emissionNanos, burstNanos);
+  }
+}
@@ -602,6 +602,19 @@ public class GenericKubernetesApi<
     return call;
   }
 
+  private Call adaptWatchCall(ApiClient apiClient, Call call, ListOptions listOptions) {
+    // watch events carry singular objects, hence the non-list media type.
+    if (Optional.ofNullable(listOptions)
+        .map(ListOptions::isPartialObjectMetadataListRequest)
+        .orElse(Boolean.FALSE)) {
+      Request request = call.request();
+      return apiClient
+          .getHttpClient()
+          .newCall(request.newBuilder().header("Accept", PARTIAL_OBJECT_METADATA_HEADER).build());
+    }
+    return call;
+  }
+
   /**
    * List kubernetes api response.
    *
@@ -1235,6 +1248,7 @@ public class GenericKubernetesApi<
                 .buildCall(null);
 
     call = tweakCallForCoreV1Group(call);
+    call = adaptWatchCall(customObjectsApi.getApiClient(), call, listOptions);
     return Watch.createWatch(
         customObjectsApi.getApiClient(),
         call,
@@ -1270,6 +1284,7 @@ public class GenericKubernetesApi<
                 .buildCall(null);
 
     call = tweakCallForCoreV1Group(call);
+    call = adaptWatchCall(customObjectsApi.getApiClient(), call, listOptions);
     return Watch.createWatch(
         customObjectsApi.getApiClient(),
         call,
@@ -0,0 +1,111 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.util.generic.metadata;
+
+import com.google.gson.annotations.SerializedName;
+import io.kubernetes.client.common.KubernetesObject;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import java.util.Objects;
+
+/**
+ * V1PartialObjectMetadata is the generic representation of any object with ObjectMeta. It's what
+ * the apiserver returns when the request is sent w/ the "as=PartialObjectMetadata" media type
+ * parameter, see {@link io.kubernetes.client.util.generic.options.GetOptions} and {@link
+ * io.kubernetes.client.util.generic.options.ListOptions}.
+ */
+public class V1PartialObjectMetadata implements KubernetesObject {
+
+  @SerializedName("apiVersion")
+  private String apiVersion;
+
+  @SerializedName("kind")
+  private String kind;
+
+  @SerializedName("metadata")
+  private V1ObjectMeta metadata;
+
+  public V1PartialObjectMetadata apiVersion(String apiVersion) {
+    this.apiVersion = apiVersion;
+    return this;
+  }
+
+  @Override
+  public String getApiVersion() {
+    return apiVersion;
+  }
+
+  public void setApiVersion(String apiVersion) {
+    this.apiVersion = apiVersion;
+  }
+
+  public V1PartialObjectMetadata kind(String kind) {
+    this.kind = kind;
+    return this;
+  }
+
+  @Override
+  public String getKind() {
+    return kind;
+  }
+
+  public void setKind(String kind) {
+    this.kind = kind;
+  }
+
+  public V1PartialObjectMetadata metadata(V1ObjectMeta metadata) {
+    this.metadata = metadata;
+    return this;
+  }
+
+  @Override
+  public V1ObjectMeta getMetadata() {
+    return metadata;
+  }
+
+  public void setMetadata(V1ObjectMeta metadata) {
+    this.metadata = metadata;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    V1PartialObjectMetadata that = (V1PartialObjectMetadata) o;
+    return Objects.equals(apiVersion, that.apiVersion)
+        && Objects.equals(kind, that.kind)
+        && Objects.equals(metadata, that.metadata);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(apiVersion, kind, metadata);
+  }
+
+  @Override
+  public String toString() {
+    return "V1PartialObjectMetadata{"
+        + "apiVersion='"
+        + apiVersion
+        + '\''
+        + ", kind='"
+        + kind
+        + '\''
+        + ", metadata="
+        + metadata
+        + '}';
+  }
+}
@@ -0,0 +1,140 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.util.generic.metadata;
+
+import com.google.gson.annotations.SerializedName;
+import io.kubernetes.client.common.KubernetesListObject;
+import io.kubernetes.client.openapi.models.V1ListMeta;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * V1PartialObjectMetadataList contains a list of objects containing only their metadata. It's what
+ * the apiserver returns when the list request is sent w/ the "as=PartialObjectMetadataList" media
+ * type parameter.
+ */
+public class V1PartialObjectMetadataList implements KubernetesListObject {
+
+  @SerializedName("apiVersion")
+  private String apiVersion;
+
+  @SerializedName("kind")
+  private String kind;
+
+  @SerializedName("metadata")
+  private V1ListMeta metadata;
+
+  @SerializedName("items")
+  private List<V1PartialObjectMetadata> items = new ArrayList<>();
+
+  public V1PartialObjectMetadataList apiVersion(String apiVersion) {
+    this.apiVersion = apiVersion;
+    return this;
+  }
+
+  @Override
+  public String getApiVersion() {
+    return apiVersion;
+  }
+
+  public void setApiVersion(String apiVersion) {
+    this.apiVersion = apiVersion;
+  }
+
+  public V1PartialObjectMetadataList kind(String kind) {
+    this.kind = kind;
+    return this;
+  }
+
+  @Override
+  public String getKind() {
+    return kind;
+  }
+
+  public void setKind(String kind) {
+    this.kind = kind;
+  }
+
+  public V1PartialObjectMetadataList metadata(V1ListMeta metadata) {
+    this.metadata = metadata;
+    return this;
+  }
+
+  @Override
+  public V1ListMeta getMetadata() {
+    return metadata;
+  }
+
+  public void setMetadata(V1ListMeta metadata) {
+    this.metadata = metadata;
+  }
+
+  public V1PartialObjectMetadataList items(List<V1PartialObjectMetadata> items) {
+    this.items = items;
+    return this;
+  }
+
+  public V1PartialObjectMetadataList addItemsItem(V1PartialObjectMetadata item) {
+    if (this.items == null) {
+      this.items = new ArrayList<>();
+    }
+    this.items.add(item);
+    return this;
+  }
+
+  @Override
+  public List<V1PartialObjectMetadata> getItems() {
+    return items;
+  }
+
+  public void setItems(List<V1PartialObjectMetadata> items) {
+    this.items = items;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    V1PartialObjectMetadataList that = (V1PartialObjectMetadataList) o;
+    return Objects.equals(apiVersion, that.apiVersion)
+        && Objects.equals(kind, that.kind)
+        && Objects.equals(metadata, that.metadata)
+        && Objects.equals(items, that.items);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(apiVersion, kind, metadata, items);
+  }
+
+  @Override
+  public String toString() {
+    return "V1PartialObjectMetadataList{"
+        + "apiVersion='"
+        + apiVersion
+        + '\''
+        + ", kind='"
+        + kind
+        + '\''
+        + ", metadata="
+        + metadata
+        + ", items="
+        + items
+        + '}';
+  }
+}
@@ -13,6 +13,8 @@ limitations under the License.
 package io.kubernetes.client;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.absent;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
 import static com.github.tomakehurst.wiremock.client.WireMock.get;
 import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
@@ -32,6 +34,7 @@ import io.kubernetes.client.openapi.models.V1APIVersions;
 import io.kubernetes.client.openapi.models.V1GroupVersionForDiscovery;
 import io.kubernetes.client.util.ClientBuilder;
 import io.kubernetes.client.util.exception.IncompleteDiscoveryException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -39,6 +42,7 @@ import java.util.Set;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 public class DiscoveryTest {
 
@@ -46,6 +50,11 @@ public class DiscoveryTest {
 
   @Rule public WireMockRule wireMockRule = new WireMockRule(options().dynamicPort());
 
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private static final String AGGREGATED_CONTENT_TYPE =
+      "application/json;g=apidiscovery.k8s.io;v=v2;as=APIGroupDiscoveryList";
+
   @Before
   public void setup() {
     apiClient = new ClientBuilder().setBasePath("http://localhost:" + wireMockRule.port()).build();
@@ -272,4 +281,139 @@ public class DiscoveryTest {
     wireMockRule.verify(1, getRequestedFor(urlPathEqualTo(pathSuccess)));
     assertThat(apiResources).hasSize(2);
   }
+
+  @Test
+  public void findAllShouldUseAggregatedDiscoveryWhenServed() throws ApiException {
+    Discovery discovery = new Discovery(apiClient);
+
+    wireMockRule.stubFor(
+        get("/api")
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withHeader("Content-Type", AGGREGATED_CONTENT_TYPE)
+                    .withBody(
+                        "{\"kind\":\"APIGroupDiscoveryList\",\"items\":[{\"metadata\":{},"
+                            + "\"versions\":[{\"version\":\"v1\",\"resources\":["
+                            + "{\"resource\":\"pods\",\"responseKind\":{\"kind\":\"Pod\"},"
+                            + "\"scope\":\"Namespaced\",\"singularResource\":\"pod\","
+                            + "\"subresources\":[{\"subresource\":\"status\"}]}]}]}]}")));
+    wireMockRule.stubFor(
+        get("/apis")
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withHeader("Content-Type", AGGREGATED_CONTENT_TYPE)
+                    .withBody(
+                        "{\"kind\":\"APIGroupDiscoveryList\",\"items\":["
+                            + "{\"metadata\":{\"name\":\"test.com\"},\"versions\":["
+                            + "{\"version\":\"v2\",\"resources\":[{\"resource\":\"firsts\","
+                            + "\"responseKind\":{\"kind\":\"First\"},\"scope\":\"Cluster\","
+                            + "\"singularResource\":\"first\"}]},"
+                            + "{\"version\":\"v1\",\"resources\":[]}]},"
+                            + "{\"metadata\":{\"name\":\"stale.com\"},\"versions\":["
+                            + "{\"version\":\"v1\",\"freshness\":\"Stale\"}]}]}")));
+
+    Set<APIResource> apiResources = null;
+    try {
+      discovery.findAll();
+      failBecauseExceptionWasNotThrown(IncompleteDiscoveryException.class);
+    } catch (IncompleteDiscoveryException e) {
+      apiResources = e.getDiscoveredResources();
+    }
+    wireMockRule.verify(
+        getRequestedFor(urlPathEqualTo("/apis"))
+            .withHeader("Accept", equalTo(AGGREGATED_CONTENT_TYPE + ",application/json")));
+    assertThat(wireMockRule.getAllServeEvents()).hasSize(2);
+    assertThat(apiResources).hasSize(2);
+
+    APIResource pods =
+        apiResources.stream().filter(r -> r.getKind().equals("Pod")).findFirst().get();
+    assertThat(pods.getGroup()).isEmpty();
+    assertThat(pods.getPreferredVersion()).isEqualTo("v1");
+    assertThat(pods.getNamespaced()).isTrue();
+    assertThat(pods.getSubResources()).containsExactly("status");
+    APIResource first =
+        apiResources.stream().filter(r -> r.getKind().equals("First")).findFirst().get();
+    assertThat(first.getGroup()).isEqualTo("test.com");
+    assertThat(first.getVersions()).containsExactly("v2", "v1");
+    assertThat(first.getPreferredVersion()).isEqualTo("v2");
+    assertThat(first.getNamespaced()).isFalse();
+    assertThat(first.getResourceSingular()).isEqualTo("first");
+  }
+
+  @Test
+  public void discoveryShouldBeServedFromCacheAndRevalidated() throws Exception {
+    wireMockRule.stubFor(
+        get(urlPathEqualTo("/foo"))
+            .withHeader("If-None-Match", absent())
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withHeader("Content-Type", "application/json")
+                    .withHeader("ETag", "\"1\"")
+                    .withBody(
+                        apiClient
+                            .getJSON()
+                            .serialize(new V1APIVersions().versions(Arrays.asList("v1", "v2"))))));
+    wireMockRule.stubFor(
+        get(urlPathEqualTo("/foo"))
+            .withHeader("If-None-Match", equalTo("\"1\""))
+            .willReturn(aResponse().withStatus(304)));
+
+    DiscoveryCache cache = new DiscoveryCache(temporaryFolder.getRoot());
+    assertThat(new Discovery(apiClient, cache).versionDiscovery("/foo").getVersions())
+        .containsExactly("v1", "v2");
+    // fresh in the cache shared with another discovery
+    assertThat(new Discovery(apiClient, cache).versionDiscovery("/foo").getVersions())
+        .containsExactly("v1", "v2");
+    wireMockRule.verify(1, getRequestedFor(urlPathEqualTo("/foo")));
+
+    // expired, the server confirms the cached response is still valid
+    DiscoveryCache expiredCache = new DiscoveryCache(temporaryFolder.getRoot(), Duration.ZERO);
+    assertThat(new Discovery(apiClient, expiredCache).versionDiscovery("/foo").getVersions())
+        .containsExactly("v1", "v2");
+    wireMockRule.verify(
+        1,
+        getRequestedFor(urlPathEqualTo("/foo")).withHeader("If-None-Match", equalTo("\"1\"")));
+
+    cache.invalidate();
+    assertThat(cache.get("/foo")).isNull();
+  }
+
+  @Test(timeout = 10000)
+  public void discoveryShouldFailWhenResponseHandlingThrows() {
+    wireMockRule.stubFor(
+        get(urlPathEqualTo("/foo"))
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody(
+                        apiClient
+                            .getJSON()
+                            .serialize(new V1APIVersions().versions(Arrays.asList("v1"))))));
+    IllegalStateException failure = new IllegalStateException("broken cache");
+    DiscoveryCache cache =
+        new DiscoveryCache(temporaryFolder.getRoot()) {
+          @Override
+          public void put(String key, Entry entry) {
+            throw failure;
+          }
+        };
+
+    try {
+      new Discovery(apiClient, cache).versionDiscovery("/foo");
+      failBecauseExceptionWasNotThrown(ApiException.class);
+    } catch (ApiException e) {
+      assertThat(e).hasCause(failure);
+    }
+  }
+
+  @Test
+  public void discoveryCacheShouldBeNamedAfterTheServer() {
+    assertThat(DiscoveryCache.serverDirectoryName("https://10.0.0.1:6443"))
+        .isEqualTo("10.0.0.1_6443");
+    assertThat(DiscoveryCache.serverDirectoryName("https://example.com")).isEqualTo("example.com");
+  }
 }
@@ -0,0 +1,120 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+import com.google.protobuf.Message;
+import io.kubernetes.client.ProtoClient.ObjectOrStatus;
+import io.kubernetes.client.openapi.ApiClient;
+import io.kubernetes.client.openapi.ApiException;
+import io.kubernetes.client.proto.Meta;
+import io.kubernetes.client.proto.Meta.PartialObjectMetadata;
+import io.kubernetes.client.proto.Runtime;
+import io.kubernetes.client.util.ClientBuilder;
+import java.util.List;
+import okio.Buffer;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class ProtoClientTest {
+
+  private static final String PATH = "/api/v1/namespaces/default/configmaps";
+
+  @Rule public WireMockRule wireMockRule = new WireMockRule(wireMockConfig().dynamicPort());
+
+  private ProtoClient protoClient;
+
+  @Before
+  public void setup() {
+    ApiClient apiClient =
+        new ClientBuilder().setBasePath("http://localhost:" + wireMockRule.port()).build();
+    protoClient = new ProtoClient(apiClient);
+  }
+
+  @Test
+  public void testCreateStreamsUnknownEnvelope() throws Exception {
+    StringBuilder large = new StringBuilder();
+    for (int i = 0; i < 256 * 1024; i++) {
+      large.append((char) ('a' + i % 26));
+    }
+    PartialObjectMetadata obj = object("foo", large.toString());
+    stubFor(
+        post(urlPathEqualTo(PATH))
+            .willReturn(aResponse().withStatus(201).withBody(encode(obj, "ConfigMap"))));
+
+    ObjectOrStatus<PartialObjectMetadata> result = protoClient.create(obj, PATH, "v1", "ConfigMap");
+
+    assertThat(result.status).isNull();
+    assertThat(result.object).isEqualTo(obj);
+    List<LoggedRequest> requests = findAll(postRequestedFor(urlPathEqualTo(PATH)));
+    assertThat(requests).hasSize(1);
+    byte[] expected = encode(obj, "ConfigMap");
+    assertThat(requests.get(0).getBody()).isEqualTo(expected);
+    assertThat(requests.get(0).getHeader("Content-Length"))
+        .isEqualTo(String.valueOf(expected.length));
+    assertThat(requests.get(0).getHeader("Content-Type"))
+        .startsWith("application/vnd.kubernetes.protobuf");
+  }
+
+  @Test
+  public void testGetStatus() throws Exception {
+    Meta.Status status =
+        Meta.Status.newBuilder().setStatus("Failure").setCode(404).setReason("NotFound").build();
+    stubFor(
+        get(urlPathEqualTo(PATH + "/foo"))
+            .willReturn(aResponse().withStatus(404).withBody(encode(status, "Status"))));
+
+    ObjectOrStatus<PartialObjectMetadata> result =
+        protoClient.get(PartialObjectMetadata.newBuilder(), PATH + "/foo");
+
+    assertThat(result.object).isNull();
+    assertThat(result.status).isEqualTo(status);
+  }
+
+  @Test
+  public void testBadMagic() {
+    stubFor(get(urlPathEqualTo(PATH + "/foo")).willReturn(aResponse().withBody("{\"kind\":1}")));
+
+    ApiException e =
+        assertThrows(
+            ApiException.class,
+            () -> protoClient.get(PartialObjectMetadata.newBuilder(), PATH + "/foo"));
+    assertThat(e.getMessage()).contains("Unexpected magic number");
+  }
+
+  private static PartialObjectMetadata object(String name, String data) {
+    return PartialObjectMetadata.newBuilder()
+        .setMetadata(
+            Meta.ObjectMeta.newBuilder()
+                .setName(name)
+                .setNamespace("default")
+                .putAnnotations("data", data))
+        .build();
+  }
+
+  private static byte[] encode(Message message, String kind) {
+    Runtime.Unknown unknown =
+        Runtime.Unknown.newBuilder()
+            .setTypeMeta(Runtime.TypeMeta.newBuilder().setApiVersion("v1").setKind(kind))
+            .setRaw(message.toByteString())
+            .build();
+    return new Buffer().write(ProtoClient.MAGIC).write(unknown.toByteArray()).readByteArray();
+  }
+}
@@ -0,0 +1,175 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Message;
+import com.google.protobuf.UnknownFieldSet;
+import io.kubernetes.client.ProtoClient.WatchEvent;
+import io.kubernetes.client.openapi.ApiClient;
+import io.kubernetes.client.openapi.ApiException;
+import io.kubernetes.client.openapi.Pair;
+import io.kubernetes.client.proto.Meta;
+import io.kubernetes.client.proto.Meta.PartialObjectMetadata;
+import io.kubernetes.client.proto.Runtime;
+import io.kubernetes.client.util.ClientBuilder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import okio.Buffer;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class ProtoWatchTest {
+
+  private static final String PATH = "/api/v1/namespaces/default/configmaps";
+
+  @Rule public WireMockRule wireMockRule = new WireMockRule(wireMockConfig().dynamicPort());
+
+  private ProtoClient protoClient;
+
+  @Before
+  public void setup() {
+    ApiClient apiClient =
+        new ClientBuilder().setBasePath("http://localhost:" + wireMockRule.port()).build();
+    protoClient = new ProtoClient(apiClient);
+  }
+
+  @Test
+  public void testReplaysRecordedFrames() throws Exception {
+    StringBuilder large = new StringBuilder();
+    for (int i = 0; i < 64 * 1024; i++) {
+      large.append((char) ('a' + i % 26));
+    }
+    Buffer frames = new Buffer();
+    writeFrame(frames, "ADDED", encode(object("foo", "1", "small"), "ConfigMap"));
+    writeFrame(frames, "MODIFIED", encode(object("foo", "2", large.toString()), "ConfigMap"));
+    writeFrame(frames, "DELETED", encode(object("foo", "3", "small"), "ConfigMap"));
+    writeFrame(
+        frames,
+        "ERROR",
+        encode(Meta.Status.newBuilder().setCode(410).setReason("Expired").build(), "Status"));
+    stubFor(
+        get(urlPathEqualTo(PATH))
+            .withHeader("Accept", equalTo("application/vnd.kubernetes.protobuf;stream=watch"))
+            .withQueryParam("watch", equalTo("true"))
+            .withQueryParam("resourceVersion", equalTo("1"))
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withBody(frames.readByteArray())
+                    // split the frames over several writes to exercise partial reads
+                    .withChunkedDribbleDelay(7, 50)));
+
+    List<WatchEvent<PartialObjectMetadata>> events = new ArrayList<>();
+    try (ProtoWatch<PartialObjectMetadata> watch =
+        protoClient.watch(
+            PartialObjectMetadata.newBuilder(),
+            PATH,
+            Collections.singletonList(new Pair("resourceVersion", "1")))) {
+      for (WatchEvent<PartialObjectMetadata> event : watch) {
+        events.add(event);
+      }
+    }
+
+    assertThat(events)
+        .extracting(e -> e.type)
+        .containsExactly("ADDED", "MODIFIED", "DELETED", "ERROR");
+    assertThat(events.get(0).object.getMetadata().getResourceVersion()).isEqualTo("1");
+    assertThat(events.get(1).object.getMetadata().getAnnotationsMap().get("data"))
+        .isEqualTo(large.toString());
+    assertThat(events.get(2).object.getMetadata().getName()).isEqualTo("foo");
+    assertThat(events.get(3).object).isNull();
+    assertThat(events.get(3).status.getCode()).isEqualTo(410);
+  }
+
+  @Test
+  public void testSkipsUnknownFields() throws Exception {
+    Buffer frames = new Buffer();
+    byte[] event =
+        Meta.WatchEvent.newBuilder()
+            .setType("ADDED")
+            .setObject(
+                Runtime.RawExtension.newBuilder()
+                    .setRaw(ByteString.copyFrom(encode(object("foo", "1", "x"), "ConfigMap"))))
+            .setUnknownFields(
+                UnknownFieldSet.newBuilder()
+                    .addField(15, UnknownFieldSet.Field.newBuilder().addVarint(42).build())
+                    .build())
+            .build()
+            .toByteArray();
+    frames.writeInt(event.length).write(event);
+    stubFor(
+        get(urlPathEqualTo(PATH))
+            .willReturn(aResponse().withStatus(200).withBody(frames.readByteArray())));
+
+    try (ProtoWatch<PartialObjectMetadata> watch =
+        protoClient.watch(PartialObjectMetadata.newBuilder(), PATH, Collections.emptyList())) {
+      WatchEvent<PartialObjectMetadata> added = watch.next();
+      assertThat(added.type).isEqualTo("ADDED");
+      assertThat(added.object.getMetadata().getName()).isEqualTo("foo");
+      assertThat(watch.hasNext()).isFalse();
+    }
+  }
+
+  @Test
+  public void testUnsuccessfulResponse() {
+    stubFor(get(urlPathEqualTo(PATH)).willReturn(aResponse().withStatus(403).withBody("denied")));
+
+    ApiException e =
+        assertThrows(
+            ApiException.class,
+            () ->
+                protoClient.watch(
+                    PartialObjectMetadata.newBuilder(), PATH, Collections.emptyList()));
+    assertThat(e.getCode()).isEqualTo(403);
+    assertThat(e.getResponseBody()).isEqualTo("denied");
+  }
+
+  private static PartialObjectMetadata object(String name, String resourceVersion, String data) {
+    return PartialObjectMetadata.newBuilder()
+        .setMetadata(
+            Meta.ObjectMeta.newBuilder()
+                .setName(name)
+                .setNamespace("default")
+                .setResourceVersion(resourceVersion)
+                .putAnnotations("data", data))
+        .build();
+  }
+
+  private static byte[] encode(Message message, String kind) {
+    Runtime.Unknown unknown =
+        Runtime.Unknown.newBuilder()
+            .setTypeMeta(Runtime.TypeMeta.newBuilder().setApiVersion("v1").setKind(kind))
+            .setRaw(message.toByteString())
+            .build();
+    return new Buffer().write(ProtoClient.MAGIC).write(unknown.toByteArray()).readByteArray();
+  }
+
+  private static void writeFrame(Buffer frames, String type, byte[] object) {
+    byte[] event =
+        Meta.WatchEvent.newBuilder()
+            .setType(type)
+            .setObject(Runtime.RawExtension.newBuilder().setRaw(ByteString.copyFrom(object)))
+            .build()
+            .toByteArray();
+    frames.writeInt(event.length).write(event);
+  }
+}
@@ -20,6 +20,7 @@ import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import io.kubernetes.client.apimachinery.GroupVersionResource;
 import io.kubernetes.client.openapi.ApiException;
 import io.kubernetes.client.openapi.apis.CoreV1Api;
 import io.kubernetes.client.openapi.models.V1ListMeta;
@@ -30,6 +31,7 @@ import io.kubernetes.client.openapi.models.V1PodList;
 import io.kubernetes.client.util.CallGeneratorParams;
 import io.kubernetes.client.util.generic.GenericKubernetesApi;
 import io.kubernetes.client.util.generic.KubernetesApiResponse;
+import io.kubernetes.client.util.generic.metadata.V1PartialObjectMetadata;
 import io.kubernetes.client.util.generic.options.ListOptions;
 import java.time.Duration;
 import org.junit.Test;
@@ -65,6 +67,22 @@ public class SharedInformerFactoryTest {
     factory.stopAllRegisteredInformers();
   }
 
+  @Test
+  public void testMetadataInformersAreKeyedByGroupVersionResource() {
+    SharedInformerFactory factory = new SharedInformerFactory();
+    GroupVersionResource secrets = new GroupVersionResource("", "v1", "secrets");
+    GroupVersionResource configMaps = new GroupVersionResource("", "v1", "configmaps");
+    SharedIndexInformer<V1PartialObjectMetadata> secretInformer =
+        factory.sharedMetadataInformerFor(secrets, 0);
+    SharedIndexInformer<V1PartialObjectMetadata> configMapInformer =
+        factory.sharedMetadataInformerFor(configMaps, 0, "default");
+
+    assertThat(secretInformer).isNotSameAs(configMapInformer);
+    assertThat(factory.getExistingSharedMetadataInformer(secrets)).isSameAs(secretInformer);
+    assertThat(factory.getExistingSharedMetadataInformer(configMaps)).isSameAs(configMapInformer);
+    assertThat(factory.getExistingSharedIndexInformer(V1PartialObjectMetadata.class)).isNull();
+  }
+
   @Test
   public void testClusterScopedNewInformerUsingGenericApi() {
     SharedInformerFactory factory = new SharedInformerFactory();
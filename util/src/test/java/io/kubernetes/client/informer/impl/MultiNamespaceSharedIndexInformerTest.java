@@ -0,0 +1,119 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.informer.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import io.kubernetes.client.informer.EventType;
+import io.kubernetes.client.informer.ListerWatcher;
+import io.kubernetes.client.informer.ResourceEventHandler;
+import io.kubernetes.client.informer.cache.Cache;
+import io.kubernetes.client.informer.cache.MockRunOnceListerWatcher;
+import io.kubernetes.client.openapi.models.V1ListMeta;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import io.kubernetes.client.openapi.models.V1Pod;
+import io.kubernetes.client.openapi.models.V1PodList;
+import io.kubernetes.client.util.Watch;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.awaitility.Awaitility;
+import org.junit.Test;
+
+public class MultiNamespaceSharedIndexInformerTest {
+
+  @Test
+  public void testMergesNamespacesIntoOneCache() {
+    V1Pod pod1 = pod("ns1", "foo", "1");
+    V1Pod pod2 = pod("ns2", "bar", "2");
+    V1Pod pod3 = pod("ns2", "baz", "3");
+
+    Map<String, ListerWatcher<V1Pod, V1PodList>> listerWatchers = new LinkedHashMap<>();
+    listerWatchers.put(
+        "ns1",
+        new MockRunOnceListerWatcher<V1Pod, V1PodList>(
+            new V1PodList().metadata(new V1ListMeta().resourceVersion("1")).addItemsItem(pod1)));
+    listerWatchers.put(
+        "ns2",
+        new MockRunOnceListerWatcher<V1Pod, V1PodList>(
+            new V1PodList().metadata(new V1ListMeta().resourceVersion("2")).addItemsItem(pod2),
+            new Watch.Response<>(EventType.ADDED.name(), pod3)));
+
+    MultiNamespaceSharedIndexInformer<V1Pod, V1PodList> informer =
+        new MultiNamespaceSharedIndexInformer<>(V1Pod.class, listerWatchers, 0);
+
+    Set<String> added = ConcurrentHashMap.newKeySet();
+    informer.addEventHandler(
+        new ResourceEventHandler<V1Pod>() {
+          @Override
+          public void onAdd(V1Pod obj) {
+            added.add(obj.getMetadata().getName());
+          }
+
+          @Override
+          public void onUpdate(V1Pod oldObj, V1Pod newObj) {}
+
+          @Override
+          public void onDelete(V1Pod obj, boolean deletedFinalStateUnknown) {}
+        });
+
+    try {
+      informer.run();
+      Awaitility.await()
+          .atMost(Duration.ofSeconds(5))
+          .pollInterval(Duration.ofMillis(50))
+          .until(() -> informer.hasSynced() && added.size() == 3);
+
+      assertThat(informer.getIndexer().listKeys())
+          .containsExactlyInAnyOrder("ns1/foo", "ns2/bar", "ns2/baz");
+      assertThat(informer.getNamespaces()).containsExactly("ns1", "ns2");
+      assertThat(informer.lastSyncResourceVersion("ns1")).isEqualTo("1");
+      assertThat(informer.lastSyncResourceVersion("ns2")).isEqualTo("3");
+    } finally {
+      informer.stop();
+    }
+  }
+
+  @Test
+  public void testNamespacedStoreOnlySeesItsNamespace() {
+    Cache<V1Pod> cache = new Cache<>();
+    cache.add(pod("ns1", "foo", "1"));
+    cache.add(pod("ns2", "bar", "2"));
+
+    MultiNamespaceSharedIndexInformer.NamespacedStore<V1Pod> store =
+        new MultiNamespaceSharedIndexInformer.NamespacedStore<>("ns1", cache);
+
+    assertThat(store.listKeys()).containsExactly("ns1/foo");
+    assertThat(store.getByKey("ns1/foo")).isNotNull();
+    assertThat(store.getByKey("ns2/bar")).isNull();
+  }
+
+  @Test
+  public void testRequiresNamespaces() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            new MultiNamespaceSharedIndexInformer<V1Pod, V1PodList>(
+                V1Pod.class, Collections.emptyMap(), 0));
+  }
+
+  private static V1Pod pod(String namespace, String name, String resourceVersion) {
+    return new V1Pod()
+        .metadata(
+            new V1ObjectMeta().namespace(namespace).name(name).resourceVersion(resourceVersion));
+  }
+}
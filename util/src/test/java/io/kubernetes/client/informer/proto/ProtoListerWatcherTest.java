@@ -0,0 +1,172 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.informer.proto;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.google.protobuf.Message;
+import io.kubernetes.client.ProtoClient;
+import io.kubernetes.client.openapi.ApiClient;
+import io.kubernetes.client.openapi.ApiException;
+import io.kubernetes.client.proto.Meta;
+import io.kubernetes.client.proto.Meta.PartialObjectMetadata;
+import io.kubernetes.client.proto.Meta.PartialObjectMetadataList;
+import io.kubernetes.client.proto.Runtime;
+import io.kubernetes.client.util.CallGeneratorParams;
+import io.kubernetes.client.util.ClientBuilder;
+import io.kubernetes.client.util.Watch;
+import io.kubernetes.client.util.Watchable;
+import java.io.IOException;
+import okio.Buffer;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class ProtoListerWatcherTest {
+
+  private static final byte[] MAGIC = new byte[] {0x6b, 0x38, 0x73, 0x00};
+
+  @Rule public WireMockRule wireMockRule = new WireMockRule(wireMockConfig().dynamicPort());
+
+  private ProtoListerWatcher<PartialObjectMetadata, PartialObjectMetadataList> listerWatcher;
+
+  @Before
+  public void setup() throws IOException {
+    ApiClient apiClient =
+        new ClientBuilder().setBasePath("http://localhost:" + wireMockRule.port()).build();
+    listerWatcher =
+        new ProtoListerWatcher<>(
+            new ProtoClient(apiClient),
+            PartialObjectMetadata.getDefaultInstance(),
+            PartialObjectMetadataList.getDefaultInstance(),
+            "/api/v1/namespaces/default/pods",
+            "v1",
+            "Pod");
+  }
+
+  @Test
+  public void testList() throws ApiException {
+    PartialObjectMetadataList list =
+        PartialObjectMetadataList.newBuilder()
+            .setMetadata(Meta.ListMeta.newBuilder().setResourceVersion("10"))
+            .addItems(object("foo", "5"))
+            .addItems(object("bar", "6"))
+            .build();
+    stubFor(
+        get(urlPathEqualTo("/api/v1/namespaces/default/pods"))
+            .withHeader("Accept", equalTo("application/vnd.kubernetes.protobuf"))
+            .withQueryParam("resourceVersion", equalTo("0"))
+            .willReturn(aResponse().withStatus(200).withBody(encode(list, "PodList"))));
+
+    ProtoKubernetesListObject<PartialObjectMetadata> result =
+        listerWatcher.list(new CallGeneratorParams(Boolean.FALSE, "0", null));
+
+    assertThat(result.getMetadata().getResourceVersion()).isEqualTo("10");
+    assertThat(result.getItems()).hasSize(2);
+    ProtoKubernetesObject<PartialObjectMetadata> first = result.getItems().get(0);
+    assertThat(first.getKind()).isEqualTo("Pod");
+    assertThat(first.getMetadata().getName()).isEqualTo("foo");
+    assertThat(first.getMetadata().getNamespace()).isEqualTo("default");
+    assertThat(first.getMetadata().getResourceVersion()).isEqualTo("5");
+    assertThat(first.getMetadata().getLabels()).containsEntry("app", "foo");
+    assertThat(first.getMessage()).isEqualTo(list.getItems(0));
+  }
+
+  @Test
+  public void testListStatus() {
+    Meta.Status status =
+        Meta.Status.newBuilder().setStatus("Failure").setCode(403).setMessage("forbidden").build();
+    stubFor(
+        get(urlPathEqualTo("/api/v1/namespaces/default/pods"))
+            .willReturn(aResponse().withStatus(403).withBody(encode(status, "Status"))));
+
+    ApiException e =
+        assertThrows(
+            ApiException.class,
+            () -> listerWatcher.list(new CallGeneratorParams(Boolean.FALSE, "0", null)));
+    assertThat(e.getCode()).isEqualTo(403);
+  }
+
+  @Test
+  public void testWatch() throws Exception {
+    Buffer frames = new Buffer();
+    writeFrame(frames, "ADDED", encode(object("foo", "11"), "Pod"));
+    writeFrame(frames, "DELETED", encode(object("bar", "12"), "Pod"));
+    writeFrame(
+        frames,
+        "ERROR",
+        encode(Meta.Status.newBuilder().setCode(410).setMessage("gone").build(), "Status"));
+    stubFor(
+        get(urlPathEqualTo("/api/v1/namespaces/default/pods"))
+            .withHeader("Accept", equalTo("application/vnd.kubernetes.protobuf;stream=watch"))
+            .withQueryParam("watch", equalTo("true"))
+            .withQueryParam("resourceVersion", equalTo("10"))
+            .willReturn(aResponse().withStatus(200).withBody(frames.readByteArray())));
+
+    try (Watchable<ProtoKubernetesObject<PartialObjectMetadata>> watch =
+        listerWatcher.watch(new CallGeneratorParams(Boolean.TRUE, "10", 300))) {
+      assertThat(watch.hasNext()).isTrue();
+      Watch.Response<ProtoKubernetesObject<PartialObjectMetadata>> added = watch.next();
+      assertThat(added.type).isEqualTo("ADDED");
+      assertThat(added.object.getMetadata().getName()).isEqualTo("foo");
+      assertThat(added.object.getMetadata().getResourceVersion()).isEqualTo("11");
+
+      Watch.Response<ProtoKubernetesObject<PartialObjectMetadata>> deleted = watch.next();
+      assertThat(deleted.type).isEqualTo("DELETED");
+      assertThat(deleted.object.getMetadata().getName()).isEqualTo("bar");
+
+      Watch.Response<ProtoKubernetesObject<PartialObjectMetadata>> error = watch.next();
+      assertThat(error.type).isEqualTo("ERROR");
+      assertThat(error.object).isNull();
+      assertThat(error.status.getCode()).isEqualTo(410);
+
+      assertThat(watch.hasNext()).isFalse();
+    }
+  }
+
+  private static PartialObjectMetadata object(String name, String resourceVersion) {
+    return PartialObjectMetadata.newBuilder()
+        .setMetadata(
+            Meta.ObjectMeta.newBuilder()
+                .setName(name)
+                .setNamespace("default")
+                .setResourceVersion(resourceVersion)
+                .putLabels("app", name))
+        .build();
+  }
+
+  private static byte[] encode(Message message, String kind) {
+    Runtime.Unknown unknown =
+        Runtime.Unknown.newBuilder()
+            .setTypeMeta(Runtime.TypeMeta.newBuilder().setApiVersion("v1").setKind(kind))
+            .setRaw(message.toByteString())
+            .build();
+    return new Buffer().write(MAGIC).write(unknown.toByteArray()).readByteArray();
+  }
+
+  private static void writeFrame(Buffer frames, String type, byte[] object) {
+    byte[] event =
+        Meta.WatchEvent.newBuilder()
+            .setType(type)
+            .setObject(
+                Runtime.RawExtension.newBuilder()
+                    .setRaw(com.google.protobuf.ByteString.copyFrom(object)))
+            .build()
+            .toByteArray();
+    frames.writeInt(event.length).write(event);
+  }
+}
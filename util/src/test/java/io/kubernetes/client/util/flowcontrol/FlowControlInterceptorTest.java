@@ -0,0 +1,161 @@
+/*
+Copyright 2024 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.util.flowcontrol;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import io.kubernetes.client.apimachinery.KubernetesVerb;
+import java.io.IOException;
+import java.time.Duration;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class FlowControlInterceptorTest {
+
+  private static final String PODS = "/api/v1/namespaces/default/pods";
+  private static final String CONFIGMAPS = "/api/v1/namespaces/default/configmaps";
+
+  @Rule public WireMockRule wireMockRule = new WireMockRule(wireMockConfig().dynamicPort());
+
+  @Test
+  public void testRetriesAfterThrottling() throws IOException {
+    stubFor(
+        get(urlPathEqualTo(PODS))
+            .inScenario("throttled")
+            .whenScenarioStateIs(Scenario.STARTED)
+            .willReturn(aResponse().withStatus(429).withHeader("Retry-After", "1"))
+            .willSetStateTo("recovered"));
+    stubFor(
+        get(urlPathEqualTo(PODS))
+            .inScenario("throttled")
+            .whenScenarioStateIs("recovered")
+            .willReturn(aResponse().withStatus(200).withBody("{}")));
+
+    OkHttpClient client = client(new FlowControlInterceptor());
+    long start = System.nanoTime();
+    try (Response response = call(client, PODS)) {
+      assertThat(response.code()).isEqualTo(200);
+    }
+    assertThat(Duration.ofNanos(System.nanoTime() - start))
+        .isGreaterThanOrEqualTo(Duration.ofMillis(900));
+    verify(2, getRequestedFor(urlPathEqualTo(PODS)));
+  }
+
+  @Test
+  public void testBackoffIsSharedByPriorityLevel() throws IOException {
+    stubFor(
+        get(urlPathEqualTo(PODS))
+            .willReturn(
+                aResponse()
+                    .withStatus(429)
+                    .withHeader("Retry-After", "1")
+                    .withHeader(FlowControlInterceptor.PRIORITY_LEVEL_UID_HEADER, "workload-low")));
+    stubFor(
+        get(urlPathEqualTo(CONFIGMAPS))
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withBody("{}")
+                    .withHeader(FlowControlInterceptor.PRIORITY_LEVEL_UID_HEADER, "workload-low")));
+
+    OkHttpClient client = client(new FlowControlInterceptor().setMaxRetries(0));
+    // learns the priority level of configmaps
+    call(client, CONFIGMAPS).close();
+    try (Response response = call(client, PODS)) {
+      assertThat(response.code()).isEqualTo(429);
+    }
+
+    long start = System.nanoTime();
+    call(client, CONFIGMAPS).close();
+    assertThat(Duration.ofNanos(System.nanoTime() - start))
+        .isGreaterThanOrEqualTo(Duration.ofMillis(900));
+  }
+
+  @Test
+  public void testWatchIsExempt() throws IOException {
+    stubFor(
+        get(urlPathEqualTo(PODS))
+            .withQueryParam("watch", equalTo("true"))
+            .willReturn(aResponse().withStatus(200).withBody("")));
+    stubFor(
+        get(urlPathEqualTo(PODS))
+            .withQueryParam("watch", absent())
+            .willReturn(aResponse().withStatus(429).withHeader("Retry-After", "10")));
+
+    OkHttpClient client = client(new FlowControlInterceptor().setMaxRetries(0));
+    call(client, PODS).close();
+
+    long start = System.nanoTime();
+    try (Response response = call(client, PODS + "?watch=true")) {
+      assertThat(response.code()).isEqualTo(200);
+    }
+    assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+  }
+
+  @Test
+  public void testLimitsPerVerbAndResource() throws IOException {
+    stubFor(get(urlPathEqualTo(PODS)).willReturn(aResponse().withStatus(200).withBody("{}")));
+    stubFor(get(urlPathEqualTo(CONFIGMAPS)).willReturn(aResponse().withStatus(200).withBody("{}")));
+
+    OkHttpClient client =
+        client(new FlowControlInterceptor().withLimit(KubernetesVerb.LIST, "pods", 5, 1));
+
+    long start = System.nanoTime();
+    for (int i = 0; i < 5; i++) {
+      call(client, CONFIGMAPS).close();
+    }
+    assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(500));
+
+    start = System.nanoTime();
+    for (int i = 0; i < 5; i++) {
+      call(client, PODS).close();
+    }
+    assertThat(Duration.ofNanos(System.nanoTime() - start))
+        .isGreaterThanOrEqualTo(Duration.ofMillis(700));
+  }
+
+  @Test
+  public void testParseRetryAfter() {
+    assertThat(FlowControlInterceptor.parseRetryAfter("3")).isEqualTo(Duration.ofSeconds(3));
+    assertThat(FlowControlInterceptor.parseRetryAfter("Wed, 21 Oct 2015 07:28:00 GMT"))
+        .isNegative();
+    assertThat(FlowControlInterceptor.parseRetryAfter("soon")).isNull();
+    assertThat(FlowControlInterceptor.parseRetryAfter(null)).isNull();
+  }
+
+  @Test
+  public void testTokenBucketRateLimiter() {
+    TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(0.001, 2);
+    assertThat(limiter.tryAccept()).isTrue();
+    assertThat(limiter.tryAccept()).isTrue();
+    assertThat(limiter.tryAccept()).isFalse();
+  }
+
+  private OkHttpClient client(FlowControlInterceptor interceptor) {
+    return new OkHttpClient.Builder().addInterceptor(interceptor).build();
+  }
+
+  private Response call(OkHttpClient client, String path) throws IOException {
+    return client
+        .newCall(
+            new Request.Builder().url("http://localhost:" + wireMockRule.port() + path).build())
+        .execute();
+  }
+}
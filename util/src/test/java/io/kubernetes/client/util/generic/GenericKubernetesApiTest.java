@@ -30,6 +30,8 @@ import io.kubernetes.client.openapi.models.V1ObjectMeta;
 import io.kubernetes.client.openapi.models.V1Status;
 import io.kubernetes.client.util.ClientBuilder;
 import io.kubernetes.client.util.Watchable;
+import io.kubernetes.client.util.generic.metadata.V1PartialObjectMetadata;
+import io.kubernetes.client.util.generic.metadata.V1PartialObjectMetadataList;
 import io.kubernetes.client.util.generic.options.GetOptions;
 import io.kubernetes.client.util.generic.options.ListOptions;
 import java.io.UncheckedIOException;
@@ -277,6 +279,64 @@ public class GenericKubernetesApiTest {
             .withQueryParam("watch", equalTo("true")));
   }
 
+  @Test
+  public void watchNamespacedJobWithPartialMetadataObjectHeader() throws ApiException {
+    stubFor(
+        get(urlPathEqualTo("/apis/batch/v1/namespaces/default/jobs"))
+            .willReturn(aResponse().withStatus(200).withBody("")));
+    GenericKubernetesApi<V1PartialObjectMetadata, V1PartialObjectMetadataList> metadataClient =
+        new GenericKubernetesApi<>(
+            V1PartialObjectMetadata.class,
+            V1PartialObjectMetadataList.class,
+            "batch",
+            "v1",
+            "jobs",
+            jobClient.getApiClient());
+    metadataClient.watch("default", new ListOptions().isPartialObjectMetadataListRequest(true));
+    verify(
+        1,
+        getRequestedFor(urlPathEqualTo("/apis/batch/v1/namespaces/default/jobs"))
+            .withQueryParam("watch", equalTo("true"))
+            .withHeader(
+                "Accept",
+                equalTo(
+                    "application/json;as=PartialObjectMetadata;g=meta.k8s.io;v=v1,application/json")));
+  }
+
+  @Test
+  public void listNamespacedJobAsPartialObjectMetadata() {
+    stubFor(
+        get(urlPathEqualTo("/apis/batch/v1/namespaces/default/jobs"))
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withBody(
+                        "{\"kind\":\"PartialObjectMetadataList\",\"apiVersion\":\"meta.k8s.io/v1\","
+                            + "\"metadata\":{\"resourceVersion\":\"10\"},"
+                            + "\"items\":[{\"kind\":\"PartialObjectMetadata\","
+                            + "\"apiVersion\":\"meta.k8s.io/v1\","
+                            + "\"metadata\":{\"name\":\"foo1\",\"namespace\":\"default\"}}]}")));
+    GenericKubernetesApi<V1PartialObjectMetadata, V1PartialObjectMetadataList> metadataClient =
+        new GenericKubernetesApi<>(
+            V1PartialObjectMetadata.class,
+            V1PartialObjectMetadataList.class,
+            "batch",
+            "v1",
+            "jobs",
+            jobClient.getApiClient());
+
+    KubernetesApiResponse<V1PartialObjectMetadataList> resp =
+        metadataClient.list("default", new ListOptions().isPartialObjectMetadataListRequest(true));
+    assertThat(resp.isSuccess()).isTrue();
+    assertThat(resp.getObject().getMetadata().getResourceVersion()).isEqualTo("10");
+    assertThat(resp.getObject().getItems())
+        .containsExactly(
+            new V1PartialObjectMetadata()
+                .kind("PartialObjectMetadata")
+                .apiVersion("meta.k8s.io/v1")
+                .metadata(new V1ObjectMeta().name("foo1").namespace("default")));
+  }
+
   @Test
   public void testReadTimeoutShouldThrowException() {
     ApiClient apiClient =